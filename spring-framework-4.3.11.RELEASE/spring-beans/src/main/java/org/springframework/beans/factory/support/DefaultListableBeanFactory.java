@@ -32,19 +32,31 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.inject.Provider;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyValue;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanCurrentlyInCreationException;
@@ -65,10 +77,14 @@ import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.BeanReference;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
 import org.springframework.beans.factory.config.DependencyDescriptor;
 import org.springframework.beans.factory.config.NamedBeanHolder;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.OrderComparator;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.AnnotationUtils;
@@ -139,6 +155,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	}
 
 
+	/** Factory whose singletons the current thread pre-instantiates in parallel, if any */
+	private static final ThreadLocal<DefaultListableBeanFactory> currentBootstrapFactory =
+			new NamedThreadLocal<DefaultListableBeanFactory>("Current bootstrap factory");
+
 	/** Map from serialized id to factory instance */
 	private static final Map<String, Reference<DefaultListableBeanFactory>> serializableFactories =
 			new ConcurrentHashMap<String, Reference<DefaultListableBeanFactory>>(8);
@@ -158,6 +178,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Resolver to use for checking if a bean definition is an autowire candidate */
 	private AutowireCandidateResolver autowireCandidateResolver = new SimpleAutowireCandidateResolver();
 
+	/** Optional Executor for pre-instantiating independent singletons in parallel */
+	private Executor bootstrapExecutor;
+
 	/** Map from dependency type to corresponding autowired value */
 	private final Map<Class<?>, Object> resolvableDependencies = new ConcurrentHashMap<Class<?>, Object>(16);
 
@@ -182,6 +205,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Whether bean definition metadata may be cached for all beans */
 	private volatile boolean configurationFrozen = false;
 
+	/** Index of candidate bean definition names by type in case of frozen configuration */
+	private volatile BeanTypeIndex beanTypeIndex;
+
 
 	/**
 	 * Create a new DefaultListableBeanFactory.
@@ -314,6 +340,32 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.autowireCandidateResolver;
 	}
 
+	/**
+	 * Set an {@link Executor} for pre-instantiating singletons in parallel.
+	 * <p>Default is none, pre-instantiating all singletons sequentially in the
+	 * calling thread. If specified, non-lazy singletons which are not linked
+	 * to each other through their bean definitions (bean references, inner
+	 * beans, factory beans, "depends-on" declarations) get pre-instantiated
+	 * in separate tasks on the given Executor, whereas linked singletons
+	 * still get pre-instantiated sequentially in registration order.
+	 * <p>Dependencies which are only discovered at runtime (e.g. autowiring)
+	 * are coordinated between the bootstrap threads: a thread requesting a
+	 * singleton currently in creation in another thread waits for it.
+	 * @since 4.3.12
+	 * @see #preInstantiateSingletons()
+	 */
+	public void setBootstrapExecutor(Executor bootstrapExecutor) {
+		this.bootstrapExecutor = bootstrapExecutor;
+	}
+
+	/**
+	 * Return the Executor for pre-instantiating singletons in parallel, if any.
+	 * @since 4.3.12
+	 */
+	public Executor getBootstrapExecutor() {
+		return this.bootstrapExecutor;
+	}
+
 
 	@Override
 	public void copyConfigurationFrom(ConfigurableBeanFactory otherFactory) {
@@ -323,6 +375,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
 			this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
 			this.dependencyComparator = otherListableFactory.dependencyComparator;
+			this.bootstrapExecutor = otherListableFactory.bootstrapExecutor;
 			// A clone of the AutowireCandidateResolver since it is potentially BeanFactoryAware...
 			setAutowireCandidateResolver(BeanUtils.instantiateClass(getAutowireCandidateResolver().getClass()));
 			// Make resolvable dependencies (e.g. ResourceLoader) available here as well...
@@ -410,8 +463,8 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	private String[] doGetBeanNamesForType(ResolvableType type, boolean includeNonSingletons, boolean allowEagerInit) {
 		List<String> result = new ArrayList<String>();
 
-		// Check all bean definitions.
-		for (String beanName : this.beanDefinitionNames) {
+		// Check all bean definitions (or the candidates among them, if indexed).
+		for (String beanName : getCandidateBeanNames(type)) {
 			// Only consider bean as eligible if the bean name
 			// is not defined as alias for some other bean.
 			if (!isAlias(beanName)) {
@@ -492,6 +545,107 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return StringUtils.toStringArray(result);
 	}
 
+	/**
+	 * Determine the bean definition names to check against the given type,
+	 * in registration order.
+	 * <p>Once the configuration is frozen, a {@link BeanTypeIndex} narrows the
+	 * bean definitions down to those that may possibly match the raw type:
+	 * that is, a superset of the actual matches which then get determined
+	 * through the regular type matching algorithm. Bean definitions registered,
+	 * overridden or removed afterwards are applied to the index incrementally.
+	 * @param type the type to match
+	 * @return the candidate bean definition names
+	 */
+	private Collection<String> getCandidateBeanNames(ResolvableType type) {
+		Class<?> rawType = type.resolve();
+		if (!isConfigurationFrozen() || getTempClassLoader() != null ||
+				rawType == null || rawType == Object.class || rawType.isArray() || rawType.isPrimitive()) {
+			return this.beanDefinitionNames;
+		}
+		BeanTypeIndex index = this.beanTypeIndex;
+		if (index == null) {
+			index = buildBeanTypeIndex();
+		}
+		else if (index.hasPendingBeanNames()) {
+			indexPendingBeanNames(index);
+		}
+		return index.getCandidateBeanNames(rawType);
+	}
+
+	/**
+	 * Build a {@link BeanTypeIndex} for the current bean definitions, based on
+	 * their predicted types. Beans whose type cannot be reliably predicted upfront
+	 * (FactoryBeans, non-singletons, decorated definitions) are registered as
+	 * candidates for any type.
+	 */
+	private BeanTypeIndex buildBeanTypeIndex() {
+		List<String> beanNames = this.beanDefinitionNames;
+		BeanTypeIndex index = new BeanTypeIndex(beanNames);
+		// Publish early: singletons created in the meantime register their actual types.
+		this.beanTypeIndex = index;
+		for (String beanName : beanNames) {
+			indexBeanDefinition(index, beanName);
+		}
+		index.setComplete();
+		return index;
+	}
+
+	/**
+	 * Apply bean definitions registered or overridden since the given
+	 * {@link BeanTypeIndex} has been built.
+	 */
+	private void indexPendingBeanNames(BeanTypeIndex index) {
+		index.startIndexing();
+		try {
+			String beanName;
+			while ((beanName = index.pollPendingBeanName()) != null) {
+				indexBeanDefinition(index, beanName);
+			}
+		}
+		finally {
+			index.stopIndexing();
+		}
+	}
+
+	/**
+	 * Register the predicted type of the given bean definition with the given
+	 * {@link BeanTypeIndex}, or the bean as candidate for any type if its type
+	 * cannot be reliably predicted upfront.
+	 */
+	private void indexBeanDefinition(BeanTypeIndex index, String beanName) {
+		try {
+			RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+			if (mbd.isAbstract()) {
+				return;
+			}
+			if (!mbd.isSingleton() || mbd.getDecoratedDefinition() != null) {
+				index.registerAnyType(beanName);
+				return;
+			}
+			Class<?> beanType = predictBeanType(beanName, mbd, FactoryBean.class, Object.class);
+			if (beanType == null || beanType.isArray() || FactoryBean.class.isAssignableFrom(beanType)) {
+				index.registerAnyType(beanName);
+				return;
+			}
+			index.registerType(beanName, beanType);
+			ResolvableType resolvableType = mbd.targetType;
+			if (resolvableType == null) {
+				resolvableType = mbd.factoryMethodReturnType;
+			}
+			if (resolvableType != null && resolvableType.resolve() != null) {
+				index.registerType(beanName, resolvableType.resolve());
+			}
+			Object beanInstance = getSingleton(beanName, false);
+			if (beanInstance != null) {
+				index.registerInstance(beanName, beanInstance);
+			}
+		}
+		catch (BeansException ex) {
+			// Type not determinable at this point: to be checked for any type.
+			index.registerAnyType(beanName);
+		}
+	}
+
 	/**
 	 * Check whether the specified bean would need to be eagerly initialized
 	 * in order to determine its type.
@@ -700,6 +854,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	@Override
 	public void clearMetadataCache() {
 		super.clearMetadataCache();
+		this.beanTypeIndex = null;
 		clearByTypeCache();
 	}
 
@@ -707,6 +862,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	public void freezeConfiguration() {
 		this.configurationFrozen = true;
 		this.frozenBeanDefinitionNames = StringUtils.toStringArray(this.beanDefinitionNames);
+		this.beanTypeIndex = null;
 	}
 
 	@Override
@@ -741,30 +897,15 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		List<String> beanNames = new ArrayList<String>(this.beanDefinitionNames);
 
 		// Trigger initialization of all non-lazy singleton beans...
-		for (String beanName : beanNames) {
-			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
-			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-				if (isFactoryBean(beanName)) {
-					final FactoryBean<?> factory = (FactoryBean<?>) getBean(FACTORY_BEAN_PREFIX + beanName);
-					boolean isEagerInit;
-					if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
-						isEagerInit = AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
-							@Override
-							public Boolean run() {
-								return ((SmartFactoryBean<?>) factory).isEagerInit();
-							}
-						}, getAccessControlContext());
-					}
-					else {
-						isEagerInit = (factory instanceof SmartFactoryBean &&
-								((SmartFactoryBean<?>) factory).isEagerInit());
-					}
-					if (isEagerInit) {
-						getBean(beanName);
-					}
-				}
-				else {
-					getBean(beanName);
+		Executor executor = getBootstrapExecutor();
+		if (executor != null) {
+			preInstantiateSingletonsInParallel(beanNames, executor);
+		}
+		else {
+			for (String beanName : beanNames) {
+				RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+				if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+					preInstantiateSingleton(beanName);
 				}
 			}
 		}
@@ -791,6 +932,253 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	}
 
 
+	/**
+	 * Pre-instantiate the specified non-lazy singleton, taking
+	 * {@link SmartFactoryBean#isEagerInit()} into account for FactoryBeans.
+	 * @param beanName the name of the bean
+	 */
+	private void preInstantiateSingleton(String beanName) {
+		if (isFactoryBean(beanName)) {
+			final FactoryBean<?> factory = (FactoryBean<?>) getBean(FACTORY_BEAN_PREFIX + beanName);
+			boolean isEagerInit;
+			if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
+				isEagerInit = AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
+					@Override
+					public Boolean run() {
+						return ((SmartFactoryBean<?>) factory).isEagerInit();
+					}
+				}, getAccessControlContext());
+			}
+			else {
+				isEagerInit = (factory instanceof SmartFactoryBean &&
+						((SmartFactoryBean<?>) factory).isEagerInit());
+			}
+			if (isEagerInit) {
+				getBean(beanName);
+			}
+		}
+		else {
+			getBean(beanName);
+		}
+	}
+
+	/**
+	 * Pre-instantiate the non-lazy singletons among the given bean names on the
+	 * given Executor, grouping singletons which are linked through their bean
+	 * definitions into one sequential task per group.
+	 * <p>Waits for all tasks to complete. If several singletons failed, the
+	 * failure of the singleton registered first gets rethrown, independent
+	 * of the order in which the tasks happened to fail.
+	 * @param beanNames the bean names in registration order
+	 * @param executor the Executor to run the tasks on
+	 */
+	private void preInstantiateSingletonsInParallel(List<String> beanNames, Executor executor) {
+		Map<String, Integer> candidates = new LinkedHashMap<String, Integer>(beanNames.size());
+		for (String beanName : beanNames) {
+			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+				candidates.put(beanName, candidates.size());
+			}
+		}
+
+		List<List<String>> groups = groupLinkedSingletons(candidates);
+		if (this.logger.isDebugEnabled()) {
+			this.logger.debug("Pre-instantiating " + candidates.size() + " singletons in " +
+					groups.size() + " independent groups using " + executor);
+		}
+
+		List<SingletonGroupInstantiation> instantiations = new ArrayList<SingletonGroupInstantiation>(groups.size());
+		List<FutureTask<Object>> futures = new ArrayList<FutureTask<Object>>(groups.size());
+		for (List<String> group : groups) {
+			SingletonGroupInstantiation instantiation = new SingletonGroupInstantiation(group);
+			FutureTask<Object> future = new FutureTask<Object>(instantiation);
+			instantiations.add(instantiation);
+			futures.add(future);
+			try {
+				executor.execute(future);
+			}
+			catch (RejectedExecutionException ex) {
+				if (this.logger.isDebugEnabled()) {
+					this.logger.debug("Executor rejected pre-instantiation of " + group + " - running in calling thread");
+				}
+				future.run();
+			}
+		}
+
+		String failedBeanName = null;
+		Throwable failure = null;
+		for (int i = 0; i < futures.size(); i++) {
+			try {
+				futures.get(i).get();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new BeanCreationException("Interrupted while waiting for parallel pre-instantiation of singletons");
+			}
+			catch (ExecutionException ex) {
+				String currentBeanName = instantiations.get(i).getCurrentBeanName();
+				if (failure == null || candidates.get(currentBeanName) < candidates.get(failedBeanName)) {
+					if (failure != null && this.logger.isDebugEnabled()) {
+						this.logger.debug("Pre-instantiation of singleton '" + failedBeanName + "' failed as well", failure);
+					}
+					failedBeanName = currentBeanName;
+					failure = ex.getCause();
+				}
+				else if (this.logger.isDebugEnabled()) {
+					this.logger.debug("Pre-instantiation of singleton '" + currentBeanName +
+							"' failed as well", ex.getCause());
+				}
+			}
+		}
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		}
+		if (failure instanceof Error) {
+			throw (Error) failure;
+		}
+		if (failure != null) {
+			throw new BeanCreationException(failedBeanName, "Pre-instantiation failed", failure);
+		}
+	}
+
+	/**
+	 * Partition the given singletons into groups of singletons which are linked
+	 * to each other through their bean definitions, directly or through beans
+	 * which are not part of the given singletons themselves.
+	 * @param candidates the singleton names (in registration order) to group
+	 * @return the groups, each in registration order, ordered by their first bean
+	 */
+	private List<List<String>> groupLinkedSingletons(Map<String, Integer> candidates) {
+		Map<String, String> groupRoots = new LinkedHashMap<String, String>(candidates.size());
+		for (String beanName : candidates.keySet()) {
+			groupRoots.put(beanName, beanName);
+		}
+		for (String beanName : candidates.keySet()) {
+			Set<String> visited = new LinkedHashSet<String>();
+			visited.add(beanName);
+			Set<String> linked = new LinkedHashSet<String>();
+			collectLinkedBeanNames(beanName, visited, linked);
+			for (String linkedName : linked) {
+				if (candidates.containsKey(linkedName)) {
+					String root = findGroupRoot(groupRoots, beanName);
+					String linkedRoot = findGroupRoot(groupRoots, linkedName);
+					if (!root.equals(linkedRoot)) {
+						// Keep the earliest registered bean as root of the merged group
+						if (candidates.get(root) < candidates.get(linkedRoot)) {
+							groupRoots.put(linkedRoot, root);
+						}
+						else {
+							groupRoots.put(root, linkedRoot);
+						}
+					}
+				}
+			}
+		}
+		Map<String, List<String>> groups = new LinkedHashMap<String, List<String>>();
+		for (String beanName : candidates.keySet()) {
+			String root = findGroupRoot(groupRoots, beanName);
+			List<String> group = groups.get(root);
+			if (group == null) {
+				group = new ArrayList<String>();
+				groups.put(root, group);
+			}
+			group.add(beanName);
+		}
+		return new ArrayList<List<String>>(groups.values());
+	}
+
+	private String findGroupRoot(Map<String, String> groupRoots, String beanName) {
+		String root = beanName;
+		String parent = groupRoots.get(root);
+		while (!parent.equals(root)) {
+			root = parent;
+			parent = groupRoots.get(root);
+		}
+		groupRoots.put(beanName, root);
+		return root;
+	}
+
+	/**
+	 * Collect the names of all beans that the specified bean is linked to through
+	 * its bean definition, transitively through beans without a local bean definition
+	 * of their own (and through non-candidate beans such as lazy-init beans).
+	 */
+	private void collectLinkedBeanNames(String beanName, Set<String> visited, Set<String> linked) {
+		Set<String> referencedNames = new LinkedHashSet<String>();
+		if (containsBeanDefinition(beanName)) {
+			RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+			collectReferencedBeanNames(mbd, referencedNames);
+		}
+		String[] dependencies = getDependenciesForBean(beanName);
+		referencedNames.addAll(Arrays.asList(dependencies));
+		for (String referencedName : referencedNames) {
+			String canonicalName = canonicalName(BeanFactoryUtils.transformedBeanName(referencedName));
+			if (visited.add(canonicalName)) {
+				linked.add(canonicalName);
+				collectLinkedBeanNames(canonicalName, visited, linked);
+			}
+		}
+	}
+
+	private void collectReferencedBeanNames(BeanDefinition bd, Set<String> referencedNames) {
+		String[] dependsOn = bd.getDependsOn();
+		if (dependsOn != null) {
+			referencedNames.addAll(Arrays.asList(dependsOn));
+		}
+		if (bd.getFactoryBeanName() != null) {
+			referencedNames.add(bd.getFactoryBeanName());
+		}
+		for (PropertyValue pv : bd.getPropertyValues().getPropertyValues()) {
+			collectReferencedBeanNames(pv.getValue(), referencedNames);
+		}
+		ConstructorArgumentValues cas = bd.getConstructorArgumentValues();
+		for (ConstructorArgumentValues.ValueHolder valueHolder : cas.getIndexedArgumentValues().values()) {
+			collectReferencedBeanNames(valueHolder.getValue(), referencedNames);
+		}
+		for (ConstructorArgumentValues.ValueHolder valueHolder : cas.getGenericArgumentValues()) {
+			collectReferencedBeanNames(valueHolder.getValue(), referencedNames);
+		}
+	}
+
+	private void collectReferencedBeanNames(Object value, Set<String> referencedNames) {
+		if (value instanceof BeanReference) {
+			referencedNames.add(((BeanReference) value).getBeanName());
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			collectReferencedBeanNames(((BeanDefinitionHolder) value).getBeanDefinition(), referencedNames);
+		}
+		else if (value instanceof BeanDefinition) {
+			collectReferencedBeanNames((BeanDefinition) value, referencedNames);
+		}
+		else if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				collectReferencedBeanNames(element, referencedNames);
+			}
+		}
+		else if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				collectReferencedBeanNames(entry.getKey(), referencedNames);
+				collectReferencedBeanNames(entry.getValue(), referencedNames);
+			}
+		}
+		else if (value instanceof Object[]) {
+			for (Object element : (Object[]) value) {
+				collectReferencedBeanNames(element, referencedNames);
+			}
+		}
+	}
+
+	/**
+	 * This implementation returns {@code true} for threads which currently
+	 * pre-instantiate singletons of this factory in parallel.
+	 * @see #setBootstrapExecutor
+	 */
+	@Override
+	protected boolean isConcurrentSingletonCreationThread() {
+		return (currentBootstrapFactory.get() == this);
+	}
+
+
 	//---------------------------------------------------------------------
 	// Implementation of BeanDefinitionRegistry interface
 	//---------------------------------------------------------------------
@@ -879,6 +1267,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 				this.manualSingletonNames.remove(beanName);
 			}
 			this.frozenBeanDefinitionNames = null;
+			BeanTypeIndex index = this.beanTypeIndex;
+			if (index != null) {
+				index.addBeanName(beanName, this.beanDefinitionNames);
+			}
 		}
 
 		if (oldBeanDefinition != null || containsSingleton(beanName)) {
@@ -912,6 +1304,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			this.beanDefinitionNames.remove(beanName);
 		}
 		this.frozenBeanDefinitionNames = null;
+		BeanTypeIndex index = this.beanTypeIndex;
+		if (index != null) {
+			index.removeBeanName(beanName, this.beanDefinitionNames);
+		}
 
 		resetBeanDefinition(beanName);
 	}
@@ -924,6 +1320,11 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	protected void resetBeanDefinition(String beanName) {
 		// Remove the merged bean definition for the given bean, if already created.
 		clearMergedBeanDefinition(beanName);
+		BeanTypeIndex index = this.beanTypeIndex;
+		if (index != null) {
+			// Predict the type of the (possibly overridden) bean definition again.
+			index.refreshBeanName(beanName);
+		}
 
 		// Remove corresponding bean from singleton cache, if any. Shouldn't usually
 		// be necessary, rather just meant for overriding a context's default beans
@@ -988,6 +1389,33 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		clearByTypeCache();
 	}
 
+	@Override
+	public void addBeanPostProcessor(BeanPostProcessor beanPostProcessor) {
+		super.addBeanPostProcessor(beanPostProcessor);
+		// Type predictions may change through a SmartInstantiationAwareBeanPostProcessor.
+		this.beanTypeIndex = null;
+	}
+
+	@Override
+	protected void addSingleton(String beanName, Object singletonObject) {
+		// Index the actual type before exposing the instance for type matching.
+		BeanTypeIndex index = this.beanTypeIndex;
+		if (index != null && singletonObject != null) {
+			index.registerInstance(beanName, singletonObject);
+		}
+		super.addSingleton(beanName, singletonObject);
+	}
+
+	@Override
+	protected Object getEarlyBeanReference(String beanName, RootBeanDefinition mbd, Object bean) {
+		Object exposedObject = super.getEarlyBeanReference(beanName, mbd, bean);
+		BeanTypeIndex index = this.beanTypeIndex;
+		if (index != null && exposedObject != null) {
+			index.registerInstance(beanName, exposedObject);
+		}
+		return exposedObject;
+	}
+
 	/**
 	 * Remove any assumptions about by-type mappings.
 	 */
@@ -1807,4 +2235,189 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		}
 	}
 
+
+	/**
+	 * Index of bean definition names by the types that they may match:
+	 * all superclasses and interfaces of their predicted types as well as of
+	 * their actual instances. Beans without reliable type prediction are
+	 * candidates for any type. Registered types are only ever added, so the
+	 * index always yields a superset of the actual matches for a given type.
+	 * Candidates are kept per type in registration order, along with the
+	 * candidates for any type, so that lookups neither copy nor sort them.
+	 * Modifications are synchronized on the index itself.
+	 * Bean definitions added or refreshed after the index has been built are
+	 * pending until indexed: meanwhile, all bean definitions are candidates.
+	 */
+	private static class BeanTypeIndex {
+
+		private final Map<String, Integer> positions;
+
+		/** Candidates by type, including those for any type, keyed by registration position */
+		private final Map<Class<?>, NavigableMap<Integer, String>> beanNamesByType =
+				new ConcurrentHashMap<Class<?>, NavigableMap<Integer, String>>(256);
+
+		private final NavigableMap<Integer, String> anyTypeBeanNames = new ConcurrentSkipListMap<Integer, String>();
+
+		private final Map<Class<?>, Set<Class<?>>> typeHierarchies = new HashMap<Class<?>, Set<Class<?>>>(256);
+
+		private final Queue<String> pendingBeanNames = new ConcurrentLinkedQueue<String>();
+
+		private final AtomicInteger indexingCount = new AtomicInteger();
+
+		private volatile List<String> allBeanNames;
+
+		private int nextPosition;
+
+		private volatile boolean complete = false;
+
+		public BeanTypeIndex(List<String> beanNames) {
+			this.allBeanNames = beanNames;
+			this.positions = new ConcurrentHashMap<String, Integer>(beanNames.size());
+			for (String beanName : beanNames) {
+				this.positions.put(beanName, this.nextPosition++);
+			}
+		}
+
+		public synchronized void registerType(String beanName, Class<?> type) {
+			Integer position = this.positions.get(beanName);
+			if (position == null) {
+				// Removed in the meantime.
+				return;
+			}
+			Set<Class<?>> hierarchy = this.typeHierarchies.get(type);
+			if (hierarchy == null) {
+				hierarchy = new LinkedHashSet<Class<?>>();
+				collectTypeHierarchy(type, hierarchy);
+				this.typeHierarchies.put(type, hierarchy);
+			}
+			for (Class<?> candidateType : hierarchy) {
+				NavigableMap<Integer, String> beanNames = this.beanNamesByType.get(candidateType);
+				if (beanNames == null) {
+					beanNames = new ConcurrentSkipListMap<Integer, String>(this.anyTypeBeanNames);
+					this.beanNamesByType.put(candidateType, beanNames);
+				}
+				beanNames.put(position, beanName);
+			}
+		}
+
+		private void collectTypeHierarchy(Class<?> type, Set<Class<?>> hierarchy) {
+			if (type != null && hierarchy.add(type)) {
+				collectTypeHierarchy(type.getSuperclass(), hierarchy);
+				for (Class<?> ifc : type.getInterfaces()) {
+					collectTypeHierarchy(ifc, hierarchy);
+				}
+			}
+		}
+
+		public void registerInstance(String beanName, Object beanInstance) {
+			if (!this.positions.containsKey(beanName)) {
+				// Manually registered singleton: not subject to this index.
+				return;
+			}
+			if (beanInstance instanceof FactoryBean || beanInstance.getClass().isArray()) {
+				registerAnyType(beanName);
+			}
+			else {
+				registerType(beanName, beanInstance.getClass());
+			}
+		}
+
+		public synchronized void registerAnyType(String beanName) {
+			Integer position = this.positions.get(beanName);
+			if (position != null && this.anyTypeBeanNames.put(position, beanName) == null) {
+				for (NavigableMap<Integer, String> beanNames : this.beanNamesByType.values()) {
+					beanNames.put(position, beanName);
+				}
+			}
+		}
+
+		public void setComplete() {
+			this.complete = true;
+		}
+
+		public synchronized void addBeanName(String beanName, List<String> allBeanNames) {
+			if (!this.positions.containsKey(beanName)) {
+				this.positions.put(beanName, this.nextPosition++);
+			}
+			this.allBeanNames = allBeanNames;
+			this.pendingBeanNames.add(beanName);
+		}
+
+		public void refreshBeanName(String beanName) {
+			if (this.positions.containsKey(beanName)) {
+				this.pendingBeanNames.add(beanName);
+			}
+		}
+
+		public synchronized void removeBeanName(String beanName, List<String> allBeanNames) {
+			Integer position = this.positions.remove(beanName);
+			this.allBeanNames = allBeanNames;
+			if (position != null) {
+				this.anyTypeBeanNames.remove(position);
+				for (NavigableMap<Integer, String> beanNames : this.beanNamesByType.values()) {
+					beanNames.remove(position);
+				}
+			}
+		}
+
+		public boolean hasPendingBeanNames() {
+			return !this.pendingBeanNames.isEmpty();
+		}
+
+		public void startIndexing() {
+			this.indexingCount.incrementAndGet();
+		}
+
+		public String pollPendingBeanName() {
+			return this.pendingBeanNames.poll();
+		}
+
+		public void stopIndexing() {
+			this.indexingCount.decrementAndGet();
+		}
+
+		public Collection<String> getCandidateBeanNames(Class<?> type) {
+			if (!this.complete || this.indexingCount.get() > 0 || !this.pendingBeanNames.isEmpty()) {
+				return this.allBeanNames;
+			}
+			NavigableMap<Integer, String> beanNames = this.beanNamesByType.get(type);
+			return (beanNames != null ? beanNames : this.anyTypeBeanNames).values();
+		}
+	}
+
+
+	/**
+	 * Pre-instantiates a group of linked singletons in registration order,
+	 * marking the executing thread as bootstrap thread of this factory.
+	 */
+	private class SingletonGroupInstantiation implements Callable<Object> {
+
+		private final List<String> beanNames;
+
+		private volatile String currentBeanName;
+
+		public SingletonGroupInstantiation(List<String> beanNames) {
+			this.beanNames = beanNames;
+		}
+
+		@Override
+		public Object call() {
+			currentBootstrapFactory.set(DefaultListableBeanFactory.this);
+			try {
+				for (String beanName : this.beanNames) {
+					this.currentBeanName = beanName;
+					preInstantiateSingleton(beanName);
+				}
+			}
+			finally {
+				currentBootstrapFactory.remove();
+			}
+			return null;
+		}
+
+		public String getCurrentBeanName() {
+			return this.currentBeanName;
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -89,7 +89,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Map<String, ObjectFactory<?>> singletonFactories = new HashMap<String, ObjectFactory<?>>(16);
 
 	/** Cache of early singleton objects: bean name --> bean instance */
-	private final Map<String, Object> earlySingletonObjects = new HashMap<String, Object>(16);
+	private final Map<String, Object> earlySingletonObjects = new ConcurrentHashMap<String, Object>(16);
 
 	/** Set of registered singletons, containing the bean names in registration order */
 	private final Set<String> registeredSingletons = new LinkedHashSet<String>(256);
@@ -98,6 +98,12 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Set<String> singletonsCurrentlyInCreation =
 			Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>(16));
 
+	/** Threads currently creating singletons: bean name --> creating Thread */
+	private final Map<String, Thread> singletonCreationThreads = new ConcurrentHashMap<String, Thread>(16);
+
+	/** Threads waiting for a singleton created by another thread: Thread --> bean name */
+	private final Map<Thread, String> singletonCreationWaits = new HashMap<Thread, String>(4);
+
 	/** Names of beans currently excluded from in creation checks */
 	private final Set<String> inCreationCheckExclusions =
 			Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>(16));
@@ -186,22 +192,21 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	protected Object getSingleton(String beanName, boolean allowEarlyReference) {
 		// 检查缓存中是否存在实例
 		Object singletonObject = this.singletonObjects.get(beanName);
-		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
-			// 如果 singletonObject 为空，则锁定全局变量并进行处理
-			synchronized (this.singletonObjects) {
-				// 如果此 bean 正在加载，则不处理
-				singletonObject = this.earlySingletonObjects.get(beanName);
-				if (singletonObject == null && allowEarlyReference) {
-					// 当某些方法需要提前初始化的时候，则会调用 addSingletonFactory 方法将对应的 ObjectFactory 初始化策略存储在 singletonFactories 中
-					ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
-					if (singletonFactory != null) {
-						// 调用预先设定的 getObject 方法
-						singletonObject = singletonFactory.getObject();
-						// 记录在缓存中，earlySingletonObjects 和 singletonFactories 互斥
-						// 当一个单例 bean 被放入 earlySingletonObjects 里面，那么当 bean 还在创建过程中，就可以通过 getBean 方法获取到了，
-						// 其目的是用来检测循环引用。
-						this.earlySingletonObjects.put(beanName, singletonObject);
-						this.singletonFactories.remove(beanName);
+		// Never expose early references to singletons created by other threads
+		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName) &&
+				isEarlyReferenceAccessible(beanName)) {
+			// 如果此 bean 正在加载，则不处理
+			singletonObject = this.earlySingletonObjects.get(beanName);
+			if (singletonObject == null && allowEarlyReference) {
+				// 如果 singletonObject 为空，则锁定全局变量并进行处理
+				synchronized (this.singletonObjects) {
+					// Consistent creation of early reference within full singleton lock
+					singletonObject = this.singletonObjects.get(beanName);
+					if (singletonObject == null) {
+						singletonObject = this.earlySingletonObjects.get(beanName);
+						if (singletonObject == null) {
+							singletonObject = createEarlySingletonReference(beanName);
+						}
 					}
 				}
 			}
@@ -209,6 +214,44 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		return (singletonObject != NULL_OBJECT ? singletonObject : null);
 	}
 
+	/**
+	 * Obtain an early reference to the specified singleton through its
+	 * registered singleton factory, if any. Must be called while holding
+	 * the singleton mutex.
+	 * @param beanName the name of the bean
+	 * @return the early singleton reference (potentially {@link #NULL_OBJECT}),
+	 * or {@code null} if none available
+	 */
+	private Object createEarlySingletonReference(String beanName) {
+		// 当某些方法需要提前初始化的时候，则会调用 addSingletonFactory 方法将对应的 ObjectFactory 初始化策略存储在 singletonFactories 中
+		ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
+		if (singletonFactory == null) {
+			return null;
+		}
+		// 调用预先设定的 getObject 方法
+		Object singletonObject = singletonFactory.getObject();
+		if (singletonObject == null) {
+			singletonObject = NULL_OBJECT;
+		}
+		// 记录在缓存中，earlySingletonObjects 和 singletonFactories 互斥
+		// 当一个单例 bean 被放入 earlySingletonObjects 里面，那么当 bean 还在创建过程中，就可以通过 getBean 方法获取到了，
+		// 其目的是用来检测循环引用。
+		this.earlySingletonObjects.put(beanName, singletonObject);
+		this.singletonFactories.remove(beanName);
+		return singletonObject;
+	}
+
+	/**
+	 * Determine whether the current thread may see an early reference to the
+	 * specified singleton: that is, whether the singleton is not currently
+	 * being created by a different thread.
+	 * @param beanName the name of the bean
+	 */
+	private boolean isEarlyReferenceAccessible(String beanName) {
+		Thread creationThread = this.singletonCreationThreads.get(beanName);
+		return (creationThread == null || creationThread == Thread.currentThread());
+	}
+
 	/**
 	 * Return the (raw) singleton object registered under the given name,
 	 * creating and registering a new one if none registered yet.
@@ -220,10 +263,16 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	// 获取单例 bean
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "'beanName' must not be null");
+		if (isConcurrentSingletonCreationThread()) {
+			return getSingletonConcurrently(beanName, singletonFactory);
+		}
 		// 全局变量需要同步
 		synchronized (this.singletonObjects) {
 			// 首先检查对应的 bean 是否已经加载过，因为 singleton 模式其实就是复用已创建的 bean，所以这一步是必须的
 			Object singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject == null) {
+				singletonObject = awaitConcurrentSingletonCreation(beanName);
+			}
 			// 如果为空才可以进行 singleton 的 bean 的初始化
 			if (singletonObject == null) {
 				if (this.singletonsCurrentlyInDestruction) {
@@ -236,6 +285,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 				}
 				// 该方法会记录加载状态，将当前正要创建的 bean 记录在缓存中，这样便可以对循环依赖进行检测
 				beforeSingletonCreation(beanName);
+				this.singletonCreationThreads.put(beanName, Thread.currentThread());
 				boolean newSingleton = false;
 				boolean recordSuppressedExceptions = (this.suppressedExceptions == null);
 				if (recordSuppressedExceptions) {
@@ -267,9 +317,11 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 					if (recordSuppressedExceptions) {
 						this.suppressedExceptions = null;
 					}
+					this.singletonCreationThreads.remove(beanName);
 					// 加载单例后的处理方法调用
 					// 当 bean 加载结束后，需要移除缓存中对该 bean 的正在加载状态的记录
 					afterSingletonCreation(beanName);
+					signalSingletonCreationFinished(beanName);
 				}
 				// 如果初始化时没有出现异常就加入缓存
 				if (newSingleton) {
@@ -282,6 +334,169 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		}
 	}
 
+	/**
+	 * Variant of {@link #getSingleton(String, ObjectFactory)} for threads that
+	 * create singletons concurrently with other threads: the singleton mutex
+	 * is only held for registry state changes, not for the actual creation
+	 * of the singleton object.
+	 * @param beanName the name of the bean
+	 * @param singletonFactory the ObjectFactory to lazily create the singleton
+	 * with, if necessary
+	 * @return the registered singleton object
+	 * @see #isConcurrentSingletonCreationThread()
+	 */
+	private Object getSingletonConcurrently(String beanName, ObjectFactory<?> singletonFactory) {
+		Object singletonObject;
+		synchronized (this.singletonObjects) {
+			singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject == null) {
+				singletonObject = awaitConcurrentSingletonCreation(beanName);
+			}
+			if (singletonObject != null) {
+				return (singletonObject != NULL_OBJECT ? singletonObject : null);
+			}
+			if (this.singletonsCurrentlyInDestruction) {
+				throw new BeanCreationNotAllowedException(beanName,
+						"Singleton bean creation not allowed while singletons of this factory are in destruction " +
+						"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Concurrently creating shared instance of singleton bean '" + beanName + "'");
+			}
+			beforeSingletonCreation(beanName);
+			this.singletonCreationThreads.put(beanName, Thread.currentThread());
+		}
+		boolean newSingleton = false;
+		try {
+			singletonObject = singletonFactory.getObject();
+			newSingleton = true;
+		}
+		catch (IllegalStateException ex) {
+			// Has the singleton object implicitly appeared in the meantime ->
+			// if yes, proceed with it since the exception indicates that state.
+			singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject == null) {
+				throw ex;
+			}
+		}
+		finally {
+			synchronized (this.singletonObjects) {
+				this.singletonCreationThreads.remove(beanName);
+				afterSingletonCreation(beanName);
+				if (newSingleton) {
+					addSingleton(beanName, singletonObject);
+				}
+				signalSingletonCreationFinished(beanName);
+			}
+		}
+		return (singletonObject != NULL_OBJECT ? singletonObject : null);
+	}
+
+	/**
+	 * Wait for the specified singleton if it is currently being created by
+	 * a different thread. Must be called while holding the singleton mutex,
+	 * which gets released while waiting.
+	 * <p>If waiting would deadlock since the creating thread is (transitively)
+	 * waiting for a singleton that the current thread is creating, the circular
+	 * reference is resolved through an early reference to the singleton, just
+	 * like for a circular reference within a single thread.
+	 * @param beanName the name of the bean
+	 * @return the singleton object created by the other thread (or an early
+	 * reference to it), or {@code null} if the current thread needs to create
+	 * the singleton itself
+	 * @throws BeanCurrentlyInCreationException in case of a circular reference
+	 * between threads which cannot be resolved through an early reference
+	 */
+	private Object awaitConcurrentSingletonCreation(String beanName) {
+		Thread currentThread = Thread.currentThread();
+		Thread creationThread = this.singletonCreationThreads.get(beanName);
+		while (creationThread != null && creationThread != currentThread) {
+			if (isWaitingForThread(creationThread, currentThread)) {
+				Object earlyReference = this.earlySingletonObjects.get(beanName);
+				if (earlyReference == null) {
+					earlyReference = createEarlySingletonReference(beanName);
+				}
+				if (earlyReference == null) {
+					throw new BeanCurrentlyInCreationException(beanName, "Requested bean is currently in creation " +
+							"in thread [" + creationThread.getName() + "] which is waiting for a bean in creation " +
+							"in the current thread: Is there an unresolvable circular reference?");
+				}
+				return earlyReference;
+			}
+			this.singletonCreationWaits.put(currentThread, beanName);
+			try {
+				this.singletonObjects.wait();
+			}
+			catch (InterruptedException ex) {
+				currentThread.interrupt();
+				throw new BeanCreationException(beanName, "Interrupted while waiting for singleton creation " +
+						"in thread [" + creationThread.getName() + "]");
+			}
+			finally {
+				this.singletonCreationWaits.remove(currentThread);
+			}
+			Object singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject != null) {
+				return singletonObject;
+			}
+			creationThread = this.singletonCreationThreads.get(beanName);
+		}
+		return null;
+	}
+
+	/**
+	 * Determine whether the given thread is (transitively) waiting for a
+	 * singleton that is being created by the target thread.
+	 */
+	private boolean isWaitingForThread(Thread thread, Thread targetThread) {
+		Set<Thread> seen = null;
+		String awaitedBeanName = this.singletonCreationWaits.get(thread);
+		while (awaitedBeanName != null) {
+			Thread creationThread = this.singletonCreationThreads.get(awaitedBeanName);
+			if (creationThread == null) {
+				return false;
+			}
+			if (creationThread == targetThread) {
+				return true;
+			}
+			if (seen == null) {
+				seen = new HashSet<Thread>(4);
+			}
+			if (!seen.add(creationThread)) {
+				return false;
+			}
+			awaitedBeanName = this.singletonCreationWaits.get(creationThread);
+		}
+		return false;
+	}
+
+	/**
+	 * Wake up threads waiting for the given singleton, if any, after its
+	 * creation finished (successfully or not). Threads waiting for other
+	 * singletons remain undisturbed. Must be called while holding the
+	 * singleton mutex.
+	 * @param beanName the name of the bean
+	 */
+	private void signalSingletonCreationFinished(String beanName) {
+		if (this.singletonCreationWaits.containsValue(beanName)) {
+			this.singletonObjects.notifyAll();
+		}
+	}
+
+	/**
+	 * Return whether the current thread creates singletons concurrently with
+	 * other threads, only holding the singleton mutex for registry state changes
+	 * rather than for the entire creation of a singleton.
+	 * <p>The default implementation returns {@code false}, serializing all
+	 * singleton creation through the singleton mutex. Subclasses may return
+	 * {@code true} for threads that they use for parallel bootstrapping.
+	 * @since 4.3.12
+	 * @see #getSingletonMutex()
+	 */
+	protected boolean isConcurrentSingletonCreationThread() {
+		return false;
+	}
+
 	/**
 	 * Register an Exception that happened to get suppressed during the creation of a
 	 * singleton bean instance, e.g. a temporary circular reference resolution problem.
@@ -26,7 +26,9 @@ import java.security.Principal;
 import java.security.PrivilegedAction;
 import java.text.NumberFormat;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
@@ -35,6 +37,8 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Priority;
 import javax.security.auth.Subject;
 
@@ -83,6 +87,7 @@ import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.core.convert.support.GenericConversionService;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.tests.Assume;
 import org.springframework.tests.TestGroup;
 import org.springframework.tests.sample.beans.DependenciesBean;
@@ -2786,6 +2791,213 @@ public class DefaultListableBeanFactoryTests {
 		}
 	}
 
+	@Test
+	public void parallelPreInstantiationOfIndependentSingletons() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.setBootstrapExecutor(new SimpleAsyncTaskExecutor("bootstrap-"));
+		bf.registerBeanDefinition("a1", new RootBeanDefinition(ThreadRecordingBean.class));
+		bf.registerBeanDefinition("a2", new RootBeanDefinition(ThreadRecordingBean.class));
+		RootBeanDefinition b1 = new RootBeanDefinition(ThreadRecordingBean.class);
+		b1.getPropertyValues().add("other", new RuntimeBeanReference("b2"));
+		bf.registerBeanDefinition("b1", b1);
+		bf.registerBeanDefinition("b2", new RootBeanDefinition(ThreadRecordingBean.class));
+		bf.preInstantiateSingletons();
+
+		ThreadRecordingBean a1 = bf.getBean("a1", ThreadRecordingBean.class);
+		ThreadRecordingBean a2 = bf.getBean("a2", ThreadRecordingBean.class);
+		ThreadRecordingBean b1Bean = bf.getBean("b1", ThreadRecordingBean.class);
+		ThreadRecordingBean b2Bean = bf.getBean("b2", ThreadRecordingBean.class);
+		assertTrue(a1.getThreadName().startsWith("bootstrap-"));
+		assertTrue(a2.getThreadName().startsWith("bootstrap-"));
+		assertNotEquals(a1.getThreadName(), a2.getThreadName());
+		assertEquals(b1Bean.getThreadName(), b2Bean.getThreadName());
+		assertSame(b2Bean, b1Bean.getOther());
+	}
+
+	@Test
+	public void parallelPreInstantiationReportsFirstRegisteredFailure() {
+		for (int i = 0; i < 10; i++) {
+			DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+			bf.setBootstrapExecutor(new SimpleAsyncTaskExecutor("bootstrap-"));
+			bf.registerBeanDefinition("ok", new RootBeanDefinition(ThreadRecordingBean.class));
+			RootBeanDefinition fail1 = new RootBeanDefinition(ThreadRecordingBean.class);
+			fail1.setInitMethodName("fail");
+			bf.registerBeanDefinition("fail1", fail1);
+			RootBeanDefinition fail2 = new RootBeanDefinition(ThreadRecordingBean.class);
+			fail2.setInitMethodName("fail");
+			bf.registerBeanDefinition("fail2", fail2);
+			try {
+				bf.preInstantiateSingletons();
+				fail("Should have thrown BeanCreationException");
+			}
+			catch (BeanCreationException ex) {
+				assertEquals("fail1", ex.getBeanName());
+			}
+		}
+	}
+
+	@Test
+	public void parallelPreInstantiationWaitsForSingletonInCreationInOtherThread() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.setBootstrapExecutor(new SimpleAsyncTaskExecutor("bootstrap-"));
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		RootBeanDefinition consumer = new RootBeanDefinition(BarrierConsumerBean.class);
+		consumer.getConstructorArgumentValues().addGenericArgumentValue(barrier);
+		consumer.setAutowireMode(RootBeanDefinition.AUTOWIRE_BY_TYPE);
+		bf.registerBeanDefinition("consumer", consumer);
+		RootBeanDefinition producer = new RootBeanDefinition(BarrierProducerBean.class);
+		producer.getConstructorArgumentValues().addGenericArgumentValue(barrier);
+		producer.setInitMethodName("init");
+		bf.registerBeanDefinition("producer", producer);
+		bf.preInstantiateSingletons();
+
+		BarrierConsumerBean consumerBean = bf.getBean(BarrierConsumerBean.class);
+		BarrierProducerBean producerBean = bf.getBean(BarrierProducerBean.class);
+		assertNotEquals(consumerBean.getThreadName(), producerBean.getThreadName());
+		assertSame(producerBean, consumerBean.getProducer());
+		assertTrue(consumerBean.isProducerInitializedOnInjection());
+	}
+
+	@Test
+	public void parallelPreInstantiationWithCircularReferenceBetweenThreads() {
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		bf.setBootstrapExecutor(new SimpleAsyncTaskExecutor("bootstrap-"));
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		RootBeanDefinition left = new RootBeanDefinition(CircularLeftBean.class);
+		left.getConstructorArgumentValues().addGenericArgumentValue(barrier);
+		left.setAutowireMode(RootBeanDefinition.AUTOWIRE_BY_TYPE);
+		bf.registerBeanDefinition("left", left);
+		RootBeanDefinition right = new RootBeanDefinition(CircularRightBean.class);
+		right.getConstructorArgumentValues().addGenericArgumentValue(barrier);
+		right.setAutowireMode(RootBeanDefinition.AUTOWIRE_BY_TYPE);
+		bf.registerBeanDefinition("right", right);
+		bf.preInstantiateSingletons();
+
+		CircularLeftBean leftBean = bf.getBean(CircularLeftBean.class);
+		CircularRightBean rightBean = bf.getBean(CircularRightBean.class);
+		assertSame(rightBean, leftBean.getRight());
+		assertSame(leftBean, rightBean.getLeft());
+	}
+
+	@Test
+	public void beanNamesForTypeWithFrozenConfiguration() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.registerBeanDefinition("nested", new RootBeanDefinition(NestedTestBean.class));
+		lbf.registerBeanDefinition("test", new RootBeanDefinition(TestBean.class));
+		lbf.registerBeanDefinition("factory", new RootBeanDefinition(DummyFactory.class));
+		lbf.registerBeanDefinition("derived", new RootBeanDefinition(DerivedTestBean.class));
+		RootBeanDefinition prototype = new RootBeanDefinition(TestBean.class);
+		prototype.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		lbf.registerBeanDefinition("prototype", prototype);
+		lbf.freezeConfiguration();
+
+		assertArrayEquals(new String[] {"test", "factory", "derived", "prototype"}, lbf.getBeanNamesForType(TestBean.class));
+		assertArrayEquals(new String[] {"test", "factory", "derived", "prototype"}, lbf.getBeanNamesForType(ITestBean.class));
+		assertArrayEquals(new String[] {"derived"}, lbf.getBeanNamesForType(DerivedTestBean.class));
+		assertArrayEquals(new String[] {"nested"}, lbf.getBeanNamesForType(NestedTestBean.class));
+		assertArrayEquals(new String[] {"&factory"}, lbf.getBeanNamesForType(DummyFactory.class));
+		assertEquals(0, lbf.getBeanNamesForType(String.class).length);
+
+		lbf.preInstantiateSingletons();
+		assertArrayEquals(new String[] {"test", "factory", "derived", "prototype"}, lbf.getBeanNamesForType(TestBean.class));
+		assertArrayEquals(new String[] {"derived"}, lbf.getBeanNamesForType(DerivedTestBean.class));
+	}
+
+	@Test
+	public void beanNamesForGenericTypeWithFrozenConfiguration() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.registerBeanDefinition("integers", new RootBeanDefinition(IntegerList.class));
+		lbf.registerBeanDefinition("strings", new RootBeanDefinition(StringList.class));
+		lbf.freezeConfiguration();
+
+		assertArrayEquals(new String[] {"strings"},
+				lbf.getBeanNamesForType(ResolvableType.forClassWithGenerics(List.class, String.class)));
+		assertArrayEquals(new String[] {"integers"},
+				lbf.getBeanNamesForType(ResolvableType.forClassWithGenerics(List.class, Integer.class)));
+		assertArrayEquals(new String[] {"integers", "strings"}, lbf.getBeanNamesForType(Collection.class));
+	}
+
+	@Test
+	public void beanNamesForTypeWithFrozenConfigurationAndUntypedFactoryMethod() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(UntypedTestBeanFactory.class);
+		bd.setFactoryMethodName("createTestBean");
+		lbf.registerBeanDefinition("untyped", bd);
+		lbf.freezeConfiguration();
+
+		assertEquals(0, lbf.getBeanNamesForType(ITestBean.class).length);
+		lbf.getBean("untyped");
+		assertArrayEquals(new String[] {"untyped"}, lbf.getBeanNamesForType(TestBean.class));
+	}
+
+	@Test
+	public void beanNamesForTypeWithBeanDefinitionRegisteredAfterFreeze() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.registerBeanDefinition("test", new RootBeanDefinition(TestBean.class));
+		lbf.freezeConfiguration();
+		assertArrayEquals(new String[] {"test"}, lbf.getBeanNamesForType(ITestBean.class));
+
+		lbf.registerBeanDefinition("derived", new RootBeanDefinition(DerivedTestBean.class));
+		assertArrayEquals(new String[] {"test", "derived"}, lbf.getBeanNamesForType(TestBean.class));
+		lbf.removeBeanDefinition("test");
+		assertArrayEquals(new String[] {"derived"}, lbf.getBeanNamesForType(TestBean.class, false, true));
+	}
+
+	@Test
+	public void beanNamesForTypeWithFactoryBeanRegisteredAfterFreeze() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.registerBeanDefinition("test", new RootBeanDefinition(TestBean.class));
+		lbf.freezeConfiguration();
+		assertArrayEquals(new String[] {"test"}, lbf.getBeanNamesForType(ITestBean.class));
+
+		lbf.registerBeanDefinition("factory", new RootBeanDefinition(DummyFactory.class));
+		lbf.registerBeanDefinition("derived", new RootBeanDefinition(DerivedTestBean.class));
+		assertArrayEquals(new String[] {"test", "factory", "derived"}, lbf.getBeanNamesForType(TestBean.class));
+		assertArrayEquals(new String[] {"derived"}, lbf.getBeanNamesForType(DerivedTestBean.class));
+		assertArrayEquals(new String[] {"&factory"}, lbf.getBeanNamesForType(DummyFactory.class));
+
+		lbf.removeBeanDefinition("factory");
+		assertArrayEquals(new String[] {"test", "derived"}, lbf.getBeanNamesForType(TestBean.class, false, true));
+	}
+
+	@Test
+	public void beanNamesForTypeWithBeanDefinitionOverriddenAfterFreeze() {
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+		lbf.registerBeanDefinition("test", new RootBeanDefinition(TestBean.class));
+		lbf.registerBeanDefinition("nested", new RootBeanDefinition(NestedTestBean.class));
+		lbf.freezeConfiguration();
+		lbf.preInstantiateSingletons();
+		assertArrayEquals(new String[] {"nested"}, lbf.getBeanNamesForType(NestedTestBean.class));
+
+		lbf.registerBeanDefinition("test", new RootBeanDefinition(NestedTestBean.class));
+		assertArrayEquals(new String[] {"test", "nested"}, lbf.getBeanNamesForType(NestedTestBean.class));
+		assertEquals(0, lbf.getBeanNamesForType(TestBean.class).length);
+
+		lbf.removeBeanDefinition("test");
+		lbf.registerBeanDefinition("test", new RootBeanDefinition(DerivedTestBean.class));
+		assertArrayEquals(new String[] {"nested", "test"}, lbf.getBeanNamesForType(Object.class));
+		assertArrayEquals(new String[] {"test"}, lbf.getBeanNamesForType(ITestBean.class));
+		assertArrayEquals(new String[] {"nested"}, lbf.getBeanNamesForType(NestedTestBean.class));
+	}
+
+
+	@SuppressWarnings("serial")
+	public static class IntegerList extends ArrayList<Integer> {
+	}
+
+
+	@SuppressWarnings("serial")
+	public static class StringList extends ArrayList<String> {
+	}
+
+
+	public static class UntypedTestBeanFactory {
+
+		public static Object createTestBean() {
+			return new TestBean();
+		}
+	}
+
 
 	static class A { }
 
@@ -3244,6 +3456,132 @@ public class DefaultListableBeanFactoryTests {
 	}
 
 
+	public static class ThreadRecordingBean {
+
+		private final String threadName = Thread.currentThread().getName();
+
+		private ThreadRecordingBean other;
+
+		public String getThreadName() {
+			return this.threadName;
+		}
+
+		public ThreadRecordingBean getOther() {
+			return this.other;
+		}
+
+		public void setOther(ThreadRecordingBean other) {
+			this.other = other;
+		}
+
+		public void fail() {
+			throw new IllegalStateException("Failing init method");
+		}
+	}
+
+
+	private static void await(CyclicBarrier barrier) {
+		try {
+			barrier.await(10, TimeUnit.SECONDS);
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+
+	public static class BarrierProducerBean {
+
+		private final String threadName = Thread.currentThread().getName();
+
+		private volatile boolean initialized;
+
+		public BarrierProducerBean(CyclicBarrier barrier) {
+			await(barrier);
+		}
+
+		public void init() throws InterruptedException {
+			Thread.sleep(100);
+			this.initialized = true;
+		}
+
+		public String getThreadName() {
+			return this.threadName;
+		}
+
+		public boolean isInitialized() {
+			return this.initialized;
+		}
+	}
+
+
+	public static class BarrierConsumerBean {
+
+		private final String threadName = Thread.currentThread().getName();
+
+		private BarrierProducerBean producer;
+
+		private boolean producerInitializedOnInjection;
+
+		public BarrierConsumerBean(CyclicBarrier barrier) {
+			await(barrier);
+		}
+
+		public void setProducer(BarrierProducerBean producer) {
+			this.producer = producer;
+			this.producerInitializedOnInjection = producer.isInitialized();
+		}
+
+		public String getThreadName() {
+			return this.threadName;
+		}
+
+		public BarrierProducerBean getProducer() {
+			return this.producer;
+		}
+
+		public boolean isProducerInitializedOnInjection() {
+			return this.producerInitializedOnInjection;
+		}
+	}
+
+
+	public static class CircularLeftBean {
+
+		private CircularRightBean right;
+
+		public CircularLeftBean(CyclicBarrier barrier) {
+			await(barrier);
+		}
+
+		public CircularRightBean getRight() {
+			return this.right;
+		}
+
+		public void setRight(CircularRightBean right) {
+			this.right = right;
+		}
+	}
+
+
+	public static class CircularRightBean {
+
+		private CircularLeftBean left;
+
+		public CircularRightBean(CyclicBarrier barrier) {
+			await(barrier);
+		}
+
+		public CircularLeftBean getLeft() {
+			return this.left;
+		}
+
+		public void setLeft(CircularLeftBean left) {
+			this.left = left;
+		}
+	}
+
+
 	private static class NullTestBeanFactoryBean<T> implements FactoryBean<TestBean> {
 
 		@Override
@@ -16,6 +16,9 @@
 
 package org.springframework.beans.factory.support;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.Test;
 
 import org.springframework.beans.BeansException;
@@ -101,4 +104,61 @@ public class DefaultSingletonBeanRegistryTests {
 		assertTrue(beanRegistry.isDependent("c", "c"));
 	}
 
+	@Test(timeout = 5000)
+	public void testEarlyReferenceLookupWithoutSingletonMutex() throws Exception {
+		final DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		final TestBean tb = new TestBean();
+		beanRegistry.beforeSingletonCreation("tb");
+		beanRegistry.addSingletonFactory("tb", new ObjectFactory<Object>() {
+			@Override
+			public Object getObject() throws BeansException {
+				return tb;
+			}
+		});
+		assertSame(tb, beanRegistry.getSingleton("tb", true));
+
+		final CountDownLatch mutexHeld = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		Thread mutexHolder = new Thread() {
+			@Override
+			public void run() {
+				synchronized (beanRegistry.getSingletonMutex()) {
+					mutexHeld.countDown();
+					try {
+						release.await(5, TimeUnit.SECONDS);
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+		};
+		mutexHolder.start();
+		try {
+			mutexHeld.await();
+			assertSame(tb, beanRegistry.getSingleton("tb", true));
+			assertSame(tb, beanRegistry.getSingleton("tb", false));
+			assertSame(tb, beanRegistry.getSingleton("tb"));
+		}
+		finally {
+			release.countDown();
+			mutexHolder.join();
+		}
+	}
+
+	@Test
+	public void testNullEarlyReference() {
+		DefaultSingletonBeanRegistry beanRegistry = new DefaultSingletonBeanRegistry();
+		beanRegistry.beforeSingletonCreation("tb");
+		beanRegistry.addSingletonFactory("tb", new ObjectFactory<Object>() {
+			@Override
+			public Object getObject() throws BeansException {
+				return null;
+			}
+		});
+		assertNull(beanRegistry.getSingleton("tb", true));
+		assertNull(beanRegistry.getSingleton("tb", false));
+		assertTrue(beanRegistry.isSingletonCurrentlyInCreation("tb"));
+	}
+
 }
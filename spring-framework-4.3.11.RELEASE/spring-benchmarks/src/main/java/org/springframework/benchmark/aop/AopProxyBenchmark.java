@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.benchmark.aop;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.aop.framework.ProxyFactory;
+
+/**
+ * Benchmarks for method invocations through JDK dynamic proxies and CGLIB proxies,
+ * with and without an interceptor chain.
+ *
+ * @since 4.3.12
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AopProxyBenchmark {
+
+	@Param({"jdk", "cglib"})
+	public String proxyType;
+
+	private Calculator target;
+
+	private Calculator unadvisedProxy;
+
+	private Calculator advisedProxy;
+
+
+	@Setup
+	public void setup() {
+		this.target = new SimpleCalculator();
+		this.unadvisedProxy = createProxy(false);
+		this.advisedProxy = createProxy(true);
+	}
+
+	private Calculator createProxy(boolean advised) {
+		ProxyFactory proxyFactory = new ProxyFactory(this.target);
+		proxyFactory.setProxyTargetClass("cglib".equals(this.proxyType));
+		if (advised) {
+			proxyFactory.addAdvice(new PassThroughInterceptor());
+			proxyFactory.addAdvice(new PassThroughInterceptor());
+		}
+		return (Calculator) proxyFactory.getProxy(getClass().getClassLoader());
+	}
+
+
+	@Benchmark
+	public int directInvocation() {
+		return this.target.add(1, 2);
+	}
+
+	@Benchmark
+	public int unadvisedProxyInvocation() {
+		return this.unadvisedProxy.add(1, 2);
+	}
+
+	@Benchmark
+	public int advisedProxyInvocation() {
+		return this.advisedProxy.add(1, 2);
+	}
+
+	@Benchmark
+	public int proxyHashCode() {
+		return this.advisedProxy.hashCode();
+	}
+
+
+	public interface Calculator {
+
+		int add(int a, int b);
+	}
+
+
+	public static class SimpleCalculator implements Calculator {
+
+		@Override
+		public int add(int a, int b) {
+			return a + b;
+		}
+	}
+
+
+	private static class PassThroughInterceptor implements MethodInterceptor {
+
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			return invocation.proceed();
+		}
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.benchmark.beans;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+/**
+ * Benchmarks for bean retrieval and autowiring in a {@link DefaultListableBeanFactory}.
+ *
+ * @since 4.3.12
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BeanFactoryBenchmark {
+
+	private static final int FILLER_BEANS = 200;
+
+	private DefaultListableBeanFactory beanFactory;
+
+
+	@Setup
+	public void setup() {
+		this.beanFactory = new DefaultListableBeanFactory();
+		for (int i = 0; i < FILLER_BEANS; i++) {
+			this.beanFactory.registerBeanDefinition("filler" + i, new RootBeanDefinition(Filler.class));
+		}
+		this.beanFactory.registerBeanDefinition("repository", new RootBeanDefinition(Repository.class));
+
+		RootBeanDefinition service = new RootBeanDefinition(Service.class);
+		service.setAutowireMode(AutowireCapableBeanFactory.AUTOWIRE_CONSTRUCTOR);
+		this.beanFactory.registerBeanDefinition("service", service);
+
+		RootBeanDefinition prototypeService = new RootBeanDefinition(Service.class);
+		prototypeService.setAutowireMode(AutowireCapableBeanFactory.AUTOWIRE_CONSTRUCTOR);
+		prototypeService.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		this.beanFactory.registerBeanDefinition("prototypeService", prototypeService);
+
+		RootBeanDefinition prototypeRepository = new RootBeanDefinition(Filler.class);
+		prototypeRepository.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		this.beanFactory.registerBeanDefinition("prototypeFiller", prototypeRepository);
+
+		this.beanFactory.freezeConfiguration();
+		this.beanFactory.preInstantiateSingletons();
+	}
+
+
+	@Benchmark
+	public Object singletonByName() {
+		return this.beanFactory.getBean("service");
+	}
+
+	@Benchmark
+	public Object singletonByType() {
+		return this.beanFactory.getBean(Repository.class);
+	}
+
+	@Benchmark
+	public Object prototypeByName() {
+		return this.beanFactory.getBean("prototypeFiller");
+	}
+
+	@Benchmark
+	public Object prototypeWithConstructorAutowiring() {
+		return this.beanFactory.getBean("prototypeService");
+	}
+
+	@Benchmark
+	public Object createBeanWithConstructorAutowiring() {
+		return this.beanFactory.createBean(Service.class, AutowireCapableBeanFactory.AUTOWIRE_CONSTRUCTOR, false);
+	}
+
+	@Benchmark
+	public Object beanNamesForType() {
+		return this.beanFactory.getBeanNamesForType(Repository.class, true, false);
+	}
+
+
+	public static class Filler {
+	}
+
+
+	public static class Repository {
+	}
+
+
+	public static class Service {
+
+		private final Repository repository;
+
+		public Service(Repository repository) {
+			this.repository = repository;
+		}
+
+		public Repository getRepository() {
+			return this.repository;
+		}
+	}
+
+}
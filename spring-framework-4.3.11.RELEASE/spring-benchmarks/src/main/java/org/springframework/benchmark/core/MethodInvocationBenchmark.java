@@ -0,0 +1,152 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.benchmark.core;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.core.GeneratedMethodInvoker;
+
+/**
+ * Benchmarks for invoking a handler-style method through reflection
+ * versus a {@link GeneratedMethodInvoker}.
+ *
+ * @since 4.3.12
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MethodInvocationBenchmark {
+
+	private final Handler handler = new Handler();
+
+	private final Object[] args = new Object[] {"id", 42};
+
+	private Method method;
+
+	private GeneratedMethodInvoker invoker;
+
+	private final Object[] handlers = new Object[] {
+			new Handler(), new Handler2(), new Handler3(), new Handler4(), new Handler5(), new Handler6()};
+
+	private final Method[] methods = new Method[this.handlers.length];
+
+	private final GeneratedMethodInvoker[] invokers = new GeneratedMethodInvoker[this.handlers.length];
+
+	private int counter;
+
+
+	@Setup
+	public void setup() throws Exception {
+		this.method = Handler.class.getMethod("handle", String.class, int.class);
+		this.invoker = GeneratedMethodInvoker.forMethod(this.method);
+		for (int i = 0; i < this.handlers.length; i++) {
+			this.methods[i] = this.handlers[i].getClass().getMethod("handle", String.class, int.class);
+			this.invokers[i] = GeneratedMethodInvoker.forMethod(this.methods[i]);
+		}
+	}
+
+
+	@Benchmark
+	public Object reflective() throws Exception {
+		return this.method.invoke(this.handler, this.args);
+	}
+
+	@Benchmark
+	public Object generated() throws Exception {
+		return this.invoker.invoke(this.handler, this.args);
+	}
+
+	@Benchmark
+	public Object generatedWithLookup() throws Exception {
+		return GeneratedMethodInvoker.forMethod(this.method).invoke(this.handler, this.args);
+	}
+
+	/**
+	 * Invoke methods of several handler classes from the same call site,
+	 * as is the case for a dispatcher invoking many different handler methods.
+	 */
+	@Benchmark
+	public Object reflectiveMegamorphic() throws Exception {
+		int index = (this.counter++ & Integer.MAX_VALUE) % this.handlers.length;
+		return this.methods[index].invoke(this.handlers[index], this.args);
+	}
+
+	@Benchmark
+	public Object generatedMegamorphic() throws Exception {
+		int index = (this.counter++ & Integer.MAX_VALUE) % this.handlers.length;
+		return this.invokers[index].invoke(this.handlers[index], this.args);
+	}
+
+
+	public static class Handler {
+
+		public String handle(String id, int count) {
+			return id;
+		}
+	}
+
+	public static class Handler2 {
+
+		public String handle(String id, int count) {
+			return id;
+		}
+	}
+
+	public static class Handler3 {
+
+		public String handle(String id, int count) {
+			return id;
+		}
+	}
+
+	public static class Handler4 {
+
+		public String handle(String id, int count) {
+			return id;
+		}
+	}
+
+	public static class Handler5 {
+
+		public String handle(String id, int count) {
+			return id;
+		}
+	}
+
+	public static class Handler6 {
+
+		public String handle(String id, int count) {
+			return id;
+		}
+	}
+
+}
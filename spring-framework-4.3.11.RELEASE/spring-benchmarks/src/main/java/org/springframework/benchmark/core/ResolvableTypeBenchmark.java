@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.benchmark.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.core.ResolvableType;
+
+/**
+ * Benchmarks for common {@link ResolvableType} factory methods and
+ * assignability checks, as performed for generic type matching of
+ * beans, converters and application listeners.
+ * <p>Run with {@code -prof gc} to see the allocation rate per check.
+ *
+ * @since 4.3.12
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResolvableTypeBenchmark {
+
+	public List<String> stringList;
+
+	public Map<String, List<Integer>> nestedMap;
+
+	private ResolvableType collectionType;
+
+	private ResolvableType stringListFieldType;
+
+	private ResolvableType charSequenceCollectionType;
+
+
+	@Setup
+	public void setup() throws Exception {
+		this.collectionType = ResolvableType.forClass(Collection.class);
+		this.stringListFieldType = ResolvableType.forField(ResolvableTypeBenchmark.class.getField("stringList"));
+		this.charSequenceCollectionType = ResolvableType.forClassWithGenerics(Collection.class, CharSequence.class);
+	}
+
+
+	@Benchmark
+	public Object forClass() {
+		return ResolvableType.forClass(ArrayList.class);
+	}
+
+	@Benchmark
+	public Object forField() throws Exception {
+		return ResolvableType.forField(ResolvableTypeBenchmark.class.getField("nestedMap"));
+	}
+
+	@Benchmark
+	public boolean isAssignableFromClass() {
+		return this.collectionType.isAssignableFrom(ArrayList.class);
+	}
+
+	@Benchmark
+	public boolean isInstance() {
+		return this.collectionType.isInstance(this);
+	}
+
+	@Benchmark
+	public boolean isAssignableFromGenericType() {
+		return this.charSequenceCollectionType.isAssignableFrom(this.stringListFieldType);
+	}
+
+	@Benchmark
+	public Object resolveNestedGeneric() throws Exception {
+		return ResolvableType.forField(ResolvableTypeBenchmark.class.getField("nestedMap")).resolveGeneric(1, 0);
+	}
+
+}
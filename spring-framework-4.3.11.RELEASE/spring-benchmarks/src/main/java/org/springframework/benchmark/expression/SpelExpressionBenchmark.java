@@ -0,0 +1,141 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.benchmark.expression;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+/**
+ * Benchmarks for {@code SpelExpression.getValue}, in interpreted as well
+ * as in compiled mode.
+ *
+ * @since 4.3.12
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpelExpressionBenchmark {
+
+	@Param({"OFF", "IMMEDIATE"})
+	public SpelCompilerMode compilerMode;
+
+	private EvaluationContext context;
+
+	private Expression propertyExpression;
+
+	private Expression booleanExpression;
+
+	private Expression methodExpression;
+
+
+	@Setup
+	public void setup() {
+		SpelExpressionParser parser = new SpelExpressionParser(
+				new SpelParserConfiguration(this.compilerMode, getClass().getClassLoader()));
+		this.context = new StandardEvaluationContext(new Order("SPR-1234", 42, new Customer("Sam", "Vienna")));
+		this.propertyExpression = parser.parseExpression("customer.address");
+		this.booleanExpression = parser.parseExpression("quantity > 10 and customer.name == 'Sam'");
+		this.methodExpression = parser.parseExpression("id.substring(4).length() + quantity");
+	}
+
+
+	@Benchmark
+	public Object propertyNavigation() {
+		return this.propertyExpression.getValue(this.context);
+	}
+
+	@Benchmark
+	public Object booleanOperators() {
+		return this.booleanExpression.getValue(this.context);
+	}
+
+	@Benchmark
+	public Object methodInvocation() {
+		return this.methodExpression.getValue(this.context);
+	}
+
+
+	public static class Order {
+
+		private final String id;
+
+		private final int quantity;
+
+		private final Customer customer;
+
+		public Order(String id, int quantity, Customer customer) {
+			this.id = id;
+			this.quantity = quantity;
+			this.customer = customer;
+		}
+
+		public String getId() {
+			return this.id;
+		}
+
+		public int getQuantity() {
+			return this.quantity;
+		}
+
+		public Customer getCustomer() {
+			return this.customer;
+		}
+	}
+
+
+	public static class Customer {
+
+		private final String name;
+
+		private final String address;
+
+		public Customer(String name, String address) {
+			this.name = name;
+			this.address = address;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public String getAddress() {
+			return this.address;
+		}
+	}
+
+}
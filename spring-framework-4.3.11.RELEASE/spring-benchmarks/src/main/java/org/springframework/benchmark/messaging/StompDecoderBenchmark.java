@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.benchmark.messaging;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.messaging.simp.stomp.BufferingStompDecoder;
+import org.springframework.messaging.simp.stomp.StompDecoder;
+
+/**
+ * Benchmarks for {@link StompDecoder} and {@link BufferingStompDecoder},
+ * decoding SEND frames of 100 bytes and 64 KB, either received at once or
+ * split into several chunks as with partial WebSocket messages.
+ *
+ * @since 4.3.12
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StompDecoderBenchmark {
+
+	private static final int CHUNK_COUNT = 4;
+
+	@Param({"100", "65536"})
+	public int frameSize;
+
+	@Param({"true", "false"})
+	public boolean contentLength;
+
+	private byte[] frame;
+
+	private byte[][] chunks;
+
+	private StompDecoder decoder;
+
+	private BufferingStompDecoder bufferingDecoder;
+
+
+	@Setup
+	public void setup() {
+		this.frame = createFrame(this.frameSize, this.contentLength);
+		this.chunks = new byte[CHUNK_COUNT][];
+		int chunkSize = (this.frame.length + CHUNK_COUNT - 1) / CHUNK_COUNT;
+		for (int i = 0; i < CHUNK_COUNT; i++) {
+			int from = Math.min(i * chunkSize, this.frame.length);
+			this.chunks[i] = Arrays.copyOfRange(this.frame, from, Math.min(from + chunkSize, this.frame.length));
+		}
+		this.decoder = new StompDecoder();
+		this.bufferingDecoder = new BufferingStompDecoder(this.decoder, 128 * 1024);
+	}
+
+	private static byte[] createFrame(int frameSize, boolean contentLength) {
+		String headers = "SEND\ndestination:/app/trade\ncontent-type:application/json\n";
+		if (contentLength) {
+			// The header length depends on the number of digits of the body length
+			String header = "";
+			int bodySize = frameSize - headers.length() - 2;
+			while (!header.equals("content-length:" + bodySize + "\n")) {
+				header = "content-length:" + bodySize + "\n";
+				bodySize = frameSize - headers.length() - header.length() - 2;
+			}
+			headers += header;
+		}
+		byte[] frame = new byte[frameSize];
+		byte[] headerBytes = (headers + "\n").getBytes(StandardCharsets.UTF_8);
+		System.arraycopy(headerBytes, 0, frame, 0, headerBytes.length);
+		Arrays.fill(frame, headerBytes.length, frameSize - 1, (byte) 'a');
+		frame[frameSize - 1] = 0;
+		return frame;
+	}
+
+
+	@Benchmark
+	public void decodeFrame(Blackhole bh) {
+		bh.consume(this.decoder.decode(ByteBuffer.wrap(this.frame)));
+	}
+
+	@Benchmark
+	public void decodeFrameWithBufferingDecoder(Blackhole bh) {
+		bh.consume(this.bufferingDecoder.decode(ByteBuffer.wrap(this.frame)));
+	}
+
+	@Benchmark
+	public void decodeChunkedFrameWithBufferingDecoder(Blackhole bh) {
+		for (byte[] chunk : this.chunks) {
+			bh.consume(this.bufferingDecoder.decode(ByteBuffer.wrap(chunk)));
+		}
+	}
+
+}
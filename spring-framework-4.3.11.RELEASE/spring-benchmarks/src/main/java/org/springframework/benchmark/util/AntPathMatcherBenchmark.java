@@ -0,0 +1,99 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.benchmark.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PrecompiledPathMatcher;
+
+/**
+ * Benchmarks for {@link AntPathMatcher} and {@link PrecompiledPathMatcher},
+ * matching a fixed set of request paths against typical request mapping
+ * and resource handler patterns.
+ *
+ * @since 4.3.12
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AntPathMatcherBenchmark {
+
+	private static final String[] PATTERNS = {
+			"/", "/resources/**", "/static/**/*.js", "/api/users", "/api/users/{id}",
+			"/api/users/{id}/orders/{orderId}", "/api/**/search", "/admin/*/settings",
+			"/files/{filename:.+}", "/api/v?/status"};
+
+	private static final String[] PATHS = {
+			"/", "/resources/css/site.css", "/static/js/lib/app.js", "/api/users", "/api/users/42",
+			"/api/users/42/orders/1001", "/api/catalog/products/search", "/admin/security/settings",
+			"/files/report.pdf", "/api/v2/status", "/not/mapped/anywhere"};
+
+	@Param({"ant", "precompiled"})
+	public String pathMatcherType;
+
+	private AntPathMatcher pathMatcher;
+
+
+	@Setup
+	public void setup() {
+		this.pathMatcher = ("precompiled".equals(this.pathMatcherType) ?
+				new PrecompiledPathMatcher() : new AntPathMatcher());
+	}
+
+
+	@Benchmark
+	public void match(Blackhole bh) {
+		for (String pattern : PATTERNS) {
+			for (String path : PATHS) {
+				bh.consume(this.pathMatcher.match(pattern, path));
+			}
+		}
+	}
+
+	@Benchmark
+	public void extractUriTemplateVariables(Blackhole bh) {
+		bh.consume(this.pathMatcher.extractUriTemplateVariables("/api/users/{id}", "/api/users/42"));
+		bh.consume(this.pathMatcher.extractUriTemplateVariables(
+				"/api/users/{id}/orders/{orderId}", "/api/users/42/orders/1001"));
+		bh.consume(this.pathMatcher.extractUriTemplateVariables("/files/{filename:.+}", "/files/report.pdf"));
+	}
+
+	@Benchmark
+	public void sortMatchingPatterns(Blackhole bh) {
+		bh.consume(this.pathMatcher.getPatternComparator("/api/users/42").compare(
+				"/api/users/{id}", "/api/**"));
+		bh.consume(this.pathMatcher.combine("/api/users", "{id}"));
+	}
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.benchmark.web;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.*;
+
+/**
+ * End-to-end benchmarks for request dispatching through the {@code DispatcherServlet},
+ * driven by {@link MockMvc} against annotated controllers.
+ *
+ * @since 4.3.12
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DispatcherServletBenchmark {
+
+	private MockMvc mockMvc;
+
+
+	@Setup
+	public void setup() {
+		this.mockMvc = standaloneSetup(new OrderController(), new FillerController()).build();
+	}
+
+
+	@Benchmark
+	public MvcResult staticPath() throws Exception {
+		return this.mockMvc.perform(get("/orders")).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult pathVariable() throws Exception {
+		return this.mockMvc.perform(get("/orders/42")).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult requestParameter() throws Exception {
+		return this.mockMvc.perform(get("/orders/search").param("customer", "Sam")).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult requestBody() throws Exception {
+		return this.mockMvc.perform(post("/orders").content("SPR-1234").contentType("text/plain")).andReturn();
+	}
+
+	@Benchmark
+	public MvcResult notFound() throws Exception {
+		return this.mockMvc.perform(get("/not/mapped")).andReturn();
+	}
+
+
+	@RestController
+	static class OrderController {
+
+		@GetMapping("/orders")
+		public String orders() {
+			return "orders";
+		}
+
+		@GetMapping("/orders/{id}")
+		public String order(@PathVariable("id") long id) {
+			return "order " + id;
+		}
+
+		@GetMapping("/orders/search")
+		public String search(@RequestParam("customer") String customer) {
+			return "orders for " + customer;
+		}
+
+		@PostMapping("/orders")
+		public String create(@RequestBody String order) {
+			return "created " + order;
+		}
+	}
+
+
+	@RestController
+	static class FillerController {
+
+		@GetMapping("/customers")
+		public String customers() {
+			return "customers";
+		}
+
+		@GetMapping("/customers/{id}")
+		public String customer(@PathVariable("id") long id) {
+			return "customer " + id;
+		}
+
+		@GetMapping("/customers/{id}/orders/{orderId}")
+		public String customerOrder(@PathVariable("id") long id, @PathVariable("orderId") long orderId) {
+			return "customer " + id + " order " + orderId;
+		}
+
+		@GetMapping("/products/**")
+		public String products() {
+			return "products";
+		}
+	}
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.context.index.sample.MetaController;
+import org.springframework.context.index.sample.SampleComponent;
+import org.springframework.context.index.sample.SampleController;
+import org.springframework.context.index.sample.SampleEmbedded;
+import org.springframework.context.index.sample.SampleMetaController;
+import org.springframework.context.index.sample.SampleNone;
+import org.springframework.context.index.sample.SampleRepository;
+import org.springframework.context.index.sample.SampleService;
+import org.springframework.context.index.sample.cdi.SampleNamed;
+import org.springframework.context.index.sample.jpa.SampleEntity;
+import org.springframework.context.index.sample.type.AbstractRepo;
+import org.springframework.context.index.sample.type.Repo;
+import org.springframework.context.index.sample.type.SimpleRepo;
+import org.springframework.context.index.sample.type.SmartRepo;
+import org.springframework.context.index.test.TestCompiler;
+import org.springframework.stereotype.Component;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link CandidateComponentsIndexer}.
+ */
+public class CandidateComponentsIndexerTests {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private TestCompiler compiler;
+
+
+	@Before
+	public void createCompiler() throws IOException {
+		this.compiler = new TestCompiler(this.temporaryFolder);
+	}
+
+
+	@Test
+	public void noCandidate() throws IOException {
+		CandidateComponentsMetadata metadata = compile(SampleNone.class);
+		assertThat(metadata, is(nullValue()));
+	}
+
+	@Test
+	public void noAnnotation() throws IOException {
+		CandidateComponentsMetadata metadata = compile(CandidateComponentsIndexerTests.class);
+		assertThat(metadata, is(nullValue()));
+	}
+
+	@Test
+	public void stereotypeComponent() throws IOException {
+		testComponent(SampleComponent.class);
+	}
+
+	@Test
+	public void stereotypeService() throws IOException {
+		testComponent(SampleService.class);
+	}
+
+	@Test
+	public void stereotypeController() throws IOException {
+		testComponent(SampleController.class);
+	}
+
+	@Test
+	public void stereotypeControllerMetaAnnotation() throws IOException {
+		CandidateComponentsMetadata metadata = compile(SampleMetaController.class, MetaController.class);
+		assertThat(metadata.getItems(), hasSize(1));
+		assertThat(getStereotypes(metadata, SampleMetaController.class.getName()),
+				contains(Component.class.getName()));
+	}
+
+	@Test
+	public void stereotypeRepository() throws IOException {
+		testSingleComponent(SampleRepository.class, Component.class);
+	}
+
+	@Test
+	public void embeddedCandidatesAreDetected() throws IOException {
+		CandidateComponentsMetadata metadata = compile(SampleEmbedded.class);
+		assertThat(metadata.getItems(), hasSize(1));
+		ItemMetadata item = metadata.getItems().get(0);
+		assertThat(item.getType(), is(SampleEmbedded.Another.class.getName()));
+		assertThat(item.getStereotypes(), contains(Component.class.getName()));
+	}
+
+	@Test
+	public void cdiNamed() throws IOException {
+		testSingleComponent(SampleNamed.class, "javax.inject.Named");
+	}
+
+	@Test
+	public void persistenceEntity() throws IOException {
+		testSingleComponent(SampleEntity.class, "javax.persistence.Entity");
+	}
+
+	@Test
+	public void typeStereotypeFromInterface() throws IOException {
+		CandidateComponentsMetadata metadata = compile(SimpleRepo.class);
+		assertThat(metadata.getItems(), hasSize(1));
+		assertThat(metadata.getItems().get(0).getType(), is(SimpleRepo.class.getName()));
+		assertThat(metadata.getItems().get(0).getStereotypes(), contains(Repo.class.getName()));
+	}
+
+	@Test
+	public void typeStereotypeFromSuperClass() throws IOException {
+		CandidateComponentsMetadata metadata = compile(SmartRepo.class, AbstractRepo.class, Repo.class);
+		assertThat(getStereotypes(metadata, SmartRepo.class.getName()), contains(Repo.class.getName()));
+	}
+
+	@Test
+	public void indexIsWrittenInSortedOrder() throws IOException {
+		compile(SampleService.class, SampleComponent.class, SampleController.class);
+		File index = new File(this.compiler.getOutputLocation(), MetadataStore.METADATA_PATH);
+		String content = new String(Files.readAllBytes(index.toPath()), StandardCharsets.ISO_8859_1);
+		assertThat(content, is(
+				SampleComponent.class.getName() + "=" + Component.class.getName() + "\n" +
+				SampleController.class.getName() + "=" + Component.class.getName() + "\n" +
+				SampleService.class.getName() + "=" + Component.class.getName() + "\n"));
+	}
+
+
+	private void testComponent(Class<?>... classes) throws IOException {
+		CandidateComponentsMetadata metadata = compile(classes);
+		for (Class<?> c : classes) {
+			assertThat(getStereotypes(metadata, c.getName()), hasItem(Component.class.getName()));
+		}
+	}
+
+	private void testSingleComponent(Class<?> target, Class<?>... stereotypes) throws IOException {
+		String[] names = new String[stereotypes.length];
+		for (int i = 0; i < stereotypes.length; i++) {
+			names[i] = stereotypes[i].getName();
+		}
+		testSingleComponent(target, names);
+	}
+
+	private void testSingleComponent(Class<?> target, String... stereotypes) throws IOException {
+		CandidateComponentsMetadata metadata = compile(target);
+		assertThat(metadata.getItems(), hasSize(1));
+		assertThat(metadata.getItems().get(0).getType(), is(target.getName()));
+		assertThat(metadata.getItems().get(0).getStereotypes(), containsInAnyOrder(stereotypes));
+	}
+
+	private Iterable<String> getStereotypes(CandidateComponentsMetadata metadata, String type) {
+		for (ItemMetadata item : metadata.getItems()) {
+			if (item.getType().equals(type)) {
+				return item.getStereotypes();
+			}
+		}
+		fail("No entry found for " + type);
+		return null;
+	}
+
+	private CandidateComponentsMetadata compile(Class<?>... types) throws IOException {
+		CandidateComponentsIndexer processor = new CandidateComponentsIndexer();
+		this.compiler.getTask(types).call(processor);
+		File index = new File(this.compiler.getOutputLocation(), MetadataStore.METADATA_PATH);
+		if (!index.exists()) {
+			return null;
+		}
+		InputStream in = new FileInputStream(index);
+		try {
+			return PropertiesMarshaller.read(in);
+		}
+		finally {
+			in.close();
+		}
+	}
+
+}
@@ -67,6 +67,16 @@ public interface ConfigurableApplicationContext extends ApplicationContext, Life
 	 */
 	String LOAD_TIME_WEAVER_BEAN_NAME = "loadTimeWeaver";
 
+	/**
+	 * Name of the bootstrap Executor bean in the factory. If such a bean is
+	 * supplied, the context will use it for pre-instantiating independent
+	 * non-lazy singletons in parallel.
+	 * @since 4.3.12
+	 * @see java.util.concurrent.Executor
+	 * @see org.springframework.beans.factory.support.DefaultListableBeanFactory#setBootstrapExecutor
+	 */
+	String BOOTSTRAP_EXECUTOR_BEAN_NAME = "bootstrapExecutor";
+
 	/**
 	 * Name of the {@link Environment} bean in the factory.
 	 * @since 3.1
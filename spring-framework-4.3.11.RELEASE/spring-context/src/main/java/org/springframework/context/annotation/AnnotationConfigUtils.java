@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostP
 import org.springframework.beans.factory.annotation.RequiredAnnotationBeanPostProcessor;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.SingletonBeanRegistry;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
@@ -37,6 +38,7 @@ import org.springframework.core.annotation.AnnotationAttributes;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.core.type.AnnotatedTypeMetadata;
 import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.util.ClassUtils;
 
 /**
@@ -78,6 +80,19 @@ public class AnnotationConfigUtils {
 	public static final String CONFIGURATION_BEAN_NAME_GENERATOR =
 			"org.springframework.context.annotation.internalConfigurationBeanNameGenerator";
 
+	/**
+	 * The bean name of a shared {@link MetadataReaderFactory} for use when processing
+	 * {@link Configuration} classes and scanning for components. If registered as a
+	 * singleton, it will be used by the {@link ConfigurationClassPostProcessor} and
+	 * by {@link ClassPathBeanDefinitionScanner} instances operating on the registry,
+	 * unless a specific factory has been set on them. Its cache is not cleared by
+	 * those components; this is up to the party registering it.
+	 * @since 4.3.12
+	 * @see org.springframework.core.type.classreading.CachingMetadataReaderFactory
+	 */
+	public static final String METADATA_READER_FACTORY_BEAN_NAME =
+			"org.springframework.context.annotation.internalMetadataReaderFactory";
+
 	/**
 	 * The bean name of the internally managed Autowired annotation processor.
 	 */
@@ -134,6 +149,23 @@ public class AnnotationConfigUtils {
 		registerAnnotationConfigProcessors(registry, null);
 	}
 
+	/**
+	 * Return the shared {@link MetadataReaderFactory} registered in the given registry,
+	 * if any.
+	 * @param registry the registry to check
+	 * @return the shared MetadataReaderFactory, or {@code null} if none
+	 * @see #METADATA_READER_FACTORY_BEAN_NAME
+	 */
+	static MetadataReaderFactory getSharedMetadataReaderFactory(BeanDefinitionRegistry registry) {
+		if (registry instanceof SingletonBeanRegistry) {
+			SingletonBeanRegistry sbr = (SingletonBeanRegistry) registry;
+			if (sbr.containsSingleton(METADATA_READER_FACTORY_BEAN_NAME)) {
+				return (MetadataReaderFactory) sbr.getSingleton(METADATA_READER_FACTORY_BEAN_NAME);
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Register all relevant annotation post processors in the given registry.
 	 * @param registry the registry to operate on
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,7 @@ import org.springframework.core.env.Environment;
 import org.springframework.core.env.EnvironmentCapable;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.PatternMatchUtils;
 
@@ -175,6 +176,22 @@ public class ClassPathBeanDefinitionScanner extends ClassPathScanningCandidateCo
 		return this.registry;
 	}
 
+	/**
+	 * Set the ResourceLoader to use for resource locations.
+	 * <p>As of 4.3.12, a shared {@link MetadataReaderFactory} registered under
+	 * {@link AnnotationConfigUtils#METADATA_READER_FACTORY_BEAN_NAME} gets used
+	 * instead of a scanner-local metadata cache.
+	 * @see #setMetadataReaderFactory
+	 */
+	@Override
+	public void setResourceLoader(ResourceLoader resourceLoader) {
+		super.setResourceLoader(resourceLoader);
+		MetadataReaderFactory sharedFactory = AnnotationConfigUtils.getSharedMetadataReaderFactory(this.registry);
+		if (sharedFactory != null) {
+			setMetadataReaderFactory(sharedFactory);
+		}
+	}
+
 	/**
 	 * Set the defaults to use for detected beans.
 	 * @see BeanDefinitionDefaults
@@ -239,6 +256,19 @@ public class ClassPathBeanDefinitionScanner extends ClassPathScanningCandidateCo
 	}
 
 
+	/**
+	 * Clear the underlying metadata cache, unless the scanner operates on a
+	 * shared {@link MetadataReaderFactory}.
+	 * @see AnnotationConfigUtils#METADATA_READER_FACTORY_BEAN_NAME
+	 */
+	@Override
+	public void clearCache() {
+		if (getMetadataReaderFactory() != AnnotationConfigUtils.getSharedMetadataReaderFactory(this.registry)) {
+			super.clearCache();
+		}
+	}
+
+
 	/**
 	 * Perform a scan within the specified base packages.
 	 * @param basePackages the packages to check for annotated classes
@@ -32,6 +32,9 @@ import org.springframework.beans.factory.annotation.Lookup;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.context.ResourceLoaderAware;
+import org.springframework.context.index.CandidateComponentsIndex;
+import org.springframework.context.index.CandidateComponentsIndexLoader;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.EnvironmentCapable;
 import org.springframework.core.env.StandardEnvironment;
@@ -44,9 +47,11 @@ import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
 import org.springframework.core.type.classreading.MetadataReader;
 import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.core.type.filter.AssignableTypeFilter;
 import org.springframework.core.type.filter.TypeFilter;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Controller;
+import org.springframework.stereotype.Indexed;
 import org.springframework.stereotype.Repository;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
@@ -60,6 +65,11 @@ import org.springframework.util.ClassUtils;
  * {@link org.springframework.core.type.classreading.MetadataReader MetadataReader}
  * facility, backed by an ASM {@link org.springframework.asm.ClassReader ClassReader}.
  *
+ * <p>If a build-time {@link CandidateComponentsIndex} is available on the classpath
+ * ({@code META-INF/spring.components}, as generated by the {@code spring-context-indexer}
+ * annotation processor), candidate types are retrieved from the index instead of
+ * walking the classpath, provided that all include filters are supported by the index.
+ *
  * @author Mark Fisher
  * @author Juergen Hoeller
  * @author Ramnivas Laddad
@@ -68,6 +78,7 @@ import org.springframework.util.ClassUtils;
  * @see org.springframework.core.type.classreading.MetadataReaderFactory
  * @see org.springframework.core.type.AnnotationMetadata
  * @see ScannedGenericBeanDefinition
+ * @see CandidateComponentsIndex
  */
 public class ClassPathScanningCandidateComponentProvider implements EnvironmentCapable, ResourceLoaderAware {
 
@@ -90,6 +101,12 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 
 	private MetadataReaderFactory metadataReaderFactory;
 
+	private CandidateComponentsIndex componentsIndex;
+
+	private ConfigurationClassParseCache parseCache;
+
+	private String parseCacheScanKey;
+
 
 	/**
 	 * Protected constructor for flexible subclass initialization.
@@ -230,6 +247,8 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	 * This will typically be a {@link ResourcePatternResolver} implementation.
 	 * <p>Default is a {@code PathMatchingResourcePatternResolver}, also capable of
 	 * resource pattern resolving through the {@code ResourcePatternResolver} interface.
+	 * <p>The {@link CandidateComponentsIndex}, if any, is loaded from the
+	 * ClassLoader of the given ResourceLoader.
 	 * @see org.springframework.core.io.support.ResourcePatternResolver
 	 * @see org.springframework.core.io.support.PathMatchingResourcePatternResolver
 	 */
@@ -237,6 +256,7 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	public void setResourceLoader(ResourceLoader resourceLoader) {
 		this.resourcePatternResolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
 		this.metadataReaderFactory = new CachingMetadataReaderFactory(resourceLoader);
+		this.componentsIndex = CandidateComponentsIndexLoader.loadIndex(this.resourcePatternResolver.getClassLoader());
 	}
 
 	/**
@@ -264,13 +284,166 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return this.metadataReaderFactory;
 	}
 
+	/**
+	 * Use the given parse cache for the candidate types of this provider's scans,
+	 * recording them on a cache miss and skipping classpath scanning on a cache hit.
+	 * @param parseCache the parse cache to use
+	 * @param scanKey the key identifying the component scan declaration
+	 * @since 4.3.12
+	 */
+	void setParseCache(ConfigurationClassParseCache parseCache, String scanKey) {
+		this.parseCache = parseCache;
+		this.parseCacheScanKey = scanKey;
+	}
+
 
 	/**
 	 * Scan the class path for candidate components.
+	 * <p>Uses the {@link CandidateComponentsIndex} instead of a classpath walk
+	 * if an index is present and supports all configured include filters.
 	 * @param basePackage the package to check for annotated classes
 	 * @return a corresponding Set of autodetected bean definitions
 	 */
 	public Set<BeanDefinition> findCandidateComponents(String basePackage) {
+		if (this.componentsIndex != null && indexSupportsIncludeFilters()) {
+			return addCandidateComponentsFromIndex(this.componentsIndex, basePackage);
+		}
+		else if (this.parseCache != null) {
+			return addCandidateComponentsFromParseCache(this.parseCache, basePackage);
+		}
+		else {
+			return scanCandidateComponents(basePackage, null);
+		}
+	}
+
+	/**
+	 * Determine if the index can be used by this instance.
+	 * @return {@code true} if the index is available and the configuration of this
+	 * instance is supported by it, {@code false} otherwise
+	 */
+	private boolean indexSupportsIncludeFilters() {
+		for (TypeFilter includeFilter : this.includeFilters) {
+			if (!indexSupportsIncludeFilter(includeFilter)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Determine if the specified include {@link TypeFilter} is supported by the index.
+	 * @param filter the filter to check
+	 * @return whether the index supports this include filter
+	 * @see #extractStereotype(TypeFilter)
+	 */
+	private boolean indexSupportsIncludeFilter(TypeFilter filter) {
+		if (filter instanceof AnnotationTypeFilter) {
+			Class<? extends Annotation> annotation = ((AnnotationTypeFilter) filter).getAnnotationType();
+			return (AnnotationUtils.isAnnotationDeclaredLocally(Indexed.class, annotation) ||
+					annotation.getName().startsWith("javax."));
+		}
+		if (filter instanceof AssignableTypeFilter) {
+			Class<?> target = ((AssignableTypeFilter) filter).getTargetType();
+			return AnnotationUtils.isAnnotationDeclaredLocally(Indexed.class, target);
+		}
+		return false;
+	}
+
+	/**
+	 * Extract the stereotype to use for the specified compatible filter.
+	 * @param filter the filter to handle
+	 * @return the stereotype in the index matching this filter
+	 * @see #indexSupportsIncludeFilter(TypeFilter)
+	 */
+	private String extractStereotype(TypeFilter filter) {
+		if (filter instanceof AnnotationTypeFilter) {
+			return ((AnnotationTypeFilter) filter).getAnnotationType().getName();
+		}
+		if (filter instanceof AssignableTypeFilter) {
+			return ((AssignableTypeFilter) filter).getTargetType().getName();
+		}
+		return null;
+	}
+
+	private Set<BeanDefinition> addCandidateComponentsFromIndex(CandidateComponentsIndex index, String basePackage) {
+		try {
+			String packageToUse = this.environment.resolveRequiredPlaceholders(basePackage);
+			Set<String> types = new LinkedHashSet<String>();
+			for (TypeFilter filter : this.includeFilters) {
+				String stereotype = extractStereotype(filter);
+				if (stereotype == null) {
+					throw new IllegalArgumentException("Failed to extract stereotype from " + filter);
+				}
+				types.addAll(index.getCandidateTypes(packageToUse, stereotype));
+			}
+			return addCandidateComponents(types, "index");
+		}
+		catch (IOException ex) {
+			throw new BeanDefinitionStoreException("I/O failure during index-based component lookup", ex);
+		}
+	}
+
+	private Set<BeanDefinition> addCandidateComponentsFromParseCache(
+			ConfigurationClassParseCache parseCache, String basePackage) {
+
+		String packageToUse = this.environment.resolveRequiredPlaceholders(basePackage);
+		Set<String> types = parseCache.getCandidateTypes(this.parseCacheScanKey, packageToUse);
+		if (types != null) {
+			try {
+				return addCandidateComponents(types, "parse cache");
+			}
+			catch (IOException ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Stale parse cache entry for base package '" + packageToUse +
+							"' - falling back to classpath scanning", ex);
+				}
+			}
+		}
+		types = new LinkedHashSet<String>();
+		Set<BeanDefinition> candidates = scanCandidateComponents(basePackage, types);
+		parseCache.putCandidateTypes(this.parseCacheScanKey, packageToUse, types);
+		return candidates;
+	}
+
+	private Set<BeanDefinition> addCandidateComponents(Set<String> types, String source) throws IOException {
+		Set<BeanDefinition> candidates = new LinkedHashSet<BeanDefinition>();
+		boolean traceEnabled = logger.isTraceEnabled();
+		boolean debugEnabled = logger.isDebugEnabled();
+		for (String type : types) {
+			MetadataReader metadataReader = this.metadataReaderFactory.getMetadataReader(type);
+			if (isCandidateComponent(metadataReader)) {
+				ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
+				sbd.setResource(metadataReader.getResource());
+				sbd.setSource(metadataReader.getResource());
+				if (isCandidateComponent(sbd)) {
+					if (debugEnabled) {
+						logger.debug("Using candidate component class from " + source + ": " + type);
+					}
+					candidates.add(sbd);
+				}
+				else {
+					if (debugEnabled) {
+						logger.debug("Ignored because not a concrete top-level class: " + type);
+					}
+				}
+			}
+			else {
+				if (traceEnabled) {
+					logger.trace("Ignored because not matching any filter: " + type);
+				}
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * Scan the class path for candidate components.
+	 * @param basePackage the package to check for annotated classes
+	 * @param matchingTypes a Set to record the names of all types matching the
+	 * type filters in, irrespective of any conditions (may be {@code null})
+	 * @return a corresponding Set of autodetected bean definitions
+	 */
+	private Set<BeanDefinition> scanCandidateComponents(String basePackage, Set<String> matchingTypes) {
 		Set<BeanDefinition> candidates = new LinkedHashSet<BeanDefinition>();
 		try {
 			String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
@@ -285,6 +458,9 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 				if (resource.isReadable()) {
 					try {
 						MetadataReader metadataReader = this.metadataReaderFactory.getMetadataReader(resource);
+						if (matchingTypes != null && matchesTypeFilters(metadataReader)) {
+							matchingTypes.add(metadataReader.getClassMetadata().getClassName());
+						}
 						if (isCandidateComponent(metadataReader)) {
 							ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
 							sbd.setResource(resource);
@@ -358,6 +534,27 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return false;
 	}
 
+	/**
+	 * Determine whether the given class does not match any exclude filter
+	 * and does match at least one include filter, not taking conditions
+	 * into account.
+	 * @param metadataReader the ASM ClassReader for the class
+	 * @return whether the class matches the type filters
+	 */
+	private boolean matchesTypeFilters(MetadataReader metadataReader) throws IOException {
+		for (TypeFilter tf : this.excludeFilters) {
+			if (tf.match(metadataReader, this.metadataReaderFactory)) {
+				return false;
+			}
+		}
+		for (TypeFilter tf : this.includeFilters) {
+			if (tf.match(metadataReader, this.metadataReaderFactory)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Determine whether the given class is a candidate component based on any
 	 * {@code @Conditional} annotations.
@@ -62,6 +62,8 @@ class ComponentScanAnnotationParser {
 
 	private final BeanDefinitionRegistry registry;
 
+	private ConfigurationClassParseCache parseCache;
+
 
 	public ComponentScanAnnotationParser(Environment environment, ResourceLoader resourceLoader,
 			BeanNameGenerator beanNameGenerator, BeanDefinitionRegistry registry) {
@@ -73,6 +75,15 @@ class ComponentScanAnnotationParser {
 	}
 
 
+	/**
+	 * Set a parse cache for the candidate types of component scans.
+	 * @since 4.3.12
+	 */
+	public void setParseCache(ConfigurationClassParseCache parseCache) {
+		this.parseCache = parseCache;
+	}
+
+
 	public Set<BeanDefinitionHolder> parse(AnnotationAttributes componentScan, final String declaringClass) {
 		Assert.state(this.environment != null, "Environment must not be null");
 		Assert.state(this.resourceLoader != null, "ResourceLoader must not be null");
@@ -95,6 +106,9 @@ class ComponentScanAnnotationParser {
 		}
 
 		scanner.setResourcePattern(componentScan.getString("resourcePattern"));
+		if (this.parseCache != null) {
+			scanner.setParseCache(this.parseCache, ConfigurationClassParseCache.getScanKey(componentScan, declaringClass));
+		}
 
 		for (AnnotationAttributes filter : componentScan.getAnnotationArray("includeFilters")) {
 			for (TypeFilter typeFilter : typeFiltersFor(filter)) {
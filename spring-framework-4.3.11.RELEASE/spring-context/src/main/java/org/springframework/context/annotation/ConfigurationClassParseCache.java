@@ -0,0 +1,337 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Persistent cache for configuration class parsing results, allowing for
+ * skipping the expensive parts of configuration class parsing on subsequent
+ * startups against an unchanged classpath.
+ *
+ * <p>Currently covers the classpath scanning triggered by {@link ComponentScan}
+ * declarations: the cache records which types in each base package match the
+ * type filters of a component scan, so that a subsequent startup only needs to
+ * read the metadata of those types instead of scanning the entire package.
+ * Cached types still go through all filters and {@link Conditional} checks
+ * on every startup, since conditions may depend on the environment.
+ *
+ * <p>The cache is bound to a fingerprint of the classpath (the names, sizes and
+ * last-modified timestamps of all jar files as well as of the class files and
+ * resources within class directories); any change to the classpath discards
+ * the cached entries.
+ *
+ * @since 4.3.12
+ * @see ConfigurationClassPostProcessor#setParseCacheFile
+ */
+class ConfigurationClassParseCache {
+
+	private static final String FINGERPRINT_KEY = "fingerprint";
+
+	private static final String SCAN_KEY_PREFIX = "scan.";
+
+	private static final Log logger = LogFactory.getLog(ConfigurationClassParseCache.class);
+
+
+	private final File file;
+
+	private final String fingerprint;
+
+	private final Map<String, Set<String>> candidateTypes = new ConcurrentHashMap<String, Set<String>>(16);
+
+	private volatile boolean modified = false;
+
+
+	private ConfigurationClassParseCache(File file, String fingerprint) {
+		this.file = file;
+		this.fingerprint = fingerprint;
+	}
+
+
+	/**
+	 * Return the cached candidate types for the given component scan and base package.
+	 * @param scanKey the key identifying the component scan declaration
+	 * @param basePackage the (resolved) base package
+	 * @return the cached candidate type names, or {@code null} if not cached yet
+	 * @see #getScanKey
+	 */
+	public Set<String> getCandidateTypes(String scanKey, String basePackage) {
+		return this.candidateTypes.get(scanKey + '#' + basePackage);
+	}
+
+	/**
+	 * Record the candidate types for the given component scan and base package.
+	 * @param scanKey the key identifying the component scan declaration
+	 * @param basePackage the (resolved) base package
+	 * @param types the names of the types matching the component scan's filters
+	 */
+	public void putCandidateTypes(String scanKey, String basePackage, Set<String> types) {
+		this.candidateTypes.put(scanKey + '#' + basePackage, new LinkedHashSet<String>(types));
+		this.modified = true;
+	}
+
+	/**
+	 * Write the cache to its file if it has been modified since loading.
+	 * <p>Failures are logged but not propagated, since the cache is
+	 * a pure optimization for subsequent startups.
+	 */
+	public void store() {
+		if (!this.modified) {
+			return;
+		}
+		Properties props = new Properties();
+		props.setProperty(FINGERPRINT_KEY, this.fingerprint);
+		for (Map.Entry<String, Set<String>> entry : this.candidateTypes.entrySet()) {
+			props.setProperty(SCAN_KEY_PREFIX + entry.getKey(),
+					StringUtils.collectionToCommaDelimitedString(entry.getValue()));
+		}
+		File parent = this.file.getAbsoluteFile().getParentFile();
+		try {
+			if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+				throw new IOException("Could not create directory " + parent);
+			}
+			// Write to a temporary file first, not exposing partially written content to other processes
+			File tempFile = File.createTempFile(this.file.getName(), ".tmp", parent);
+			OutputStream out = new FileOutputStream(tempFile);
+			try {
+				props.store(out, "Configuration class parse cache");
+			}
+			finally {
+				out.close();
+			}
+			if (!tempFile.renameTo(this.file)) {
+				this.file.delete();
+				if (!tempFile.renameTo(this.file)) {
+					tempFile.delete();
+					throw new IOException("Could not rename " + tempFile + " to " + this.file);
+				}
+			}
+			this.modified = false;
+			if (logger.isDebugEnabled()) {
+				logger.debug("Stored configuration class parse cache to " + this.file);
+			}
+		}
+		catch (IOException ex) {
+			logger.warn("Failed to store configuration class parse cache to " + this.file, ex);
+		}
+	}
+
+
+	/**
+	 * Load the cache from the given file, discarding its content if it does not
+	 * match the current classpath of the given ClassLoader.
+	 * @param file the cache file (does not need to exist yet)
+	 * @param classLoader the ClassLoader to compute the classpath fingerprint for
+	 * @return the cache, or {@code null} if no classpath fingerprint can be
+	 * determined for the given ClassLoader
+	 */
+	public static ConfigurationClassParseCache load(File file, ClassLoader classLoader) {
+		String fingerprint = computeFingerprint(classLoader, file);
+		if (fingerprint == null) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Cannot determine classpath of " + classLoader +
+						" - configuration class parse cache not available");
+			}
+			return null;
+		}
+		ConfigurationClassParseCache cache = new ConfigurationClassParseCache(file, fingerprint);
+		if (!file.isFile()) {
+			return cache;
+		}
+		Properties props = new Properties();
+		try {
+			InputStream in = new FileInputStream(file);
+			try {
+				props.load(in);
+			}
+			finally {
+				in.close();
+			}
+		}
+		catch (IOException ex) {
+			logger.warn("Failed to load configuration class parse cache from " + file, ex);
+			return cache;
+		}
+		if (!fingerprint.equals(props.getProperty(FINGERPRINT_KEY))) {
+			if (logger.isInfoEnabled()) {
+				logger.info("Classpath changed - discarding configuration class parse cache " + file);
+			}
+			cache.modified = true;
+			return cache;
+		}
+		for (String key : props.stringPropertyNames()) {
+			if (key.startsWith(SCAN_KEY_PREFIX)) {
+				cache.candidateTypes.put(key.substring(SCAN_KEY_PREFIX.length()),
+						StringUtils.commaDelimitedListToSet(props.getProperty(key)));
+			}
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Loaded configuration class parse cache with " + cache.candidateTypes.size() +
+					" component scan entries from " + file);
+		}
+		return cache;
+	}
+
+	/**
+	 * Build a key for the given component scan declaration, identifying
+	 * the declaring class as well as the full set of scan attributes.
+	 * @param componentScan the {@link ComponentScan} attributes
+	 * @param declaringClass the name of the class declaring the component scan
+	 */
+	public static String getScanKey(AnnotationAttributes componentScan, String declaringClass) {
+		String attributes = componentScan.toString();
+		try {
+			return declaringClass + '@' + DigestUtils.md5DigestAsHex(attributes.getBytes("UTF-8"));
+		}
+		catch (UnsupportedEncodingException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Compute a fingerprint of the classpath of the given ClassLoader,
+	 * based on the names, sizes and last-modified timestamps of all jar
+	 * files as well as of the class files and resources within class
+	 * directories. Hidden and temporary files are left out, as are the
+	 * directories themselves, whose timestamps change with any file added
+	 * or removed.
+	 * @param classLoader the ClassLoader to introspect
+	 * @param cacheFile the cache file to leave out, in case it is located
+	 * within a class directory (may be {@code null})
+	 * @return the fingerprint, or {@code null} if not determinable
+	 */
+	static String computeFingerprint(ClassLoader classLoader, File cacheFile) {
+		Set<String> classPathEntries = new LinkedHashSet<String>();
+		ClassLoader current = classLoader;
+		while (current != null) {
+			if (current instanceof URLClassLoader) {
+				for (URL url : ((URLClassLoader) current).getURLs()) {
+					if (ResourceUtils.URL_PROTOCOL_FILE.equals(url.getProtocol())) {
+						try {
+							classPathEntries.add(ResourceUtils.toURI(url).getSchemeSpecificPart());
+						}
+						catch (URISyntaxException ex) {
+							classPathEntries.add(url.getFile());
+						}
+					}
+				}
+			}
+			current = current.getParent();
+		}
+		String javaClassPath = System.getProperty("java.class.path");
+		if (StringUtils.hasLength(javaClassPath)) {
+			for (String classPathEntry : StringUtils.delimitedListToStringArray(javaClassPath, File.pathSeparator)) {
+				// An empty entry stands for the current directory
+				classPathEntries.add(StringUtils.hasLength(classPathEntry) ? classPathEntry : ".");
+			}
+		}
+		if (classPathEntries.isEmpty()) {
+			return null;
+		}
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("MD5");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("Could not find MessageDigest with algorithm \"MD5\"", ex);
+		}
+		File excludedFile = (cacheFile != null ? getCanonicalFile(cacheFile) : null);
+		for (String classPathEntry : classPathEntries) {
+			File file = getCanonicalFile(new File(classPathEntry));
+			if (file.isDirectory()) {
+				updateFingerprintForDirectory(digest, file, excludedFile);
+			}
+			else {
+				updateFingerprint(digest, file);
+			}
+		}
+		byte[] bytes = digest.digest();
+		StringBuilder sb = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+			sb.append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+
+	private static File getCanonicalFile(File file) {
+		try {
+			return file.getCanonicalFile();
+		}
+		catch (IOException ex) {
+			return file.getAbsoluteFile();
+		}
+	}
+
+	private static void updateFingerprintForDirectory(MessageDigest digest, File directory, File excludedFile) {
+		File[] children = directory.listFiles();
+		if (children == null) {
+			return;
+		}
+		Set<File> sortedChildren = new TreeSet<File>(Arrays.asList(children));
+		for (File child : sortedChildren) {
+			String name = child.getName();
+			if (name.startsWith(".") || child.equals(excludedFile)) {
+				continue;
+			}
+			if (child.isDirectory()) {
+				updateFingerprintForDirectory(digest, child, excludedFile);
+			}
+			else if (!name.endsWith(".tmp") && !name.endsWith("~")) {
+				// A class file or resource
+				updateFingerprint(digest, child);
+			}
+		}
+	}
+
+	private static void updateFingerprint(MessageDigest digest, File file) {
+		String description = file.getPath() + ':' + file.length() + ':' + file.lastModified() + '\n';
+		try {
+			digest.update(description.getBytes("UTF-8"));
+		}
+		catch (UnsupportedEncodingException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
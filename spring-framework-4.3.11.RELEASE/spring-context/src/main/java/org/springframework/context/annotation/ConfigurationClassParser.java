@@ -157,6 +157,16 @@ class ConfigurationClassParser {
 	}
 
 
+	/**
+	 * Set a parse cache for reusing parsing results from previous startups.
+	 * @since 4.3.12
+	 * @see ConfigurationClassParseCache
+	 */
+	public void setParseCache(ConfigurationClassParseCache parseCache) {
+		this.componentScanParser.setParseCache(parseCache);
+	}
+
+
 	public void parse(Set<BeanDefinitionHolder> configCandidates) {
 		this.deferredImportSelectors = new LinkedList<DeferredImportSelectorHolder>();
 
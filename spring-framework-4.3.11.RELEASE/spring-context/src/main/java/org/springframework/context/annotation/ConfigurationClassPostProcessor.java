@@ -17,6 +17,7 @@
 package org.springframework.context.annotation;
 
 import java.beans.PropertyDescriptor;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -36,6 +37,7 @@ import org.springframework.beans.PropertyValues;
 import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.beans.factory.BeanDefinitionStoreException;
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
 import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
@@ -55,6 +57,7 @@ import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.annotation.ConfigurationClassEnhancer.EnhancedConfiguration;
 import org.springframework.core.Ordered;
 import org.springframework.core.PriorityOrdered;
+import org.springframework.core.SpringProperties;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.ResourceLoader;
@@ -85,7 +88,30 @@ import static org.springframework.context.annotation.AnnotationConfigUtils.*;
  * @since 3.0
  */
 public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPostProcessor,
-		PriorityOrdered, ResourceLoaderAware, BeanClassLoaderAware, EnvironmentAware {
+		PriorityOrdered, ResourceLoaderAware, BeanClassLoaderAware, EnvironmentAware, SmartInitializingSingleton {
+
+	/**
+	 * System property that specifies the location of a parse cache file,
+	 * to be used if no {@link #setParseCacheFile parse cache file} has been
+	 * set explicitly: {@code "spring.context.parseCacheFile"}.
+	 * <p>May alternatively be configured through a {@code spring.properties}
+	 * file in the root of the classpath.
+	 * @since 4.3.12
+	 * @see #setParseCacheFile
+	 */
+	public static final String PARSE_CACHE_FILE_PROPERTY_NAME = "spring.context.parseCacheFile";
+
+	/**
+	 * System property that instructs the post-processor to release the class file
+	 * metadata of scanned components once all singletons have been instantiated,
+	 * to be used if {@link #setReleaseScannedMetadata} has not been called:
+	 * {@code "spring.context.releaseScannedMetadata"}.
+	 * <p>May alternatively be configured through a {@code spring.properties}
+	 * file in the root of the classpath.
+	 * @since 4.3.12
+	 * @see #setReleaseScannedMetadata
+	 */
+	public static final String RELEASE_SCANNED_METADATA_PROPERTY_NAME = "spring.context.releaseScannedMetadata";
 
 	private static final String IMPORT_REGISTRY_BEAN_NAME =
 			ConfigurationClassPostProcessor.class.getName() + ".importRegistry";
@@ -107,6 +133,12 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 
 	private boolean setMetadataReaderFactoryCalled = false;
 
+	private File parseCacheFile;
+
+	private Boolean releaseScannedMetadata;
+
+	private ConfigurableListableBeanFactory beanFactory;
+
 	private final Set<Integer> registriesPostProcessed = new HashSet<Integer>();
 
 	private final Set<Integer> factoriesPostProcessed = new HashSet<Integer>();
@@ -153,7 +185,8 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 	/**
 	 * Set the {@link MetadataReaderFactory} to use.
 	 * <p>Default is a {@link CachingMetadataReaderFactory} for the specified
-	 * {@linkplain #setBeanClassLoader bean class loader}.
+	 * {@linkplain #setBeanClassLoader bean class loader}, or the shared factory
+	 * registered under {@link AnnotationConfigUtils#METADATA_READER_FACTORY_BEAN_NAME}.
 	 */
 	public void setMetadataReaderFactory(MetadataReaderFactory metadataReaderFactory) {
 		Assert.notNull(metadataReaderFactory, "MetadataReaderFactory must not be null");
@@ -185,6 +218,39 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		this.importBeanNameGenerator = beanNameGenerator;
 	}
 
+	/**
+	 * Specify a file for persisting configuration class parsing results,
+	 * allowing subsequent startups against an unchanged classpath to skip
+	 * classpath scanning for {@link ComponentScan} declarations.
+	 * <p>The cache is bound to a fingerprint of the classpath and automatically
+	 * discarded when any jar file or class directory changes. Scanned candidates
+	 * are still subject to all type filters and conditions on every startup,
+	 * with type filters expected to be deterministic for a given classpath.
+	 * <p>Default is none, unless specified through the
+	 * {@link #PARSE_CACHE_FILE_PROPERTY_NAME "spring.context.parseCacheFile"}
+	 * system property.
+	 * @since 4.3.12
+	 */
+	public void setParseCacheFile(File parseCacheFile) {
+		this.parseCacheFile = parseCacheFile;
+	}
+
+	/**
+	 * Specify whether to release the class file metadata of scanned components
+	 * once all singletons have been instantiated. The bean definitions of such
+	 * components expose reflection-based metadata for their resolved bean classes
+	 * from then on, allowing the metadata read from their class files to be
+	 * garbage-collected. Lazily initialized components keep their metadata.
+	 * <p>Default is "false", unless specified through the
+	 * {@link #RELEASE_SCANNED_METADATA_PROPERTY_NAME "spring.context.releaseScannedMetadata"}
+	 * system property.
+	 * @since 4.3.12
+	 * @see ScannedGenericBeanDefinition#getMetadata()
+	 */
+	public void setReleaseScannedMetadata(boolean releaseScannedMetadata) {
+		this.releaseScannedMetadata = releaseScannedMetadata;
+	}
+
 	@Override
 	public void setEnvironment(Environment environment) {
 		Assert.notNull(environment, "Environment must not be null");
@@ -248,6 +314,42 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 
 		enhanceConfigurationClasses(beanFactory);
 		beanFactory.addBeanPostProcessor(new ImportAwareBeanPostProcessor(beanFactory));
+		this.beanFactory = beanFactory;
+	}
+
+	/**
+	 * Release the class file metadata of scanned components, if demanded.
+	 * @see #setReleaseScannedMetadata
+	 */
+	@Override
+	public void afterSingletonsInstantiated() {
+		boolean release = (this.releaseScannedMetadata != null ? this.releaseScannedMetadata :
+				SpringProperties.getFlag(RELEASE_SCANNED_METADATA_PROPERTY_NAME));
+		if (release && this.beanFactory != null) {
+			releaseScannedMetadata(this.beanFactory);
+		}
+	}
+
+	private void releaseScannedMetadata(ConfigurableListableBeanFactory beanFactory) {
+		int count = 0;
+		for (String beanName : beanFactory.getBeanDefinitionNames()) {
+			BeanDefinition beanDef = beanFactory.getBeanDefinition(beanName);
+			if (beanDef instanceof ScannedGenericBeanDefinition) {
+				ScannedGenericBeanDefinition scannedDef = (ScannedGenericBeanDefinition) beanDef;
+				BeanDefinition mbd = beanFactory.getMergedBeanDefinition(beanName);
+				if (mbd instanceof AbstractBeanDefinition && ((AbstractBeanDefinition) mbd).hasBeanClass()) {
+					Class<?> beanClass = ClassUtils.getUserClass(((AbstractBeanDefinition) mbd).getBeanClass());
+					// Only for beans still based on the scanned class (not replaced by a post-processor)
+					if (beanClass.getName().equals(scannedDef.getMetadata().getClassName())) {
+						scannedDef.releaseMetadata(beanClass);
+						count++;
+					}
+				}
+			}
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Released class file metadata of " + count + " scanned bean definitions");
+		}
 	}
 
 	/**
@@ -255,6 +357,15 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 	 * {@link Configuration} classes.
 	 */
 	public void processConfigBeanDefinitions(BeanDefinitionRegistry registry) {
+		// Detect a MetadataReaderFactory shared with other scanning components
+		MetadataReaderFactory sharedFactory = null;
+		if (!this.setMetadataReaderFactoryCalled) {
+			sharedFactory = AnnotationConfigUtils.getSharedMetadataReaderFactory(registry);
+			if (sharedFactory != null) {
+				this.metadataReaderFactory = sharedFactory;
+			}
+		}
+
 		List<BeanDefinitionHolder> configCandidates = new ArrayList<BeanDefinitionHolder>();
 		String[] candidateNames = registry.getBeanDefinitionNames();
 
@@ -301,6 +412,10 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		ConfigurationClassParser parser = new ConfigurationClassParser(
 				this.metadataReaderFactory, this.problemReporter, this.environment,
 				this.resourceLoader, this.componentScanBeanNameGenerator, registry);
+		ConfigurationClassParseCache parseCache = loadParseCache();
+		if (parseCache != null) {
+			parser.setParseCache(parseCache);
+		}
 
 		Set<BeanDefinitionHolder> candidates = new LinkedHashSet<BeanDefinitionHolder>(configCandidates);
 		Set<ConfigurationClass> alreadyParsed = new HashSet<ConfigurationClass>(configCandidates.size());
@@ -349,11 +464,27 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 			}
 		}
 
-		if (this.metadataReaderFactory instanceof CachingMetadataReaderFactory) {
+		if (parseCache != null) {
+			parseCache.store();
+		}
+
+		if (sharedFactory == null && this.metadataReaderFactory instanceof CachingMetadataReaderFactory) {
 			((CachingMetadataReaderFactory) this.metadataReaderFactory).clearCache();
 		}
 	}
 
+	private ConfigurationClassParseCache loadParseCache() {
+		File file = this.parseCacheFile;
+		if (file == null) {
+			String location = SpringProperties.getProperty(PARSE_CACHE_FILE_PROPERTY_NAME);
+			if (location == null) {
+				return null;
+			}
+			file = new File(location);
+		}
+		return ConfigurationClassParseCache.load(file, this.beanClassLoader);
+	}
+
 	/**
 	 * Post-processes a BeanFactory in search of Configuration class BeanDefinitions;
 	 * any candidates are then enhanced by a {@link ConfigurationClassEnhancer}.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import org.springframework.beans.factory.annotation.AnnotatedGenericBeanDefiniti
 import org.springframework.beans.factory.support.GenericBeanDefinition;
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.StandardAnnotationMetadata;
 import org.springframework.core.type.classreading.MetadataReader;
 import org.springframework.util.Assert;
 
@@ -47,7 +48,7 @@ import org.springframework.util.Assert;
 @SuppressWarnings("serial")
 public class ScannedGenericBeanDefinition extends GenericBeanDefinition implements AnnotatedBeanDefinition {
 
-	private final AnnotationMetadata metadata;
+	private volatile AnnotationMetadata metadata;
 
 
 	/**
@@ -62,6 +63,11 @@ public class ScannedGenericBeanDefinition extends GenericBeanDefinition implemen
 	}
 
 
+	/**
+	 * Return the metadata for this bean definition's class: as read from the
+	 * ".class" file, or as introspected via reflection on the bean class after
+	 * the class file metadata has been released.
+	 */
 	@Override
 	public final AnnotationMetadata getMetadata() {
 		return this.metadata;
@@ -72,4 +78,15 @@ public class ScannedGenericBeanDefinition extends GenericBeanDefinition implemen
 		return null;
 	}
 
+	/**
+	 * Replace the metadata read from the ".class" file with reflection-based
+	 * metadata for the given bean class, allowing the former to be released.
+	 * @param beanClass the resolved (user-level) bean class
+	 * @since 4.3.12
+	 * @see ConfigurationClassPostProcessor#setReleaseScannedMetadata
+	 */
+	void releaseMetadata(Class<?> beanClass) {
+		this.metadata = new StandardAnnotationMetadata(beanClass, true);
+	}
+
 }
@@ -32,6 +32,7 @@ import org.springframework.context.ApplicationEvent;
 import org.springframework.context.PayloadApplicationEvent;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.GeneratedMethodInvoker;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.Order;
@@ -39,7 +40,6 @@ import org.springframework.expression.EvaluationContext;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
-import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -251,9 +251,8 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 	 */
 	protected Object doInvoke(Object... args) {
 		Object bean = getTargetBean();
-		ReflectionUtils.makeAccessible(this.bridgedMethod);
 		try {
-			return this.bridgedMethod.invoke(bean, args);
+			return GeneratedMethodInvoker.invokeMethod(this.bridgedMethod, bean, args);
 		}
 		catch (IllegalArgumentException ex) {
 			assertTargetBean(this.bridgedMethod, bean, args);
@@ -36,6 +36,9 @@ import org.aspectj.lang.annotation.Aspect;
 import org.junit.Test;
 
 import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.index.CandidateComponentsTestClassLoader;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.type.filter.AnnotationTypeFilter;
@@ -60,6 +63,10 @@ public class ClassPathScanningCandidateComponentProviderTests {
 	private static final String TEST_PROFILE_PACKAGE = "example.profilescan";
 	private static final String TEST_DEFAULT_PROFILE_NAME = "testDefault";
 
+	private static final ClassLoader TEST_BASE_CLASSLOADER = CandidateComponentsTestClassLoader.index(
+			ClassPathScanningCandidateComponentProviderTests.class.getClassLoader(),
+			new ClassPathResource("spring.components", NamedComponent.class));
+
 
 	@Test
 	public void testWithDefaults() {
@@ -73,6 +80,27 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		assertTrue(containsBeanClass(candidates, ServiceInvocationCounter.class));
 	}
 
+	@Test
+	public void testWithDefaultsWithIndex() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(TEST_BASE_CLASSLOADER));
+		Set<BeanDefinition> candidates = provider.findCandidateComponents(TEST_BASE_PACKAGE);
+		assertEquals(6, candidates.size());
+		assertTrue(containsBeanClass(candidates, NamedComponent.class));
+		assertTrue(containsBeanClass(candidates, FooServiceImpl.class));
+		assertTrue(containsBeanClass(candidates, StubFooDao.class));
+		assertTrue(containsBeanClass(candidates, NamedStubDao.class));
+		assertTrue(containsBeanClass(candidates, ServiceInvocationCounter.class));
+	}
+
+	@Test
+	public void testWithDefaultsWithIndexAndPlaceholder() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(TEST_BASE_CLASSLOADER));
+		Set<BeanDefinition> candidates = provider.findCandidateComponents("${basePackage:" + TEST_BASE_PACKAGE + "}");
+		assertEquals(6, candidates.size());
+	}
+
 	@Test
 	public void testWithBogusBasePackage() {
 		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
@@ -80,6 +108,23 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		assertEquals(0, candidates.size());
 	}
 
+	@Test
+	public void testWithBogusBasePackageWithIndex() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(TEST_BASE_CLASSLOADER));
+		Set<BeanDefinition> candidates = provider.findCandidateComponents("bogus");
+		assertEquals(0, candidates.size());
+	}
+
+	@Test
+	public void testWithPackageExcludeFilterWithIndex() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(TEST_BASE_CLASSLOADER));
+		provider.addExcludeFilter(new RegexPatternTypeFilter(Pattern.compile(TEST_BASE_PACKAGE + ".*")));
+		Set<BeanDefinition> candidates = provider.findCandidateComponents(TEST_BASE_PACKAGE);
+		assertEquals(0, candidates.size());
+	}
+
 	@Test
 	public void testWithPackageExcludeFilter() {
 		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
@@ -111,6 +156,34 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		assertFalse(containsBeanClass(candidates, NamedStubDao.class));
 	}
 
+	@Test
+	public void testWithComponentAnnotationOnlyWithIndex() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false);
+		provider.setResourceLoader(new DefaultResourceLoader(TEST_BASE_CLASSLOADER));
+		provider.addIncludeFilter(new AnnotationTypeFilter(Component.class));
+		provider.addExcludeFilter(new AnnotationTypeFilter(Repository.class));
+		provider.addExcludeFilter(new AnnotationTypeFilter(Service.class));
+		provider.addExcludeFilter(new AnnotationTypeFilter(Controller.class));
+		Set<BeanDefinition> candidates = provider.findCandidateComponents(TEST_BASE_PACKAGE);
+		assertEquals(2, candidates.size());
+		assertTrue(containsBeanClass(candidates, NamedComponent.class));
+		assertTrue(containsBeanClass(candidates, ServiceInvocationCounter.class));
+		assertFalse(containsBeanClass(candidates, FooServiceImpl.class));
+		assertFalse(containsBeanClass(candidates, StubFooDao.class));
+		assertFalse(containsBeanClass(candidates, NamedStubDao.class));
+	}
+
+	@Test
+	public void testWithAspectAnnotationOnlyFallsBackToScanningWithIndex() {
+		// @Aspect is not an indexed stereotype: the provider has to scan the classpath
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false);
+		provider.setResourceLoader(new DefaultResourceLoader(TEST_BASE_CLASSLOADER));
+		provider.addIncludeFilter(new AnnotationTypeFilter(Aspect.class));
+		Set<BeanDefinition> candidates = provider.findCandidateComponents(TEST_BASE_PACKAGE);
+		assertEquals(1, candidates.size());
+		assertTrue(containsBeanClass(candidates, ServiceInvocationCounter.class));
+	}
+
 	@Test
 	public void testWithAspectAnnotationOnly() throws Exception {
 		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false);
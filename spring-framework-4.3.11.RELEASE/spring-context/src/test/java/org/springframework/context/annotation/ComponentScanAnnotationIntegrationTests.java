@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -55,6 +55,7 @@ import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
 import org.springframework.core.type.classreading.MetadataReader;
 import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.core.type.filter.TypeFilter;
@@ -98,6 +99,20 @@ public class ComponentScanAnnotationIntegrationTests {
 				ctx.containsBean("fooServiceImpl"), is(true));
 	}
 
+	@Test
+	public void viaContextRegistrationWithSharedMetadataReaderFactory() {
+		CachingMetadataReaderFactory metadataReaderFactory = new CachingMetadataReaderFactory();
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.getBeanFactory().registerSingleton(
+				AnnotationConfigUtils.METADATA_READER_FACTORY_BEAN_NAME, metadataReaderFactory);
+		ctx.register(ComponentScanAnnotatedConfig.class);
+		ctx.refresh();
+		assertThat(ctx.containsBean("fooServiceImpl"), is(true));
+		assertThat(metadataReaderFactory.getCacheMissCount() > 0, is(true));
+		assertThat("shared metadata cache must not be cleared by configuration class processing",
+				metadataReaderFactory.getCacheSize() > 0, is(true));
+	}
+
 	@Test
 	public void viaContextRegistration_WithValueAttribute() {
 		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
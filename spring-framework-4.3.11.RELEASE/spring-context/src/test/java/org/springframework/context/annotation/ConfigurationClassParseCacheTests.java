@@ -0,0 +1,195 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Properties;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.componentscan.simple.ClassWithNestedComponents;
+import org.springframework.context.annotation.componentscan.simple.SimpleComponent;
+import org.springframework.core.env.StandardEnvironment;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ConfigurationClassParseCache} and its use by
+ * {@link ConfigurationClassPostProcessor}.
+ */
+public class ConfigurationClassParseCacheTests {
+
+	private static final String SIMPLE_PACKAGE = "org.springframework.context.annotation.componentscan.simple";
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+	@Test
+	public void parseCacheStoredAfterScanning() throws IOException {
+		File file = new File(this.temporaryFolder.getRoot(), "parse-cache.properties");
+		DefaultListableBeanFactory beanFactory = processConfiguration(file);
+
+		assertEquals(1, beanFactory.getBeanNamesForType(SimpleComponent.class).length);
+		assertEquals(2, beanFactory.getBeanNamesForType(ClassWithNestedComponents.class).length);
+		assertTrue(file.isFile());
+		Properties props = loadProperties(file);
+		assertEquals(ConfigurationClassParseCache.computeFingerprint(getClass().getClassLoader(), file),
+				props.getProperty("fingerprint"));
+		String entry = findScanEntry(props);
+		assertTrue(entry.contains(SimpleComponent.class.getName()));
+		assertTrue(entry.contains(ClassWithNestedComponents.NestedComponent.class.getName()));
+		assertTrue(entry.contains(ClassWithNestedComponents.OtherNestedComponent.class.getName()));
+	}
+
+	@Test
+	public void parseCacheUsedInsteadOfScanning() throws IOException {
+		File file = new File(this.temporaryFolder.getRoot(), "parse-cache.properties");
+		processConfiguration(file);
+
+		// Restrict the cached candidates: only those should be considered now
+		Properties props = loadProperties(file);
+		props.setProperty(findScanKey(props), SimpleComponent.class.getName());
+		storeProperties(props, file);
+
+		DefaultListableBeanFactory beanFactory = processConfiguration(file);
+		assertEquals(1, beanFactory.getBeanNamesForType(SimpleComponent.class).length);
+		assertEquals(0, beanFactory.getBeanNamesForType(ClassWithNestedComponents.class).length);
+	}
+
+	@Test
+	public void parseCacheDiscardedForDifferentClasspath() throws IOException {
+		File file = new File(this.temporaryFolder.getRoot(), "parse-cache.properties");
+		processConfiguration(file);
+
+		Properties props = loadProperties(file);
+		String scanKey = findScanKey(props);
+		props.setProperty(scanKey, SimpleComponent.class.getName());
+		props.setProperty("fingerprint", "outdated");
+		storeProperties(props, file);
+
+		DefaultListableBeanFactory beanFactory = processConfiguration(file);
+		assertEquals(1, beanFactory.getBeanNamesForType(SimpleComponent.class).length);
+		assertEquals(2, beanFactory.getBeanNamesForType(ClassWithNestedComponents.class).length);
+		assertNotEquals("outdated", loadProperties(file).getProperty("fingerprint"));
+	}
+
+	@Test
+	public void parseCacheWithStaleEntryFallsBackToScanning() throws IOException {
+		File file = new File(this.temporaryFolder.getRoot(), "parse-cache.properties");
+		processConfiguration(file);
+
+		Properties props = loadProperties(file);
+		props.setProperty(findScanKey(props), SIMPLE_PACKAGE + ".DoesNotExist");
+		storeProperties(props, file);
+
+		DefaultListableBeanFactory beanFactory = processConfiguration(file);
+		assertEquals(1, beanFactory.getBeanNamesForType(SimpleComponent.class).length);
+		assertEquals(2, beanFactory.getBeanNamesForType(ClassWithNestedComponents.class).length);
+	}
+
+	@Test
+	public void fingerprintOfClassDirectory() throws IOException {
+		File classDir = this.temporaryFolder.newFolder("classes");
+		File classFile = new File(classDir, "Foo.class");
+		storeProperties(new Properties(), classFile);
+		File file = new File(classDir, "parse-cache.properties");
+		ClassLoader classLoader = new URLClassLoader(new URL[] {classDir.toURI().toURL()}, null);
+		String fingerprint = ConfigurationClassParseCache.computeFingerprint(classLoader, file);
+
+		// Cache file, temporary and hidden files, directories: not part of the fingerprint
+		storeProperties(new Properties(), file);
+		storeProperties(new Properties(), new File(classDir, "parse-cache.properties123.tmp"));
+		storeProperties(new Properties(), new File(classDir, ".hidden"));
+		assertTrue(new File(classDir, "empty").mkdir());
+		assertEquals(fingerprint, ConfigurationClassParseCache.computeFingerprint(classLoader, file));
+
+		storeProperties(new Properties(), new File(classDir, "foo.properties"));
+		assertNotEquals(fingerprint, ConfigurationClassParseCache.computeFingerprint(classLoader, file));
+	}
+
+	@Test
+	public void noParseCacheWithoutFile() {
+		DefaultListableBeanFactory beanFactory = processConfiguration(null);
+		assertEquals(1, beanFactory.getBeanNamesForType(SimpleComponent.class).length);
+		assertEquals(0, this.temporaryFolder.getRoot().list().length);
+	}
+
+
+	private DefaultListableBeanFactory processConfiguration(File parseCacheFile) {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerBeanDefinition("config", new RootBeanDefinition(ScanConfig.class));
+		ConfigurationClassPostProcessor pp = new ConfigurationClassPostProcessor();
+		pp.setEnvironment(new StandardEnvironment());
+		pp.setParseCacheFile(parseCacheFile);
+		pp.postProcessBeanFactory(beanFactory);
+		return beanFactory;
+	}
+
+	private static String findScanKey(Properties props) {
+		for (String key : props.stringPropertyNames()) {
+			if (key.startsWith("scan.") && key.endsWith("#" + SIMPLE_PACKAGE)) {
+				return key;
+			}
+		}
+		throw new AssertionError("No scan entry for " + SIMPLE_PACKAGE + " in " + props);
+	}
+
+	private static String findScanEntry(Properties props) {
+		return props.getProperty(findScanKey(props));
+	}
+
+	private static Properties loadProperties(File file) throws IOException {
+		Properties props = new Properties();
+		InputStream in = new FileInputStream(file);
+		try {
+			props.load(in);
+		}
+		finally {
+			in.close();
+		}
+		return props;
+	}
+
+	private static void storeProperties(Properties props, File file) throws IOException {
+		OutputStream out = new FileOutputStream(file);
+		try {
+			props.store(out, null);
+		}
+		finally {
+			out.close();
+		}
+	}
+
+
+	@Configuration
+	@ComponentScan(SIMPLE_PACKAGE)
+	static class ScanConfig {
+	}
+
+}
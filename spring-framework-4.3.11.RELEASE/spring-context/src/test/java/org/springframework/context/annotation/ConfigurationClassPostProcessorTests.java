@@ -37,11 +37,13 @@ import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanDefinitionStoreException;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
 import org.springframework.beans.factory.annotation.Lookup;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.QualifierAnnotationAutowireCandidateResolver;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
@@ -55,6 +57,8 @@ import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.io.DescriptiveResource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.StandardAnnotationMetadata;
 import org.springframework.stereotype.Component;
 import org.springframework.tests.sample.beans.ITestBean;
 import org.springframework.tests.sample.beans.TestBean;
@@ -803,6 +807,34 @@ public class ConfigurationClassPostProcessorTests {
 		assertTrue(ctx.getBean("myTestBean") instanceof TestBean);
 	}
 
+	@Test
+	public void testScannedMetadataReleasedAfterRefresh() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.getBeanDefinition(AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME)
+				.getPropertyValues().add("releaseScannedMetadata", true);
+		ctx.scan(SimpleComponent.class.getPackage().getName());
+		BeanDefinition beanDef = ctx.getBeanDefinition("simpleComponent");
+		assertFalse(((AnnotatedBeanDefinition) beanDef).getMetadata() instanceof StandardAnnotationMetadata);
+		ctx.refresh();
+		AnnotationMetadata metadata = ((AnnotatedBeanDefinition) beanDef).getMetadata();
+		assertTrue(metadata instanceof StandardAnnotationMetadata);
+		assertEquals(SimpleComponent.class.getName(), metadata.getClassName());
+		assertTrue(metadata.isAnnotated(Component.class.getName()));
+		assertTrue(metadata.hasAnnotatedMethods(Bean.class.getName()));
+		assertEquals("example", ctx.getBean("exampleBean"));
+		ctx.close();
+	}
+
+	@Test
+	public void testScannedMetadataRetainedByDefault() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ctx.scan(SimpleComponent.class.getPackage().getName());
+		ctx.refresh();
+		BeanDefinition beanDef = ctx.getBeanDefinition("simpleComponent");
+		assertFalse(((AnnotatedBeanDefinition) beanDef).getMetadata() instanceof StandardAnnotationMetadata);
+		ctx.close();
+	}
+
 
 	// -------------------------------------------------------------------------
 
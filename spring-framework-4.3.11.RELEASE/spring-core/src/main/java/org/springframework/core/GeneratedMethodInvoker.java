@@ -0,0 +1,235 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cglib.core.SpringNamingPolicy;
+import org.springframework.cglib.reflect.FastClass;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Invoker for a specific {@link Method} through a generated class which calls
+ * the method directly instead of going through reflection, based on a CGLIB
+ * {@link FastClass} for the declaring class of the method.
+ *
+ * <p>Used for handler methods and event listener methods via
+ * {@link #invokeMethod}, which is a drop-in replacement for
+ * {@link Method#invoke}. Generated invokers are opt-in: unless the
+ * {@link #GENERATE_INVOKERS_PROPERTY_NAME "spring.invoker.generate"} flag is
+ * set, {@code invokeMethod} always uses reflection.
+ *
+ * <p>Not all methods can be invoked through a generated class, e.g. private
+ * methods or methods of system classes. {@link #forMethod} returns
+ * {@code null} for those, and {@code invokeMethod} falls back to reflection.
+ *
+ * @since 4.3.12
+ * @see #invokeMethod
+ */
+public final class GeneratedMethodInvoker {
+
+	/**
+	 * System property that instructs Spring to invoke handler methods and event
+	 * listener methods through generated invokers instead of via reflection.
+	 * Setting this flag to "true" trades an upfront class generation step per
+	 * declaring class for cheaper subsequent invocations.
+	 */
+	public static final String GENERATE_INVOKERS_PROPERTY_NAME = "spring.invoker.generate";
+
+	private static final boolean generateInvokers = SpringProperties.getFlag(GENERATE_INVOKERS_PROPERTY_NAME);
+
+	private static final Log logger = LogFactory.getLog(GeneratedMethodInvoker.class);
+
+	/** Cache marker for methods which cannot be invoked through a generated class */
+	private static final Object UNSUPPORTED = new Object();
+
+	private static final Map<Method, Object> invokerCache = new ConcurrentReferenceHashMap<Method, Object>(256);
+
+
+	private final Method method;
+
+	private final Class<?> declaringClass;
+
+	private final FastClass fastClass;
+
+	private final int index;
+
+	private final boolean isStatic;
+
+	private final Class<?>[] parameterTypes;
+
+	private final boolean[] primitiveParameters;
+
+
+	private GeneratedMethodInvoker(Method method, FastClass fastClass, int index) {
+		this.method = method;
+		this.declaringClass = method.getDeclaringClass();
+		this.fastClass = fastClass;
+		this.index = index;
+		this.isStatic = Modifier.isStatic(method.getModifiers());
+		Class<?>[] paramTypes = method.getParameterTypes();
+		this.parameterTypes = new Class<?>[paramTypes.length];
+		this.primitiveParameters = new boolean[paramTypes.length];
+		for (int i = 0; i < paramTypes.length; i++) {
+			this.parameterTypes[i] = ClassUtils.resolvePrimitiveIfNecessary(paramTypes[i]);
+			this.primitiveParameters[i] = paramTypes[i].isPrimitive();
+		}
+	}
+
+
+	/**
+	 * Return the method that this invoker calls.
+	 */
+	public Method getMethod() {
+		return this.method;
+	}
+
+	/**
+	 * Invoke the method on the given target with the given arguments.
+	 * <p>Arguments that do not exactly match the parameter types, e.g. when
+	 * relying on primitive widening or in case of a type mismatch, are passed
+	 * on to {@link Method#invoke} instead, raising the same exceptions.
+	 * @param target the target object to invoke the method on
+	 * ({@code null} for static methods)
+	 * @param args the invocation arguments (may be {@code null})
+	 * @return the return value of the method, if any
+	 * @throws IllegalAccessException if reflective access to the method failed
+	 * @throws InvocationTargetException if the method threw an exception
+	 * @see Method#invoke
+	 */
+	public Object invoke(Object target, Object... args) throws IllegalAccessException, InvocationTargetException {
+		if (!isDirectlyInvocable(target, args)) {
+			ReflectionUtils.makeAccessible(this.method);
+			return this.method.invoke(target, args);
+		}
+		return this.fastClass.invoke(this.index, target, args);
+	}
+
+	private boolean isDirectlyInvocable(Object target, Object[] args) {
+		if (!this.isStatic && !isInstance(this.declaringClass, target)) {
+			return false;
+		}
+		int argCount = (args != null ? args.length : 0);
+		if (argCount != this.parameterTypes.length) {
+			return false;
+		}
+		for (int i = 0; i < argCount; i++) {
+			Object arg = args[i];
+			if (arg != null ? !isInstance(this.parameterTypes[i], arg) : this.primitiveParameters[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isInstance(Class<?> type, Object obj) {
+		// Exact type check first: cheaper than a full isInstance check
+		return (obj != null && (obj.getClass() == type || type.isInstance(obj)));
+	}
+
+	@Override
+	public String toString() {
+		return "GeneratedMethodInvoker for " + this.method;
+	}
+
+
+	/**
+	 * Return whether generated invokers are enabled through the
+	 * {@link #GENERATE_INVOKERS_PROPERTY_NAME} flag.
+	 */
+	public static boolean isEnabled() {
+		return generateInvokers;
+	}
+
+	/**
+	 * Invoke the given method on the given target, through a generated invoker
+	 * if {@link #isEnabled() enabled} and supported for the given method, or
+	 * through reflection otherwise.
+	 * <p>The method is made accessible for reflective invocation if necessary.
+	 * @param method the method to invoke
+	 * @param target the target object to invoke the method on
+	 * ({@code null} for static methods)
+	 * @param args the invocation arguments (may be {@code null})
+	 * @return the return value of the method, if any
+	 * @throws IllegalAccessException if reflective access to the method failed
+	 * @throws InvocationTargetException if the method threw an exception
+	 * @see Method#invoke
+	 */
+	public static Object invokeMethod(Method method, Object target, Object... args)
+			throws IllegalAccessException, InvocationTargetException {
+
+		if (generateInvokers) {
+			GeneratedMethodInvoker invoker = forMethod(method);
+			if (invoker != null) {
+				return invoker.invoke(target, args);
+			}
+		}
+		ReflectionUtils.makeAccessible(method);
+		return method.invoke(target, args);
+	}
+
+	/**
+	 * Return a generated invoker for the given method, creating it if necessary.
+	 * <p>This method generates an invoker regardless of the
+	 * {@link #GENERATE_INVOKERS_PROPERTY_NAME} flag.
+	 * @param method the method to invoke
+	 * @return the invoker, or {@code null} if the method cannot be invoked
+	 * through a generated class
+	 */
+	public static GeneratedMethodInvoker forMethod(Method method) {
+		Assert.notNull(method, "Method must not be null");
+		Object cached = invokerCache.get(method);
+		if (cached == null) {
+			GeneratedMethodInvoker invoker = createInvoker(method);
+			cached = (invoker != null ? invoker : UNSUPPORTED);
+			invokerCache.put(method, cached);
+		}
+		return (cached != UNSUPPORTED ? (GeneratedMethodInvoker) cached : null);
+	}
+
+	private static GeneratedMethodInvoker createInvoker(Method method) {
+		if (Modifier.isPrivate(method.getModifiers())) {
+			return null;
+		}
+		Class<?> declaringClass = method.getDeclaringClass();
+		try {
+			FastClass.Generator generator = new FastClass.Generator();
+			generator.setType(declaringClass);
+			generator.setClassLoader(declaringClass.getClassLoader());
+			generator.setNamingPolicy(SpringNamingPolicy.INSTANCE);
+			FastClass fastClass = generator.create();
+			int index = fastClass.getIndex(method.getName(), method.getParameterTypes());
+			return (index >= 0 ? new GeneratedMethodInvoker(method, fastClass, index) : null);
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Cannot generate invoker for " + method + " - using reflection instead: " + ex);
+			}
+			return null;
+		}
+	}
+
+}
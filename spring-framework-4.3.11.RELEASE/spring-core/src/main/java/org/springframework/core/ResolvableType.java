@@ -92,6 +92,9 @@ public class ResolvableType implements Serializable {
 	private static final ConcurrentReferenceHashMap<ResolvableType, ResolvableType> cache =
 			new ConcurrentReferenceHashMap<ResolvableType, ResolvableType>(256);
 
+	private static final ConcurrentReferenceHashMap<Class<?>, ResolvableType> classCache =
+			new ConcurrentReferenceHashMap<Class<?>, ResolvableType>(256);
+
 
 	/**
 	 * The underlying Java type being managed (only ever {@code null} for {@link #NONE}).
@@ -118,6 +121,10 @@ public class ResolvableType implements Serializable {
 	 */
 	private final Class<?> resolved;
 
+	/**
+	 * Pre-calculated hash code, only available for canonical instances
+	 * (i.e. cached or interned) which may also cache assignability results.
+	 */
 	private final Integer hash;
 
 	private ResolvableType superType;
@@ -126,6 +133,8 @@ public class ResolvableType implements Serializable {
 
 	private ResolvableType[] generics;
 
+	private transient volatile Map<ResolvableType, Boolean> assignableFromCache;
+
 
 	/**
 	 * Private constructor used to create a new {@link ResolvableType} for cache key purposes,
@@ -180,7 +189,7 @@ public class ResolvableType implements Serializable {
 		this.typeProvider = null;
 		this.variableResolver = null;
 		this.componentType = null;
-		this.hash = null;
+		this.hash = this.resolved.hashCode();
 	}
 
 
@@ -237,7 +246,7 @@ public class ResolvableType implements Serializable {
 	 * @see #isAssignableFrom(ResolvableType)
 	 */
 	public boolean isAssignableFrom(Class<?> other) {
-		return isAssignableFrom(forClass(other), null);
+		return isAssignableFrom(forClass(other));
 	}
 
 	/**
@@ -252,7 +261,21 @@ public class ResolvableType implements Serializable {
 	 * {@code ResolvableType}; {@code false} otherwise
 	 */
 	public boolean isAssignableFrom(ResolvableType other) {
-		return isAssignableFrom(other, null);
+		// Only cache results for canonical instances, against plain (non-raw) types
+		if (this.hash == null || this == NONE || other == null || other.getClass() != ResolvableType.class) {
+			return isAssignableFrom(other, null);
+		}
+		Map<ResolvableType, Boolean> assignableFrom = this.assignableFromCache;
+		if (assignableFrom == null) {
+			assignableFrom = new ConcurrentReferenceHashMap<ResolvableType, Boolean>(4, 1);
+			this.assignableFromCache = assignableFrom;
+		}
+		Boolean result = assignableFrom.get(other);
+		if (result == null) {
+			result = isAssignableFrom(other, null);
+			assignableFrom.put(other, result);
+		}
+		return result;
 	}
 
 	private boolean isAssignableFrom(ResolvableType other, Map<Type, Type> matchedBefore) {
@@ -923,6 +946,8 @@ public class ResolvableType implements Serializable {
 	 * Return a {@link ResolvableType} for the specified {@link Class},
 	 * using the full generic type information for assignability checks.
 	 * For example: {@code ResolvableType.forClass(MyArrayList.class)}.
+	 * <p>As of 4.3.12, the returned instance is shared for the given class,
+	 * also sharing the results of assignability checks against it.
 	 * @param clazz the class to introspect ({@code null} is semantically
 	 * equivalent to {@code Object.class} for typical use cases here}
 	 * @return a {@link ResolvableType} for the specified class
@@ -930,7 +955,16 @@ public class ResolvableType implements Serializable {
 	 * @see #forClassWithGenerics(Class, Class...)
 	 */
 	public static ResolvableType forClass(Class<?> clazz) {
-		return new ResolvableType(clazz);
+		Class<?> key = (clazz != null ? clazz : Object.class);
+		ResolvableType resolvableType = classCache.get(key);
+		if (resolvableType == null) {
+			resolvableType = new ResolvableType(key);
+			ResolvableType existing = classCache.putIfAbsent(key, resolvableType);
+			if (existing != null) {
+				resolvableType = existing;
+			}
+		}
+		return resolvableType;
 	}
 
 	/**
@@ -1337,8 +1371,11 @@ public class ResolvableType implements Serializable {
 		}
 
 		// For simple Class references, build the wrapper right away -
-		// no expensive resolution necessary, so not worth caching...
+		// no expensive resolution necessary, so only worth sharing without provider/resolver...
 		if (type instanceof Class) {
+			if (typeProvider == null && variableResolver == null) {
+				return forClass((Class<?>) type);
+			}
 			return new ResolvableType(type, typeProvider, variableResolver, (ResolvableType) null);
 		}
 
@@ -1361,6 +1398,7 @@ public class ResolvableType implements Serializable {
 	 */
 	public static void clearCache() {
 		cache.clear();
+		classCache.clear();
 		SerializableTypeWrapper.cache.clear();
 	}
 
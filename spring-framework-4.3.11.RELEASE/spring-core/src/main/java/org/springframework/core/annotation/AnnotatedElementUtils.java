@@ -18,6 +18,8 @@ package org.springframework.core.annotation;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Array;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -26,11 +28,14 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.core.BridgeMethodResolver;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.ObjectUtils;
 
 /**
  * General utility methods for finding annotations, meta-annotations, and
@@ -85,6 +90,14 @@ import org.springframework.util.MultiValueMap;
  * traverses type and method hierarchies and thereby implicitly supports
  * annotation inheritance without the need for {@code @Inherited}.
  *
+ * <h3>Caching</h3>
+ * <p>As of 4.3.12, the results of {@code getMergedAnnotationAttributes()},
+ * {@code getMergedAnnotation()}, {@code findMergedAnnotationAttributes()} and
+ * {@code findMergedAnnotation()} are cached per class, method, field or
+ * constructor and annotation type, reusing synthesized annotations across
+ * invocations. Cached attributes are exposed as independent copies.
+ * See {@link #getCacheHitCount()} and {@link #getCacheMissCount()}.
+ *
  * @author Phillip Webb
  * @author Juergen Hoeller
  * @author Sam Brannen
@@ -105,6 +118,18 @@ public class AnnotatedElementUtils {
 
 	private static final Processor<Boolean> alwaysTrueAnnotationProcessor = new AlwaysTrueBooleanAnnotationProcessor();
 
+	/**
+	 * Marker for a cached lookup which did not find the annotation.
+	 */
+	private static final Object NOT_FOUND = new Object();
+
+	private static final Map<MergedAnnotationCacheKey, Object> mergedAnnotationCache =
+			new ConcurrentReferenceHashMap<MergedAnnotationCacheKey, Object>(256);
+
+	private static final AtomicLong cacheHitCount = new AtomicLong();
+
+	private static final AtomicLong cacheMissCount = new AtomicLong();
+
 
 	/**
 	 * Build an adapted {@link AnnotatedElement} for the given annotations,
@@ -334,10 +359,7 @@ public class AnnotatedElementUtils {
 			AnnotatedElement element, Class<? extends Annotation> annotationType) {
 
 		Assert.notNull(annotationType, "'annotationType' must not be null");
-		AnnotationAttributes attributes = searchWithGetSemantics(element, annotationType, null,
-				new MergedAnnotationAttributesProcessor());
-		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, false, false);
-		return attributes;
+		return getMergedAnnotationAttributes(element, annotationType, null, false, false, false);
 	}
 
 	/**
@@ -392,10 +414,8 @@ public class AnnotatedElementUtils {
 			String annotationName, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
 		Assert.hasLength(annotationName, "'annotationName' must not be null or empty");
-		AnnotationAttributes attributes = searchWithGetSemantics(element, null, annotationName,
-				new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
-		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
-		return attributes;
+		return getMergedAnnotationAttributes(element, null, annotationName, false,
+				classValuesAsString, nestedAnnotationsAsMap);
 	}
 
 	/**
@@ -418,20 +438,7 @@ public class AnnotatedElementUtils {
 	 */
 	public static <A extends Annotation> A getMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
 		Assert.notNull(annotationType, "'annotationType' must not be null");
-
-		// Shortcut: directly present on the element, with no merging needed?
-		if (!(element instanceof Class)) {
-			// Do not use this shortcut against a Class: Inherited annotations
-			// would get preferred over locally declared composed annotations.
-			A annotation = element.getAnnotation(annotationType);
-			if (annotation != null) {
-				return AnnotationUtils.synthesizeAnnotation(annotation, element);
-			}
-		}
-
-		// Exhaustive retrieval of merged annotation attributes...
-		AnnotationAttributes attributes = getMergedAnnotationAttributes(element, annotationType);
-		return AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element);
+		return getMergedAnnotation(element, annotationType, false);
 	}
 
 	/**
@@ -653,10 +660,8 @@ public class AnnotatedElementUtils {
 	public static AnnotationAttributes findMergedAnnotationAttributes(AnnotatedElement element,
 			Class<? extends Annotation> annotationType, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
-		AnnotationAttributes attributes = searchWithFindSemantics(element, annotationType, null,
-				new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
-		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
-		return attributes;
+		return getMergedAnnotationAttributes(element, annotationType, null, true,
+				classValuesAsString, nestedAnnotationsAsMap);
 	}
 
 	/**
@@ -689,10 +694,8 @@ public class AnnotatedElementUtils {
 	public static AnnotationAttributes findMergedAnnotationAttributes(AnnotatedElement element,
 			String annotationName, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
-		AnnotationAttributes attributes = searchWithFindSemantics(element, null, annotationName,
-				new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
-		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
-		return attributes;
+		return getMergedAnnotationAttributes(element, null, annotationName, true,
+				classValuesAsString, nestedAnnotationsAsMap);
 	}
 
 	/**
@@ -715,20 +718,7 @@ public class AnnotatedElementUtils {
 	 */
 	public static <A extends Annotation> A findMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
 		Assert.notNull(annotationType, "'annotationType' must not be null");
-
-		// Shortcut: directly present on the element, with no merging needed?
-		if (!(element instanceof Class)) {
-			// Do not use this shortcut against a Class: Inherited annotations
-			// would get preferred over locally declared composed annotations.
-			A annotation = element.getAnnotation(annotationType);
-			if (annotation != null) {
-				return AnnotationUtils.synthesizeAnnotation(annotation, element);
-			}
-		}
-
-		// Exhaustive retrieval of merged annotation attributes...
-		AnnotationAttributes attributes = findMergedAnnotationAttributes(element, annotationType, false, false);
-		return AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element);
+		return getMergedAnnotation(element, annotationType, true);
 	}
 
 	/**
@@ -864,6 +854,167 @@ public class AnnotatedElementUtils {
 		return postProcessAndSynthesizeAggregatedResults(element, annotationType, processor.getAggregatedResults());
 	}
 
+	/**
+	 * Return the number of merged annotation lookups served from the cache.
+	 * @since 4.3.12
+	 * @see #getCacheMissCount()
+	 */
+	public static long getCacheHitCount() {
+		return cacheHitCount.get();
+	}
+
+	/**
+	 * Return the number of merged annotation lookups which required a search
+	 * of the annotation hierarchy since no cached result was available.
+	 * @since 4.3.12
+	 * @see #getCacheHitCount()
+	 */
+	public static long getCacheMissCount() {
+		return cacheMissCount.get();
+	}
+
+	/**
+	 * Clear the cache of merged annotations and merged annotation attributes,
+	 * resetting the hit and miss counters.
+	 * @since 4.3.12
+	 */
+	public static void clearCache() {
+		mergedAnnotationCache.clear();
+		cacheHitCount.set(0);
+		cacheMissCount.set(0);
+	}
+
+	/**
+	 * Get or find the merged {@code AnnotationAttributes} for the given
+	 * annotation, using a cached result if available.
+	 * @param findSemantics whether to follow <em>find semantics</em>
+	 * (as opposed to <em>get semantics</em>)
+	 * @since 4.3.12
+	 */
+	private static AnnotationAttributes getMergedAnnotationAttributes(AnnotatedElement element,
+			Class<? extends Annotation> annotationType, String annotationName, boolean findSemantics,
+			boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
+
+		MergedAnnotationCacheKey cacheKey = MergedAnnotationCacheKey.forElement(element, annotationType,
+				annotationName, findSemantics, classValuesAsString, nestedAnnotationsAsMap, false);
+		Object cached = getCachedResult(cacheKey);
+		if (cached != null) {
+			return (cached != NOT_FOUND ? copyAttributes((AnnotationAttributes) cached) : null);
+		}
+
+		MergedAnnotationAttributesProcessor processor =
+				new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap);
+		AnnotationAttributes attributes = (findSemantics ?
+				searchWithFindSemantics(element, annotationType, annotationName, processor) :
+				searchWithGetSemantics(element, annotationType, annotationName, processor));
+		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
+
+		if (cacheKey != null) {
+			// Cache a private copy since the returned attributes may get modified by the caller
+			mergedAnnotationCache.put(cacheKey, (attributes != null ? copyAttributes(attributes) : NOT_FOUND));
+		}
+		return attributes;
+	}
+
+	/**
+	 * Get or find the merged, synthesized annotation of the given type,
+	 * using a cached result if available.
+	 * @param findSemantics whether to follow <em>find semantics</em>
+	 * (as opposed to <em>get semantics</em>)
+	 * @since 4.3.12
+	 */
+	@SuppressWarnings("unchecked")
+	private static <A extends Annotation> A getMergedAnnotation(AnnotatedElement element,
+			Class<A> annotationType, boolean findSemantics) {
+
+		MergedAnnotationCacheKey cacheKey = MergedAnnotationCacheKey.forElement(element, annotationType,
+				null, findSemantics, false, false, true);
+		Object cached = getCachedResult(cacheKey);
+		if (cached != null) {
+			return (cached != NOT_FOUND ? (A) cached : null);
+		}
+
+		A result = null;
+		// Shortcut: directly present on the element, with no merging needed?
+		if (!(element instanceof Class)) {
+			// Do not use this shortcut against a Class: Inherited annotations
+			// would get preferred over locally declared composed annotations.
+			A annotation = element.getAnnotation(annotationType);
+			if (annotation != null) {
+				result = AnnotationUtils.synthesizeAnnotation(annotation, element);
+			}
+		}
+
+		if (result == null) {
+			// Exhaustive retrieval of merged annotation attributes...
+			MergedAnnotationAttributesProcessor processor = new MergedAnnotationAttributesProcessor();
+			AnnotationAttributes attributes = (findSemantics ?
+					searchWithFindSemantics(element, annotationType, null, processor) :
+					searchWithGetSemantics(element, annotationType, null, processor));
+			AnnotationUtils.postProcessAnnotationAttributes(element, attributes, false, false);
+			result = AnnotationUtils.synthesizeAnnotation(attributes, annotationType, element);
+		}
+
+		if (cacheKey != null) {
+			mergedAnnotationCache.put(cacheKey, (result != null ? result : NOT_FOUND));
+		}
+		return result;
+	}
+
+	/**
+	 * Look up the given key in the merged annotation cache, updating the
+	 * hit and miss counters accordingly.
+	 * @param cacheKey the cache key, or {@code null} if not cacheable
+	 * @return the cached result (potentially {@link #NOT_FOUND}),
+	 * or {@code null} if none
+	 */
+	private static Object getCachedResult(MergedAnnotationCacheKey cacheKey) {
+		if (cacheKey == null) {
+			return null;
+		}
+		Object cached = mergedAnnotationCache.get(cacheKey);
+		if (cached != null) {
+			cacheHitCount.incrementAndGet();
+		}
+		else {
+			cacheMissCount.incrementAndGet();
+		}
+		return cached;
+	}
+
+	/**
+	 * Create a copy of the given {@code AnnotationAttributes}, including
+	 * copies of nested attributes and array values.
+	 */
+	private static AnnotationAttributes copyAttributes(AnnotationAttributes attributes) {
+		AnnotationAttributes copy = new AnnotationAttributes(attributes);
+		for (Map.Entry<String, Object> entry : copy.entrySet()) {
+			entry.setValue(copyAttributeValue(entry.getValue()));
+		}
+		return copy;
+	}
+
+	private static Object copyAttributeValue(Object value) {
+		if (value instanceof AnnotationAttributes) {
+			return copyAttributes((AnnotationAttributes) value);
+		}
+		if (value instanceof AnnotationAttributes[]) {
+			AnnotationAttributes[] original = (AnnotationAttributes[]) value;
+			AnnotationAttributes[] copy = new AnnotationAttributes[original.length];
+			for (int i = 0; i < original.length; i++) {
+				copy[i] = copyAttributes(original[i]);
+			}
+			return copy;
+		}
+		if (ObjectUtils.isArray(value)) {
+			int length = Array.getLength(value);
+			Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+			System.arraycopy(value, 0, copy, 0, length);
+			return copy;
+		}
+		return value;
+	}
+
 	/**
 	 * Search for annotations of the specified {@code annotationName} or
 	 * {@code annotationType} on the specified {@code element}, following
@@ -1641,4 +1792,91 @@ public class AnnotatedElementUtils {
 		}
 	}
 
+	/**
+	 * Cache key for merged annotation lookups.
+	 * @since 4.3.12
+	 */
+	private static final class MergedAnnotationCacheKey {
+
+		private final AnnotatedElement element;
+
+		private final Class<? extends Annotation> annotationType;
+
+		private final String annotationName;
+
+		private final boolean findSemantics;
+
+		private final boolean classValuesAsString;
+
+		private final boolean nestedAnnotationsAsMap;
+
+		private final boolean synthesized;
+
+		private MergedAnnotationCacheKey(AnnotatedElement element, Class<? extends Annotation> annotationType,
+				String annotationName, boolean findSemantics, boolean classValuesAsString,
+				boolean nestedAnnotationsAsMap, boolean synthesized) {
+
+			this.element = element;
+			this.annotationType = annotationType;
+			this.annotationName = annotationName;
+			this.findSemantics = findSemantics;
+			this.classValuesAsString = classValuesAsString;
+			this.nestedAnnotationsAsMap = nestedAnnotationsAsMap;
+			this.synthesized = synthesized;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof MergedAnnotationCacheKey)) {
+				return false;
+			}
+			MergedAnnotationCacheKey otherKey = (MergedAnnotationCacheKey) other;
+			return (this.element.equals(otherKey.element) &&
+					ObjectUtils.nullSafeEquals(this.annotationType, otherKey.annotationType) &&
+					ObjectUtils.nullSafeEquals(this.annotationName, otherKey.annotationName) &&
+					this.findSemantics == otherKey.findSemantics &&
+					this.classValuesAsString == otherKey.classValuesAsString &&
+					this.nestedAnnotationsAsMap == otherKey.nestedAnnotationsAsMap &&
+					this.synthesized == otherKey.synthesized);
+		}
+
+		@Override
+		public int hashCode() {
+			int hashCode = this.element.hashCode();
+			hashCode = 29 * hashCode + ObjectUtils.nullSafeHashCode(this.annotationType);
+			hashCode = 29 * hashCode + ObjectUtils.nullSafeHashCode(this.annotationName);
+			hashCode = 29 * hashCode + (this.findSemantics ? 1 : 0);
+			hashCode = 29 * hashCode + (this.classValuesAsString ? 1 : 0);
+			hashCode = 29 * hashCode + (this.nestedAnnotationsAsMap ? 1 : 0);
+			hashCode = 29 * hashCode + (this.synthesized ? 1 : 0);
+			return hashCode;
+		}
+
+		@Override
+		public String toString() {
+			return "@" + (this.annotationType != null ? this.annotationType.getName() : this.annotationName) +
+					" on " + this.element;
+		}
+
+		/**
+		 * Create a cache key for the given lookup, if the annotated element is
+		 * a {@link Class} or a {@link Member} with a stable identity.
+		 * @return the cache key, or {@code null} if the lookup is not cacheable
+		 */
+		static MergedAnnotationCacheKey forElement(AnnotatedElement element,
+				Class<? extends Annotation> annotationType, String annotationName, boolean findSemantics,
+				boolean classValuesAsString, boolean nestedAnnotationsAsMap, boolean synthesized) {
+
+			if (!(element instanceof Class || element instanceof Member) ||
+					(annotationType == null && annotationName == null)) {
+				return null;
+			}
+			return new MergedAnnotationCacheKey(element, annotationType, annotationName, findSemantics,
+					classValuesAsString, nestedAnnotationsAsMap, synthesized);
+		}
+	}
+
 }
@@ -86,7 +86,8 @@ final class AnnotationAttributesReadingVisitor extends RecursiveAnnotationAttrib
 				for (Annotation ann : visited) {
 					metaAnnotationTypeNames.add(ann.annotationType().getName());
 				}
-				this.metaAnnotationMap.put(annotationClass.getName(), metaAnnotationTypeNames);
+				this.metaAnnotationMap.put(annotationClass.getName(),
+						AnnotationReadingVisitorUtils.internMetaAnnotationTypes(metaAnnotationTypeNames));
 			}
 		}
 	}
@@ -101,7 +102,7 @@ final class AnnotationAttributesReadingVisitor extends RecursiveAnnotationAttrib
 				// accessibility in a SecurityManager environment.
 				if (Modifier.isPublic(annotationType.getModifiers())) {
 					this.attributesMap.add(annotationName,
-							AnnotationUtils.getAnnotationAttributes(annotation, false, true));
+							AnnotationReadingVisitorUtils.getMetaAnnotationAttributes(annotation));
 				}
 				for (Annotation metaMetaAnnotation : annotationType.getAnnotations()) {
 					recursivelyCollectMetaAnnotations(visited, metaMetaAnnotation);
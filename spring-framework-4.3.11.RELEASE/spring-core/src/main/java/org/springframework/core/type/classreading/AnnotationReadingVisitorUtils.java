@@ -16,9 +16,11 @@
 
 package org.springframework.core.type.classreading;
 
+import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -26,6 +28,7 @@ import java.util.Set;
 import org.springframework.asm.Type;
 import org.springframework.core.annotation.AnnotationAttributes;
 import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.ObjectUtils;
 
@@ -41,6 +44,15 @@ import org.springframework.util.ObjectUtils;
  */
 abstract class AnnotationReadingVisitorUtils {
 
+	/** Canonical meta-annotation type sets, shared across all classes using them */
+	private static final Map<Set<String>, Set<String>> metaAnnotationTypesCache =
+			new ConcurrentReferenceHashMap<Set<String>, Set<String>>(256);
+
+	/** Attributes of meta-annotations, shared across all classes using them */
+	private static final Map<Annotation, AnnotationAttributes> metaAnnotationAttributesCache =
+			new ConcurrentReferenceHashMap<Annotation, AnnotationAttributes>(256);
+
+
 	public static AnnotationAttributes convertClassValues(Object annotatedElement,
 			ClassLoader classLoader, AnnotationAttributes original, boolean classValuesAsString) {
 
@@ -59,7 +71,8 @@ abstract class AnnotationReadingVisitorUtils {
 							annotatedElement, classLoader, (AnnotationAttributes) value, classValuesAsString);
 				}
 				else if (value instanceof AnnotationAttributes[]) {
-					AnnotationAttributes[] values = (AnnotationAttributes[]) value;
+					// Copy the array: the original may be shared with other metadata instances
+					AnnotationAttributes[] values = ((AnnotationAttributes[]) value).clone();
 					for (int i = 0; i < values.length; i++) {
 						values[i] = convertClassValues(annotatedElement, classLoader, values[i], classValuesAsString);
 					}
@@ -103,6 +116,43 @@ abstract class AnnotationReadingVisitorUtils {
 		return result;
 	}
 
+	/**
+	 * Return a canonical, unmodifiable version of the given set of meta-annotation
+	 * type names, shared with any other class declaring the same annotation.
+	 * @param metaAnnotationTypes the meta-annotation type names
+	 * @return the shared set of meta-annotation type names
+	 * @since 4.3.12
+	 */
+	public static Set<String> internMetaAnnotationTypes(Set<String> metaAnnotationTypes) {
+		Set<String> interned = metaAnnotationTypesCache.get(metaAnnotationTypes);
+		if (interned == null) {
+			Set<String> names = new LinkedHashSet<String>(metaAnnotationTypes.size());
+			for (String metaAnnotationType : metaAnnotationTypes) {
+				names.add(metaAnnotationType.intern());
+			}
+			interned = Collections.unmodifiableSet(names);
+			metaAnnotationTypesCache.put(interned, interned);
+		}
+		return interned;
+	}
+
+	/**
+	 * Retrieve the attributes of the given meta-annotation, shared with any other
+	 * class declaring the same meta-annotation. The returned attributes must not
+	 * be modified; see {@link #convertClassValues} for an independent copy.
+	 * @param metaAnnotation the meta-annotation to introspect
+	 * @return the shared annotation attributes
+	 * @since 4.3.12
+	 */
+	public static AnnotationAttributes getMetaAnnotationAttributes(Annotation metaAnnotation) {
+		AnnotationAttributes attributes = metaAnnotationAttributesCache.get(metaAnnotation);
+		if (attributes == null) {
+			attributes = AnnotationUtils.getAnnotationAttributes(metaAnnotation, false, true);
+			metaAnnotationAttributesCache.put(metaAnnotation, attributes);
+		}
+		return attributes;
+	}
+
 	/**
 	 * Retrieve the merged attributes of the annotation of the given type,
 	 * if any, from the supplied {@code attributesMap}.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,17 +17,28 @@
 package org.springframework.core.type.classreading;
 
 import java.io.IOException;
-import java.util.LinkedHashMap;
-import java.util.Map;
 
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.ConcurrentLruCache;
 
 /**
  * Caching implementation of the {@link MetadataReaderFactory} interface,
  * caching a {@link MetadataReader} instance per Spring {@link Resource} handle
  * (i.e. per ".class" file).
  *
+ * <p>As of 4.3.12, the cache is a {@link ConcurrentLruCache}: cache hits do not
+ * lock, and concurrent misses for different resources are served in parallel.
+ * The number of entries is bounded by the {@link #setCacheLimit cache limit},
+ * evicting entries which have not been accessed since the last eviction round
+ * first (a "second chance" approximation of least-recently-used order).
+ * Cache statistics are available through {@link #getCacheHitCount()},
+ * {@link #getCacheMissCount()} and {@link #getCacheEvictionCount()}.
+ *
+ * <p>A single instance may be shared across all parties scanning the same
+ * class path, e.g. configuration class processing, component scanning and
+ * JPA entity scanning within the same application context.
+ *
  * @author Juergen Hoeller
  * @author Costin Leau
  * @since 2.5
@@ -40,14 +51,8 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 
 	private volatile int cacheLimit = DEFAULT_CACHE_LIMIT;
 
-	@SuppressWarnings("serial")
-	private final Map<Resource, MetadataReader> metadataReaderCache =
-			new LinkedHashMap<Resource, MetadataReader>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
-				@Override
-				protected boolean removeEldestEntry(Map.Entry<Resource, MetadataReader> eldest) {
-					return size() > getCacheLimit();
-				}
-			};
+	private volatile ConcurrentLruCache<Resource, MetadataReader> metadataReaderCache =
+			new ConcurrentLruCache<Resource, MetadataReader>(DEFAULT_CACHE_LIMIT);
 
 
 	/**
@@ -77,10 +82,12 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 
 	/**
 	 * Specify the maximum number of entries for the MetadataReader cache.
-	 * <p>Default is 256.
+	 * <p>Default is 256. Changing the limit starts with an empty cache and
+	 * resets the cache statistics.
 	 */
 	public void setCacheLimit(int cacheLimit) {
 		this.cacheLimit = cacheLimit;
+		this.metadataReaderCache = new ConcurrentLruCache<Resource, MetadataReader>(Math.max(cacheLimit, 0));
 	}
 
 	/**
@@ -93,26 +100,60 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 
 	@Override
 	public MetadataReader getMetadataReader(Resource resource) throws IOException {
-		if (getCacheLimit() <= 0) {
+		ConcurrentLruCache<Resource, MetadataReader> cache = this.metadataReaderCache;
+		if (cache.sizeLimit() == 0) {
 			return super.getMetadataReader(resource);
 		}
-		synchronized (this.metadataReaderCache) {
-			MetadataReader metadataReader = this.metadataReaderCache.get(resource);
-			if (metadataReader == null) {
-				metadataReader = super.getMetadataReader(resource);
-				this.metadataReaderCache.put(resource, metadataReader);
+		MetadataReader metadataReader = cache.get(resource);
+		if (metadataReader == null) {
+			metadataReader = super.getMetadataReader(resource);
+			MetadataReader existing = cache.putIfAbsent(resource, metadataReader);
+			if (existing != null) {
+				// Concurrently read by another thread: expose the cached instance.
+				return existing;
 			}
-			return metadataReader;
 		}
+		return metadataReader;
 	}
 
 	/**
 	 * Clear the entire MetadataReader cache, removing all cached class metadata.
 	 */
 	public void clearCache() {
-		synchronized (this.metadataReaderCache) {
-			this.metadataReaderCache.clear();
-		}
+		this.metadataReaderCache.clear();
+	}
+
+	/**
+	 * Return the current number of entries in the MetadataReader cache.
+	 * @since 4.3.12
+	 */
+	public int getCacheSize() {
+		return this.metadataReaderCache.size();
+	}
+
+	/**
+	 * Return the number of MetadataReader requests served from the cache.
+	 * @since 4.3.12
+	 */
+	public long getCacheHitCount() {
+		return this.metadataReaderCache.getHitCount();
+	}
+
+	/**
+	 * Return the number of MetadataReader requests which required reading
+	 * the class file since the corresponding resource was not cached yet.
+	 * @since 4.3.12
+	 */
+	public long getCacheMissCount() {
+		return this.metadataReaderCache.getMissCount();
+	}
+
+	/**
+	 * Return the number of entries evicted from the cache because of the cache limit.
+	 * @since 4.3.12
+	 */
+	public long getCacheEvictionCount() {
+		return this.metadataReaderCache.getEvictionCount();
 	}
 
 }
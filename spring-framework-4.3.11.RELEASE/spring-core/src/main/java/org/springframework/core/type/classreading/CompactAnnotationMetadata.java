@@ -0,0 +1,237 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Compact, immutable {@link AnnotationMetadata} implementation, created from an
+ * {@link AnnotationMetadataReadingVisitor} once the class file has been read.
+ *
+ * <p>Retained by {@link SimpleMetadataReader} instead of the visitor itself,
+ * since such metadata typically lives as long as the bean definitions derived
+ * from it: The visitor's hash-based structures are replaced with arrays, and
+ * commonly repeated names and meta-annotation data are shared across classes.
+ *
+ * @since 4.3.12
+ */
+final class CompactAnnotationMetadata implements AnnotationMetadata {
+
+	private static final MethodMetadata[] EMPTY_METHOD_METADATA_ARRAY = new MethodMetadata[0];
+
+
+	private final String className;
+
+	private final boolean isInterface;
+
+	private final boolean isAnnotation;
+
+	private final boolean isAbstract;
+
+	private final boolean isFinal;
+
+	private final boolean isIndependent;
+
+	private final String enclosingClassName;
+
+	private final String superClassName;
+
+	private final String[] interfaceNames;
+
+	private final String[] memberClassNames;
+
+	private final ClassLoader classLoader;
+
+	private final CompactAnnotations annotations;
+
+	private final MethodMetadata[] annotatedMethods;
+
+
+	CompactAnnotationMetadata(AnnotationMetadataReadingVisitor visitor) {
+		this.className = visitor.getClassName();
+		this.isInterface = visitor.isInterface();
+		this.isAnnotation = visitor.isAnnotation();
+		this.isAbstract = visitor.isAbstract();
+		this.isFinal = visitor.isFinal();
+		this.isIndependent = visitor.isIndependent();
+		this.enclosingClassName = visitor.getEnclosingClassName();
+		this.superClassName = (visitor.hasSuperClass() ? visitor.getSuperClassName().intern() : null);
+		this.interfaceNames = visitor.getInterfaceNames();
+		for (int i = 0; i < this.interfaceNames.length; i++) {
+			this.interfaceNames[i] = this.interfaceNames[i].intern();
+		}
+		this.memberClassNames = visitor.getMemberClassNames();
+		this.classLoader = visitor.classLoader;
+		this.annotations = new CompactAnnotations(
+				visitor.annotationSet, visitor.metaAnnotationMap, visitor.attributesMap);
+		if (visitor.methodMetadataSet.isEmpty()) {
+			this.annotatedMethods = EMPTY_METHOD_METADATA_ARRAY;
+		}
+		else {
+			this.annotatedMethods = new MethodMetadata[visitor.methodMetadataSet.size()];
+			int i = 0;
+			for (MethodMetadata methodMetadata : visitor.methodMetadataSet) {
+				this.annotatedMethods[i++] = (methodMetadata instanceof MethodMetadataReadingVisitor ?
+						new CompactMethodMetadata((MethodMetadataReadingVisitor) methodMetadata) : methodMetadata);
+			}
+		}
+	}
+
+
+	@Override
+	public String getClassName() {
+		return this.className;
+	}
+
+	@Override
+	public boolean isInterface() {
+		return this.isInterface;
+	}
+
+	@Override
+	public boolean isAnnotation() {
+		return this.isAnnotation;
+	}
+
+	@Override
+	public boolean isAbstract() {
+		return this.isAbstract;
+	}
+
+	@Override
+	public boolean isConcrete() {
+		return !(this.isInterface || this.isAbstract);
+	}
+
+	@Override
+	public boolean isFinal() {
+		return this.isFinal;
+	}
+
+	@Override
+	public boolean isIndependent() {
+		return this.isIndependent;
+	}
+
+	@Override
+	public boolean hasEnclosingClass() {
+		return (this.enclosingClassName != null);
+	}
+
+	@Override
+	public String getEnclosingClassName() {
+		return this.enclosingClassName;
+	}
+
+	@Override
+	public boolean hasSuperClass() {
+		return (this.superClassName != null);
+	}
+
+	@Override
+	public String getSuperClassName() {
+		return this.superClassName;
+	}
+
+	@Override
+	public String[] getInterfaceNames() {
+		return this.interfaceNames;
+	}
+
+	@Override
+	public String[] getMemberClassNames() {
+		return this.memberClassNames;
+	}
+
+	@Override
+	public Set<String> getAnnotationTypes() {
+		return this.annotations.getAnnotationTypes();
+	}
+
+	@Override
+	public Set<String> getMetaAnnotationTypes(String annotationName) {
+		return this.annotations.getMetaAnnotationTypes(annotationName);
+	}
+
+	@Override
+	public boolean hasAnnotation(String annotationName) {
+		return this.annotations.hasAnnotation(annotationName);
+	}
+
+	@Override
+	public boolean hasMetaAnnotation(String metaAnnotationType) {
+		return this.annotations.hasMetaAnnotation(metaAnnotationType);
+	}
+
+	@Override
+	public boolean isAnnotated(String annotationName) {
+		return (!AnnotationUtils.isInJavaLangAnnotationPackage(annotationName) &&
+				this.annotations.isAnnotated(annotationName));
+	}
+
+	@Override
+	public AnnotationAttributes getAnnotationAttributes(String annotationName) {
+		return getAnnotationAttributes(annotationName, false);
+	}
+
+	@Override
+	public AnnotationAttributes getAnnotationAttributes(String annotationName, boolean classValuesAsString) {
+		AnnotationAttributes raw = this.annotations.getMergedAnnotationAttributes(annotationName);
+		return AnnotationReadingVisitorUtils.convertClassValues(
+				"class '" + getClassName() + "'", this.classLoader, raw, classValuesAsString);
+	}
+
+	@Override
+	public MultiValueMap<String, Object> getAllAnnotationAttributes(String annotationName) {
+		return getAllAnnotationAttributes(annotationName, false);
+	}
+
+	@Override
+	public MultiValueMap<String, Object> getAllAnnotationAttributes(String annotationName, boolean classValuesAsString) {
+		return this.annotations.getAllAnnotationAttributes(
+				"class '" + getClassName() + "'", this.classLoader, annotationName, classValuesAsString);
+	}
+
+	@Override
+	public boolean hasAnnotatedMethods(String annotationName) {
+		for (MethodMetadata methodMetadata : this.annotatedMethods) {
+			if (methodMetadata.isAnnotated(annotationName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public Set<MethodMetadata> getAnnotatedMethods(String annotationName) {
+		Set<MethodMetadata> annotatedMethods = new LinkedHashSet<MethodMetadata>(4);
+		for (MethodMetadata methodMetadata : this.annotatedMethods) {
+			if (methodMetadata.isAnnotated(annotationName)) {
+				annotatedMethods.add(methodMetadata);
+			}
+		}
+		return annotatedMethods;
+	}
+
+}
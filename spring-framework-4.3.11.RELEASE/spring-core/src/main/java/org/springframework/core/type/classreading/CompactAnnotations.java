@@ -0,0 +1,195 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Compact, immutable representation of the annotations read from a class or
+ * method via ASM, as retained by {@link CompactAnnotationMetadata} and
+ * {@link CompactMethodMetadata}.
+ *
+ * <p>Replaces the hash-based structures built up by the reading visitors with
+ * parallel arrays. Annotation type names are interned, and meta-annotation type
+ * sets as well as meta-annotation attributes are shared between all classes
+ * declaring the same annotations (see {@link AnnotationReadingVisitorUtils}).
+ *
+ * @since 4.3.12
+ */
+final class CompactAnnotations {
+
+	private static final String[] EMPTY_STRING_ARRAY = new String[0];
+
+	private static final AnnotationAttributes[][] EMPTY_ATTRIBUTES_ARRAY = new AnnotationAttributes[0][];
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static final Set<String>[] EMPTY_SET_ARRAY = new Set[0];
+
+
+	/** Directly declared annotation types, in declaration order */
+	private final String[] annotationTypes;
+
+	/** Meta-annotation types per directly declared annotation type (may contain null) */
+	private final Set<String>[] metaAnnotationTypes;
+
+	/** All annotation types with attributes, in hierarchical order */
+	private final String[] attributeTypes;
+
+	/** Attributes per annotation type with attributes */
+	private final AnnotationAttributes[][] attributes;
+
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	CompactAnnotations(Set<String> annotationTypes, Map<String, Set<String>> metaAnnotationMap,
+			LinkedMultiValueMap<String, AnnotationAttributes> attributesMap) {
+
+		if (annotationTypes.isEmpty()) {
+			this.annotationTypes = EMPTY_STRING_ARRAY;
+			this.metaAnnotationTypes = EMPTY_SET_ARRAY;
+		}
+		else {
+			this.annotationTypes = new String[annotationTypes.size()];
+			this.metaAnnotationTypes = new Set[annotationTypes.size()];
+			int i = 0;
+			for (String annotationType : annotationTypes) {
+				this.annotationTypes[i] = annotationType.intern();
+				this.metaAnnotationTypes[i] = metaAnnotationMap.get(annotationType);
+				i++;
+			}
+		}
+
+		if (attributesMap.isEmpty()) {
+			this.attributeTypes = EMPTY_STRING_ARRAY;
+			this.attributes = EMPTY_ATTRIBUTES_ARRAY;
+		}
+		else {
+			this.attributeTypes = new String[attributesMap.size()];
+			this.attributes = new AnnotationAttributes[attributesMap.size()][];
+			int i = 0;
+			for (Map.Entry<String, List<AnnotationAttributes>> entry : attributesMap.entrySet()) {
+				this.attributeTypes[i] = entry.getKey().intern();
+				this.attributes[i] = entry.getValue().toArray(new AnnotationAttributes[entry.getValue().size()]);
+				i++;
+			}
+		}
+	}
+
+
+	public Set<String> getAnnotationTypes() {
+		Set<String> result = new LinkedHashSet<String>(this.annotationTypes.length);
+		Collections.addAll(result, this.annotationTypes);
+		return Collections.unmodifiableSet(result);
+	}
+
+	public boolean hasAnnotation(String annotationName) {
+		return (indexOf(this.annotationTypes, annotationName) != -1);
+	}
+
+	public Set<String> getMetaAnnotationTypes(String annotationName) {
+		int index = indexOf(this.annotationTypes, annotationName);
+		return (index != -1 ? this.metaAnnotationTypes[index] : null);
+	}
+
+	public boolean hasMetaAnnotation(String metaAnnotationType) {
+		for (Set<String> metaTypes : this.metaAnnotationTypes) {
+			if (metaTypes != null && metaTypes.contains(metaAnnotationType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public boolean isAnnotated(String annotationName) {
+		return (indexOf(this.attributeTypes, annotationName) != -1);
+	}
+
+	/**
+	 * Retrieve the merged attributes of the annotation of the given type, if any,
+	 * following the algorithm of
+	 * {@link AnnotationReadingVisitorUtils#getMergedAnnotationAttributes}.
+	 */
+	public AnnotationAttributes getMergedAnnotationAttributes(String annotationName) {
+		int index = indexOf(this.attributeTypes, annotationName);
+		if (index == -1 || this.attributes[index].length == 0) {
+			return null;
+		}
+
+		AnnotationAttributes result = new AnnotationAttributes(this.attributes[index][0]);
+		Set<String> overridableAttributeNames = new HashSet<String>(result.keySet());
+		overridableAttributeNames.remove(AnnotationUtils.VALUE);
+
+		// Traverse "down" the annotation hierarchy, skipping the target annotation type
+		for (int i = this.attributeTypes.length - 1; i >= 0; i--) {
+			if (i == index || this.attributes[i].length == 0) {
+				continue;
+			}
+			Set<String> metaAnns = getMetaAnnotationTypes(this.attributeTypes[i]);
+			if (metaAnns != null && metaAnns.contains(annotationName)) {
+				AnnotationAttributes currentAttributes = this.attributes[i][0];
+				for (String overridableAttributeName : overridableAttributeNames) {
+					Object value = currentAttributes.get(overridableAttributeName);
+					if (value != null) {
+						result.put(overridableAttributeName, value);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Retrieve all attribute values of all annotations of the given type, if any.
+	 * @see org.springframework.core.type.AnnotatedTypeMetadata#getAllAnnotationAttributes
+	 */
+	public MultiValueMap<String, Object> getAllAnnotationAttributes(Object annotatedElement,
+			ClassLoader classLoader, String annotationName, boolean classValuesAsString) {
+
+		int index = indexOf(this.attributeTypes, annotationName);
+		if (index == -1) {
+			return null;
+		}
+		MultiValueMap<String, Object> allAttributes = new LinkedMultiValueMap<String, Object>();
+		for (AnnotationAttributes raw : this.attributes[index]) {
+			for (Map.Entry<String, Object> entry : AnnotationReadingVisitorUtils.convertClassValues(
+					annotatedElement, classLoader, raw, classValuesAsString).entrySet()) {
+				allAttributes.add(entry.getKey(), entry.getValue());
+			}
+		}
+		return allAttributes;
+	}
+
+
+	private static int indexOf(String[] names, String name) {
+		for (int i = 0; i < names.length; i++) {
+			if (names[i].equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Compact, immutable {@link MethodMetadata} implementation, created from a
+ * {@link MethodMetadataReadingVisitor} once the class file has been read.
+ *
+ * @since 4.3.12
+ * @see CompactAnnotationMetadata
+ */
+final class CompactMethodMetadata implements MethodMetadata {
+
+	private final String methodName;
+
+	private final boolean isAbstract;
+
+	private final boolean isStatic;
+
+	private final boolean isFinal;
+
+	private final boolean isOverridable;
+
+	private final String declaringClassName;
+
+	private final String returnTypeName;
+
+	private final ClassLoader classLoader;
+
+	private final CompactAnnotations annotations;
+
+
+	CompactMethodMetadata(MethodMetadataReadingVisitor visitor) {
+		this.methodName = visitor.getMethodName();
+		this.isAbstract = visitor.isAbstract();
+		this.isStatic = visitor.isStatic();
+		this.isFinal = visitor.isFinal();
+		this.isOverridable = visitor.isOverridable();
+		this.declaringClassName = visitor.getDeclaringClassName();
+		this.returnTypeName = visitor.getReturnTypeName().intern();
+		this.classLoader = visitor.classLoader;
+		this.annotations = new CompactAnnotations(
+				visitor.metaAnnotationMap.keySet(), visitor.metaAnnotationMap, visitor.attributesMap);
+	}
+
+
+	@Override
+	public String getMethodName() {
+		return this.methodName;
+	}
+
+	@Override
+	public String getDeclaringClassName() {
+		return this.declaringClassName;
+	}
+
+	@Override
+	public String getReturnTypeName() {
+		return this.returnTypeName;
+	}
+
+	@Override
+	public boolean isAbstract() {
+		return this.isAbstract;
+	}
+
+	@Override
+	public boolean isStatic() {
+		return this.isStatic;
+	}
+
+	@Override
+	public boolean isFinal() {
+		return this.isFinal;
+	}
+
+	@Override
+	public boolean isOverridable() {
+		return this.isOverridable;
+	}
+
+	@Override
+	public boolean isAnnotated(String annotationName) {
+		return this.annotations.isAnnotated(annotationName);
+	}
+
+	@Override
+	public AnnotationAttributes getAnnotationAttributes(String annotationName) {
+		return getAnnotationAttributes(annotationName, false);
+	}
+
+	@Override
+	public AnnotationAttributes getAnnotationAttributes(String annotationName, boolean classValuesAsString) {
+		AnnotationAttributes raw = this.annotations.getMergedAnnotationAttributes(annotationName);
+		return AnnotationReadingVisitorUtils.convertClassValues(
+				"method '" + getMethodName() + "'", this.classLoader, raw, classValuesAsString);
+	}
+
+	@Override
+	public MultiValueMap<String, Object> getAllAnnotationAttributes(String annotationName) {
+		return getAllAnnotationAttributes(annotationName, false);
+	}
+
+	@Override
+	public MultiValueMap<String, Object> getAllAnnotationAttributes(String annotationName, boolean classValuesAsString) {
+		return this.annotations.getAllAnnotationAttributes(
+				"method '" + getMethodName() + "'", this.classLoader, annotationName, classValuesAsString);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -63,9 +63,10 @@ final class SimpleMetadataReader implements MetadataReader {
 		AnnotationMetadataReadingVisitor visitor = new AnnotationMetadataReadingVisitor(classLoader);
 		classReader.accept(visitor, ClassReader.SKIP_DEBUG);
 
-		this.annotationMetadata = visitor;
-		// (since AnnotationMetadataReadingVisitor extends ClassMetadataReadingVisitor)
-		this.classMetadata = visitor;
+		// Retain a compact representation instead of the visitor's reading state
+		this.annotationMetadata = new CompactAnnotationMetadata(visitor);
+		// (since AnnotationMetadata extends ClassMetadata)
+		this.classMetadata = this.annotationMetadata;
 		this.resource = resource;
 	}
 
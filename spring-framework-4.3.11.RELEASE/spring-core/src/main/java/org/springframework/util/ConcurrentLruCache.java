@@ -0,0 +1,243 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simple concurrent cache with an upper bound on the number of entries,
+ * evicting the least recently used entries first once the limit is reached.
+ *
+ * <p>Cache hits do not lock and do not reorder any structure: each entry merely
+ * carries an access marker, and eviction gives marked entries a "second chance"
+ * before removing them in insertion order. This approximates least-recently-used
+ * order at a fraction of the cost of an exact LRU list, which makes this class
+ * suitable for caching the results of parsing or resolution steps on hot paths.
+ *
+ * <p>Hit, miss and eviction counts are tracked for monitoring purposes.
+ * {@code null} keys and values are not supported.
+ *
+ * @since 4.3.12
+ * @param <K> the type of the key used for cache retrieval
+ * @param <V> the type of the cached values
+ */
+public class ConcurrentLruCache<K, V> {
+
+	private final int sizeLimit;
+
+	private final ConcurrentMap<K, CacheEntry<V>> cache;
+
+	/** Cache keys in insertion order, for eviction purposes */
+	private final Queue<K> evictionQueue = new ConcurrentLinkedQueue<K>();
+
+	private final AtomicInteger size = new AtomicInteger();
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	/** Synchronization monitor for eviction and clearing */
+	private final Object evictionMonitor = new Object();
+
+
+	/**
+	 * Create a new cache with the given size limit.
+	 * @param sizeLimit the maximum number of entries to keep,
+	 * with 0 indicating no caching at all
+	 */
+	public ConcurrentLruCache(int sizeLimit) {
+		Assert.isTrue(sizeLimit >= 0, "Cache size limit must not be negative");
+		this.sizeLimit = sizeLimit;
+		this.cache = new ConcurrentHashMap<K, CacheEntry<V>>(Math.min(sizeLimit, 256));
+	}
+
+
+	/**
+	 * Return the value cached for the given key, if any.
+	 * @param key the key to look up
+	 * @return the cached value, or {@code null} if none
+	 */
+	public V get(K key) {
+		CacheEntry<V> entry = this.cache.get(key);
+		if (entry == null) {
+			this.missCount.incrementAndGet();
+			return null;
+		}
+		entry.accessed = true;
+		this.hitCount.incrementAndGet();
+		return entry.value;
+	}
+
+	/**
+	 * Cache the given value for the given key unless a value is cached already.
+	 * <p>If the cache exceeds its size limit as a consequence, older entries
+	 * are evicted.
+	 * @param key the key to cache the value for
+	 * @param value the value to cache
+	 * @return the value previously cached for the given key, or {@code null} if
+	 * the given value has been cached (or if caching is deactivated)
+	 */
+	public V putIfAbsent(K key, V value) {
+		Assert.notNull(value, "Value must not be null");
+		if (this.sizeLimit == 0) {
+			return null;
+		}
+		CacheEntry<V> existing = this.cache.putIfAbsent(key, new CacheEntry<V>(value));
+		if (existing != null) {
+			return existing.value;
+		}
+		this.evictionQueue.add(key);
+		if (this.size.incrementAndGet() > this.sizeLimit) {
+			evictEntries();
+		}
+		return null;
+	}
+
+	/**
+	 * Cache the given value for the given key, replacing any value cached before.
+	 * <p>If the cache exceeds its size limit as a consequence, older entries
+	 * are evicted.
+	 * @param key the key to cache the value for
+	 * @param value the value to cache
+	 * @return the value previously cached for the given key, or {@code null} if none
+	 */
+	public V put(K key, V value) {
+		Assert.notNull(value, "Value must not be null");
+		if (this.sizeLimit == 0) {
+			return null;
+		}
+		CacheEntry<V> previous = this.cache.put(key, new CacheEntry<V>(value));
+		if (previous != null) {
+			return previous.value;
+		}
+		this.evictionQueue.add(key);
+		if (this.size.incrementAndGet() > this.sizeLimit) {
+			evictEntries();
+		}
+		return null;
+	}
+
+	/**
+	 * Evict entries until the cache size is back within the size limit,
+	 * giving recently accessed entries a second chance.
+	 */
+	private void evictEntries() {
+		synchronized (this.evictionMonitor) {
+			int attempts = 2 * this.size.get();
+			while (this.size.get() > this.sizeLimit && attempts-- > 0) {
+				K key = this.evictionQueue.poll();
+				if (key == null) {
+					return;
+				}
+				CacheEntry<V> entry = this.cache.get(key);
+				if (entry == null) {
+					// Already removed through clear()
+					continue;
+				}
+				if (entry.accessed && attempts > 0) {
+					entry.accessed = false;
+					this.evictionQueue.add(key);
+				}
+				else if (this.cache.remove(key, entry)) {
+					this.size.decrementAndGet();
+					this.evictionCount.incrementAndGet();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove all entries from the cache. Statistics are not reset.
+	 */
+	public void clear() {
+		synchronized (this.evictionMonitor) {
+			// Eviction queue first: an entry added concurrently either gets removed
+			// from the cache below or keeps its key in the eviction queue.
+			this.evictionQueue.clear();
+			for (K key : this.cache.keySet()) {
+				if (this.cache.remove(key) != null) {
+					this.size.decrementAndGet();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Return the current number of entries in the cache.
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Return the maximum number of entries in the cache
+	 * (0 indicating no caching at all).
+	 */
+	public int sizeLimit() {
+		return this.sizeLimit;
+	}
+
+	/**
+	 * Return the number of {@link #get} calls which found a cached value.
+	 */
+	public long getHitCount() {
+		return this.hitCount.get();
+	}
+
+	/**
+	 * Return the number of {@link #get} calls which did not find a cached value.
+	 */
+	public long getMissCount() {
+		return this.missCount.get();
+	}
+
+	/**
+	 * Return the number of entries evicted because of the size limit.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount.get();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + ": size=" + size() + ", limit=" + this.sizeLimit +
+				", hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount();
+	}
+
+
+	/**
+	 * Holder for a cached value, with an access marker for eviction.
+	 */
+	private static class CacheEntry<V> {
+
+		final V value;
+
+		volatile boolean accessed;
+
+		CacheEntry(V value) {
+			this.value = value;
+		}
+	}
+
+}
@@ -48,6 +48,10 @@ public abstract class MimeTypeUtils {
 
 	private static final Random RND = new Random();
 
+	/** Cache of parsed MimeType instances, keyed by their String representation */
+	private static final ConcurrentLruCache<String, MimeType> cachedMimeTypes =
+			new ConcurrentLruCache<String, MimeType>(64);
+
 	private static Charset US_ASCII = Charset.forName("US-ASCII");
 
 	/**
@@ -232,6 +236,9 @@ public abstract class MimeTypeUtils {
 
 	/**
 	 * Parse the given String into a single {@code MimeType}.
+	 * <p>As of 4.3.12, recently parsed mime types are cached, returning the
+	 * same (immutable) {@code MimeType} instance for repeated parsing of the
+	 * same String.
 	 * @param mimeType the string to parse
 	 * @return the mime type
 	 * @throws InvalidMimeTypeException if the string cannot be parsed
@@ -240,7 +247,20 @@ public abstract class MimeTypeUtils {
 		if (!StringUtils.hasLength(mimeType)) {
 			throw new InvalidMimeTypeException(mimeType, "'mimeType' must not be empty");
 		}
+		// Do not cache multipart mime types with random boundaries
+		if (mimeType.startsWith("multipart")) {
+			return parseMimeTypeInternal(mimeType);
+		}
+		MimeType cached = cachedMimeTypes.get(mimeType);
+		if (cached != null) {
+			return cached;
+		}
+		MimeType parsed = parseMimeTypeInternal(mimeType);
+		cachedMimeTypes.putIfAbsent(mimeType, parsed);
+		return parsed;
+	}
 
+	private static MimeType parseMimeTypeInternal(String mimeType) {
 		int index = mimeType.indexOf(';');
 		String fullType = (index >= 0 ? mimeType.substring(0, index) : mimeType).trim();
 		if (fullType.isEmpty()) {
@@ -0,0 +1,632 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.Map;
+
+/**
+ * {@link AntPathMatcher} variant which parses each pattern once into an immutable,
+ * compiled form and matches paths against it without re-tokenizing the pattern.
+ *
+ * <p>Pattern syntax and matching semantics are exactly those of {@code AntPathMatcher},
+ * including URI template variable extraction, pattern combination and comparison.
+ * The difference lies in the matching algorithm:
+ * <ul>
+ * <li>Literal pattern segments are compared in place, and segments containing only
+ * {@code ?} and {@code *} wildcards as well as plain <code>{variable}</code> segments
+ * are matched without regular expressions. Regular expressions are only used for
+ * segments with constrained URI template variables such as <code>{name:[a-z]+}</code>.</li>
+ * <li>For patterns without a {@code **} segment, the path is matched in a single pass
+ * without tokenizing it into a String array first.</li>
+ * <li>Compiled patterns are held in a cache based on soft references which, unlike
+ * the {@code AntPathMatcher} cache, does not turn itself off when encountering a large
+ * number of patterns.</li>
+ * </ul>
+ *
+ * <p>Can be used wherever an {@code AntPathMatcher} is used, e.g. through
+ * {@code PathMatchConfigurer#setPathMatcher} in Spring MVC or
+ * {@code MessageBrokerRegistry#setPathMatcher} for the simple STOMP broker.
+ *
+ * @since 4.3.12
+ * @see AntPathMatcher
+ */
+public class PrecompiledPathMatcher extends AntPathMatcher {
+
+	private String pathSeparator;
+
+	private boolean caseSensitive = true;
+
+	private boolean trimTokens = false;
+
+	private volatile Boolean cachePatterns;
+
+	private final Map<String, CompiledPattern> compiledPatternCache =
+			new ConcurrentReferenceHashMap<String, CompiledPattern>(256);
+
+
+	/**
+	 * Create a new instance with the {@link #DEFAULT_PATH_SEPARATOR}.
+	 */
+	public PrecompiledPathMatcher() {
+		super();
+		this.pathSeparator = DEFAULT_PATH_SEPARATOR;
+	}
+
+	/**
+	 * Create a new instance with a custom path separator.
+	 * @param pathSeparator the path separator to use, must not be {@code null}.
+	 */
+	public PrecompiledPathMatcher(String pathSeparator) {
+		super(pathSeparator);
+		this.pathSeparator = pathSeparator;
+	}
+
+
+	@Override
+	public void setPathSeparator(String pathSeparator) {
+		super.setPathSeparator(pathSeparator);
+		this.pathSeparator = (pathSeparator != null ? pathSeparator : DEFAULT_PATH_SEPARATOR);
+		this.compiledPatternCache.clear();
+	}
+
+	@Override
+	public void setCaseSensitive(boolean caseSensitive) {
+		super.setCaseSensitive(caseSensitive);
+		this.caseSensitive = caseSensitive;
+		this.compiledPatternCache.clear();
+	}
+
+	@Override
+	public void setTrimTokens(boolean trimTokens) {
+		super.setTrimTokens(trimTokens);
+		this.trimTokens = trimTokens;
+		this.compiledPatternCache.clear();
+	}
+
+	/**
+	 * Specify whether to cache compiled patterns.
+	 * <p>Default is for the cache to be on. Since cached patterns are softly
+	 * referenced, the cache is not turned off when encountering a large number
+	 * of patterns; a value of {@code false} turns the pattern cache off completely.
+	 */
+	@Override
+	public void setCachePatterns(boolean cachePatterns) {
+		super.setCachePatterns(cachePatterns);
+		this.cachePatterns = cachePatterns;
+		if (!cachePatterns) {
+			this.compiledPatternCache.clear();
+		}
+	}
+
+
+	@Override
+	protected boolean doMatch(String pattern, String path, boolean fullMatch, Map<String, String> uriTemplateVariables) {
+		return getCompiledPattern(pattern).match(path, fullMatch, uriTemplateVariables);
+	}
+
+	private CompiledPattern getCompiledPattern(String pattern) {
+		if (Boolean.FALSE.equals(this.cachePatterns)) {
+			return new CompiledPattern(pattern);
+		}
+		CompiledPattern compiledPattern = this.compiledPatternCache.get(pattern);
+		if (compiledPattern == null) {
+			compiledPattern = new CompiledPattern(pattern);
+			this.compiledPatternCache.put(pattern, compiledPattern);
+		}
+		return compiledPattern;
+	}
+
+	private boolean isSeparator(char c) {
+		String separator = this.pathSeparator;
+		return (separator.length() == 1 ? separator.charAt(0) == c : separator.indexOf(c) != -1);
+	}
+
+	/**
+	 * Determine whether the given character gets trimmed from path tokens,
+	 * consistent with {@link String#trim()} as used by {@link StringUtils#tokenizeToStringArray}.
+	 */
+	private static boolean isTrimmable(char c) {
+		return (c <= ' ');
+	}
+
+	/**
+	 * Return the start of the next path token at or after the given position,
+	 * consistent with {@link StringUtils#tokenizeToStringArray}: tokens are
+	 * delimited by any of the path separator characters, trimmed if necessary,
+	 * and empty tokens are skipped.
+	 * @return the start index of the token, or -1 if there is none
+	 */
+	private int tokenStart(String path, int pos) {
+		int length = path.length();
+		while (pos < length) {
+			while (pos < length && isSeparator(path.charAt(pos))) {
+				pos++;
+			}
+			if (!this.trimTokens) {
+				return (pos < length ? pos : -1);
+			}
+			while (pos < length && !isSeparator(path.charAt(pos)) && isTrimmable(path.charAt(pos))) {
+				pos++;
+			}
+			if (pos < length && !isSeparator(path.charAt(pos))) {
+				return pos;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Return the end of the path token starting at the given position,
+	 * excluding trailing whitespace if tokens are trimmed.
+	 */
+	private int tokenEnd(String path, int start) {
+		int end = start;
+		int length = path.length();
+		while (end < length && !isSeparator(path.charAt(end))) {
+			end++;
+		}
+		if (this.trimTokens) {
+			while (end > start && isTrimmable(path.charAt(end - 1))) {
+				end--;
+			}
+		}
+		return end;
+	}
+
+	/**
+	 * Return the position right after the path token ending at the given
+	 * position, i.e. past any trailing whitespace if tokens are trimmed.
+	 */
+	private int tokenLimit(String path, int end) {
+		int length = path.length();
+		while (end < length && !isSeparator(path.charAt(end))) {
+			end++;
+		}
+		return end;
+	}
+
+
+	/**
+	 * A pattern parsed into segments, along with the matching algorithm of
+	 * {@link AntPathMatcher#doMatch} operating on path token boundaries.
+	 */
+	private class CompiledPattern {
+
+		private final Segment[] segments;
+
+		private final boolean absolute;
+
+		private final boolean endsWithSeparator;
+
+		private final boolean hasDoubleWildcard;
+
+		public CompiledPattern(String pattern) {
+			String separator = pathSeparator;
+			this.absolute = pattern.startsWith(separator);
+			this.endsWithSeparator = pattern.endsWith(separator);
+			String[] tokens = StringUtils.tokenizeToStringArray(pattern, separator, trimTokens, true);
+			this.segments = new Segment[tokens.length];
+			boolean hasDoubleWildcard = false;
+			for (int i = 0; i < tokens.length; i++) {
+				this.segments[i] = Segment.forToken(tokens[i], caseSensitive);
+				hasDoubleWildcard |= this.segments[i].isDoubleWildcard();
+			}
+			this.hasDoubleWildcard = hasDoubleWildcard;
+		}
+
+		public boolean match(String path, boolean fullMatch, Map<String, String> uriTemplateVariables) {
+			if (path.startsWith(pathSeparator) != this.absolute) {
+				return false;
+			}
+			return (this.hasDoubleWildcard ? matchTokenized(path, fullMatch, uriTemplateVariables) :
+					matchSinglePass(path, fullMatch, uriTemplateVariables));
+		}
+
+		/**
+		 * Match a pattern without "**" segments in a single pass over the path.
+		 */
+		private boolean matchSinglePass(String path, boolean fullMatch, Map<String, String> uriTemplateVariables) {
+			int pos = 0;
+			for (int i = 0; i < this.segments.length; i++) {
+				int start = tokenStart(path, pos);
+				if (start == -1) {
+					// Path is exhausted, only match if rest of pattern is "*" for a trailing separator
+					if (!fullMatch) {
+						return true;
+					}
+					return (i == this.segments.length - 1 && this.segments[i].isWildcard() &&
+							path.endsWith(pathSeparator));
+				}
+				int end = tokenEnd(path, start);
+				if (!this.segments[i].match(path, start, end, uriTemplateVariables)) {
+					return false;
+				}
+				pos = tokenLimit(path, end);
+			}
+			if (tokenStart(path, pos) != -1) {
+				// Path not exhausted, but pattern is. Failure.
+				return false;
+			}
+			return (this.endsWithSeparator == path.endsWith(pathSeparator));
+		}
+
+		/**
+		 * Match a pattern with "**" segments, based on the token boundaries of the path.
+		 */
+		private boolean matchTokenized(String path, boolean fullMatch, Map<String, String> uriTemplateVariables) {
+			int tokenCount = 0;
+			for (int pos = tokenStart(path, 0); pos != -1; pos = tokenStart(path, tokenLimit(path, pos))) {
+				tokenCount++;
+			}
+			int[] starts = new int[tokenCount];
+			int[] ends = new int[tokenCount];
+			int index = 0;
+			for (int pos = tokenStart(path, 0); pos != -1; pos = tokenStart(path, tokenLimit(path, pos))) {
+				starts[index] = pos;
+				ends[index] = tokenEnd(path, pos);
+				index++;
+			}
+
+			Segment[] pattDirs = this.segments;
+			int pattIdxStart = 0;
+			int pattIdxEnd = pattDirs.length - 1;
+			int pathIdxStart = 0;
+			int pathIdxEnd = tokenCount - 1;
+
+			// Match all elements up to the first **
+			while (pattIdxStart <= pattIdxEnd && pathIdxStart <= pathIdxEnd) {
+				Segment pattDir = pattDirs[pattIdxStart];
+				if (pattDir.isDoubleWildcard()) {
+					break;
+				}
+				if (!pattDir.match(path, starts[pathIdxStart], ends[pathIdxStart], uriTemplateVariables)) {
+					return false;
+				}
+				pattIdxStart++;
+				pathIdxStart++;
+			}
+
+			if (pathIdxStart > pathIdxEnd) {
+				// Path is exhausted, only match if rest of pattern is * or **'s
+				if (pattIdxStart > pattIdxEnd) {
+					return (this.endsWithSeparator == path.endsWith(pathSeparator));
+				}
+				if (!fullMatch) {
+					return true;
+				}
+				if (pattIdxStart == pattIdxEnd && pattDirs[pattIdxStart].isWildcard() &&
+						path.endsWith(pathSeparator)) {
+					return true;
+				}
+				return onlyDoubleWildcards(pattIdxStart, pattIdxEnd);
+			}
+			else if (pattIdxStart > pattIdxEnd) {
+				// String not exhausted, but pattern is. Failure.
+				return false;
+			}
+			else if (!fullMatch && pattDirs[pattIdxStart].isDoubleWildcard()) {
+				// Path start definitely matches due to "**" part in pattern.
+				return true;
+			}
+
+			// up to last '**'
+			while (pattIdxStart <= pattIdxEnd && pathIdxStart <= pathIdxEnd) {
+				Segment pattDir = pattDirs[pattIdxEnd];
+				if (pattDir.isDoubleWildcard()) {
+					break;
+				}
+				if (!pattDir.match(path, starts[pathIdxEnd], ends[pathIdxEnd], uriTemplateVariables)) {
+					return false;
+				}
+				pattIdxEnd--;
+				pathIdxEnd--;
+			}
+			if (pathIdxStart > pathIdxEnd) {
+				// String is exhausted
+				return onlyDoubleWildcards(pattIdxStart, pattIdxEnd);
+			}
+
+			while (pattIdxStart != pattIdxEnd && pathIdxStart <= pathIdxEnd) {
+				int patIdxTmp = -1;
+				for (int i = pattIdxStart + 1; i <= pattIdxEnd; i++) {
+					if (pattDirs[i].isDoubleWildcard()) {
+						patIdxTmp = i;
+						break;
+					}
+				}
+				if (patIdxTmp == pattIdxStart + 1) {
+					// '**/**' situation, so skip one
+					pattIdxStart++;
+					continue;
+				}
+				// Find the pattern between padIdxStart & padIdxTmp in str between
+				// strIdxStart & strIdxEnd
+				int patLength = (patIdxTmp - pattIdxStart - 1);
+				int strLength = (pathIdxEnd - pathIdxStart + 1);
+				int foundIdx = -1;
+
+				strLoop:
+				for (int i = 0; i <= strLength - patLength; i++) {
+					for (int j = 0; j < patLength; j++) {
+						Segment subPat = pattDirs[pattIdxStart + j + 1];
+						int subStr = pathIdxStart + i + j;
+						if (!subPat.match(path, starts[subStr], ends[subStr], uriTemplateVariables)) {
+							continue strLoop;
+						}
+					}
+					foundIdx = pathIdxStart + i;
+					break;
+				}
+
+				if (foundIdx == -1) {
+					return false;
+				}
+
+				pattIdxStart = patIdxTmp;
+				pathIdxStart = foundIdx + patLength;
+			}
+
+			return onlyDoubleWildcards(pattIdxStart, pattIdxEnd);
+		}
+
+		private boolean onlyDoubleWildcards(int from, int to) {
+			for (int i = from; i <= to; i++) {
+				if (!this.segments[i].isDoubleWildcard()) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+
+	/**
+	 * A compiled pattern segment, matching a single path token.
+	 */
+	private static abstract class Segment {
+
+		public static Segment forToken(String token, boolean caseSensitive) {
+			if ("**".equals(token)) {
+				return new DoubleWildcardSegment(token, caseSensitive);
+			}
+			if (token.indexOf('{') != -1) {
+				if (token.length() > 2 && token.charAt(0) == '{' && token.charAt(token.length() - 1) == '}' &&
+						isPlainVariableName(token, 1, token.length() - 1)) {
+					return new VariableSegment(token, caseSensitive);
+				}
+				return new RegexSegment(token, caseSensitive);
+			}
+			if (token.indexOf('*') != -1 || token.indexOf('?') != -1) {
+				return new WildcardSegment(token, caseSensitive);
+			}
+			return new LiteralSegment(token, caseSensitive);
+		}
+
+		private static boolean isPlainVariableName(String token, int start, int end) {
+			for (int i = start; i < end; i++) {
+				char c = token.charAt(i);
+				if (c == '{' || c == '}' || c == ':' || c == '/' || c == '\\' || c == '*' || c == '?') {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		protected final String token;
+
+		protected final boolean caseSensitive;
+
+		private volatile AntPathStringMatcher stringMatcher;
+
+		protected Segment(String token, boolean caseSensitive) {
+			this.token = token;
+			this.caseSensitive = caseSensitive;
+		}
+
+		public boolean isDoubleWildcard() {
+			return false;
+		}
+
+		public boolean isWildcard() {
+			return false;
+		}
+
+		public abstract boolean match(String path, int start, int end, Map<String, String> uriTemplateVariables);
+
+		/**
+		 * Match the path token through the regular expression built by
+		 * {@link AntPathStringMatcher}.
+		 */
+		protected boolean matchRegex(String path, int start, int end, Map<String, String> uriTemplateVariables) {
+			AntPathStringMatcher matcher = this.stringMatcher;
+			if (matcher == null) {
+				matcher = new AntPathStringMatcher(this.token, this.caseSensitive);
+				this.stringMatcher = matcher;
+			}
+			return matcher.matchStrings(path.substring(start, end), uriTemplateVariables);
+		}
+
+		/**
+		 * Whether the given path token is plain ASCII without line terminators,
+		 * i.e. whether wildcards match exactly one character per {@code ?} as
+		 * they would in a regular expression.
+		 */
+		protected static boolean isSimpleText(String path, int start, int end) {
+			for (int i = start; i < end; i++) {
+				char c = path.charAt(i);
+				if (c >= 0x80 || c == '\n' || c == '\r') {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		protected static boolean charEquals(char c1, char c2, boolean caseSensitive) {
+			if (c1 == c2) {
+				return true;
+			}
+			if (caseSensitive || c1 >= 0x80 || c2 >= 0x80) {
+				return false;
+			}
+			// Case-insensitive regular expressions only fold US-ASCII characters
+			return (Character.toLowerCase(c1) == Character.toLowerCase(c2));
+		}
+	}
+
+
+	private static class DoubleWildcardSegment extends Segment {
+
+		public DoubleWildcardSegment(String token, boolean caseSensitive) {
+			super(token, caseSensitive);
+		}
+
+		@Override
+		public boolean isDoubleWildcard() {
+			return true;
+		}
+
+		@Override
+		public boolean match(String path, int start, int end, Map<String, String> uriTemplateVariables) {
+			// Only reached with a "**" segment as part of a path
+			return matchRegex(path, start, end, uriTemplateVariables);
+		}
+	}
+
+
+	private static class LiteralSegment extends Segment {
+
+		public LiteralSegment(String token, boolean caseSensitive) {
+			super(token, caseSensitive);
+		}
+
+		@Override
+		public boolean match(String path, int start, int end, Map<String, String> uriTemplateVariables) {
+			if (end - start != this.token.length()) {
+				return false;
+			}
+			for (int i = 0; i < this.token.length(); i++) {
+				if (!charEquals(this.token.charAt(i), path.charAt(start + i), this.caseSensitive)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+
+	/**
+	 * Segment with "?" and "*" wildcards but without URI template variables.
+	 */
+	private static class WildcardSegment extends Segment {
+
+		private final boolean wildcard;
+
+		public WildcardSegment(String token, boolean caseSensitive) {
+			super(token, caseSensitive);
+			this.wildcard = "*".equals(token);
+		}
+
+		@Override
+		public boolean isWildcard() {
+			return this.wildcard;
+		}
+
+		@Override
+		public boolean match(String path, int start, int end, Map<String, String> uriTemplateVariables) {
+			if (!isSimpleText(path, start, end)) {
+				return matchRegex(path, start, end, uriTemplateVariables);
+			}
+			if (this.wildcard) {
+				return true;
+			}
+			String glob = this.token;
+			int globLength = glob.length();
+			int globPos = 0;
+			int pos = start;
+			int starGlobPos = -1;
+			int starPos = -1;
+			while (pos < end) {
+				if (globPos < globLength) {
+					char c = glob.charAt(globPos);
+					if (c == '*') {
+						starGlobPos = globPos++;
+						starPos = pos;
+						continue;
+					}
+					if (c == '?' || charEquals(c, path.charAt(pos), this.caseSensitive)) {
+						globPos++;
+						pos++;
+						continue;
+					}
+				}
+				if (starGlobPos == -1) {
+					return false;
+				}
+				// Let the last "*" consume one more character and retry
+				globPos = starGlobPos + 1;
+				pos = ++starPos;
+			}
+			while (globPos < globLength && glob.charAt(globPos) == '*') {
+				globPos++;
+			}
+			return (globPos == globLength);
+		}
+	}
+
+
+	/**
+	 * Segment consisting of a single URI template variable without a custom regex.
+	 */
+	private static class VariableSegment extends Segment {
+
+		private final String variableName;
+
+		public VariableSegment(String token, boolean caseSensitive) {
+			super(token, caseSensitive);
+			this.variableName = token.substring(1, token.length() - 1);
+		}
+
+		@Override
+		public boolean match(String path, int start, int end, Map<String, String> uriTemplateVariables) {
+			if (!isSimpleText(path, start, end)) {
+				return matchRegex(path, start, end, uriTemplateVariables);
+			}
+			if (uriTemplateVariables != null) {
+				uriTemplateVariables.put(this.variableName, path.substring(start, end));
+			}
+			return true;
+		}
+	}
+
+
+	/**
+	 * Segment requiring a regular expression, e.g. for URI template variables
+	 * with a custom regex or for several variables within the same segment.
+	 */
+	private static class RegexSegment extends Segment {
+
+		public RegexSegment(String token, boolean caseSensitive) {
+			super(token, caseSensitive);
+		}
+
+		@Override
+		public boolean match(String path, int start, int end, Map<String, String> uriTemplateVariables) {
+			return matchRegex(path, start, end, uriTemplateVariables);
+		}
+	}
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link GeneratedMethodInvoker}.
+ */
+public class GeneratedMethodInvokerTests {
+
+	@Test
+	public void invokePublicMethod() throws Exception {
+		GeneratedMethodInvoker invoker = invoker("concat", String.class, int.class);
+		assertNotNull(invoker);
+		assertEquals("a1", invoker.invoke(new Target(), "a", 1));
+		assertNull(invoker.invoke(new Target(), null, 1));
+	}
+
+	@Test
+	public void invokeVoidMethod() throws Exception {
+		Target target = new Target();
+		GeneratedMethodInvoker invoker = invoker("record", String.class);
+		assertNotNull(invoker);
+		assertNull(invoker.invoke(target, "value"));
+		assertEquals("value", target.recorded);
+	}
+
+	@Test
+	public void invokeStaticMethod() throws Exception {
+		GeneratedMethodInvoker invoker = invoker("twice", long.class);
+		assertNotNull(invoker);
+		assertEquals(6L, invoker.invoke(null, 3L));
+	}
+
+	@Test
+	public void invokePackageVisibleClass() throws Exception {
+		Method method = PackageVisibleTarget.class.getDeclaredMethod("value");
+		GeneratedMethodInvoker invoker = GeneratedMethodInvoker.forMethod(method);
+		assertNotNull(invoker);
+		assertEquals("package", invoker.invoke(new PackageVisibleTarget()));
+	}
+
+	@Test
+	public void invokeWithPrimitiveWidening() throws Exception {
+		GeneratedMethodInvoker invoker = invoker("twice", long.class);
+		assertEquals(6L, invoker.invoke(null, 3));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invokeWithArgumentTypeMismatch() throws Exception {
+		invoker("concat", String.class, int.class).invoke(new Target(), 1, "a");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invokeWithNullForPrimitive() throws Exception {
+		invoker("concat", String.class, int.class).invoke(new Target(), "a", null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invokeWithWrongNumberOfArguments() throws Exception {
+		invoker("concat", String.class, int.class).invoke(new Target(), "a");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invokeOnWrongTarget() throws Exception {
+		invoker("concat", String.class, int.class).invoke(new Object(), "a", 1);
+	}
+
+	@Test
+	public void invokeWithException() throws Exception {
+		try {
+			invoker("fail").invoke(new Target());
+			fail("Expected InvocationTargetException");
+		}
+		catch (InvocationTargetException ex) {
+			assertTrue(ex.getTargetException() instanceof IOException);
+		}
+	}
+
+	@Test
+	public void privateMethodNotSupported() throws Exception {
+		Method method = Target.class.getDeclaredMethod("secret");
+		assertNull(GeneratedMethodInvoker.forMethod(method));
+		assertEquals("secret", GeneratedMethodInvoker.invokeMethod(method, new Target()));
+	}
+
+	@Test
+	public void invokerCached() throws Exception {
+		Method method = Target.class.getMethod("record", String.class);
+		assertSame(GeneratedMethodInvoker.forMethod(method), GeneratedMethodInvoker.forMethod(method));
+	}
+
+	@Test
+	public void invokeMethod() throws Exception {
+		Method method = Target.class.getMethod("concat", String.class, int.class);
+		assertEquals("b2", GeneratedMethodInvoker.invokeMethod(method, new Target(), "b", 2));
+	}
+
+
+	private static GeneratedMethodInvoker invoker(String name, Class<?>... parameterTypes) throws Exception {
+		return GeneratedMethodInvoker.forMethod(Target.class.getMethod(name, parameterTypes));
+	}
+
+
+	public static class Target {
+
+		String recorded;
+
+		public String concat(String value, int count) {
+			return (value != null ? value + count : null);
+		}
+
+		public void record(String value) {
+			this.recorded = value;
+		}
+
+		public static long twice(long value) {
+			return value * 2;
+		}
+
+		public void fail() throws IOException {
+			throw new IOException("failure");
+		}
+
+		@SuppressWarnings("unused")
+		private String secret() {
+			return "secret";
+		}
+	}
+
+
+	static class PackageVisibleTarget {
+
+		String value() {
+			return "package";
+		}
+	}
+
+}
@@ -116,6 +116,26 @@ public class ResolvableTypeTests {
 		assertTrue(type.isAssignableFrom(String.class));
 	}
 
+	@Test
+	public void forClassReturnsSharedInstance() throws Exception {
+		assertSame(ResolvableType.forClass(ExtendsList.class), ResolvableType.forClass(ExtendsList.class));
+		assertSame(ResolvableType.forClass(Object.class), ResolvableType.forClass(null));
+		assertSame(ResolvableType.forClass(String.class), ResolvableType.forType(String.class));
+		assertNotSame(ResolvableType.forClass(ExtendsList.class), ResolvableType.forRawClass(ExtendsList.class));
+	}
+
+	@Test
+	public void isAssignableFromWithCachedResults() throws Exception {
+		ResolvableType listType = ResolvableType.forField(Fields.class.getField("stringList"));
+		ResolvableType collectionType = ResolvableType.forClassWithGenerics(Collection.class, CharSequence.class);
+		for (int i = 0; i < 2; i++) {
+			assertTrue(ResolvableType.forClass(List.class).isAssignableFrom(listType));
+			assertFalse(collectionType.isAssignableFrom(listType));
+			assertTrue(ResolvableType.forClass(Object.class).isAssignableFrom(String.class));
+			assertFalse(ResolvableType.forClass(String.class).isAssignableFrom(Object.class));
+		}
+	}
+
 	@Test
 	public void forRawClass() throws Exception {
 		ResolvableType type = ResolvableType.forRawClass(ExtendsList.class);
@@ -38,6 +38,7 @@ import org.junit.rules.ExpectedException;
 
 import org.springframework.core.annotation.AnnotationUtilsTests.*;
 import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Indexed;
 import org.springframework.util.Assert;
 import org.springframework.util.MultiValueMap;
 
@@ -76,19 +77,19 @@ public class AnnotatedElementUtilsTests {
 	@Test
 	public void getMetaAnnotationTypesOnClassWithMetaDepth1() {
 		Set<String> names = getMetaAnnotationTypes(TransactionalComponentClass.class, TransactionalComponent.class);
-		assertEquals(names(Transactional.class, Component.class), names);
+		assertEquals(names(Transactional.class, Component.class, Indexed.class), names);
 
 		names = getMetaAnnotationTypes(TransactionalComponentClass.class, TransactionalComponent.class.getName());
-		assertEquals(names(Transactional.class, Component.class), names);
+		assertEquals(names(Transactional.class, Component.class, Indexed.class), names);
 	}
 
 	@Test
 	public void getMetaAnnotationTypesOnClassWithMetaDepth2() {
 		Set<String> names = getMetaAnnotationTypes(ComposedTransactionalComponentClass.class, ComposedTransactionalComponent.class);
-		assertEquals(names(TransactionalComponent.class, Transactional.class, Component.class), names);
+		assertEquals(names(TransactionalComponent.class, Transactional.class, Component.class, Indexed.class), names);
 
 		names = getMetaAnnotationTypes(ComposedTransactionalComponentClass.class, ComposedTransactionalComponent.class.getName());
-		assertEquals(names(TransactionalComponent.class, Transactional.class, Component.class), names);
+		assertEquals(names(TransactionalComponent.class, Transactional.class, Component.class, Indexed.class), names);
 	}
 
 	private Set<String> names(Class<?>... classes) {
@@ -733,6 +734,48 @@ public class AnnotatedElementUtilsTests {
 		assertEquals(1, allMergedAnnotations.size());
 	}
 
+	@Test
+	public void findMergedAnnotationReusesCachedSynthesizedAnnotation() throws Exception {
+		clearCache();
+		Method m = AliasedComposedContextConfigAndTestPropSourceClass.class.getMethod("toString");
+		ContextConfig contextConfig = findMergedAnnotation(AliasedComposedContextConfigAndTestPropSourceClass.class, ContextConfig.class);
+		assertNotNull(contextConfig);
+		assertSame(contextConfig, findMergedAnnotation(AliasedComposedContextConfigAndTestPropSourceClass.class, ContextConfig.class));
+		assertNull(findMergedAnnotation(m, ContextConfig.class));
+		assertNull(findMergedAnnotation(m, ContextConfig.class));
+		assertEquals(2, getCacheHitCount());
+		assertEquals(2, getCacheMissCount());
+
+		// get semantics cached separately
+		assertNotNull(getMergedAnnotation(AliasedComposedContextConfigAndTestPropSourceClass.class, ContextConfig.class));
+		assertEquals(3, getCacheMissCount());
+
+		clearCache();
+		assertEquals(0, getCacheHitCount());
+		assertEquals(0, getCacheMissCount());
+	}
+
+	@Test
+	public void getMergedAnnotationAttributesReturnsIndependentCopiesOfCachedAttributes() {
+		clearCache();
+		AnnotationAttributes attributes = getMergedAnnotationAttributes(TxConfig.class, Transactional.class);
+		assertEquals("TxConfig", attributes.getString("value"));
+		attributes.put("value", "modified");
+
+		attributes = getMergedAnnotationAttributes(TxConfig.class, Transactional.class);
+		assertEquals("TxConfig", attributes.getString("value"));
+		assertEquals(1, getCacheHitCount());
+
+		attributes = AnnotatedElementUtils.findMergedAnnotationAttributes(AliasedComposedContextConfigAndTestPropSourceClass.class,
+				ContextConfig.class, false, false);
+		String[] locations = attributes.getStringArray("locations");
+		locations[0] = "modified";
+		attributes = AnnotatedElementUtils.findMergedAnnotationAttributes(AliasedComposedContextConfigAndTestPropSourceClass.class,
+				ContextConfig.class, false, false);
+		assertArrayEquals(asArray("test.xml"), attributes.getStringArray("locations"));
+		assertEquals(2, getCacheHitCount());
+	}
+
 
 	// -------------------------------------------------------------------------
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -67,6 +67,24 @@ public class AnnotationMetadataTests {
 		doTestMethodAnnotationInfo(metadata);
 	}
 
+	@Test
+	public void asmAnnotationMetadataSharesMetaAnnotationData() throws Exception {
+		MetadataReaderFactory metadataReaderFactory = new SimpleMetadataReaderFactory();
+		AnnotationMetadata metadata1 = metadataReaderFactory.getMetadataReader(
+				AnnotatedComponent.class.getName()).getAnnotationMetadata();
+		AnnotationMetadata metadata2 = metadataReaderFactory.getMetadataReader(
+				AnnotatedComponent.class.getName()).getAnnotationMetadata();
+		assertNotSame(metadata1, metadata2);
+
+		String annotationType = MetaMetaAnnotation.class.getName();
+		assertSame(metadata1.getMetaAnnotationTypes(annotationType), metadata2.getMetaAnnotationTypes(annotationType));
+		assertSame(metadata1.getAnnotationTypes().iterator().next(), metadata2.getAnnotationTypes().iterator().next());
+		assertEquals(metadata1.getAnnotationAttributes(MetaAnnotation.class.getName()),
+				metadata2.getAnnotationAttributes(MetaAnnotation.class.getName()));
+		doTestAnnotationInfo(metadata2);
+		doTestMethodAnnotationInfo(metadata2);
+	}
+
 	@Test
 	public void standardAnnotationMetadataForSubclass() throws Exception {
 		AnnotationMetadata metadata = new StandardAnnotationMetadata(AnnotatedComponentSubClass.class, true);
@@ -161,7 +179,7 @@ public class AnnotationMetadataTests {
 		assertThat(metadata.hasAnnotation(Documented.class.getName()), is(true));
 		assertThat(metadata.hasAnnotation(Scope.class.getName()), is(false));
 		assertThat(metadata.hasAnnotation(SpecialAttr.class.getName()), is(false));
-		assertThat(metadata.getAnnotationTypes().size(), is(3));
+		assertThat(metadata.getAnnotationTypes().size(), is(4));
 	}
 
 	/**
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CachingMetadataReaderFactory}.
+ *
+ * @since 4.3.12
+ */
+public class CachingMetadataReaderFactoryTests {
+
+	private final CachingMetadataReaderFactory factory = new CachingMetadataReaderFactory();
+
+
+	@Test
+	public void cachedMetadataReader() throws Exception {
+		Resource resource = classResource(String.class);
+		MetadataReader reader = this.factory.getMetadataReader(resource);
+		assertSame(reader, this.factory.getMetadataReader(resource));
+		assertSame(reader, this.factory.getMetadataReader(classResource(String.class)));
+		assertEquals(String.class.getName(), reader.getClassMetadata().getClassName());
+
+		assertEquals(1, this.factory.getCacheSize());
+		assertEquals(1, this.factory.getCacheMissCount());
+		assertEquals(2, this.factory.getCacheHitCount());
+		assertEquals(0, this.factory.getCacheEvictionCount());
+	}
+
+	@Test
+	public void cacheLimit() throws Exception {
+		this.factory.setCacheLimit(2);
+		this.factory.getMetadataReader(classResource(String.class));
+		this.factory.getMetadataReader(classResource(Integer.class));
+		this.factory.getMetadataReader(classResource(Long.class));
+
+		assertEquals(2, this.factory.getCacheSize());
+		assertEquals(3, this.factory.getCacheMissCount());
+		assertEquals(1, this.factory.getCacheEvictionCount());
+	}
+
+	@Test
+	public void cacheLimitKeepsRecentlyAccessedEntries() throws Exception {
+		this.factory.setCacheLimit(2);
+		MetadataReader reader = this.factory.getMetadataReader(classResource(String.class));
+		this.factory.getMetadataReader(classResource(Integer.class));
+		assertSame(reader, this.factory.getMetadataReader(classResource(String.class)));
+		this.factory.getMetadataReader(classResource(Long.class));
+
+		assertEquals(2, this.factory.getCacheSize());
+		assertSame(reader, this.factory.getMetadataReader(classResource(String.class)));
+		assertEquals(2, this.factory.getCacheHitCount());
+	}
+
+	@Test
+	public void cacheTurnedOff() throws Exception {
+		this.factory.setCacheLimit(0);
+		Resource resource = classResource(String.class);
+		assertNotSame(this.factory.getMetadataReader(resource), this.factory.getMetadataReader(resource));
+		assertEquals(0, this.factory.getCacheSize());
+	}
+
+	@Test
+	public void clearCache() throws Exception {
+		Resource resource = classResource(String.class);
+		MetadataReader reader = this.factory.getMetadataReader(resource);
+		this.factory.clearCache();
+		assertEquals(0, this.factory.getCacheSize());
+		assertNotSame(reader, this.factory.getMetadataReader(resource));
+		assertEquals(1, this.factory.getCacheSize());
+	}
+
+	@Test
+	public void concurrentAccess() throws Exception {
+		final Class<?>[] types = {String.class, Integer.class, Long.class, Short.class, Byte.class,
+				Double.class, Float.class, Character.class, Boolean.class, Number.class};
+		this.factory.setCacheLimit(types.length / 2);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Void>> futures = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						for (int j = 0; j < 100; j++) {
+							Class<?> type = types[j % types.length];
+							MetadataReader reader = factory.getMetadataReader(classResource(type));
+							assertEquals(type.getName(), reader.getClassMetadata().getClassName());
+						}
+						return null;
+					}
+				}));
+			}
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertTrue(this.factory.getCacheSize() <= types.length / 2);
+		assertEquals(800, this.factory.getCacheHitCount() + this.factory.getCacheMissCount());
+	}
+
+
+	private static Resource classResource(Class<?> type) {
+		return new ClassPathResource(type.getName().replace('.', '/') + ".class");
+	}
+
+}
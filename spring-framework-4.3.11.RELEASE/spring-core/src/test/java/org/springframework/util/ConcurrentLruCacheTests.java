@@ -0,0 +1,149 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ConcurrentLruCache}.
+ *
+ * @since 4.3.12
+ */
+public class ConcurrentLruCacheTests {
+
+	private final ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(2);
+
+
+	@Test
+	public void getAndPut() {
+		assertNull(this.cache.get("k1"));
+		assertNull(this.cache.putIfAbsent("k1", "v1"));
+		assertEquals("v1", this.cache.putIfAbsent("k1", "other"));
+		assertEquals("v1", this.cache.get("k1"));
+		assertEquals(1, this.cache.size());
+		assertEquals(1, this.cache.getHitCount());
+		assertEquals(1, this.cache.getMissCount());
+	}
+
+	@Test
+	public void putReplacesValue() {
+		assertNull(this.cache.put("k1", "v1"));
+		assertEquals("v1", this.cache.put("k1", "v2"));
+		assertEquals("v2", this.cache.get("k1"));
+		assertEquals(1, this.cache.size());
+
+		this.cache.put("k2", "v2");
+		this.cache.put("k3", "v3");
+		assertEquals(2, this.cache.size());
+		assertEquals(1, this.cache.getEvictionCount());
+	}
+
+	@Test
+	public void evictionOfLeastRecentlyUsed() {
+		this.cache.putIfAbsent("k1", "v1");
+		this.cache.putIfAbsent("k2", "v2");
+		assertEquals("v1", this.cache.get("k1"));
+
+		this.cache.putIfAbsent("k3", "v3");
+		assertEquals(2, this.cache.size());
+		assertEquals(1, this.cache.getEvictionCount());
+		assertEquals("v1", this.cache.get("k1"));
+		assertNull(this.cache.get("k2"));
+		assertEquals("v3", this.cache.get("k3"));
+	}
+
+	@Test
+	public void evictionWithAllEntriesAccessed() {
+		this.cache.putIfAbsent("k1", "v1");
+		this.cache.putIfAbsent("k2", "v2");
+		this.cache.get("k1");
+		this.cache.get("k2");
+
+		this.cache.putIfAbsent("k3", "v3");
+		assertEquals(2, this.cache.size());
+		assertEquals(1, this.cache.getEvictionCount());
+	}
+
+	@Test
+	public void noCaching() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(0);
+		assertNull(cache.putIfAbsent("k1", "v1"));
+		assertNull(cache.get("k1"));
+		assertEquals(0, cache.size());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void clear() {
+		this.cache.putIfAbsent("k1", "v1");
+		this.cache.putIfAbsent("k2", "v2");
+		this.cache.clear();
+		assertEquals(0, this.cache.size());
+		assertNull(this.cache.get("k1"));
+
+		this.cache.putIfAbsent("k3", "v3");
+		this.cache.putIfAbsent("k4", "v4");
+		assertEquals(2, this.cache.size());
+		assertEquals(0, this.cache.getEvictionCount());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeSizeLimit() {
+		new ConcurrentLruCache<String, String>(-1);
+	}
+
+	@Test
+	public void concurrentAccess() throws Exception {
+		final ConcurrentLruCache<Integer, String> cache = new ConcurrentLruCache<>(16);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				futures.add(executor.submit(new Callable<Object>() {
+					@Override
+					public Object call() {
+						for (int j = 0; j < 1000; j++) {
+							Integer key = j % 32;
+							if (cache.get(key) == null) {
+								cache.putIfAbsent(key, key.toString());
+							}
+						}
+						return null;
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertTrue(cache.size() <= 16);
+		assertEquals(4000, cache.getHitCount() + cache.getMissCount());
+	}
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PrecompiledPathMatcher}, mostly verifying that it
+ * behaves exactly like {@link AntPathMatcher}.
+ */
+public class PrecompiledPathMatcherTests {
+
+	private static final List<String> PATTERNS = Arrays.asList(
+			"", "/", "test", "/test", "/test/", "/test.jpg", "t?st", "??st", "tes?", "?es?", "*", "/*", "test*",
+			"test/*", "*test*", "*test", "*.*", "test*aaa", "/?", "/?/a", "/a/?", "/??/a", "/**", "/*/**", "/**/*",
+			"/bla/**/bla", "/**/test", "/bla/**/**/bla", "/bla*bla/test", "/*bla/test", "/????", "/**/*bla",
+			"/*bla*/**/bla/**", "/*bla*/**/bla/*", "*bla*/**/bla/**", "/x/x/**/bla", "/foo/bar/**", "/{bla}.*",
+			"test*/**", "test/t*.txt", "/hotels/{hotel}", "/hotels/{hotel}/bookings/{booking}", "/{a}/{b}",
+			"/hotels/{hotel}.*", "/{name:[a-z]+}-{version:\\d+}.{ext}", "/{symbolicName:[\\w\\.]+}",
+			"/hotels/{hotel:\\d+}", "/*/{id}/**/{file}.html", "/hotels/*", "/hotels/**/bookings/*", "/HOTELS/{h}",
+			"/a/b/c/", "/a/*/", "/docs/cvs/commit.html", "/docs/**/*.html", "http://example.org", "/{a}b{c}",
+			"/a/**/b/**/c", "/**/**", "/foo /bar");
+
+	private static final List<String> PATHS = Arrays.asList(
+			"", "/", "test", "/test", "/test/", "test.jpg", "/test.jpg", "tast", "tes", "testt", "tsst", "testTest",
+			"test/", "test/Test", "test/t", "test/t.txt", "AnothertestTest", "Anothertest", "test.", "test.test",
+			"testblaaaa", "tsttst", "/a", "/a/a", "/a/b", "/aa/a", "/testing/testing", "/bla/testing/testing/bla",
+			"/bla/testing/testing/bla/bla", "/bla/bla/test", "/bla/bla/bla/bla/bla/bla", "/blaXXXbla/test",
+			"/XXXbla/test", "XXXblab/test", "/bala/bla", "/bla/bla/bla/bbb",
+			"/XXXblaXXXX/testing/testing/bla/testing/testing/", "/XXXblaXXXX/testing/testing/bla/testing",
+			"XXXblaXXXX/testing/testing/bla/testing/testing", "/x/x/x/", "/foo/bar", "/testing.html", "/hotels/1",
+			"/hotels/1/bookings/2", "/hotels/1.json", "/com.example-1.0.0.jar", "/com.example", "/hotels/abc",
+			"/x/1/a/b/page.html", "/hotels/", "/hotels/1/bookings/x/bookings/2", "/hotels/a%20b", "/hotels//1",
+			"/a/b/c", "/a/b/c/", "/a/x/", "//a//b//c", "/docs/cvs/commit.html", "/docs/a/b/c.html",
+			"http://example.org", "/xbz", "/a/1/b/2/c", "/foo /bar", "/foo/ bar", "/foo\u0001/bar", "/foo/\u2003bar", "/hétels/1", "/hotels/1\n2",
+			"/HOTELS/1", "/Test", "/a/😀");
+
+
+	@Test
+	public void matchLikeAntPathMatcher() {
+		assertSameBehavior(new AntPathMatcher(), new PrecompiledPathMatcher());
+	}
+
+	@Test
+	public void matchLikeAntPathMatcherCaseInsensitive() {
+		AntPathMatcher expected = new AntPathMatcher();
+		expected.setCaseSensitive(false);
+		PrecompiledPathMatcher actual = new PrecompiledPathMatcher();
+		actual.setCaseSensitive(false);
+		assertSameBehavior(expected, actual);
+	}
+
+	@Test
+	public void matchLikeAntPathMatcherWithTrimTokens() {
+		AntPathMatcher expected = new AntPathMatcher();
+		expected.setTrimTokens(true);
+		PrecompiledPathMatcher actual = new PrecompiledPathMatcher();
+		actual.setTrimTokens(true);
+		assertSameBehavior(expected, actual);
+	}
+
+	@Test
+	public void matchLikeAntPathMatcherWithCustomPathSeparator() {
+		assertSameBehavior(new AntPathMatcher("."), new PrecompiledPathMatcher("."));
+	}
+
+	@Test
+	public void matchLikeAntPathMatcherWithoutPatternCache() {
+		AntPathMatcher expected = new AntPathMatcher();
+		expected.setCachePatterns(false);
+		PrecompiledPathMatcher actual = new PrecompiledPathMatcher();
+		actual.setCachePatterns(false);
+		assertSameBehavior(expected, actual);
+	}
+
+	@Test
+	public void settingsApplyToPreviouslyCompiledPatterns() {
+		PrecompiledPathMatcher pathMatcher = new PrecompiledPathMatcher();
+		assertFalse(pathMatcher.match("/hotels/{hotel}", "/HOTELS/1"));
+		pathMatcher.setCaseSensitive(false);
+		assertTrue(pathMatcher.match("/hotels/{hotel}", "/HOTELS/1"));
+	}
+
+	@Test
+	public void extractUriTemplateVariables() {
+		PrecompiledPathMatcher pathMatcher = new PrecompiledPathMatcher();
+		Map<String, String> expected = new HashMap<>();
+		expected.put("hotel", "1");
+		expected.put("booking", "2");
+		assertEquals(expected,
+				pathMatcher.extractUriTemplateVariables("/hotels/{hotel}/bookings/{booking}", "/hotels/1/bookings/2"));
+		assertEquals(Collections.singletonMap("symbolicName", "com.example"),
+				pathMatcher.extractUriTemplateVariables("/{symbolicName:[\\w\\.]+}", "/com.example"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void extractUriTemplateVariablesNoMatch() {
+		new PrecompiledPathMatcher().extractUriTemplateVariables("/hotels/{hotel}", "/flights/1");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void extractUriTemplateVariablesWithCapturingGroup() {
+		new PrecompiledPathMatcher().extractUriTemplateVariables("/web/{id:foo(bar)?}", "/web/foobar");
+	}
+
+	@Test
+	public void manyPatterns() {
+		PrecompiledPathMatcher pathMatcher = new PrecompiledPathMatcher();
+		for (int i = 0; i < 70000; i++) {
+			assertTrue(pathMatcher.match("/test" + i + "/{id}", "/test" + i + "/1"));
+		}
+		assertTrue(pathMatcher.match("/test1/{id}", "/test1/1"));
+	}
+
+
+	private static void assertSameBehavior(AntPathMatcher expected, AntPathMatcher actual) {
+		for (String pattern : PATTERNS) {
+			for (String path : PATHS) {
+				String description = "pattern '" + pattern + "', path '" + path + "'";
+				boolean match = expected.match(pattern, path);
+				assertEquals("match with " + description, match, actual.match(pattern, path));
+				assertEquals("matchStart with " + description,
+						expected.matchStart(pattern, path), actual.matchStart(pattern, path));
+				if (match) {
+					assertEquals("URI template variables with " + description,
+							extractVariables(expected, pattern, path), extractVariables(actual, pattern, path));
+				}
+			}
+			for (String other : PATTERNS) {
+				assertEquals("combining '" + pattern + "' with '" + other + "'",
+						combine(expected, pattern, other), combine(actual, pattern, other));
+			}
+		}
+	}
+
+	private static Object extractVariables(AntPathMatcher pathMatcher, String pattern, String path) {
+		try {
+			return pathMatcher.extractUriTemplateVariables(pattern, path);
+		}
+		catch (IllegalArgumentException ex) {
+			return ex.getClass();
+		}
+	}
+
+	private static Object combine(AntPathMatcher pathMatcher, String pattern1, String pattern2) {
+		try {
+			return pathMatcher.combine(pattern1, pattern2);
+		}
+		catch (IllegalArgumentException ex) {
+			return ex.getClass();
+		}
+	}
+
+}
@@ -29,18 +29,27 @@ import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.SerializerFactory;
 
 import org.springframework.core.MethodParameter;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.MimeType;
+import org.springframework.util.ObjectUtils;
 
 /**
  * A Jackson 2 based {@link MessageConverter} implementation.
@@ -53,6 +62,12 @@ import org.springframework.util.MimeType;
  *
  * <p>Compatible with Jackson 2.6 and higher, as of Spring 4.3.
  *
+ * <p>As of 4.3.12, the {@link ObjectReader} and {@link ObjectWriter} instances
+ * prepared for a given target class and serialization view are cached, up to the
+ * {@link #setCacheLimit cache limit}. They reflect the configuration of the
+ * {@code ObjectMapper} at the time of their creation; the cache is reset when
+ * {@link #setObjectMapper} or {@link #setPrettyPrint} is called.
+ *
  * @author Rossen Stoyanchev
  * @author Juergen Hoeller
  * @author Sebastien Deleuze
@@ -60,10 +75,21 @@ import org.springframework.util.MimeType;
  */
 public class MappingJackson2MessageConverter extends AbstractMessageConverter {
 
+	/**
+	 * The default maximum number of cached ObjectReader and ObjectWriter instances.
+	 * @since 4.3.12
+	 */
+	public static final int DEFAULT_CACHE_LIMIT = 256;
+
+
 	private ObjectMapper objectMapper;
 
 	private Boolean prettyPrint;
 
+	private int cacheLimit = DEFAULT_CACHE_LIMIT;
+
+	private volatile ReaderWriterCache readerWriterCache;
+
 
 	/**
 	 * Construct a {@code MappingJackson2MessageConverter} supporting
@@ -106,6 +132,7 @@ public class MappingJackson2MessageConverter extends AbstractMessageConverter {
 	public void setObjectMapper(ObjectMapper objectMapper) {
 		Assert.notNull(objectMapper, "ObjectMapper must not be null");
 		this.objectMapper = objectMapper;
+		resetCache();
 		configurePrettyPrint();
 	}
 
@@ -133,7 +160,71 @@ public class MappingJackson2MessageConverter extends AbstractMessageConverter {
 	private void configurePrettyPrint() {
 		if (this.prettyPrint != null) {
 			this.objectMapper.configure(SerializationFeature.INDENT_OUTPUT, this.prettyPrint);
+			resetCache();
+		}
+	}
+
+	/**
+	 * Specify the maximum number of cached {@code ObjectReader} and
+	 * {@code ObjectWriter} instances, evicting the least recently used ones
+	 * beyond that limit.
+	 * <p>Default is {@link #DEFAULT_CACHE_LIMIT}. Set this to 0 in order to
+	 * prepare readers and writers for every message.
+	 * @since 4.3.12
+	 */
+	public void setCacheLimit(int cacheLimit) {
+		Assert.isTrue(cacheLimit >= 0, "'cacheLimit' must not be negative");
+		this.cacheLimit = cacheLimit;
+		resetCache();
+	}
+
+	/**
+	 * Return the maximum number of cached {@code ObjectReader} and
+	 * {@code ObjectWriter} instances.
+	 * @since 4.3.12
+	 */
+	public int getCacheLimit() {
+		return this.cacheLimit;
+	}
+
+	/**
+	 * Return the current number of cached {@code ObjectReader} and
+	 * {@code ObjectWriter} instances.
+	 * @since 4.3.12
+	 */
+	public int getCacheSize() {
+		return getReaderWriterCache().size();
+	}
+
+	/**
+	 * Return the number of lookups served from the {@code ObjectReader}
+	 * and {@code ObjectWriter} cache.
+	 * @since 4.3.12
+	 */
+	public long getCacheHitCount() {
+		return getReaderWriterCache().getHitCount();
+	}
+
+	/**
+	 * Return the number of lookups which required preparing an
+	 * {@code ObjectReader} or {@code ObjectWriter}.
+	 * @since 4.3.12
+	 */
+	public long getCacheMissCount() {
+		return getReaderWriterCache().getMissCount();
+	}
+
+	private void resetCache() {
+		this.readerWriterCache = null;
+	}
+
+	private ConcurrentLruCache<CacheKey, Object> getReaderWriterCache() {
+		ReaderWriterCache readerWriterCache = this.readerWriterCache;
+		if (readerWriterCache == null || !readerWriterCache.isValidFor(this.objectMapper)) {
+			readerWriterCache = new ReaderWriterCache(this.objectMapper, this.cacheLimit);
+			this.readerWriterCache = readerWriterCache;
 		}
+		return readerWriterCache.cache;
 	}
 
 	@Override
@@ -202,26 +293,14 @@ public class MappingJackson2MessageConverter extends AbstractMessageConverter {
 
 	@Override
 	protected Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
-		JavaType javaType = this.objectMapper.constructType(targetClass);
 		Object payload = message.getPayload();
-		Class<?> view = getSerializationView(conversionHint);
-		// Note: in the view case, calling withType instead of forType for compatibility with Jackson <2.5
+		ObjectReader objectReader = getObjectReader(targetClass, getSerializationView(conversionHint));
 		try {
 			if (payload instanceof byte[]) {
-				if (view != null) {
-					return this.objectMapper.readerWithView(view).forType(javaType).readValue((byte[]) payload);
-				}
-				else {
-					return this.objectMapper.readValue((byte[]) payload, javaType);
-				}
+				return objectReader.readValue((byte[]) payload);
 			}
 			else {
-				if (view != null) {
-					return this.objectMapper.readerWithView(view).forType(javaType).readValue(payload.toString());
-				}
-				else {
-					return this.objectMapper.readValue(payload.toString(), javaType);
-				}
+				return objectReader.readValue(payload.toString());
 			}
 		}
 		catch (IOException ex) {
@@ -232,27 +311,17 @@ public class MappingJackson2MessageConverter extends AbstractMessageConverter {
 	@Override
 	protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
 		try {
-			Class<?> view = getSerializationView(conversionHint);
+			ObjectWriter objectWriter = getObjectWriter(getSerializationView(conversionHint));
 			if (byte[].class == getSerializedPayloadClass()) {
 				ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
 				JsonEncoding encoding = getJsonEncoding(getMimeType(headers));
 				JsonGenerator generator = this.objectMapper.getFactory().createGenerator(out, encoding);
-				if (view != null) {
-					this.objectMapper.writerWithView(view).writeValue(generator, payload);
-				}
-				else {
-					this.objectMapper.writeValue(generator, payload);
-				}
+				objectWriter.writeValue(generator, payload);
 				payload = out.toByteArray();
 			}
 			else {
 				Writer writer = new StringWriter();
-				if (view != null) {
-					this.objectMapper.writerWithView(view).writeValue(writer, payload);
-				}
-				else {
-					this.objectMapper.writeValue(writer, payload);
-				}
+				objectWriter.writeValue(writer, payload);
 				payload = writer.toString();
 			}
 		}
@@ -262,6 +331,36 @@ public class MappingJackson2MessageConverter extends AbstractMessageConverter {
 		return payload;
 	}
 
+	private ObjectReader getObjectReader(Class<?> targetClass, Class<?> view) {
+		ConcurrentLruCache<CacheKey, Object> cache = getReaderWriterCache();
+		CacheKey key = new CacheKey(targetClass, view);
+		ObjectReader objectReader = (ObjectReader) cache.get(key);
+		if (objectReader == null) {
+			JavaType javaType = this.objectMapper.constructType(targetClass);
+			objectReader = (view != null ? this.objectMapper.readerWithView(view).forType(javaType) :
+					this.objectMapper.readerFor(javaType));
+			ObjectReader existing = (ObjectReader) cache.putIfAbsent(key, objectReader);
+			if (existing != null) {
+				objectReader = existing;
+			}
+		}
+		return objectReader;
+	}
+
+	private ObjectWriter getObjectWriter(Class<?> view) {
+		ConcurrentLruCache<CacheKey, Object> cache = getReaderWriterCache();
+		CacheKey key = new CacheKey(null, view);
+		ObjectWriter objectWriter = (ObjectWriter) cache.get(key);
+		if (objectWriter == null) {
+			objectWriter = (view != null ? this.objectMapper.writerWithView(view) : this.objectMapper.writer());
+			ObjectWriter existing = (ObjectWriter) cache.putIfAbsent(key, objectWriter);
+			if (existing != null) {
+				objectWriter = existing;
+			}
+		}
+		return objectWriter;
+	}
+
 	/**
 	 * Determine a Jackson serialization view based on the given conversion hint.
 	 * @param conversionHint the conversion hint Object as passed into the
@@ -315,4 +414,80 @@ public class MappingJackson2MessageConverter extends AbstractMessageConverter {
 		return JsonEncoding.UTF8;
 	}
 
+
+	/**
+	 * Key for the ObjectReader and ObjectWriter cache: the target class
+	 * ({@code null} for writers) and the serialization view, if any.
+	 */
+	private static final class CacheKey {
+
+		private final Class<?> targetClass;
+
+		private final Class<?> view;
+
+		public CacheKey(Class<?> targetClass, Class<?> view) {
+			this.targetClass = targetClass;
+			this.view = view;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey otherKey = (CacheKey) other;
+			return (this.targetClass == otherKey.targetClass && this.view == otherKey.view);
+		}
+
+		@Override
+		public int hashCode() {
+			return ObjectUtils.nullSafeHashCode(this.targetClass) * 31 + ObjectUtils.nullSafeHashCode(this.view);
+		}
+	}
+
+
+	/**
+	 * Cached ObjectReader and ObjectWriter instances for a specific ObjectMapper,
+	 * valid as long as the mapper holds the same configuration instances which
+	 * the readers and writers copied when created.
+	 */
+	private static class ReaderWriterCache {
+
+		final ObjectMapper objectMapper;
+
+		final SerializationConfig serializationConfig;
+
+		final DeserializationConfig deserializationConfig;
+
+		final SerializerFactory serializerFactory;
+
+		final SerializerProvider serializerProvider;
+
+		final DeserializationContext deserializationContext;
+
+		final ConcurrentLruCache<CacheKey, Object> cache;
+
+		public ReaderWriterCache(ObjectMapper objectMapper, int cacheLimit) {
+			this.objectMapper = objectMapper;
+			this.serializationConfig = objectMapper.getSerializationConfig();
+			this.deserializationConfig = objectMapper.getDeserializationConfig();
+			this.serializerFactory = objectMapper.getSerializerFactory();
+			this.serializerProvider = objectMapper.getSerializerProvider();
+			this.deserializationContext = objectMapper.getDeserializationContext();
+			this.cache = new ConcurrentLruCache<CacheKey, Object>(cacheLimit);
+		}
+
+		public boolean isValidFor(ObjectMapper objectMapper) {
+			return (this.objectMapper == objectMapper &&
+					this.serializationConfig == objectMapper.getSerializationConfig() &&
+					this.deserializationConfig == objectMapper.getDeserializationConfig() &&
+					this.serializerFactory == objectMapper.getSerializerFactory() &&
+					this.serializerProvider == objectMapper.getSerializerProvider() &&
+					this.deserializationContext == objectMapper.getDeserializationContext());
+		}
+	}
+
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.messaging.simp;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holder for the encoded form of a message that is broadcast to several
+ * sessions, shared by the copies of the message sent to each subscriber
+ * through the {@link SimpMessageHeaderAccessor#SHARED_ENCODING_HEADER} header.
+ *
+ * <p>This allows an encoder to encode the parts of the message common to all
+ * subscribers once, and to only add per-subscriber parts for each copy.
+ * Encodings are kept per encoder instance, since the encoded form depends on
+ * the encoder and its configuration.
+ *
+ * @since 4.3.12
+ * @see org.springframework.messaging.simp.stomp.StompEncoder
+ */
+public class SharedMessageEncoding {
+
+	private final ConcurrentMap<Object, Object> encodings = new ConcurrentHashMap<Object, Object>(2);
+
+
+	/**
+	 * Return the encoding registered by the given encoder, if any.
+	 * @param encoder the encoder which registered the encoding
+	 * @return the encoding, or {@code null} if none
+	 */
+	public Object getEncoding(Object encoder) {
+		return this.encodings.get(encoder);
+	}
+
+	/**
+	 * Register the encoding for the given encoder, unless one has been
+	 * registered concurrently already.
+	 * @param encoder the encoder which created the encoding
+	 * @param encoding the encoding to share
+	 * @return the encoding to use, i.e. either the given one or the one
+	 * registered before
+	 */
+	public Object setEncoding(Object encoder, Object encoding) {
+		Object existing = this.encodings.putIfAbsent(encoder, encoding);
+		return (existing != null ? existing : encoding);
+	}
+
+
+	@Override
+	public String toString() {
+		return "SharedMessageEncoding[" + this.encodings.size() + " encoding(s)]";
+	}
+
+}
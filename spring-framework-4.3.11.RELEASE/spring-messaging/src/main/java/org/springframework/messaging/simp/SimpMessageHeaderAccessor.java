@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -82,6 +82,13 @@ public class SimpMessageHeaderAccessor extends NativeMessageHeaderAccessor {
 	 */
 	public static final String IGNORE_ERROR = "simpIgnoreError";
 
+	/**
+	 * A header for internal use with messages broadcast to several subscribers,
+	 * holding a {@link SharedMessageEncoding} common to all copies of the message.
+	 * @since 4.3.12
+	 */
+	public static final String SHARED_ENCODING_HEADER = "simpSharedEncoding";
+
 
 	/**
 	 * A constructor for creating new message headers.
@@ -274,4 +281,12 @@ public class SimpMessageHeaderAccessor extends NativeMessageHeaderAccessor {
 		return (long[]) headers.get(HEART_BEAT_HEADER);
 	}
 
+	/**
+	 * Return the {@link SharedMessageEncoding} of a broadcast message, if any.
+	 * @since 4.3.12
+	 */
+	public static SharedMessageEncoding getSharedEncoding(Map<String, Object> headers) {
+		return (SharedMessageEncoding) headers.get(SHARED_ENCODING_HEADER);
+	}
+
 }
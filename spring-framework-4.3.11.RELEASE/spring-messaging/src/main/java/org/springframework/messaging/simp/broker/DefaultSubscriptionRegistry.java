@@ -16,15 +16,19 @@
 
 package org.springframework.messaging.simp.broker;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.expression.AccessException;
 import org.springframework.expression.EvaluationContext;
@@ -41,6 +45,8 @@ import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.PathMatcher;
@@ -54,6 +60,19 @@ import org.springframework.util.PathMatcher;
  * header on subscription messages with Spring EL expressions evaluated against
  * the headers to filter out messages in addition to destination matching.
  *
+ * <p>As of 4.3.12, subscriptions are indexed by destination: a message sent
+ * to a destination is matched against the subscriptions to that exact
+ * destination and against those destination patterns whose literal prefix
+ * the destination starts with, rather than against every subscription.
+ * Subscribing and unsubscribing update the index incrementally, without a
+ * global lock. Prefix indexing applies to a case-sensitive
+ * {@link AntPathMatcher} without token trimming (the default) and with "/"
+ * or "." as path separator; with any other {@link PathMatcher}, each
+ * distinct destination is matched in turn. Since {@link AntPathMatcher}
+ * ignores empty path segments, repeated separators are collapsed before
+ * destinations are looked up in the index, so that e.g. "/topic/a" still
+ * matches a message sent to "/topic//a".
+ *
  * @author Rossen Stoyanchev
  * @author Sebastien Deleuze
  * @author Juergen Hoeller
@@ -75,16 +94,23 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 
 	private final ExpressionParser expressionParser = new SpelExpressionParser();
 
-	private final DestinationCache destinationCache = new DestinationCache();
-
 	private final SessionSubscriptionRegistry subscriptionRegistry = new SessionSubscriptionRegistry();
 
+	private final DestinationIndex destinationIndex = new DestinationIndex();
+
+	private final AtomicLong subscriptionSequence = new AtomicLong();
+
+	/** Path separator of an indexable PathMatcher, or {@code null} if not indexable */
+	private volatile String indexSeparator = AntPathMatcher.DEFAULT_PATH_SEPARATOR;
+
 
 	/**
 	 * Specify the {@link PathMatcher} to use.
+	 * <p>This is expected to be set before any subscriptions are registered.
 	 */
 	public void setPathMatcher(PathMatcher pathMatcher) {
 		this.pathMatcher = pathMatcher;
+		this.indexSeparator = getIndexSeparator(pathMatcher);
 	}
 
 	/**
@@ -100,6 +126,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 	 */
 	public void setCacheLimit(int cacheLimit) {
 		this.cacheLimit = cacheLimit;
+		this.destinationIndex.setCacheLimit(cacheLimit);
 	}
 
 	/**
@@ -156,17 +183,22 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 				}
 			}
 		}
-		this.subscriptionRegistry.addSubscription(sessionId, subsId, destination, expression);
-		this.destinationCache.updateAfterNewSubscription(destination, sessionId, subsId);
+		Subscription subscription = new Subscription(subsId, destination, expression,
+				this.subscriptionSequence.incrementAndGet());
+		Subscription previous = this.subscriptionRegistry.addSubscription(sessionId, subscription);
+		if (previous != null) {
+			this.destinationIndex.removeSubscription(sessionId, previous);
+		}
+		this.destinationIndex.addSubscription(sessionId, subscription);
 	}
 
 	@Override
 	protected void removeSubscriptionInternal(String sessionId, String subsId, Message<?> message) {
 		SessionSubscriptionInfo info = this.subscriptionRegistry.getSubscriptions(sessionId);
 		if (info != null) {
-			String destination = info.removeSubscription(subsId);
-			if (destination != null) {
-				this.destinationCache.updateAfterRemovedSubscription(sessionId, subsId);
+			Subscription subscription = info.removeSubscription(subsId);
+			if (subscription != null) {
+				this.destinationIndex.removeSubscription(sessionId, subscription);
 			}
 		}
 	}
@@ -175,13 +207,15 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 	public void unregisterAllSubscriptions(String sessionId) {
 		SessionSubscriptionInfo info = this.subscriptionRegistry.removeSubscriptions(sessionId);
 		if (info != null) {
-			this.destinationCache.updateAfterRemovedSession(info);
+			for (Subscription subscription : info.getSubscriptions()) {
+				this.destinationIndex.removeSubscription(sessionId, subscription);
+			}
 		}
 	}
 
 	@Override
 	protected MultiValueMap<String, String> findSubscriptionsInternal(String destination, Message<?> message) {
-		MultiValueMap<String, String> result = this.destinationCache.getSubscriptions(destination, message);
+		MultiValueMap<String, String> result = this.destinationIndex.findSubscriptions(destination);
 		return filterSubscriptions(result, message);
 	}
 
@@ -194,11 +228,11 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 		EvaluationContext context = null;
 		MultiValueMap<String, String> result = new LinkedMultiValueMap<String, String>(allMatches.size());
 		for (String sessionId : allMatches.keySet()) {
+			SessionSubscriptionInfo info = this.subscriptionRegistry.getSubscriptions(sessionId);
+			if (info == null) {
+				continue;
+			}
 			for (String subId : allMatches.get(sessionId)) {
-				SessionSubscriptionInfo info = this.subscriptionRegistry.getSubscriptions(sessionId);
-				if (info == null) {
-					continue;
-				}
 				Subscription sub = info.getSubscription(subId);
 				if (sub == null) {
 					continue;
@@ -230,131 +264,387 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 		return result;
 	}
 
+	/**
+	 * Return the literal prefix of the given destination pattern, i.e. a
+	 * prefix of every destination it may match, or {@code null} if the given
+	 * destination is not a pattern and only ever matches itself.
+	 */
+	private String getLiteralPrefix(String destination) {
+		if (this.indexSeparator == null) {
+			return "";
+		}
+		for (int i = 0; i < destination.length(); i++) {
+			char c = destination.charAt(i);
+			if (c == '*' || c == '?' || c == '{') {
+				// Leave out the trailing separator: "/topic/**" matches "/topic"
+				return destination.substring(0, Math.max(i - 1, 0));
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Collapse repeated path separators in the given destination, which
+	 * {@link AntPathMatcher} ignores as empty path segments, so that equivalent
+	 * destinations share the same key in the index.
+	 */
+	private String normalizeDestination(String destination) {
+		String separator = this.indexSeparator;
+		if (separator == null) {
+			return destination;
+		}
+		int index = destination.indexOf(separator + separator);
+		if (index == -1) {
+			return destination;
+		}
+		StringBuilder sb = new StringBuilder(destination.length());
+		sb.append(destination, 0, index + separator.length());
+		char sep = separator.charAt(0);
+		for (int i = index + separator.length(); i < destination.length(); i++) {
+			char c = destination.charAt(i);
+			if (c != sep || sb.charAt(sb.length() - 1) != sep) {
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Return the path separator if destination patterns may be indexed by their
+	 * literal prefix with the given PathMatcher, i.e. without case-insensitive
+	 * matching or trimming, or {@code null} if they may not.
+	 */
+	private static String getIndexSeparator(PathMatcher pathMatcher) {
+		if (!(pathMatcher instanceof AntPathMatcher) ||
+				pathMatcher.match("a", "A") || pathMatcher.match("a", " a")) {
+			return null;
+		}
+		if (!pathMatcher.match("*", "a/b")) {
+			return "/";
+		}
+		if (!pathMatcher.match("*", "a.b")) {
+			return ".";
+		}
+		return null;
+	}
+
 	@Override
 	public String toString() {
-		return "DefaultSubscriptionRegistry[" + this.destinationCache + ", " + this.subscriptionRegistry + "]";
+		return "DefaultSubscriptionRegistry[" + this.destinationIndex + ", " + this.subscriptionRegistry + "]";
 	}
 
 
 	/**
-	 * A cache for destinations previously resolved via
-	 * {@link DefaultSubscriptionRegistry#findSubscriptionsInternal(String, Message)}
+	 * Index of subscriptions by destination. Destinations without wildcards
+	 * are looked up directly, while destination patterns are kept in a trie
+	 * by their literal prefix, with the patterns matching a given destination
+	 * cached until the set of patterns changes.
 	 */
-	private class DestinationCache {
-
-		/** Map from destination -> <sessionId, subscriptionId> for fast look-ups */
-		private final Map<String, LinkedMultiValueMap<String, String>> accessCache =
-				new ConcurrentHashMap<String, LinkedMultiValueMap<String, String>>(DEFAULT_CACHE_LIMIT);
-
-		/** Map from destination -> <sessionId, subscriptionId> with locking */
-		@SuppressWarnings("serial")
-		private final Map<String, LinkedMultiValueMap<String, String>> updateCache =
-				new LinkedHashMap<String, LinkedMultiValueMap<String, String>>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
-					@Override
-					protected boolean removeEldestEntry(Map.Entry<String, LinkedMultiValueMap<String, String>> eldest) {
-						if (size() > getCacheLimit()) {
-							accessCache.remove(eldest.getKey());
-							return true;
-						}
-						else {
-							return false;
-						}
+	private class DestinationIndex {
+
+		/** Map from destination (with or without pattern) -> subscriptions */
+		private final ConcurrentMap<String, DestinationSubscriptions> destinations =
+				new ConcurrentHashMap<String, DestinationSubscriptions>(DEFAULT_CACHE_LIMIT);
+
+		/** Destination patterns by literal prefix, modified under its own lock */
+		private final PatternNode patterns = new PatternNode();
+
+		/** Incremented whenever a destination pattern is added or removed */
+		private final AtomicLong patternsVersion = new AtomicLong();
+
+		/** Map from destination -> matching destination patterns */
+		private volatile ConcurrentLruCache<String, ResolvedPatterns> resolvedPatterns =
+				new ConcurrentLruCache<String, ResolvedPatterns>(getCacheLimit());
+
+		public void setCacheLimit(int cacheLimit) {
+			this.resolvedPatterns = new ConcurrentLruCache<String, ResolvedPatterns>(cacheLimit);
+		}
+
+		public void addSubscription(String sessionId, Subscription subscription) {
+			String destination = normalizeDestination(subscription.getDestination());
+			while (true) {
+				DestinationSubscriptions subs = this.destinations.get(destination);
+				if (subs == null) {
+					subs = new DestinationSubscriptions(destination, getLiteralPrefix(destination));
+					DestinationSubscriptions existing = this.destinations.putIfAbsent(destination, subs);
+					if (existing != null) {
+						subs = existing;
 					}
-				};
-
-
-		public LinkedMultiValueMap<String, String> getSubscriptions(String destination, Message<?> message) {
-			LinkedMultiValueMap<String, String> result = this.accessCache.get(destination);
-			if (result == null) {
-				synchronized (this.updateCache) {
-					result = new LinkedMultiValueMap<String, String>();
-					for (SessionSubscriptionInfo info : subscriptionRegistry.getAllSubscriptions()) {
-						for (String destinationPattern : info.getDestinations()) {
-							if (getPathMatcher().match(destinationPattern, destination)) {
-								for (Subscription subscription : info.getSubscriptions(destinationPattern)) {
-									result.add(info.sessionId, subscription.getId());
-								}
-							}
+					else if (!subs.isLiteral()) {
+						synchronized (this.patterns) {
+							this.patterns.add(subs, 0);
+							this.patternsVersion.incrementAndGet();
 						}
 					}
-					if (!result.isEmpty()) {
-						this.updateCache.put(destination, result.deepCopy());
-						this.accessCache.put(destination, result);
-					}
 				}
+				if (subs.add(sessionId, subscription.getId())) {
+					return;
+				}
+				// Removed concurrently after its last subscription: try again
 			}
-			return result;
 		}
 
-		public void updateAfterNewSubscription(String destination, String sessionId, String subsId) {
-			synchronized (this.updateCache) {
-				for (Map.Entry<String, LinkedMultiValueMap<String, String>> entry : this.updateCache.entrySet()) {
-					String cachedDestination = entry.getKey();
-					if (getPathMatcher().match(destination, cachedDestination)) {
-						LinkedMultiValueMap<String, String> subs = entry.getValue();
-						// Subscription id's may also be populated via getSubscriptions()
-						List<String> subsForSession = subs.get(sessionId);
-						if (subsForSession == null || !subsForSession.contains(subsId)) {
-							subs.add(sessionId, subsId);
-							this.accessCache.put(cachedDestination, subs.deepCopy());
-						}
+		public void removeSubscription(String sessionId, Subscription subscription) {
+			DestinationSubscriptions subs = this.destinations.get(normalizeDestination(subscription.getDestination()));
+			if (subs != null && subs.remove(sessionId, subscription.getId())) {
+				this.destinations.remove(subs.getDestination(), subs);
+				if (!subs.isLiteral()) {
+					synchronized (this.patterns) {
+						this.patterns.remove(subs, 0);
+						this.patternsVersion.incrementAndGet();
 					}
 				}
 			}
 		}
 
-		public void updateAfterRemovedSubscription(String sessionId, String subsId) {
-			synchronized (this.updateCache) {
-				Set<String> destinationsToRemove = new HashSet<String>();
-				for (Map.Entry<String, LinkedMultiValueMap<String, String>> entry : this.updateCache.entrySet()) {
-					String destination = entry.getKey();
-					LinkedMultiValueMap<String, String> sessionMap = entry.getValue();
-					List<String> subscriptions = sessionMap.get(sessionId);
-					if (subscriptions != null) {
-						subscriptions.remove(subsId);
-						if (subscriptions.isEmpty()) {
-							sessionMap.remove(sessionId);
-						}
-						if (sessionMap.isEmpty()) {
-							destinationsToRemove.add(destination);
+		public MultiValueMap<String, String> findSubscriptions(String destination) {
+			destination = normalizeDestination(destination);
+			DestinationSubscriptions literal = this.destinations.get(destination);
+			if (literal != null && !literal.isLiteral()) {
+				// A pattern, found through the trie
+				literal = null;
+			}
+			List<DestinationSubscriptions> matches = getMatchingPatterns(destination);
+			if (matches.isEmpty()) {
+				return (literal != null ? literal.getSubscriptions() : new LinkedMultiValueMap<String, String>(0));
+			}
+			if (literal == null && matches.size() == 1) {
+				return matches.get(0).getSubscriptions();
+			}
+
+			// Several destinations matched: keep the order of subscription per session
+			LinkedMultiValueMap<String, String> result = new LinkedMultiValueMap<String, String>();
+			Set<String> sessionsToSort = null;
+			if (literal != null) {
+				result.putAll(literal.getSubscriptions());
+			}
+			for (DestinationSubscriptions match : matches) {
+				for (Map.Entry<String, List<String>> entry : match.getSubscriptions().entrySet()) {
+					List<String> subsIds = result.get(entry.getKey());
+					if (subsIds == null) {
+						result.put(entry.getKey(), entry.getValue());
+					}
+					else {
+						if (sessionsToSort == null) {
+							sessionsToSort = new HashSet<String>();
 						}
-						else {
-							this.accessCache.put(destination, sessionMap.deepCopy());
+						if (sessionsToSort.add(entry.getKey())) {
+							subsIds = new ArrayList<String>(subsIds);
+							result.put(entry.getKey(), subsIds);
 						}
+						subsIds.addAll(entry.getValue());
 					}
 				}
-				for (String destination : destinationsToRemove) {
-					this.updateCache.remove(destination);
-					this.accessCache.remove(destination);
+			}
+			if (sessionsToSort != null) {
+				for (String sessionId : sessionsToSort) {
+					sortBySequence(sessionId, result.get(sessionId));
 				}
 			}
+			return result;
 		}
 
-		public void updateAfterRemovedSession(SessionSubscriptionInfo info) {
-			synchronized (this.updateCache) {
-				Set<String> destinationsToRemove = new HashSet<String>();
-				for (Map.Entry<String, LinkedMultiValueMap<String, String>> entry : this.updateCache.entrySet()) {
-					String destination = entry.getKey();
-					LinkedMultiValueMap<String, String> sessionMap = entry.getValue();
-					if (sessionMap.remove(info.getSessionId()) != null) {
-						if (sessionMap.isEmpty()) {
-							destinationsToRemove.add(destination);
-						}
-						else {
-							this.accessCache.put(destination, sessionMap.deepCopy());
-						}
-					}
+		private List<DestinationSubscriptions> getMatchingPatterns(String destination) {
+			ConcurrentLruCache<String, ResolvedPatterns> cache = this.resolvedPatterns;
+			long version = this.patternsVersion.get();
+			ResolvedPatterns resolved = cache.get(destination);
+			if (resolved != null && resolved.version == version) {
+				return resolved.patterns;
+			}
+			List<DestinationSubscriptions> candidates = new ArrayList<DestinationSubscriptions>();
+			this.patterns.collect(destination, candidates);
+			List<DestinationSubscriptions> matches = new ArrayList<DestinationSubscriptions>(candidates.size());
+			for (DestinationSubscriptions candidate : candidates) {
+				if (getPathMatcher().match(candidate.getDestination(), destination)) {
+					matches.add(candidate);
 				}
-				for (String destination : destinationsToRemove) {
-					this.updateCache.remove(destination);
-					this.accessCache.remove(destination);
+			}
+			cache.put(destination, new ResolvedPatterns(version, matches));
+			return matches;
+		}
+
+		private void sortBySequence(String sessionId, List<String> subsIds) {
+			final SessionSubscriptionInfo info = subscriptionRegistry.getSubscriptions(sessionId);
+			if (info == null) {
+				return;
+			}
+			Collections.sort(subsIds, new Comparator<String>() {
+				@Override
+				public int compare(String subsId1, String subsId2) {
+					Subscription sub1 = info.getSubscription(subsId1);
+					Subscription sub2 = info.getSubscription(subsId2);
+					long seq1 = (sub1 != null ? sub1.getSequence() : Long.MAX_VALUE);
+					long seq2 = (sub2 != null ? sub2.getSequence() : Long.MAX_VALUE);
+					return (seq1 < seq2 ? -1 : (seq1 == seq2 ? 0 : 1));
 				}
+			});
+		}
+
+		@Override
+		public String toString() {
+			return "index[" + this.destinations.size() + " destination(s)]";
+		}
+	}
+
+
+	/**
+	 * Subscriptions to a destination or destination pattern, by session.
+	 * Modifications are serialized per destination, while reads go through
+	 * a live, unmodifiable view which is safe to iterate.
+	 */
+	private static final class DestinationSubscriptions {
+
+		private final String destination;
+
+		/** Literal prefix of a destination pattern, or {@code null} for a literal destination */
+		private final String patternPrefix;
+
+		// sessionId -> subscriptionIds
+		private final ConcurrentMap<String, List<String>> sessions = new ConcurrentHashMap<String, List<String>>(4);
+
+		private final MultiValueMap<String, String> view =
+				CollectionUtils.toMultiValueMap(Collections.unmodifiableMap(this.sessions));
+
+		private boolean removed;
+
+		public DestinationSubscriptions(String destination, String patternPrefix) {
+			this.destination = destination;
+			this.patternPrefix = patternPrefix;
+		}
+
+		public String getDestination() {
+			return this.destination;
+		}
+
+		public boolean isLiteral() {
+			return (this.patternPrefix == null);
+		}
+
+		public String getPatternPrefix() {
+			return this.patternPrefix;
+		}
+
+		public MultiValueMap<String, String> getSubscriptions() {
+			return this.view;
+		}
+
+		/**
+		 * Add the given subscription.
+		 * @return {@code false} if this instance has been removed already
+		 */
+		public synchronized boolean add(String sessionId, String subsId) {
+			if (this.removed) {
+				return false;
+			}
+			List<String> subsIds = this.sessions.get(sessionId);
+			if (subsIds == null) {
+				subsIds = new CopyOnWriteArrayList<String>();
+				this.sessions.put(sessionId, subsIds);
+			}
+			if (!subsIds.contains(subsId)) {
+				subsIds.add(subsId);
+			}
+			return true;
+		}
+
+		/**
+		 * Remove the given subscription.
+		 * @return {@code true} if this was the last subscription, in which
+		 * case this instance is to be removed from the index
+		 */
+		public synchronized boolean remove(String sessionId, String subsId) {
+			List<String> subsIds = this.sessions.get(sessionId);
+			if (subsIds == null || !subsIds.remove(subsId)) {
+				return false;
 			}
+			if (subsIds.isEmpty()) {
+				this.sessions.remove(sessionId);
+			}
+			if (this.sessions.isEmpty()) {
+				this.removed = true;
+				return true;
+			}
+			return false;
 		}
 
 		@Override
 		public String toString() {
-			return "cache[" + this.accessCache.size() + " destination(s)]";
+			return "[destination=" + this.destination + ", sessions=" + this.sessions + "]";
+		}
+	}
+
+
+	/**
+	 * Node of a trie of destination patterns, keyed by the characters of
+	 * their literal prefix. Modifications are to be synchronized on the root.
+	 */
+	private static final class PatternNode {
+
+		private final ConcurrentMap<Character, PatternNode> children =
+				new ConcurrentHashMap<Character, PatternNode>(4);
+
+		private final Set<DestinationSubscriptions> patterns = new CopyOnWriteArraySet<DestinationSubscriptions>();
+
+		public void add(DestinationSubscriptions subs, int index) {
+			String prefix = subs.getPatternPrefix();
+			if (index == prefix.length()) {
+				this.patterns.add(subs);
+				return;
+			}
+			Character key = prefix.charAt(index);
+			PatternNode child = this.children.get(key);
+			if (child == null) {
+				child = new PatternNode();
+				this.children.put(key, child);
+			}
+			child.add(subs, index + 1);
+		}
+
+		public void remove(DestinationSubscriptions subs, int index) {
+			String prefix = subs.getPatternPrefix();
+			if (index == prefix.length()) {
+				this.patterns.remove(subs);
+				return;
+			}
+			Character key = prefix.charAt(index);
+			PatternNode child = this.children.get(key);
+			if (child != null) {
+				child.remove(subs, index + 1);
+				if (child.patterns.isEmpty() && child.children.isEmpty()) {
+					this.children.remove(key);
+				}
+			}
+		}
+
+		/**
+		 * Collect the patterns whose literal prefix the given destination starts with.
+		 */
+		public void collect(String destination, List<DestinationSubscriptions> result) {
+			PatternNode node = this;
+			result.addAll(node.patterns);
+			for (int i = 0; i < destination.length(); i++) {
+				node = node.children.get(destination.charAt(i));
+				if (node == null) {
+					return;
+				}
+				result.addAll(node.patterns);
+			}
+		}
+	}
+
+
+	/**
+	 * Destination patterns matching a destination, for a version of the patterns.
+	 */
+	private static final class ResolvedPatterns {
+
+		final long version;
+
+		final List<DestinationSubscriptions> patterns;
+
+		public ResolvedPatterns(long version, List<DestinationSubscriptions> patterns) {
+			this.version = version;
+			this.patterns = patterns;
 		}
 	}
 
@@ -372,13 +662,11 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 			return this.sessions.get(sessionId);
 		}
 
-		public Collection<SessionSubscriptionInfo> getAllSubscriptions() {
-			return this.sessions.values();
-		}
-
-		public SessionSubscriptionInfo addSubscription(String sessionId, String subscriptionId,
-				String destination, Expression selectorExpression) {
-
+		/**
+		 * Add the given subscription.
+		 * @return the subscription previously registered with the same id, if any
+		 */
+		public Subscription addSubscription(String sessionId, Subscription subscription) {
 			SessionSubscriptionInfo info = this.sessions.get(sessionId);
 			if (info == null) {
 				info = new SessionSubscriptionInfo(sessionId);
@@ -387,8 +675,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 					info = value;
 				}
 			}
-			info.addSubscription(destination, subscriptionId, selectorExpression);
-			return info;
+			return info.addSubscription(subscription);
 		}
 
 		public SessionSubscriptionInfo removeSubscriptions(String sessionId) {
@@ -409,9 +696,8 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 
 		private final String sessionId;
 
-		// destination -> subscriptions
-		private final Map<String, Set<Subscription>> destinationLookup =
-				new ConcurrentHashMap<String, Set<Subscription>>(4);
+		// subscriptionId -> subscription
+		private final ConcurrentMap<String, Subscription> subscriptions = new ConcurrentHashMap<String, Subscription>(4);
 
 		public SessionSubscriptionInfo(String sessionId) {
 			Assert.notNull(sessionId, "'sessionId' must not be null");
@@ -422,64 +708,27 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 			return this.sessionId;
 		}
 
-		public Set<String> getDestinations() {
-			return this.destinationLookup.keySet();
+		public Collection<Subscription> getSubscriptions() {
+			return this.subscriptions.values();
 		}
 
-		public Set<Subscription> getSubscriptions(String destination) {
-			return this.destinationLookup.get(destination);
+		public Subscription getSubscription(String subscriptionId) {
+			return this.subscriptions.get(subscriptionId);
 		}
 
-		public Subscription getSubscription(String subscriptionId) {
-			for (Map.Entry<String, Set<DefaultSubscriptionRegistry.Subscription>> destinationEntry : this.destinationLookup.entrySet()) {
-				Set<Subscription> subs = destinationEntry.getValue();
-				if (subs != null) {
-					for (Subscription sub : subs) {
-						if (sub.getId().equalsIgnoreCase(subscriptionId)) {
-							return sub;
-						}
-					}
-				}
-			}
-			return null;
+		public Subscription addSubscription(Subscription subscription) {
+			Subscription previous = this.subscriptions.put(subscription.getId(), subscription);
+			return (previous != null && !previous.getDestination().equals(subscription.getDestination()) ?
+					previous : null);
 		}
 
-		public void addSubscription(String destination, String subscriptionId, Expression selectorExpression) {
-			Set<Subscription> subs = this.destinationLookup.get(destination);
-			if (subs == null) {
-				synchronized (this.destinationLookup) {
-					subs = this.destinationLookup.get(destination);
-					if (subs == null) {
-						subs = new CopyOnWriteArraySet<Subscription>();
-						this.destinationLookup.put(destination, subs);
-					}
-				}
-			}
-			subs.add(new Subscription(subscriptionId, selectorExpression));
-		}
-
-		public String removeSubscription(String subscriptionId) {
-			for (Map.Entry<String, Set<DefaultSubscriptionRegistry.Subscription>> destinationEntry : this.destinationLookup.entrySet()) {
-				Set<Subscription> subs = destinationEntry.getValue();
-				if (subs != null) {
-					for (Subscription sub : subs) {
-						if (sub.getId().equals(subscriptionId) && subs.remove(sub)) {
-							synchronized (this.destinationLookup) {
-								if (subs.isEmpty()) {
-									this.destinationLookup.remove(destinationEntry.getKey());
-								}
-							}
-							return destinationEntry.getKey();
-						}
-					}
-				}
-			}
-			return null;
+		public Subscription removeSubscription(String subscriptionId) {
+			return this.subscriptions.remove(subscriptionId);
 		}
 
 		@Override
 		public String toString() {
-			return "[sessionId=" + this.sessionId + ", subscriptions=" + this.destinationLookup + "]";
+			return "[sessionId=" + this.sessionId + ", subscriptions=" + this.subscriptions.values() + "]";
 		}
 	}
 
@@ -488,22 +737,36 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 
 		private final String id;
 
+		private final String destination;
+
 		private final Expression selectorExpression;
 
-		public Subscription(String id, Expression selector) {
+		private final long sequence;
+
+		public Subscription(String id, String destination, Expression selector, long sequence) {
 			Assert.notNull(id, "Subscription id must not be null");
 			this.id = id;
+			this.destination = destination;
 			this.selectorExpression = selector;
+			this.sequence = sequence;
 		}
 
 		public String getId() {
 			return this.id;
 		}
 
+		public String getDestination() {
+			return this.destination;
+		}
+
 		public Expression getSelectorExpression() {
 			return this.selectorExpression;
 		}
 
+		public long getSequence() {
+			return this.sequence;
+		}
+
 		@Override
 		public boolean equals(Object other) {
 			return (this == other || (other instanceof Subscription && this.id.equals(((Subscription) other).id)));
@@ -516,7 +779,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 
 		@Override
 		public String toString() {
-			return "subscription(id=" + this.id + ")";
+			return "subscription(id=" + this.id + ", destination=" + this.destination + ")";
 		}
 	}
 
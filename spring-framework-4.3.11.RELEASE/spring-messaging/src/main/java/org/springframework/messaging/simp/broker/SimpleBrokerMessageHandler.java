@@ -28,6 +28,7 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.simp.SharedMessageEncoding;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.support.MessageBuilder;
@@ -110,6 +111,7 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 	 * @see #setSubscriptionRegistry
 	 * @see DefaultSubscriptionRegistry#setPathMatcher
 	 * @see org.springframework.util.AntPathMatcher
+	 * @see org.springframework.util.PrecompiledPathMatcher
 	 */
 	public void setPathMatcher(PathMatcher pathMatcher) {
 		this.pathMatcher = pathMatcher;
@@ -334,12 +336,17 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 			logger.debug("Broadcasting to " + subscriptions.size() + " sessions.");
 		}
 		long now = System.currentTimeMillis();
+		// Let encoders share the encoding of the common part across subscribers
+		SharedMessageEncoding sharedEncoding = (isBroadcast(subscriptions) ? new SharedMessageEncoding() : null);
 		for (Map.Entry<String, List<String>> subscriptionEntry : subscriptions.entrySet()) {
 			for (String subscriptionId : subscriptionEntry.getValue()) {
 				SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
 				initHeaders(headerAccessor);
 				headerAccessor.setSessionId(subscriptionEntry.getKey());
 				headerAccessor.setSubscriptionId(subscriptionId);
+				if (sharedEncoding != null) {
+					headerAccessor.setHeader(SimpMessageHeaderAccessor.SHARED_ENCODING_HEADER, sharedEncoding);
+				}
 				headerAccessor.copyHeadersIfAbsent(message.getHeaders());
 				Object payload = message.getPayload();
 				Message<?> reply = MessageBuilder.createMessage(payload, headerAccessor.getMessageHeaders());
@@ -359,6 +366,16 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 		}
 	}
 
+	private static boolean isBroadcast(MultiValueMap<String, String> subscriptions) {
+		if (subscriptions.size() > 1) {
+			return true;
+		}
+		for (List<String> subscriptionIds : subscriptions.values()) {
+			return (subscriptionIds.size() > 1);
+		}
+		return false;
+	}
+
 	@Override
 	public String toString() {
 		return "SimpleBrokerMessageHandler [" + this.subscriptionRegistry + "]";
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.BeanInitializationException;
@@ -36,6 +37,7 @@ import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.converter.StringMessageConverter;
 import org.springframework.messaging.handler.invocation.HandlerMethodArgumentResolver;
 import org.springframework.messaging.handler.invocation.HandlerMethodReturnValueHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.messaging.simp.annotation.support.SimpAnnotationMethodMessageHandler;
 import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
@@ -50,6 +52,7 @@ import org.springframework.messaging.simp.user.UserRegistryMessageHandler;
 import org.springframework.messaging.support.AbstractSubscribableChannel;
 import org.springframework.messaging.support.ExecutorSubscribableChannel;
 import org.springframework.messaging.support.ImmutableMessageChannelInterceptor;
+import org.springframework.messaging.support.OrderedMessageExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.util.Assert;
@@ -118,8 +121,9 @@ public abstract class AbstractMessageBrokerConfiguration implements ApplicationC
 
 	@Bean
 	public AbstractSubscribableChannel clientInboundChannel() {
-		ExecutorSubscribableChannel channel = new ExecutorSubscribableChannel(clientInboundChannelExecutor());
 		ChannelRegistration reg = getClientInboundChannelRegistration();
+		ExecutorSubscribableChannel channel =
+				new ExecutorSubscribableChannel(getChannelExecutor(reg, clientInboundChannelExecutor()));
 		channel.setInterceptors(reg.getInterceptors());
 		return channel;
 	}
@@ -151,8 +155,9 @@ public abstract class AbstractMessageBrokerConfiguration implements ApplicationC
 
 	@Bean
 	public AbstractSubscribableChannel clientOutboundChannel() {
-		ExecutorSubscribableChannel channel = new ExecutorSubscribableChannel(clientOutboundChannelExecutor());
 		ChannelRegistration reg = getClientOutboundChannelRegistration();
+		ExecutorSubscribableChannel channel =
+				new ExecutorSubscribableChannel(getChannelExecutor(reg, clientOutboundChannelExecutor()));
 		channel.setInterceptors(reg.getInterceptors());
 		return channel;
 	}
@@ -182,6 +187,20 @@ public abstract class AbstractMessageBrokerConfiguration implements ApplicationC
 	protected void configureClientOutboundChannel(ChannelRegistration registration) {
 	}
 
+	/**
+	 * Return the executor for a client channel, preserving the order of
+	 * messages per session if configured through the given registration.
+	 */
+	private Executor getChannelExecutor(ChannelRegistration registration, Executor executor) {
+		if (!registration.isPreserveSessionOrder()) {
+			return executor;
+		}
+		OrderedMessageExecutor orderedExecutor =
+				new OrderedMessageExecutor(executor, SimpMessageHeaderAccessor.SESSION_ID_HEADER);
+		orderedExecutor.setQueueLimit(registration.getSessionQueueLimit());
+		return orderedExecutor;
+	}
+
 	@Bean
 	public AbstractSubscribableChannel brokerChannel() {
 		ChannelRegistration reg = getBrokerRegistry().getBrokerChannelRegistration();
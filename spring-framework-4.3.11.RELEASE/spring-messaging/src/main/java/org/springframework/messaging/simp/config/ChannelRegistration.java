@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -36,6 +36,10 @@ public class ChannelRegistration {
 
 	private final List<ChannelInterceptor> interceptors = new ArrayList<ChannelInterceptor>();
 
+	private boolean preserveSessionOrder;
+
+	private int sessionQueueLimit = -1;
+
 
 	/**
 	 * Configure the thread pool backing this message channel.
@@ -68,6 +72,40 @@ public class ChannelRegistration {
 		return this;
 	}
 
+	/**
+	 * Whether messages of the same session are to be handled one at a time, in
+	 * the order they were sent to the channel, while messages of different
+	 * sessions are still handled in parallel by the thread pool.
+	 * <p>Without this, messages of the same session may be handled concurrently
+	 * and therefore out of order, unless the thread pool has a single thread.
+	 * <p><strong>Note:</strong> on the client outbound channel, messages for a
+	 * slow WebSocket session then wait in a per-session queue rather than in the
+	 * send buffer of the session, and the send time and buffer size limits of
+	 * the WebSocket transport no longer apply. Use
+	 * {@link #setSessionQueueLimit(int)} to bound the per-session queue.
+	 * <p>By default this is set to {@code false}.
+	 * @since 4.3.12
+	 * @see org.springframework.messaging.support.OrderedMessageExecutor
+	 */
+	public ChannelRegistration setPreserveSessionOrder(boolean preserveSessionOrder) {
+		this.preserveSessionOrder = preserveSessionOrder;
+		return this;
+	}
+
+	/**
+	 * Configure the maximum number of messages per session to queue when
+	 * {@link #setPreserveSessionOrder(boolean) preserving session order}.
+	 * Further messages for the session fail to be sent to the channel with a
+	 * {@link org.springframework.messaging.MessageDeliveryException} until the
+	 * queue has drained.
+	 * <p>By default this is set to -1, i.e. the queues are unbounded.
+	 * @since 4.3.12
+	 */
+	public ChannelRegistration setSessionQueueLimit(int sessionQueueLimit) {
+		this.sessionQueueLimit = sessionQueueLimit;
+		return this;
+	}
+
 
 	protected boolean hasTaskExecutor() {
 		return (this.registration != null);
@@ -88,4 +126,12 @@ public class ChannelRegistration {
 	protected List<ChannelInterceptor> getInterceptors() {
 		return this.interceptors;
 	}
+
+	protected boolean isPreserveSessionOrder() {
+		return this.preserveSessionOrder;
+	}
+
+	protected int getSessionQueueLimit() {
+		return this.sessionQueueLimit;
+	}
 }
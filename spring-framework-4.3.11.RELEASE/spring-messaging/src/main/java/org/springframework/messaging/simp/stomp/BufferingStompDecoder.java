@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,8 +19,6 @@ package org.springframework.messaging.simp.stomp;
 import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.LinkedBlockingQueue;
 
 import org.springframework.messaging.Message;
 import org.springframework.util.Assert;
@@ -41,6 +39,11 @@ import org.springframework.util.MultiValueMap;
  * be used any more as its internal state is not guaranteed to be consistent.
  * It is expected that the underlying session is closed at that point.
  *
+ * <p>As of 4.3.12, incomplete content is accumulated in a single buffer which
+ * is reused for subsequent frames, rather than concatenating all chunks
+ * received so far on every attempt to decode. Input that contains complete
+ * frames only is decoded in place, without copying.
+ *
  * @author Rossen Stoyanchev
  * @since 4.0.3
  * @see StompDecoder
@@ -49,9 +52,13 @@ public class BufferingStompDecoder {
 
 	private final StompDecoder stompDecoder;
 
+	/** Capacity of an empty buffer to retain for subsequent partial frames */
+	private static final int RETAINED_BUFFER_CAPACITY = 8 * 1024;
+
 	private final int bufferSizeLimit;
 
-	private final Queue<ByteBuffer> chunks = new LinkedBlockingQueue<ByteBuffer>();
+	/** Content of an incomplete frame, ready for writing */
+	private ByteBuffer buffer;
 
 	private volatile Integer expectedContentLength;
 
@@ -99,43 +106,60 @@ public class BufferingStompDecoder {
 	 * @throws StompConversionException raised in case of decoding issues
 	 */
 	public List<Message<byte[]>> decode(ByteBuffer newBuffer) {
-		this.chunks.add(newBuffer);
-		checkBufferLimits();
+		int bufferSize = getBufferSize();
+		checkBufferLimits(bufferSize + newBuffer.remaining());
 
-		if (this.expectedContentLength != null && getBufferSize() < this.expectedContentLength) {
+		if (this.expectedContentLength != null && bufferSize + newBuffer.remaining() < this.expectedContentLength) {
+			append(newBuffer);
 			return Collections.<Message<byte[]>>emptyList();
 		}
 
-		ByteBuffer bufferToDecode = assembleChunksAndReset();
+		ByteBuffer bufferToDecode = newBuffer;
+		if (bufferSize > 0) {
+			append(newBuffer);
+			this.buffer.flip();
+			bufferToDecode = this.buffer;
+		}
+		this.expectedContentLength = null;
+
 		MultiValueMap<String, String> headers = new LinkedMultiValueMap<String, String>();
 		List<Message<byte[]>> messages = this.stompDecoder.decode(bufferToDecode, headers);
 
-		if (bufferToDecode.hasRemaining()) {
-			this.chunks.add(bufferToDecode);
+		if (bufferToDecode == this.buffer) {
+			this.buffer.compact();
+		}
+		else if (bufferToDecode.hasRemaining()) {
+			append(bufferToDecode);
+		}
+		if (getBufferSize() > 0) {
 			this.expectedContentLength = StompHeaderAccessor.getContentLength(headers);
 		}
+		else if (this.buffer != null && this.buffer.capacity() > RETAINED_BUFFER_CAPACITY) {
+			this.buffer = null;
+		}
 
 		return messages;
 	}
 
-	private ByteBuffer assembleChunksAndReset() {
-		ByteBuffer result;
-		if (this.chunks.size() == 1) {
-			result = this.chunks.remove();
-		}
-		else {
-			result = ByteBuffer.allocate(getBufferSize());
-			for (ByteBuffer partial : this.chunks) {
-				result.put(partial);
+	/**
+	 * Append the given content to the buffer, growing it as necessary.
+	 */
+	private void append(ByteBuffer content) {
+		int required = getBufferSize() + content.remaining();
+		if (this.buffer == null || this.buffer.capacity() < required) {
+			int capacity = (this.buffer != null ? this.buffer.capacity() * 2 : 256);
+			capacity = Math.max(required, Math.min(capacity, this.bufferSizeLimit));
+			ByteBuffer newBuffer = ByteBuffer.allocate(capacity);
+			if (this.buffer != null) {
+				this.buffer.flip();
+				newBuffer.put(this.buffer);
 			}
-			result.flip();
+			this.buffer = newBuffer;
 		}
-		this.chunks.clear();
-		this.expectedContentLength = null;
-		return result;
+		this.buffer.put(content);
 	}
 
-	private void checkBufferLimits() {
+	private void checkBufferLimits(int bufferSize) {
 		if (this.expectedContentLength != null) {
 			if (this.expectedContentLength > this.bufferSizeLimit) {
 				throw new StompConversionException(
@@ -143,7 +167,7 @@ public class BufferingStompDecoder {
 						"  exceeds configured buffer size limit " + this.bufferSizeLimit);
 			}
 		}
-		if (getBufferSize() > this.bufferSizeLimit) {
+		if (bufferSize > this.bufferSizeLimit) {
 			throw new StompConversionException("The configured STOMP buffer size limit of " +
 					this.bufferSizeLimit + " bytes has been exceeded");
 		}
@@ -153,11 +177,8 @@ public class BufferingStompDecoder {
 	 * Calculate the current buffer size.
 	 */
 	public int getBufferSize() {
-		int size = 0;
-		for (ByteBuffer buffer : this.chunks) {
-			size = size + buffer.remaining();
-		}
-		return size;
+		ByteBuffer buffer = this.buffer;
+		return (buffer != null ? buffer.position() : 0);
 	}
 
 	/**
@@ -16,7 +16,6 @@
 
 package org.springframework.messaging.simp.stomp;
 
-import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
@@ -41,6 +40,11 @@ import org.springframework.util.MultiValueMap;
  * partial content. The caller is then responsible for dealing with that
  * incomplete content by buffering until there is more input available.
  *
+ * <p>As of 4.3.12, frames are parsed in place: commands and common header
+ * names resolve to shared constants without decoding, header values are
+ * decoded straight from the buffer, and the payload is copied once into a
+ * byte array of the exact size.
+ *
  * @author Andy Wilkinson
  * @author Rossen Stoyanchev
  * @since 4.0
@@ -53,6 +57,33 @@ public class StompDecoder {
 
 	private static final Log logger = LogFactory.getLog(StompDecoder.class);
 
+	private static final StompCommand[] COMMANDS = StompCommand.values();
+
+	private static final byte[][] COMMAND_BYTES = new byte[COMMANDS.length][];
+
+	/** Header names to share rather than decode for every frame */
+	private static final String[] HEADER_NAMES = new String[] {
+			StompHeaderAccessor.STOMP_DESTINATION_HEADER, StompHeaderAccessor.STOMP_CONTENT_TYPE_HEADER,
+			StompHeaderAccessor.STOMP_CONTENT_LENGTH_HEADER, StompHeaderAccessor.STOMP_SUBSCRIPTION_HEADER,
+			StompHeaderAccessor.STOMP_ID_HEADER, StompHeaderAccessor.STOMP_MESSAGE_ID_HEADER,
+			StompHeaderAccessor.STOMP_RECEIPT_HEADER, StompHeaderAccessor.STOMP_RECEIPT_ID_HEADER,
+			StompHeaderAccessor.STOMP_ACK_HEADER, StompHeaderAccessor.STOMP_NACK_HEADER,
+			StompHeaderAccessor.STOMP_ACCEPT_VERSION_HEADER, StompHeaderAccessor.STOMP_VERSION_HEADER,
+			StompHeaderAccessor.STOMP_HOST_HEADER, StompHeaderAccessor.STOMP_LOGIN_HEADER,
+			StompHeaderAccessor.STOMP_PASSCODE_HEADER, StompHeaderAccessor.STOMP_HEARTBEAT_HEADER,
+			StompHeaderAccessor.STOMP_MESSAGE_HEADER, "transaction", "selector"};
+
+	private static final byte[][] HEADER_NAME_BYTES = new byte[HEADER_NAMES.length][];
+
+	static {
+		for (int i = 0; i < COMMANDS.length; i++) {
+			COMMAND_BYTES[i] = COMMANDS[i].name().getBytes(UTF8_CHARSET);
+		}
+		for (int i = 0; i < HEADER_NAMES.length; i++) {
+			HEADER_NAME_BYTES[i] = HEADER_NAMES[i].getBytes(UTF8_CHARSET);
+		}
+	}
+
 	private MessageHeaderInitializer headerInitializer;
 
 
@@ -126,12 +157,13 @@ public class StompDecoder {
 		skipLeadingEol(buffer);
 		buffer.mark();
 
-		String command = readCommand(buffer);
-		if (command.length() > 0) {
+		int commandStart = buffer.position();
+		int commandLength = readCommand(buffer);
+		if (commandLength > 0) {
 			StompHeaderAccessor headerAccessor = null;
 			byte[] payload = null;
 			if (buffer.remaining() > 0) {
-				StompCommand stompCommand = StompCommand.valueOf(command);
+				StompCommand stompCommand = resolveCommand(buffer, commandStart, commandLength);
 				headerAccessor = StompHeaderAccessor.create(stompCommand);
 				initHeaders(headerAccessor);
 				readHeaders(buffer, headerAccessor);
@@ -194,51 +226,65 @@ public class StompDecoder {
 		}
 	}
 
-	private String readCommand(ByteBuffer buffer) {
-		ByteArrayOutputStream command = new ByteArrayOutputStream(256);
-		while (buffer.remaining() > 0 && !tryConsumeEndOfLine(buffer)) {
-			command.write(buffer.get());
+	/**
+	 * Read the command line, returning the length of the command.
+	 */
+	private int readCommand(ByteBuffer buffer) {
+		int start = buffer.position();
+		int end = readLine(buffer);
+		return (end != -1 ? end : buffer.position()) - start;
+	}
+
+	private StompCommand resolveCommand(ByteBuffer buffer, int start, int length) {
+		for (int i = 0; i < COMMANDS.length; i++) {
+			if (matches(buffer, start, length, COMMAND_BYTES[i])) {
+				return COMMANDS[i];
+			}
 		}
-		return new String(command.toByteArray(), UTF8_CHARSET);
+		return StompCommand.valueOf(decode(buffer, start, length));
 	}
 
 	private void readHeaders(ByteBuffer buffer, StompHeaderAccessor headerAccessor) {
 		while (true) {
-			ByteArrayOutputStream headerStream = new ByteArrayOutputStream(256);
-			boolean headerComplete = false;
-			while (buffer.hasRemaining()) {
-				if (tryConsumeEndOfLine(buffer)) {
-					headerComplete = true;
-					break;
+			int start = buffer.position();
+			int end = readLine(buffer);
+			if (end == -1 || end == start) {
+				break;
+			}
+			int colonIndex = indexOf(buffer, start, end, (byte) ':');
+			if (colonIndex <= start) {
+				if (buffer.remaining() > 0) {
+					throw new StompConversionException("Illegal header: '" + decode(buffer, start, end - start) +
+							"'. A header must be of the form <name>:[<value>].");
 				}
-				headerStream.write(buffer.get());
 			}
-			if (headerStream.size() > 0 && headerComplete) {
-				String header = new String(headerStream.toByteArray(), UTF8_CHARSET);
-				int colonIndex = header.indexOf(':');
-				if (colonIndex <= 0) {
-					if (buffer.remaining() > 0) {
-						throw new StompConversionException("Illegal header: '" + header +
-								"'. A header must be of the form <name>:[<value>].");
-					}
+			else {
+				String headerName = readHeaderName(buffer, start, colonIndex - start);
+				String headerValue = readHeaderValue(buffer, colonIndex + 1, end - colonIndex - 1);
+				try {
+					headerAccessor.addNativeHeader(headerName, headerValue);
 				}
-				else {
-					String headerName = unescape(header.substring(0, colonIndex));
-					String headerValue = unescape(header.substring(colonIndex + 1));
-					try {
-						headerAccessor.addNativeHeader(headerName, headerValue);
-					}
-					catch (InvalidMimeTypeException ex) {
-						if (buffer.remaining() > 0) {
-							throw ex;
-						}
+				catch (InvalidMimeTypeException ex) {
+					if (buffer.remaining() > 0) {
+						throw ex;
 					}
 				}
 			}
-			else {
-				break;
+		}
+	}
+
+	private String readHeaderName(ByteBuffer buffer, int start, int length) {
+		for (int i = 0; i < HEADER_NAMES.length; i++) {
+			if (matches(buffer, start, length, HEADER_NAME_BYTES[i])) {
+				return HEADER_NAMES[i];
 			}
 		}
+		return readHeaderValue(buffer, start, length);
+	}
+
+	private String readHeaderValue(ByteBuffer buffer, int start, int length) {
+		String value = decode(buffer, start, length);
+		return (indexOf(buffer, start, start + length, (byte) '\\') != -1 ? unescape(value) : value);
 	}
 
 	/**
@@ -306,20 +352,33 @@ public class StompDecoder {
 			}
 		}
 		else {
-			ByteArrayOutputStream payload = new ByteArrayOutputStream(256);
-			while (buffer.remaining() > 0) {
-				byte b = buffer.get();
-				if (b == 0) {
-					return payload.toByteArray();
-				}
-				else {
-					payload.write(b);
-				}
+			int end = indexOf(buffer, buffer.position(), buffer.limit(), (byte) 0);
+			if (end != -1) {
+				byte[] payload = new byte[end - buffer.position()];
+				buffer.get(payload);
+				buffer.get();
+				return payload;
 			}
 		}
 		return null;
 	}
 
+	/**
+	 * Read up to and including the next EOL.
+	 * @return the position of the EOL, i.e. the end of the line content,
+	 * or -1 if the buffer ended before an EOL
+	 */
+	private int readLine(ByteBuffer buffer) {
+		while (buffer.remaining() > 0) {
+			int end = buffer.position();
+			if (tryConsumeEndOfLine(buffer)) {
+				return end;
+			}
+			buffer.get();
+		}
+		return -1;
+	}
+
 	/**
 	 * Try to read an EOL incrementing the buffer position if successful.
 	 * @return whether an EOL was consumed
@@ -343,4 +402,36 @@ public class StompDecoder {
 		return false;
 	}
 
+	private static int indexOf(ByteBuffer buffer, int start, int end, byte b) {
+		for (int i = start; i < end; i++) {
+			if (buffer.get(i) == b) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean matches(ByteBuffer buffer, int start, int length, byte[] bytes) {
+		if (length != bytes.length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (buffer.get(start + i) != bytes[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String decode(ByteBuffer buffer, int start, int length) {
+		if (buffer.hasArray()) {
+			return new String(buffer.array(), buffer.arrayOffset() + start, length, UTF8_CHARSET);
+		}
+		byte[] bytes = new byte[length];
+		for (int i = 0; i < length; i++) {
+			bytes[i] = buffer.get(start + i);
+		}
+		return new String(bytes, UTF8_CHARSET);
+	}
+
 }
@@ -16,28 +16,37 @@
 
 package org.springframework.messaging.simp.stomp;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataOutputStream;
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SharedMessageEncoding;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.support.NativeMessageHeaderAccessor;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
 
 /**
  * An encoder for STOMP frames.
  *
+ * <p>As of 4.3.12, frames are assembled from their encoded parts into a single
+ * array of the exact size, and encoded header names as well as "destination"
+ * and "content-type" values are cached. MESSAGE frames broadcast to several
+ * subscribers with a {@link SharedMessageEncoding} header are encoded once
+ * into a template shared by all copies of the message, with only the
+ * "subscription" and "message-id" headers encoded for each copy.
+ *
  * @author Andy Wilkinson
  * @author Rossen Stoyanchev
  * @since 4.0
@@ -51,26 +60,34 @@ public class StompEncoder  {
 
 	private static final Log logger = LogFactory.getLog(StompEncoder.class);
 
-	private static final int HEADER_KEY_CACHE_LIMIT = 32;
+	private static final int HEADER_KEY_CACHE_LIMIT = 256;
 
+	private static final int HEADER_VALUE_CACHE_LIMIT = 1024;
 
-	private final Map<String, byte[]> headerKeyAccessCache =
-			new ConcurrentHashMap<String, byte[]>(HEADER_KEY_CACHE_LIMIT);
+	private static final byte[][] COMMAND_BYTES = new byte[StompCommand.values().length][];
 
-	@SuppressWarnings("serial")
-	private final Map<String, byte[]> headerKeyUpdateCache =
-			new LinkedHashMap<String, byte[]>(HEADER_KEY_CACHE_LIMIT, 0.75f, true) {
-				@Override
-				protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
-					if (size() > HEADER_KEY_CACHE_LIMIT) {
-						headerKeyAccessCache.remove(eldest.getKey());
-						return true;
-					}
-					else {
-						return false;
-					}
-				}
-			};
+	private static final byte[] CONTENT_LENGTH_PREFIX = "content-length:".getBytes(StompDecoder.UTF8_CHARSET);
+
+	/** Headers whose values are typically shared by many frames */
+	private static final Set<String> CACHED_HEADER_VALUE_NAMES = new HashSet<String>(Arrays.asList(
+			StompHeaderAccessor.STOMP_DESTINATION_HEADER, StompHeaderAccessor.STOMP_CONTENT_TYPE_HEADER));
+
+	/** Headers of a broadcast MESSAGE frame that differ per subscriber */
+	private static final Set<String> SUBSCRIBER_HEADER_NAMES = new HashSet<String>(Arrays.asList(
+			StompHeaderAccessor.STOMP_SUBSCRIPTION_HEADER, StompHeaderAccessor.STOMP_MESSAGE_ID_HEADER));
+
+	static {
+		for (StompCommand command : StompCommand.values()) {
+			COMMAND_BYTES[command.ordinal()] = command.toString().getBytes(StompDecoder.UTF8_CHARSET);
+		}
+	}
+
+
+	private final ConcurrentLruCache<String, byte[]> headerKeyCache =
+			new ConcurrentLruCache<String, byte[]>(HEADER_KEY_CACHE_LIMIT);
+
+	private final ConcurrentLruCache<String, byte[]> headerValueCache =
+			new ConcurrentLruCache<String, byte[]>(HEADER_VALUE_CACHE_LIMIT);
 
 
 	/**
@@ -92,39 +109,37 @@ public class StompEncoder  {
 		Assert.notNull(headers, "'headers' is required");
 		Assert.notNull(payload, "'payload' is required");
 
-		try {
-			ByteArrayOutputStream baos = new ByteArrayOutputStream(128 + payload.length);
-			DataOutputStream output = new DataOutputStream(baos);
+		if (SimpMessageType.HEARTBEAT.equals(SimpMessageHeaderAccessor.getMessageType(headers))) {
+			logger.trace("Encoding heartbeat");
+			return StompDecoder.HEARTBEAT_PAYLOAD.clone();
+		}
 
-			if (SimpMessageType.HEARTBEAT.equals(SimpMessageHeaderAccessor.getMessageType(headers))) {
-				logger.trace("Encoding heartbeat");
-				output.write(StompDecoder.HEARTBEAT_PAYLOAD);
-			}
+		StompCommand command = StompHeaderAccessor.getCommand(headers);
+		if (command == null) {
+			throw new IllegalStateException("Missing STOMP command: " + headers);
+		}
 
-			else {
-				StompCommand command = StompHeaderAccessor.getCommand(headers);
-				if (command == null) {
-					throw new IllegalStateException("Missing STOMP command: " + headers);
+		if (StompCommand.MESSAGE.equals(command)) {
+			SharedMessageEncoding sharedEncoding = SimpMessageHeaderAccessor.getSharedEncoding(headers);
+			if (sharedEncoding != null) {
+				byte[] bytes = encodeShared(sharedEncoding, headers, payload);
+				if (bytes != null) {
+					return bytes;
 				}
-
-				output.write(command.toString().getBytes(StompDecoder.UTF8_CHARSET));
-				output.write(LF);
-				writeHeaders(command, headers, payload, output);
-				output.write(LF);
-				writeBody(payload, output);
-				output.write((byte) 0);
 			}
-
-			return baos.toByteArray();
 		}
-		catch (IOException ex) {
-			throw new StompConversionException("Failed to encode STOMP frame, headers=" + headers,  ex);
-		}
-	}
 
-	private void writeHeaders(StompCommand command, Map<String, Object> headers, byte[] payload,
-			DataOutputStream output) throws IOException {
+		Result result = new Result();
+		result.add(COMMAND_BYTES[command.ordinal()]);
+		result.add(LF);
+		writeHeaders(command, headers, payload, result);
+		result.add(LF);
+		writeBody(payload, result);
+		result.add((byte) 0);
+		return result.toByteArray();
+	}
 
+	private void writeHeaders(StompCommand command, Map<String, Object> headers, byte[] payload, Result result) {
 		@SuppressWarnings("unchecked")
 		Map<String,List<String>> nativeHeaders =
 				(Map<String, List<String>>) headers.get(NativeMessageHeaderAccessor.NATIVE_HEADERS);
@@ -150,37 +165,123 @@ public class StompEncoder  {
 				values = Collections.singletonList(StompHeaderAccessor.getPasscode(headers));
 			}
 
-			byte[] encodedKey = encodeHeaderKey(entry.getKey(), shouldEscape);
-			for (String value : values) {
-				output.write(encodedKey);
-				output.write(COLON);
-				output.write(encodeHeaderValue(value, shouldEscape));
-				output.write(LF);
-			}
+			writeHeader(entry.getKey(), values, shouldEscape, result);
 		}
 
 		if (command.requiresContentLength()) {
-			int contentLength = payload.length;
-			output.write("content-length:".getBytes(StompDecoder.UTF8_CHARSET));
-			output.write(Integer.toString(contentLength).getBytes(StompDecoder.UTF8_CHARSET));
-			output.write(LF);
+			writeContentLength(payload, result);
+		}
+	}
+
+	private void writeHeader(String key, List<String> values, boolean escape, Result result) {
+		byte[] encodedKey = encodeHeaderKey(key, escape);
+		boolean cacheValue = CACHED_HEADER_VALUE_NAMES.contains(key);
+		for (String value : values) {
+			result.add(encodedKey);
+			result.add(COLON);
+			result.add(cacheValue ? encodeCachedHeaderValue(value, escape) : encodeHeaderValue(value, escape));
+			result.add(LF);
 		}
 	}
 
+	private void writeContentLength(byte[] payload, Result result) {
+		result.add(CONTENT_LENGTH_PREFIX);
+		result.add(Integer.toString(payload.length).getBytes(StompDecoder.UTF8_CHARSET));
+		result.add(LF);
+	}
+
+	/**
+	 * Encode a MESSAGE frame from the template shared by all copies of a broadcast
+	 * message, creating the template for the first copy.
+	 * @return the encoded frame, or {@code null} if the headers or payload of the
+	 * given copy differ from the template, in which case it is encoded on its own
+	 */
+	private byte[] encodeShared(SharedMessageEncoding sharedEncoding, Map<String, Object> headers, byte[] payload) {
+		@SuppressWarnings("unchecked")
+		Map<String, List<String>> nativeHeaders =
+				(Map<String, List<String>>) headers.get(NativeMessageHeaderAccessor.NATIVE_HEADERS);
+		if (nativeHeaders == null) {
+			return null;
+		}
+		FrameTemplate template = (FrameTemplate) sharedEncoding.getEncoding(this);
+		if (template == null) {
+			template = (FrameTemplate) sharedEncoding.setEncoding(this, createTemplate(nativeHeaders, payload));
+		}
+		if (!template.matches(nativeHeaders, payload)) {
+			return null;
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("Encoding STOMP " + StompCommand.MESSAGE + " from shared template, headers=" + nativeHeaders);
+		}
+
+		Result result = new Result();
+		for (int i = 0; i < template.segments.size(); i++) {
+			result.add(template.segments.get(i));
+			if (i < template.subscriberHeaderNames.size()) {
+				byte[] encodedKey = template.subscriberHeaderKeys.get(i);
+				for (String value : nativeHeaders.get(template.subscriberHeaderNames.get(i))) {
+					result.add(encodedKey);
+					result.add(COLON);
+					result.add(encodeHeaderValue(value, true));
+					result.add(LF);
+				}
+			}
+		}
+		return result.toByteArray();
+	}
+
+	private FrameTemplate createTemplate(Map<String, List<String>> nativeHeaders, byte[] payload) {
+		List<byte[]> segments = new ArrayList<byte[]>(SUBSCRIBER_HEADER_NAMES.size() + 1);
+		List<String> subscriberHeaderNames = new ArrayList<String>(SUBSCRIBER_HEADER_NAMES.size());
+		List<byte[]> subscriberHeaderKeys = new ArrayList<byte[]>(SUBSCRIBER_HEADER_NAMES.size());
+		Map<String, List<String>> sharedHeaders = new HashMap<String, List<String>>(nativeHeaders.size());
+
+		Result result = new Result();
+		result.add(COMMAND_BYTES[StompCommand.MESSAGE.ordinal()]);
+		result.add(LF);
+		for (Entry<String, List<String>> entry : nativeHeaders.entrySet()) {
+			String key = entry.getKey();
+			if (StompHeaderAccessor.STOMP_CONTENT_LENGTH_HEADER.equals(key)) {
+				continue;
+			}
+			if (SUBSCRIBER_HEADER_NAMES.contains(key)) {
+				segments.add(result.toByteArray());
+				result = new Result();
+				subscriberHeaderNames.add(key);
+				subscriberHeaderKeys.add(encodeHeaderKey(key, true));
+			}
+			else {
+				sharedHeaders.put(key, new ArrayList<String>(entry.getValue()));
+				writeHeader(key, entry.getValue(), true, result);
+			}
+		}
+		writeContentLength(payload, result);
+		result.add(LF);
+		writeBody(payload, result);
+		result.add((byte) 0);
+		segments.add(result.toByteArray());
+
+		return new FrameTemplate(payload, sharedHeaders, subscriberHeaderNames, subscriberHeaderKeys, segments);
+	}
+
 	private byte[] encodeHeaderKey(String input, boolean escape) {
 		String inputToUse = (escape ? escape(input) : input);
-		if (this.headerKeyAccessCache.containsKey(inputToUse)) {
-			return this.headerKeyAccessCache.get(inputToUse);
-		}
-		synchronized (this.headerKeyUpdateCache) {
-			byte[] bytes = this.headerKeyUpdateCache.get(inputToUse);
-			if (bytes == null) {
-				bytes = inputToUse.getBytes(StompDecoder.UTF8_CHARSET);
-				this.headerKeyAccessCache.put(inputToUse, bytes);
-				this.headerKeyUpdateCache.put(inputToUse, bytes);
-			}
-			return bytes;
+		byte[] bytes = this.headerKeyCache.get(inputToUse);
+		if (bytes == null) {
+			bytes = inputToUse.getBytes(StompDecoder.UTF8_CHARSET);
+			this.headerKeyCache.putIfAbsent(inputToUse, bytes);
 		}
+		return bytes;
+	}
+
+	private byte[] encodeCachedHeaderValue(String input, boolean escape) {
+		String inputToUse = (escape ? escape(input) : input);
+		byte[] bytes = this.headerValueCache.get(inputToUse);
+		if (bytes == null) {
+			bytes = inputToUse.getBytes(StompDecoder.UTF8_CHARSET);
+			this.headerValueCache.putIfAbsent(inputToUse, bytes);
+		}
+		return bytes;
 	}
 
 	private byte[] encodeHeaderValue(String input, boolean escape) {
@@ -227,8 +328,105 @@ public class StompEncoder  {
 		return sb;
 	}
 
-	private void writeBody(byte[] payload, DataOutputStream output) throws IOException {
-		output.write(payload);
+	private void writeBody(byte[] payload, Result result) {
+		result.add(payload);
+	}
+
+
+	/**
+	 * The parts of an encoded frame, copied into a single array of the
+	 * exact size once the frame is complete.
+	 */
+	private static class Result {
+
+		private final List<Object> parts = new ArrayList<Object>(32);
+
+		private int size;
+
+		public void add(byte[] bytes) {
+			this.parts.add(bytes);
+			this.size += bytes.length;
+		}
+
+		public void add(byte b) {
+			this.parts.add(b);
+			this.size++;
+		}
+
+		public byte[] toByteArray() {
+			byte[] result = new byte[this.size];
+			int position = 0;
+			for (Object part : this.parts) {
+				if (part instanceof byte[]) {
+					byte[] bytes = (byte[]) part;
+					System.arraycopy(bytes, 0, result, position, bytes.length);
+					position += bytes.length;
+				}
+				else {
+					result[position++] = (Byte) part;
+				}
+			}
+			return result;
+		}
+	}
+
+
+	/**
+	 * The encoded form of a broadcast MESSAGE frame, split into segments
+	 * around the headers that differ per subscriber.
+	 */
+	private static class FrameTemplate {
+
+		final byte[] payload;
+
+		final Map<String, List<String>> sharedHeaders;
+
+		final List<String> subscriberHeaderNames;
+
+		final List<byte[]> subscriberHeaderKeys;
+
+		final List<byte[]> segments;
+
+		FrameTemplate(byte[] payload, Map<String, List<String>> sharedHeaders,
+				List<String> subscriberHeaderNames, List<byte[]> subscriberHeaderKeys, List<byte[]> segments) {
+
+			this.payload = payload;
+			this.sharedHeaders = sharedHeaders;
+			this.subscriberHeaderNames = subscriberHeaderNames;
+			this.subscriberHeaderKeys = subscriberHeaderKeys;
+			this.segments = segments;
+		}
+
+		/**
+		 * Whether the given copy of the message has the same payload and the
+		 * same shared headers as the message this template was created from.
+		 */
+		boolean matches(Map<String, List<String>> nativeHeaders, byte[] payload) {
+			if (payload != this.payload) {
+				return false;
+			}
+			int sharedCount = 0;
+			int subscriberCount = 0;
+			for (Entry<String, List<String>> entry : nativeHeaders.entrySet()) {
+				String key = entry.getKey();
+				if (StompHeaderAccessor.STOMP_CONTENT_LENGTH_HEADER.equals(key)) {
+					continue;
+				}
+				if (SUBSCRIBER_HEADER_NAMES.contains(key)) {
+					if (!this.subscriberHeaderNames.contains(key) || entry.getValue() == null) {
+						return false;
+					}
+					subscriberCount++;
+				}
+				else if (entry.getValue().equals(this.sharedHeaders.get(key))) {
+					sharedCount++;
+				}
+				else {
+					return false;
+				}
+			}
+			return (sharedCount == this.sharedHeaders.size() && subscriberCount == this.subscriberHeaderNames.size());
+		}
 	}
 
 }
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.messaging.support;
+
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.messaging.Message;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link Executor} decorator for {@link ExecutorSubscribableChannel} that
+ * preserves the order of messages sharing the same value for a given header,
+ * e.g. messages of the same session: their tasks are run one at a time in the
+ * order submitted, while tasks for different header values still run in
+ * parallel on the target executor.
+ *
+ * <p>Tasks are queued per header value and the queue is removed once it has
+ * been drained. Tasks which are not a {@link MessageHandlingRunnable}, or for
+ * messages without the header, are passed to the target executor as is.
+ *
+ * <p>By default the queue for a header value is unbounded. When used for the
+ * outbound channel of WebSocket sessions, tasks for a slow session then pile
+ * up here rather than in the send buffer of the session, so the send time and
+ * buffer size limits of the session never apply. Use {@link #setQueueLimit}
+ * to bound the queue: a task exceeding the limit is rejected with a
+ * {@link RejectedExecutionException}, which fails the send to the channel.
+ *
+ * @since 4.3.12
+ * @see org.springframework.messaging.simp.config.ChannelRegistration#setPreserveSessionOrder
+ */
+public class OrderedMessageExecutor implements Executor {
+
+	private final Executor executor;
+
+	private final String headerName;
+
+	private final ConcurrentMap<Object, TaskQueue> taskQueues = new ConcurrentHashMap<Object, TaskQueue>();
+
+	private volatile int queueLimit = -1;
+
+
+	/**
+	 * Create a new {@code OrderedMessageExecutor}.
+	 * @param executor the target executor to run tasks on
+	 * @param headerName the name of the message header to order tasks by
+	 */
+	public OrderedMessageExecutor(Executor executor, String headerName) {
+		Assert.notNull(executor, "Executor must not be null");
+		Assert.notNull(headerName, "Header name must not be null");
+		this.executor = executor;
+		this.headerName = headerName;
+	}
+
+
+	/**
+	 * Return the target executor.
+	 */
+	public Executor getExecutor() {
+		return this.executor;
+	}
+
+	/**
+	 * Return the name of the message header to order tasks by.
+	 */
+	public String getHeaderName() {
+		return this.headerName;
+	}
+
+	/**
+	 * Set the maximum number of tasks to queue per header value, including the
+	 * one currently running. Further tasks for the same header value are
+	 * rejected with a {@link RejectedExecutionException} until the queue drains.
+	 * <p>By default this is set to -1, i.e. the queues are unbounded.
+	 */
+	public void setQueueLimit(int queueLimit) {
+		this.queueLimit = queueLimit;
+	}
+
+	/**
+	 * Return the configured maximum number of tasks to queue per header value.
+	 */
+	public int getQueueLimit() {
+		return this.queueLimit;
+	}
+
+	/**
+	 * Return the number of header values with queued or running tasks.
+	 */
+	public int getActiveQueueCount() {
+		return this.taskQueues.size();
+	}
+
+
+	@Override
+	public void execute(Runnable task) {
+		Object key = getOrderKey(task);
+		if (key == null) {
+			this.executor.execute(task);
+			return;
+		}
+		while (true) {
+			TaskQueue taskQueue = this.taskQueues.get(key);
+			if (taskQueue == null) {
+				TaskQueue newTaskQueue = new TaskQueue(key);
+				taskQueue = this.taskQueues.putIfAbsent(key, newTaskQueue);
+				if (taskQueue == null) {
+					taskQueue = newTaskQueue;
+				}
+			}
+			if (taskQueue.add(task)) {
+				return;
+			}
+			// Drained and removed concurrently: try again
+		}
+	}
+
+	private Object getOrderKey(Runnable task) {
+		if (task instanceof MessageHandlingRunnable) {
+			Message<?> message = ((MessageHandlingRunnable) task).getMessage();
+			if (message != null) {
+				return message.getHeaders().get(this.headerName);
+			}
+		}
+		return null;
+	}
+
+
+	/**
+	 * Tasks for one header value, run by the target executor one at a time.
+	 */
+	private class TaskQueue implements Runnable {
+
+		private final Object key;
+
+		private final Queue<Runnable> tasks = new LinkedList<Runnable>();
+
+		private boolean scheduled;
+
+		private boolean running;
+
+		private boolean removed;
+
+		public TaskQueue(Object key) {
+			this.key = key;
+		}
+
+		/**
+		 * Add the given task, scheduling this queue if not yet scheduled.
+		 * @return {@code false} if this queue has been removed already
+		 */
+		public boolean add(Runnable task) {
+			synchronized (this) {
+				if (this.removed) {
+					return false;
+				}
+				int limit = queueLimit;
+				if (limit > 0 && this.tasks.size() + (this.running ? 1 : 0) >= limit) {
+					throw new RejectedExecutionException("Queue limit of " + limit +
+							" tasks exceeded for " + headerName + " '" + this.key + "'");
+				}
+				this.tasks.add(task);
+				if (this.scheduled) {
+					return true;
+				}
+				this.scheduled = true;
+			}
+			schedule();
+			return true;
+		}
+
+		@Override
+		public void run() {
+			Runnable task;
+			synchronized (this) {
+				task = this.tasks.poll();
+				this.running = (task != null);
+			}
+			try {
+				if (task != null) {
+					task.run();
+				}
+			}
+			finally {
+				boolean reschedule;
+				synchronized (this) {
+					this.running = false;
+					reschedule = !this.tasks.isEmpty();
+					if (!reschedule) {
+						this.scheduled = false;
+						this.removed = true;
+						taskQueues.remove(this.key, this);
+					}
+				}
+				if (reschedule) {
+					// Back to the end of the executor's queue, for fairness across keys
+					schedule();
+				}
+			}
+		}
+
+		private void schedule() {
+			try {
+				executor.execute(this);
+			}
+			catch (RuntimeException ex) {
+				// Rejected, e.g. on shutdown: drop the pending tasks like the executor would
+				synchronized (this) {
+					this.tasks.clear();
+					this.scheduled = false;
+					this.removed = true;
+					taskQueues.remove(this.key, this);
+				}
+				throw ex;
+			}
+		}
+	}
+
+}
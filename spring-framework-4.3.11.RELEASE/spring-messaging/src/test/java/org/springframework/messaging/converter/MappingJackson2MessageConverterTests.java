@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.junit.Test;
 
 import org.springframework.core.MethodParameter;
@@ -198,6 +199,50 @@ public class MappingJackson2MessageConverterTests {
 		assertNull(back.getWithoutView());
 	}
 
+	@Test
+	public void readerWriterCache() throws Exception {
+		MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+		String payload = "{\"string\":\"Foo\"}";
+		Message<?> message = MessageBuilder.withPayload(payload.getBytes(UTF_8)).build();
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals("Foo", ((MyBean) converter.fromMessage(message, MyBean.class)).getString());
+			assertNotNull(converter.toMessage(new MyBean(), new MessageHeaders(null)));
+		}
+		assertEquals(2, converter.getCacheSize());
+		assertEquals(2, converter.getCacheMissCount());
+		assertEquals(4, converter.getCacheHitCount());
+
+		converter.setPrettyPrint(true);
+		assertEquals(0, converter.getCacheSize());
+		String actual = new String((byte[]) converter.toMessage(new MyBean(), new MessageHeaders(null)).getPayload(), UTF_8);
+		assertThat(actual, containsString("\n"));
+	}
+
+	@Test
+	public void readerWriterCacheWithObjectMapperReconfigured() throws Exception {
+		MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+		String actual = new String((byte[]) converter.toMessage(new MyBean(), new MessageHeaders(null)).getPayload(), UTF_8);
+		assertThat(actual, not(containsString("\n")));
+
+		converter.getObjectMapper().configure(SerializationFeature.INDENT_OUTPUT, true);
+		actual = new String((byte[]) converter.toMessage(new MyBean(), new MessageHeaders(null)).getPayload(), UTF_8);
+		assertThat(actual, containsString("\n"));
+	}
+
+	@Test
+	public void readerWriterCacheDisabled() throws Exception {
+		MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+		converter.setCacheLimit(0);
+		String payload = "{\"string\":\"Foo\"}";
+		Message<?> message = MessageBuilder.withPayload(payload.getBytes(UTF_8)).build();
+
+		assertEquals("Foo", ((MyBean) converter.fromMessage(message, MyBean.class)).getString());
+		assertEquals("Foo", ((MyBean) converter.fromMessage(message, MyBean.class)).getString());
+		assertEquals(0, converter.getCacheSize());
+		assertEquals(0, converter.getCacheHitCount());
+	}
+
 
 
 	@JsonView(MyJacksonView1.class)
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,7 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.MultiValueMap;
 
 import static org.junit.Assert.assertEquals;
@@ -414,6 +415,95 @@ public class DefaultSubscriptionRegistryTests {
 		assertEquals(2, this.registry.findSubscriptions(createMessage("/bar")).size());
 	}
 
+	@Test
+	public void registerSubscriptionWithDestinationPatternMatchingParent() {
+		this.registry.registerSubscription(subscribeMessage("sess1", "subs1", "/topic/**"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "subs2", "/topic/{name}"));
+		this.registry.registerSubscription(subscribeMessage("sess2", "subs1", "/queue/**"));
+
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(createMessage("/topic"));
+		assertEquals(1, actual.size());
+		assertEquals(Collections.singletonList("subs1"), actual.get("sess1"));
+
+		actual = this.registry.findSubscriptions(createMessage("/topic/foo"));
+		assertEquals(1, actual.size());
+		assertEquals(Arrays.asList("subs1", "subs2"), actual.get("sess1"));
+
+		actual = this.registry.findSubscriptions(createMessage("/topics"));
+		assertEquals(0, actual.size());
+	}
+
+	@Test
+	public void registerSubscriptionsManySessionsWithSimpleAndPatternDestinations() {
+		for (int i = 0; i < 100; i++) {
+			this.registry.registerSubscription(subscribeMessage("sess" + i, "subs1", "/topic/price.stock." + i));
+			this.registry.registerSubscription(subscribeMessage("sess" + i, "subs2", "/topic/price.stock.*"));
+		}
+
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(createMessage("/topic/price.stock.7"));
+		assertEquals(100, actual.size());
+		assertEquals(Arrays.asList("subs1", "subs2"), actual.get("sess7"));
+		assertEquals(Collections.singletonList("subs2"), actual.get("sess8"));
+
+		this.registry.unregisterAllSubscriptions("sess7");
+		this.registry.unregisterSubscription(unsubscribeMessage("sess8", "subs2"));
+
+		actual = this.registry.findSubscriptions(createMessage("/topic/price.stock.7"));
+		assertEquals(98, actual.size());
+		actual = this.registry.findSubscriptions(createMessage("/topic/price.stock.8"));
+		assertEquals(99, actual.size());
+		assertEquals(Collections.singletonList("subs1"), actual.get("sess8"));
+	}
+
+	@Test
+	public void registerSubscriptionTwiceWithDifferentDestination() {
+		this.registry.registerSubscription(subscribeMessage("sess1", "subs1", "/foo"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "subs1", "/bar/*"));
+
+		assertEquals(0, this.registry.findSubscriptions(createMessage("/foo")).size());
+		assertEquals(1, this.registry.findSubscriptions(createMessage("/bar/baz")).size());
+	}
+
+	@Test
+	public void registerSubscriptionWithCaseInsensitivePathMatcher() {
+		AntPathMatcher pathMatcher = new AntPathMatcher();
+		pathMatcher.setCaseSensitive(false);
+		this.registry.setPathMatcher(pathMatcher);
+		this.registry.registerSubscription(subscribeMessage("sess1", "subs1", "/Topic/Foo"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "subs2", "/TOPIC/*"));
+
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(createMessage("/topic/foo"));
+		assertEquals(1, actual.size());
+		assertEquals(Arrays.asList("subs1", "subs2"), actual.get("sess1"));
+	}
+
+	@Test
+	public void registerSubscriptionWithEmptyPathSegments() {
+		this.registry.registerSubscription(subscribeMessage("sess1", "subs1", "/topic/a"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "subs2", "/topic//*"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "subs3", "/queue//b"));
+
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(createMessage("/topic//a"));
+		assertEquals(Arrays.asList("subs1", "subs2"), actual.get("sess1"));
+		actual = this.registry.findSubscriptions(createMessage("/topic/a"));
+		assertEquals(Arrays.asList("subs1", "subs2"), actual.get("sess1"));
+		actual = this.registry.findSubscriptions(createMessage("/queue/b"));
+		assertEquals(Collections.singletonList("subs3"), actual.get("sess1"));
+
+		this.registry.unregisterSubscription(unsubscribeMessage("sess1", "subs3"));
+		assertEquals(0, this.registry.findSubscriptions(createMessage("/queue//b")).size());
+	}
+
+	@Test
+	public void registerSubscriptionWithEmptyPathSegmentsAndDotSeparator() {
+		this.registry.setPathMatcher(new AntPathMatcher("."));
+		this.registry.registerSubscription(subscribeMessage("sess1", "subs1", "topic.a"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "subs2", "topic..*"));
+
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(createMessage("topic..a"));
+		assertEquals(Arrays.asList("subs1", "subs2"), actual.get("sess1"));
+	}
+
 	private Message<?> createMessage(String destination) {
 		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
 		accessor.setDestination(destination);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -44,6 +44,7 @@ import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.handler.invocation.HandlerMethodArgumentResolver;
 import org.springframework.messaging.handler.invocation.HandlerMethodReturnValueHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.messaging.simp.annotation.support.SimpAnnotationMethodMessageHandler;
@@ -62,6 +63,7 @@ import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.ChannelInterceptorAdapter;
 import org.springframework.messaging.support.ExecutorSubscribableChannel;
 import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.OrderedMessageExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Controller;
 import org.springframework.util.AntPathMatcher;
@@ -195,6 +197,23 @@ public class MessageBrokerConfigurationTests {
 		assertEquals(23, taskExecutor.getKeepAliveSeconds());
 	}
 
+	@Test
+	public void clientChannelsWithPreservedSessionOrder() {
+		ApplicationContext context = new AnnotationConfigApplicationContext(SessionOrderConfig.class);
+
+		ExecutorSubscribableChannel channel = context.getBean("clientInboundChannel", ExecutorSubscribableChannel.class);
+		OrderedMessageExecutor executor = (OrderedMessageExecutor) channel.getExecutor();
+		assertSame(context.getBean("clientInboundChannelExecutor"), executor.getExecutor());
+		assertEquals(SimpMessageHeaderAccessor.SESSION_ID_HEADER, executor.getHeaderName());
+		assertEquals(-1, executor.getQueueLimit());
+
+		channel = context.getBean("clientOutboundChannel", ExecutorSubscribableChannel.class);
+		executor = (OrderedMessageExecutor) channel.getExecutor();
+		assertSame(context.getBean("clientOutboundChannelExecutor"), executor.getExecutor());
+		assertEquals(SimpMessageHeaderAccessor.SESSION_ID_HEADER, executor.getHeaderName());
+		assertEquals(25, executor.getQueueLimit());
+	}
+
 	@Test
 	public void brokerChannel() {
 		TestChannel channel = this.simpleBrokerContext.getBean("brokerChannel", TestChannel.class);
@@ -542,6 +561,21 @@ public class MessageBrokerConfigurationTests {
 	}
 
 
+	@Configuration
+	static class SessionOrderConfig extends BaseTestMessageBrokerConfig {
+
+		@Override
+		protected void configureClientInboundChannel(ChannelRegistration registration) {
+			registration.setPreserveSessionOrder(true);
+		}
+
+		@Override
+		protected void configureClientOutboundChannel(ChannelRegistration registration) {
+			registration.setPreserveSessionOrder(true).setSessionQueueLimit(25);
+		}
+	}
+
+
 	private static class TestChannel extends ExecutorSubscribableChannel {
 
 		private final List<Message<?>> messages = new ArrayList<>();
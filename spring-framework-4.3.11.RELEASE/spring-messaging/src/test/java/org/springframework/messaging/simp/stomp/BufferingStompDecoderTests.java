@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -70,6 +70,43 @@ public class BufferingStompDecoderTests {
 		assertNull(stompDecoder.getExpectedContentLength());
 	}
 
+	@Test
+	public void oneMessageInManyChunks() throws InterruptedException {
+		BufferingStompDecoder stompDecoder = new BufferingStompDecoder(STOMP_DECODER, 1024);
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < 50; i++) {
+			body.append("Message body ").append(i).append(' ');
+		}
+		String frame = "SEND\ndestination:/topic/foo\nsubscription:sub\\c1\n\n" + body + "\0";
+
+		List<Message<byte[]>> messages = Collections.emptyList();
+		for (int i = 0; i < frame.length(); i += 7) {
+			assertEquals(0, messages.size());
+			messages = stompDecoder.decode(toByteBuffer(frame.substring(i, Math.min(i + 7, frame.length()))));
+		}
+
+		assertEquals(1, messages.size());
+		StompHeaderAccessor headers = StompHeaderAccessor.wrap(messages.get(0));
+		assertEquals("/topic/foo", headers.getDestination());
+		assertEquals("sub:1", headers.getFirstNativeHeader("subscription"));
+		assertEquals(body.toString(), new String(messages.get(0).getPayload()));
+		assertEquals(0, stompDecoder.getBufferSize());
+	}
+
+	@Test
+	public void oneMessageInDirectBuffer() throws InterruptedException {
+		BufferingStompDecoder stompDecoder = new BufferingStompDecoder(STOMP_DECODER, 128);
+		byte[] chunk = "SEND\ndestination:/topic/foo\ncontent-length:12\n\nMessage body\0".getBytes(Charset.forName("UTF-8"));
+		ByteBuffer buffer = ByteBuffer.allocateDirect(chunk.length);
+		buffer.put(chunk);
+		buffer.flip();
+
+		List<Message<byte[]>> messages = stompDecoder.decode(buffer);
+		assertEquals(1, messages.size());
+		assertEquals("/topic/foo", StompHeaderAccessor.wrap(messages.get(0)).getDestination());
+		assertEquals("Message body", new String(messages.get(0).getPayload()));
+	}
+
 	@Test
 	public void twoMessagesInOneChunk() throws InterruptedException {
 		BufferingStompDecoder stompDecoder = new BufferingStompDecoder(STOMP_DECODER, 128);
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.messaging.simp.stomp;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.springframework.messaging.simp.SharedMessageEncoding;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.util.MimeTypeUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link StompEncoder}.
+ */
+public class StompEncoderTests {
+
+	private final StompEncoder encoder = new StompEncoder();
+
+
+	@Test
+	public void encodeFrameWithHeadersAndBody() {
+		byte[] payload = "Message body".getBytes(StandardCharsets.UTF_8);
+		for (String destination : new String[] {"/topic/foo", "/topic/foo", "/topic/b:ar"}) {
+			StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SEND);
+			accessor.setDestination(destination);
+			accessor.setContentType(MimeTypeUtils.TEXT_PLAIN);
+
+			String frame = new String(this.encoder.encode(accessor.getMessageHeaders(), payload), StandardCharsets.UTF_8);
+			assertEquals("SEND\ndestination:" + destination.replace(":", "\\c") +
+					"\ncontent-type:text/plain\ncontent-length:12\n\nMessage body\0", frame);
+		}
+	}
+
+	@Test
+	public void encodeHeartbeat() {
+		byte[] bytes = this.encoder.encode(StompHeaderAccessor.createForHeartbeat().getMessageHeaders(), new byte[0]);
+		assertArrayEquals(new byte[] {'\n'}, bytes);
+	}
+
+	@Test
+	public void encodeSharedMessage() {
+		SharedMessageEncoding sharedEncoding = new SharedMessageEncoding();
+		byte[] payload = "Message body".getBytes(StandardCharsets.UTF_8);
+
+		Map<String, Object> headers1 = createMessageHeaders("sess1", "sub1", sharedEncoding);
+		Map<String, Object> headers2 = createMessageHeaders("sess2", "sub:2", sharedEncoding);
+
+		byte[] bytes1 = this.encoder.encode(headers1, payload);
+		assertNotNull(sharedEncoding.getEncoding(this.encoder));
+		byte[] bytes2 = this.encoder.encode(headers2, payload);
+
+		assertEquals(new String(this.encoder.encode(withoutSharedEncoding(headers1), payload), StandardCharsets.UTF_8),
+				new String(bytes1, StandardCharsets.UTF_8));
+		assertEquals(new String(this.encoder.encode(withoutSharedEncoding(headers2), payload), StandardCharsets.UTF_8),
+				new String(bytes2, StandardCharsets.UTF_8));
+		assertTrue(new String(bytes2, StandardCharsets.UTF_8).contains("subscription:sub\\c2\n"));
+	}
+
+	@Test
+	public void encodeSharedMessageWithDifferentHeaders() {
+		SharedMessageEncoding sharedEncoding = new SharedMessageEncoding();
+		byte[] payload = "Message body".getBytes(StandardCharsets.UTF_8);
+
+		this.encoder.encode(createMessageHeaders("sess1", "sub1", sharedEncoding), payload);
+
+		StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+		accessor.setSessionId("sess2");
+		accessor.setSubscriptionId("sub2");
+		accessor.setDestination("/topic/foo");
+		accessor.setNativeHeader("priority", "high");
+		accessor.setHeader(SimpMessageHeaderAccessor.SHARED_ENCODING_HEADER, sharedEncoding);
+		accessor.updateStompCommandAsServerMessage();
+		String frame = new String(this.encoder.encode(accessor.getMessageHeaders(), payload), StandardCharsets.UTF_8);
+
+		assertTrue(frame.startsWith("MESSAGE\n"));
+		assertTrue(frame.contains("priority:high\n"));
+		assertTrue(frame.contains("subscription:sub2\n"));
+		assertTrue(frame.endsWith("content-length:12\n\nMessage body\0"));
+	}
+
+
+	private Map<String, Object> createMessageHeaders(String sessionId, String subscriptionId,
+			SharedMessageEncoding sharedEncoding) {
+
+		StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+		accessor.setSessionId(sessionId);
+		accessor.setSubscriptionId(subscriptionId);
+		accessor.setDestination("/topic/foo");
+		accessor.setContentType(MimeTypeUtils.TEXT_PLAIN);
+		accessor.setHeader(SimpMessageHeaderAccessor.SHARED_ENCODING_HEADER, sharedEncoding);
+		accessor.updateStompCommandAsServerMessage();
+		return accessor.getMessageHeaders();
+	}
+
+	private Map<String, Object> withoutSharedEncoding(Map<String, Object> headers) {
+		StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+		accessor.copyHeaders(headers);
+		accessor.removeHeader(SimpMessageHeaderAccessor.SHARED_ENCODING_HEADER);
+		return accessor.getMessageHeaders();
+	}
+
+}
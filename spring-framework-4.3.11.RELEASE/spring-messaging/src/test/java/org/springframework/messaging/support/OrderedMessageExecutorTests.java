@@ -0,0 +1,219 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.messaging.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link OrderedMessageExecutor}.
+ */
+public class OrderedMessageExecutorTests {
+
+	private static final String HEADER_NAME = "simpSessionId";
+
+	private final ExecutorService threadPool = Executors.newFixedThreadPool(4);
+
+
+	@After
+	public void tearDown() {
+		this.threadPool.shutdownNow();
+	}
+
+
+	@Test
+	public void orderPerHeaderValue() throws Exception {
+		OrderedMessageExecutor executor = new OrderedMessageExecutor(this.threadPool, HEADER_NAME);
+		int sessionCount = 5;
+		int messageCount = 200;
+		List<List<Integer>> results = new ArrayList<>();
+		for (int i = 0; i < sessionCount; i++) {
+			results.add(Collections.synchronizedList(new ArrayList<>()));
+		}
+		CountDownLatch latch = new CountDownLatch(sessionCount * messageCount);
+		for (int i = 0; i < messageCount; i++) {
+			for (int j = 0; j < sessionCount; j++) {
+				List<Integer> result = results.get(j);
+				int index = i;
+				executor.execute(new TestRunnable(createMessage("sess" + j), () -> {
+					result.add(index);
+					latch.countDown();
+				}));
+			}
+		}
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		for (List<Integer> result : results) {
+			assertEquals(messageCount, result.size());
+			for (int i = 0; i < messageCount; i++) {
+				assertEquals(Integer.valueOf(i), result.get(i));
+			}
+		}
+		waitForActiveQueues(executor);
+		assertEquals(0, executor.getActiveQueueCount());
+	}
+
+	@Test
+	public void noConcurrentExecutionPerHeaderValue() throws Exception {
+		OrderedMessageExecutor executor = new OrderedMessageExecutor(this.threadPool, HEADER_NAME);
+		Object monitor = new Object();
+		int[] running = new int[1];
+		boolean[] overlap = new boolean[1];
+		CountDownLatch latch = new CountDownLatch(50);
+		for (int i = 0; i < 50; i++) {
+			executor.execute(new TestRunnable(createMessage("sess1"), () -> {
+				synchronized (monitor) {
+					overlap[0] |= (running[0]++ > 0);
+				}
+				Thread.yield();
+				synchronized (monitor) {
+					running[0]--;
+				}
+				latch.countDown();
+			}));
+		}
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		assertFalse(overlap[0]);
+	}
+
+	@Test
+	public void withoutHeaderValue() {
+		List<Runnable> executed = new ArrayList<>();
+		OrderedMessageExecutor executor = new OrderedMessageExecutor(executed::add, HEADER_NAME);
+
+		Runnable plainTask = () -> {};
+		TestRunnable messageTask = new TestRunnable(MessageBuilder.withPayload("payload").build(), () -> {});
+		executor.execute(plainTask);
+		executor.execute(messageTask);
+
+		assertEquals(2, executed.size());
+		assertSame(plainTask, executed.get(0));
+		assertSame(messageTask, executed.get(1));
+		assertEquals(0, executor.getActiveQueueCount());
+	}
+
+	@Test
+	public void withSyncTaskExecutor() {
+		OrderedMessageExecutor executor = new OrderedMessageExecutor(new SyncTaskExecutor(), HEADER_NAME);
+		List<String> result = new ArrayList<>();
+		executor.execute(new TestRunnable(createMessage("sess1"), () -> result.add("a")));
+		executor.execute(new TestRunnable(createMessage("sess1"), () -> result.add("b")));
+
+		assertEquals(2, result.size());
+		assertEquals("a", result.get(0));
+		assertEquals("b", result.get(1));
+		assertEquals(0, executor.getActiveQueueCount());
+	}
+
+	@Test
+	public void rejectedExecution() {
+		this.threadPool.shutdown();
+		OrderedMessageExecutor executor = new OrderedMessageExecutor(this.threadPool, HEADER_NAME);
+		try {
+			executor.execute(new TestRunnable(createMessage("sess1"), () -> {}));
+			fail("Expected exception");
+		}
+		catch (RuntimeException ex) {
+			// expected
+		}
+		assertEquals(0, executor.getActiveQueueCount());
+	}
+
+
+	@Test
+	public void queueLimit() {
+		List<Runnable> scheduled = new ArrayList<>();
+		OrderedMessageExecutor executor = new OrderedMessageExecutor(scheduled::add, HEADER_NAME);
+		executor.setQueueLimit(2);
+		List<String> result = new ArrayList<>();
+		executor.execute(new TestRunnable(createMessage("sess1"), () -> result.add("a")));
+		executor.execute(new TestRunnable(createMessage("sess1"), () -> result.add("b")));
+		try {
+			executor.execute(new TestRunnable(createMessage("sess1"), () -> result.add("c")));
+			fail("Expected RejectedExecutionException");
+		}
+		catch (RejectedExecutionException ex) {
+			// expected
+		}
+		executor.execute(new TestRunnable(createMessage("sess2"), () -> result.add("x")));
+		assertEquals(2, scheduled.size());
+
+		scheduled.remove(0).run();
+		executor.execute(new TestRunnable(createMessage("sess1"), () -> result.add("c")));
+		while (!scheduled.isEmpty()) {
+			scheduled.remove(0).run();
+		}
+		assertEquals(Arrays.asList("a", "x", "b", "c"), result);
+		assertEquals(0, executor.getActiveQueueCount());
+	}
+
+
+	private static Message<String> createMessage(String sessionId) {
+		return MessageBuilder.withPayload("payload").setHeader(HEADER_NAME, sessionId).build();
+	}
+
+	private static void waitForActiveQueues(OrderedMessageExecutor executor) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (executor.getActiveQueueCount() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+
+	private static class TestRunnable implements MessageHandlingRunnable {
+
+		private final Message<?> message;
+
+		private final Runnable action;
+
+		public TestRunnable(Message<?> message, Runnable action) {
+			this.message = message;
+			this.action = action;
+		}
+
+		@Override
+		public Message<?> getMessage() {
+			return this.message;
+		}
+
+		@Override
+		public MessageHandler getMessageHandler() {
+			return null;
+		}
+
+		@Override
+		public void run() {
+			this.action.run();
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -42,6 +42,7 @@ import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternUtils;
 import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.core.type.filter.TypeFilter;
 import org.springframework.util.Assert;
 
@@ -90,6 +91,8 @@ public class LocalSessionFactoryBean extends HibernateExceptionTranslator
 
 	private TypeFilter[] entityTypeFilters;
 
+	private MetadataReaderFactory metadataReaderFactory;
+
 	private Properties hibernateProperties;
 
 	private Class<?>[] annotatedClasses;
@@ -269,6 +272,18 @@ public class LocalSessionFactoryBean extends HibernateExceptionTranslator
 		this.entityTypeFilters = entityTypeFilters;
 	}
 
+	/**
+	 * Specify a {@link MetadataReaderFactory} to use for Spring-based scanning
+	 * for entity classes, e.g. a factory shared with the application context's
+	 * component scanning.
+	 * @since 4.3.12
+	 * @see #setPackagesToScan
+	 * @see LocalSessionFactoryBuilder#setMetadataReaderFactory
+	 */
+	public void setMetadataReaderFactory(MetadataReaderFactory metadataReaderFactory) {
+		this.metadataReaderFactory = metadataReaderFactory;
+	}
+
 	/**
 	 * Set Hibernate properties, such as "hibernate.dialect".
 	 * <p>Note: Do not specify a transaction provider here when using
@@ -474,6 +489,10 @@ public class LocalSessionFactoryBean extends HibernateExceptionTranslator
 			sfb.setEntityTypeFilters(this.entityTypeFilters);
 		}
 
+		if (this.metadataReaderFactory != null) {
+			sfb.setMetadataReaderFactory(this.metadataReaderFactory);
+		}
+
 		if (this.hibernateProperties != null) {
 			sfb.addProperties(this.hibernateProperties);
 		}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -95,6 +95,8 @@ public class LocalSessionFactoryBuilder extends Configuration {
 
 	private TypeFilter[] entityTypeFilters = DEFAULT_ENTITY_TYPE_FILTERS;
 
+	private MetadataReaderFactory metadataReaderFactory;
+
 
 	/**
 	 * Create a new LocalSessionFactoryBuilder for the given DataSource.
@@ -257,6 +259,19 @@ public class LocalSessionFactoryBuilder extends Configuration {
 		return this;
 	}
 
+	/**
+	 * Specify a {@link MetadataReaderFactory} to use for Spring-based scanning
+	 * for entity classes, e.g. a factory shared with the application context's
+	 * component scanning.
+	 * <p>Default is a local {@link CachingMetadataReaderFactory} for each scan.
+	 * @since 4.3.12
+	 * @see #scanPackages
+	 */
+	public LocalSessionFactoryBuilder setMetadataReaderFactory(MetadataReaderFactory metadataReaderFactory) {
+		this.metadataReaderFactory = metadataReaderFactory;
+		return this;
+	}
+
 	/**
 	 * Add the given annotated classes in a batch.
 	 * @see #addAnnotatedClass
@@ -292,12 +307,15 @@ public class LocalSessionFactoryBuilder extends Configuration {
 		Set<String> entityClassNames = new TreeSet<String>();
 		Set<String> converterClassNames = new TreeSet<String>();
 		Set<String> packageNames = new TreeSet<String>();
+		MetadataReaderFactory readerFactory = this.metadataReaderFactory;
+		if (readerFactory == null) {
+			readerFactory = new CachingMetadataReaderFactory(this.resourcePatternResolver);
+		}
 		try {
 			for (String pkg : packagesToScan) {
 				String pattern = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
 						ClassUtils.convertClassNameToResourcePath(pkg) + RESOURCE_PATTERN;
 				Resource[] resources = this.resourcePatternResolver.getResources(pattern);
-				MetadataReaderFactory readerFactory = new CachingMetadataReaderFactory(this.resourcePatternResolver);
 				for (Resource resource : resources) {
 					if (resource.isReadable()) {
 						MetadataReader reader = readerFactory.getMetadataReader(resource);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -156,6 +156,8 @@ public class DefaultPersistenceUnitManager
 
 	private ResourcePatternResolver resourcePatternResolver = new PathMatchingResourcePatternResolver();
 
+	private MetadataReaderFactory metadataReaderFactory;
+
 	private final Set<String> persistenceUnitInfoNames = new HashSet<String>();
 
 	private final Map<String, PersistenceUnitInfo> persistenceUnitInfos = new HashMap<String, PersistenceUnitInfo>();
@@ -233,6 +235,19 @@ public class DefaultPersistenceUnitManager
 		this.packagesToScan = packagesToScan;
 	}
 
+	/**
+	 * Specify a {@link MetadataReaderFactory} to use for entity scanning,
+	 * e.g. a {@link CachingMetadataReaderFactory} shared with the application
+	 * context's configuration class processing and component scanning.
+	 * <p>Default is a local {@link CachingMetadataReaderFactory} for each scan.
+	 * @since 4.3.12
+	 * @see #setPackagesToScan
+	 * @see org.springframework.context.annotation.AnnotationConfigUtils#METADATA_READER_FACTORY_BEAN_NAME
+	 */
+	public void setMetadataReaderFactory(MetadataReaderFactory metadataReaderFactory) {
+		this.metadataReaderFactory = metadataReaderFactory;
+	}
+
 	/**
 	 * Specify one or more mapping resources (equivalent to {@code <mapping-file>}
 	 * entries in {@code persistence.xml}) for the default persistence unit.
@@ -518,12 +533,15 @@ public class DefaultPersistenceUnitManager
 		scannedUnit.setExcludeUnlistedClasses(true);
 
 		if (this.packagesToScan != null) {
+			MetadataReaderFactory readerFactory = this.metadataReaderFactory;
+			if (readerFactory == null) {
+				readerFactory = new CachingMetadataReaderFactory(this.resourcePatternResolver);
+			}
 			for (String pkg : this.packagesToScan) {
 				try {
 					String pattern = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
 							ClassUtils.convertClassNameToResourcePath(pkg) + CLASS_RESOURCE_PATTERN;
 					Resource[] resources = this.resourcePatternResolver.getResources(pattern);
-					MetadataReaderFactory readerFactory = new CachingMetadataReaderFactory(this.resourcePatternResolver);
 					for (Resource resource : resources) {
 						if (resource.isReadable()) {
 							MetadataReader reader = readerFactory.getMetadataReader(resource);
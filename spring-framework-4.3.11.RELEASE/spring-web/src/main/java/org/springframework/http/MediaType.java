@@ -28,6 +28,7 @@ import java.util.Map;
 
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.InvalidMimeTypeException;
 import org.springframework.util.MimeType;
 import org.springframework.util.MimeTypeUtils;
@@ -253,6 +254,10 @@ public class MediaType extends MimeType implements Serializable {
 
 	private static final String PARAM_QUALITY_FACTOR = "q";
 
+	/** Cache of parsed MediaType instances, keyed by their String representation */
+	private static final ConcurrentLruCache<String, MediaType> cachedMediaTypes =
+			new ConcurrentLruCache<String, MediaType>(64);
+
 
 	static {
 		ALL = valueOf(ALL_VALUE);
@@ -439,11 +444,28 @@ public class MediaType extends MimeType implements Serializable {
 
 	/**
 	 * Parse the given String into a single {@code MediaType}.
+	 * <p>As of 4.3.12, recently parsed media types are cached, returning the
+	 * same (immutable) {@code MediaType} instance for repeated parsing of the
+	 * same String.
 	 * @param mediaType the string to parse
 	 * @return the media type
 	 * @throws InvalidMediaTypeException if the media type value cannot be parsed
 	 */
 	public static MediaType parseMediaType(String mediaType) {
+		// Do not cache multipart media types with random boundaries
+		if (mediaType == null || mediaType.startsWith("multipart")) {
+			return parseMediaTypeInternal(mediaType);
+		}
+		MediaType cached = cachedMediaTypes.get(mediaType);
+		if (cached != null) {
+			return cached;
+		}
+		MediaType parsed = parseMediaTypeInternal(mediaType);
+		cachedMediaTypes.putIfAbsent(mediaType, parsed);
+		return parsed;
+	}
+
+	private static MediaType parseMediaTypeInternal(String mediaType) {
 		MimeType type;
 		try {
 			type = MimeTypeUtils.parseMimeType(mediaType);
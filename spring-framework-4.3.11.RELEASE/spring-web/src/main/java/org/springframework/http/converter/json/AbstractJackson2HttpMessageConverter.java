@@ -21,7 +21,11 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.BaseStream;
 
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonGenerator;
@@ -29,13 +33,18 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.PrettyPrinter;
 import com.fasterxml.jackson.core.util.DefaultIndenter;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.SerializerFactory;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 
 import org.springframework.core.ResolvableType;
@@ -46,7 +55,11 @@ import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.UsesJava8;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.TypeUtils;
 
 /**
@@ -55,6 +68,24 @@ import org.springframework.util.TypeUtils;
  *
  * <p>Compatible with Jackson 2.6 and higher, as of Spring 4.3.
  *
+ * <p>As of 4.3.12, {@link Iterator} and {@code java.util.stream.Stream} values
+ * are written element by element as a JSON array, without materializing all
+ * elements upfront, flushing the output every
+ * {@link #setStreamingFlushInterval streamingFlushInterval} elements.
+ * For the "application/stream+json" and "application/x-ndjson" content types,
+ * the elements of such values are written as newline-delimited JSON instead,
+ * i.e. one JSON document per line. Other values, including collections and
+ * arrays, are written as a single JSON document for any content type.
+ *
+ * <p>As of 4.3.12, resolved {@link JavaType JavaTypes} as well as the
+ * {@link ObjectReader} and {@link ObjectWriter} instances prepared for a given
+ * target type, serialization view and type of output are cached, up to the
+ * {@link #setCacheLimit cache limit}. They reflect the configuration of the
+ * {@code ObjectMapper} at the time of their creation; the cache is reset when
+ * {@link #setObjectMapper} or {@link #setPrettyPrint} is called, or when the
+ * mapper has been reconfigured, e.g. through {@code configure} or
+ * {@code registerModule}.
+ *
  * @author Arjen Poutsma
  * @author Keith Donald
  * @author Rossen Stoyanchev
@@ -66,8 +97,38 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 
 	public static final Charset DEFAULT_CHARSET = Charset.forName("UTF-8");
 
+	/**
+	 * The default number of elements after which to flush the output
+	 * when writing {@code Iterator} and {@code Stream} values.
+	 * @since 4.3.12
+	 */
+	public static final int DEFAULT_STREAMING_FLUSH_INTERVAL = 1000;
+
+	/**
+	 * The default maximum number of cached JavaType, ObjectReader and
+	 * ObjectWriter instances.
+	 * @since 4.3.12
+	 */
+	public static final int DEFAULT_CACHE_LIMIT = 256;
+
 	private static final MediaType TEXT_EVENT_STREAM = new MediaType("text", "event-stream");
 
+	private static final MediaType APPLICATION_STREAM_JSON = new MediaType("application", "stream+json");
+
+	private static final MediaType APPLICATION_NDJSON = new MediaType("application", "x-ndjson");
+
+	private static Class<?> javaUtilStreamClass = null;
+
+	static {
+		try {
+			javaUtilStreamClass = ClassUtils.forName("java.util.stream.BaseStream",
+					AbstractJackson2HttpMessageConverter.class.getClassLoader());
+		}
+		catch (ClassNotFoundException ex) {
+			// Java 8 not available - Stream values simply not written element by element then.
+		}
+	}
+
 
 	protected ObjectMapper objectMapper;
 
@@ -75,6 +136,12 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 
 	private PrettyPrinter ssePrettyPrinter;
 
+	private int streamingFlushInterval = DEFAULT_STREAMING_FLUSH_INTERVAL;
+
+	private int cacheLimit = DEFAULT_CACHE_LIMIT;
+
+	private volatile ReaderWriterCache readerWriterCache;
+
 
 	protected AbstractJackson2HttpMessageConverter(ObjectMapper objectMapper) {
 		init(objectMapper);
@@ -113,6 +180,7 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 	public void setObjectMapper(ObjectMapper objectMapper) {
 		Assert.notNull(objectMapper, "ObjectMapper must not be null");
 		this.objectMapper = objectMapper;
+		this.readerWriterCache = null;
 		configurePrettyPrint();
 	}
 
@@ -140,9 +208,83 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 	private void configurePrettyPrint() {
 		if (this.prettyPrint != null) {
 			this.objectMapper.configure(SerializationFeature.INDENT_OUTPUT, this.prettyPrint);
+			this.readerWriterCache = null;
 		}
 	}
 
+	/**
+	 * Set the number of elements after which to flush the output when writing
+	 * {@link Iterator} and {@code java.util.stream.Stream} values, sending the
+	 * elements written so far to the client.
+	 * <p>Default is {@link #DEFAULT_STREAMING_FLUSH_INTERVAL}. Set this to 0
+	 * in order to only flush once all elements have been written, leaving
+	 * intermediate flushes to the underlying output buffers.
+	 * @since 4.3.12
+	 */
+	public void setStreamingFlushInterval(int streamingFlushInterval) {
+		Assert.isTrue(streamingFlushInterval >= 0, "'streamingFlushInterval' must not be negative");
+		this.streamingFlushInterval = streamingFlushInterval;
+	}
+
+	/**
+	 * Return the number of elements after which to flush the output when
+	 * writing {@link Iterator} and {@code java.util.stream.Stream} values.
+	 * @since 4.3.12
+	 */
+	public int getStreamingFlushInterval() {
+		return this.streamingFlushInterval;
+	}
+
+	/**
+	 * Specify the maximum number of cached {@code JavaType}, {@code ObjectReader}
+	 * and {@code ObjectWriter} instances, evicting the least recently used ones
+	 * beyond that limit.
+	 * <p>Default is {@link #DEFAULT_CACHE_LIMIT}. Set this to 0 in order to
+	 * resolve types and prepare readers and writers for every message.
+	 * @since 4.3.12
+	 */
+	public void setCacheLimit(int cacheLimit) {
+		Assert.isTrue(cacheLimit >= 0, "'cacheLimit' must not be negative");
+		this.cacheLimit = cacheLimit;
+		this.readerWriterCache = null;
+	}
+
+	/**
+	 * Return the maximum number of cached {@code JavaType}, {@code ObjectReader}
+	 * and {@code ObjectWriter} instances.
+	 * @since 4.3.12
+	 */
+	public int getCacheLimit() {
+		return this.cacheLimit;
+	}
+
+	/**
+	 * Return the current number of cached {@code JavaType}, {@code ObjectReader}
+	 * and {@code ObjectWriter} instances.
+	 * @since 4.3.12
+	 */
+	public int getCacheSize() {
+		return getReaderWriterCache().size();
+	}
+
+	/**
+	 * Return the number of lookups served from the {@code JavaType},
+	 * {@code ObjectReader} and {@code ObjectWriter} cache.
+	 * @since 4.3.12
+	 */
+	public long getCacheHitCount() {
+		return getReaderWriterCache().getHitCount();
+	}
+
+	/**
+	 * Return the number of lookups which required resolving a {@code JavaType}
+	 * or preparing an {@code ObjectReader} or {@code ObjectWriter}.
+	 * @since 4.3.12
+	 */
+	public long getCacheMissCount() {
+		return getReaderWriterCache().getMissCount();
+	}
+
 
 	@Override
 	public boolean canRead(Class<?> clazz, MediaType mediaType) {
@@ -154,7 +296,7 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 		if (!canRead(mediaType)) {
 			return false;
 		}
-		JavaType javaType = getJavaType(type, contextClass);
+		JavaType javaType = getCachedJavaType(type, contextClass);
 		AtomicReference<Throwable> causeRef = new AtomicReference<Throwable>();
 		if (this.objectMapper.canDeserialize(javaType, causeRef)) {
 			return true;
@@ -168,6 +310,9 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 		if (!canWrite(mediaType)) {
 			return false;
 		}
+		if (isStreamingType(clazz)) {
+			return true;
+		}
 		AtomicReference<Throwable> causeRef = new AtomicReference<Throwable>();
 		if (this.objectMapper.canSerialize(clazz, causeRef)) {
 			return true;
@@ -211,28 +356,23 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 	protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage)
 			throws IOException, HttpMessageNotReadableException {
 
-		JavaType javaType = getJavaType(clazz, null);
-		return readJavaType(javaType, inputMessage);
+		return readJavaType(clazz, null, inputMessage);
 	}
 
 	@Override
 	public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
 			throws IOException, HttpMessageNotReadableException {
 
-		JavaType javaType = getJavaType(type, contextClass);
-		return readJavaType(javaType, inputMessage);
+		return readJavaType(type, contextClass, inputMessage);
 	}
 
-	private Object readJavaType(JavaType javaType, HttpInputMessage inputMessage) {
+	private Object readJavaType(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
 		try {
+			Class<?> deserializationView = null;
 			if (inputMessage instanceof MappingJacksonInputMessage) {
-				Class<?> deserializationView = ((MappingJacksonInputMessage) inputMessage).getDeserializationView();
-				if (deserializationView != null) {
-					return this.objectMapper.readerWithView(deserializationView).forType(javaType).
-							readValue(inputMessage.getBody());
-				}
+				deserializationView = ((MappingJacksonInputMessage) inputMessage).getDeserializationView();
 			}
-			return this.objectMapper.readValue(inputMessage.getBody(), javaType);
+			return getObjectReader(type, contextClass, deserializationView).readValue(inputMessage.getBody());
 		}
 		catch (JsonProcessingException ex) {
 			throw new HttpMessageNotReadableException("JSON parse error: " + ex.getOriginalMessage(), ex);
@@ -255,45 +395,216 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 			Class<?> serializationView = null;
 			FilterProvider filters = null;
 			Object value = object;
-			JavaType javaType = null;
 			if (object instanceof MappingJacksonValue) {
 				MappingJacksonValue container = (MappingJacksonValue) object;
 				value = container.getValue();
 				serializationView = container.getSerializationView();
 				filters = container.getFilters();
 			}
-			if (type != null && value != null && TypeUtils.isAssignable(type, value.getClass())) {
-				javaType = getJavaType(type, null);
-			}
+			Class<?> valueClass = (value != null ? value.getClass() : null);
+			WriteMode mode = getWriteMode(contentType, value);
 			ObjectWriter objectWriter;
-			if (serializationView != null) {
-				objectWriter = this.objectMapper.writerWithView(serializationView);
+			if (filters != null) {
+				// A FilterProvider is usually specific to the value at hand: not worth caching
+				objectWriter = createObjectWriter(type, valueClass, serializationView, filters, mode);
 			}
-			else if (filters != null) {
-				objectWriter = this.objectMapper.writer(filters);
+			else {
+				objectWriter = getObjectWriter(type, valueClass, serializationView, mode);
+			}
+			if (mode == WriteMode.ELEMENTS || mode == WriteMode.NEWLINE_DELIMITED) {
+				writeElements(generator, objectWriter, value, mode == WriteMode.NEWLINE_DELIMITED);
 			}
 			else {
-				objectWriter = this.objectMapper.writer();
+				objectWriter.writeValue(generator, value);
+			}
+
+			writeSuffix(generator, object);
+			generator.flush();
+
+		}
+		catch (JsonProcessingException ex) {
+			throw new HttpMessageNotWritableException("Could not write JSON: " + ex.getOriginalMessage(), ex);
+		}
+	}
+
+	private WriteMode getWriteMode(MediaType contentType, Object value) {
+		if (isStreamingValue(value)) {
+			return (isNewlineDelimited(contentType) ? WriteMode.NEWLINE_DELIMITED : WriteMode.ELEMENTS);
+		}
+		if (contentType != null && contentType.isCompatibleWith(TEXT_EVENT_STREAM)) {
+			return WriteMode.EVENT_STREAM;
+		}
+		return WriteMode.DEFAULT;
+	}
+
+	private JavaType getCachedJavaType(Type type, Class<?> contextClass) {
+		ConcurrentLruCache<CacheKey, Object> cache = getReaderWriterCache();
+		CacheKey key = new CacheKey(CacheKey.JAVA_TYPE, type, contextClass, null);
+		JavaType javaType = (JavaType) cache.get(key);
+		if (javaType == null) {
+			javaType = getJavaType(type, contextClass);
+			JavaType existing = (JavaType) cache.putIfAbsent(key, javaType);
+			if (existing != null) {
+				javaType = existing;
+			}
+		}
+		return javaType;
+	}
+
+	private ObjectReader getObjectReader(Type type, Class<?> contextClass, Class<?> deserializationView) {
+		ConcurrentLruCache<CacheKey, Object> cache = getReaderWriterCache();
+		CacheKey key = new CacheKey(CacheKey.READER, type, contextClass, deserializationView);
+		ObjectReader objectReader = (ObjectReader) cache.get(key);
+		if (objectReader == null) {
+			JavaType javaType = getCachedJavaType(type, contextClass);
+			objectReader = (deserializationView != null ?
+					this.objectMapper.readerWithView(deserializationView).forType(javaType) :
+					this.objectMapper.readerFor(javaType));
+			ObjectReader existing = (ObjectReader) cache.putIfAbsent(key, objectReader);
+			if (existing != null) {
+				objectReader = existing;
+			}
+		}
+		return objectReader;
+	}
+
+	private ObjectWriter getObjectWriter(Type type, Class<?> valueClass, Class<?> serializationView, WriteMode mode) {
+		ConcurrentLruCache<CacheKey, Object> cache = getReaderWriterCache();
+		CacheKey key = new CacheKey(mode, type, valueClass, serializationView);
+		ObjectWriter objectWriter = (ObjectWriter) cache.get(key);
+		if (objectWriter == null) {
+			objectWriter = createObjectWriter(type, valueClass, serializationView, null, mode);
+			ObjectWriter existing = (ObjectWriter) cache.putIfAbsent(key, objectWriter);
+			if (existing != null) {
+				objectWriter = existing;
+			}
+		}
+		return objectWriter;
+	}
+
+	private ObjectWriter createObjectWriter(Type type, Class<?> valueClass, Class<?> serializationView,
+			FilterProvider filters, WriteMode mode) {
+
+		JavaType javaType = null;
+		if (type != null && valueClass != null && TypeUtils.isAssignable(type, valueClass)) {
+			javaType = getCachedJavaType(type, null);
+		}
+		ObjectWriter objectWriter;
+		if (serializationView != null) {
+			objectWriter = this.objectMapper.writerWithView(serializationView);
+		}
+		else if (filters != null) {
+			objectWriter = this.objectMapper.writer(filters);
+		}
+		else {
+			objectWriter = this.objectMapper.writer();
+		}
+		if (mode == WriteMode.ELEMENTS || mode == WriteMode.NEWLINE_DELIMITED) {
+			JavaType elementType = (javaType != null && javaType.containedTypeCount() == 1 ?
+					javaType.containedType(0) : null);
+			if (elementType != null && elementType.isContainerType()) {
+				objectWriter = objectWriter.forType(elementType);
+			}
+			// Flushing is up to writeElements, not to be done for every element
+			objectWriter = objectWriter.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+			if (mode == WriteMode.NEWLINE_DELIMITED) {
+				objectWriter = objectWriter.without(SerializationFeature.INDENT_OUTPUT).withRootValueSeparator("");
 			}
+		}
+		else {
 			if (javaType != null && javaType.isContainerType()) {
 				objectWriter = objectWriter.forType(javaType);
 			}
 			SerializationConfig config = objectWriter.getConfig();
-			if (contentType != null && contentType.isCompatibleWith(TEXT_EVENT_STREAM) &&
-					config.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
+			if (mode == WriteMode.EVENT_STREAM && config.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
 				objectWriter = objectWriter.with(this.ssePrettyPrinter);
 			}
-			objectWriter.writeValue(generator, value);
+		}
+		return objectWriter;
+	}
 
-			writeSuffix(generator, object);
-			generator.flush();
+	private ConcurrentLruCache<CacheKey, Object> getReaderWriterCache() {
+		ReaderWriterCache readerWriterCache = this.readerWriterCache;
+		if (readerWriterCache == null || !readerWriterCache.isValidFor(this.objectMapper)) {
+			readerWriterCache = new ReaderWriterCache(this.objectMapper, this.cacheLimit);
+			this.readerWriterCache = readerWriterCache;
+		}
+		return readerWriterCache.cache;
+	}
 
+	/**
+	 * Write the elements of the given value one at a time: as a JSON array,
+	 * or as newline-delimited JSON documents.
+	 */
+	private void writeElements(JsonGenerator generator, ObjectWriter objectWriter, Object value,
+			boolean delimited) throws IOException {
+
+		if (!delimited) {
+			generator.writeStartArray();
 		}
-		catch (JsonProcessingException ex) {
-			throw new HttpMessageNotWritableException("Could not write JSON: " + ex.getOriginalMessage(), ex);
+		try {
+			Iterator<?> elements = getElements(value);
+			int count = 0;
+			while (elements.hasNext()) {
+				objectWriter.writeValue(generator, elements.next());
+				if (delimited) {
+					generator.writeRaw('\n');
+				}
+				if (this.streamingFlushInterval > 0 && ++count % this.streamingFlushInterval == 0) {
+					generator.flush();
+				}
+			}
+		}
+		finally {
+			if (javaUtilStreamClass != null && javaUtilStreamClass.isInstance(value)) {
+				StreamDelegate.close(value);
+			}
+		}
+		if (!delimited) {
+			generator.writeEndArray();
 		}
 	}
 
+	private Iterator<?> getElements(Object value) {
+		if (value instanceof Iterator) {
+			return (Iterator<?>) value;
+		}
+		if (value instanceof Iterable) {
+			return ((Iterable<?>) value).iterator();
+		}
+		if (value instanceof Object[]) {
+			return Arrays.asList((Object[]) value).iterator();
+		}
+		if (javaUtilStreamClass != null && javaUtilStreamClass.isInstance(value)) {
+			return StreamDelegate.iterator(value);
+		}
+		return Collections.singleton(value).iterator();
+	}
+
+	/**
+	 * Whether values of the given type are written element by element.
+	 * <p>The default implementation returns {@code true} for
+	 * {@link Iterator} and {@code java.util.stream.Stream} types.
+	 * @param clazz the type of value to write
+	 * @since 4.3.12
+	 */
+	protected boolean isStreamingType(Class<?> clazz) {
+		return (Iterator.class.isAssignableFrom(clazz) ||
+				(javaUtilStreamClass != null && javaUtilStreamClass.isAssignableFrom(clazz)));
+	}
+
+	private boolean isStreamingValue(Object value) {
+		return (value != null && isStreamingType(value.getClass()));
+	}
+
+	/**
+	 * Whether the given content type asks for newline-delimited JSON.
+	 */
+	private static boolean isNewlineDelimited(MediaType contentType) {
+		return (contentType != null && (APPLICATION_STREAM_JSON.includes(contentType) ||
+				APPLICATION_NDJSON.includes(contentType)));
+	}
+
 	/**
 	 * Write a prefix before the main content.
 	 * @param generator the generator to use for writing content.
@@ -425,4 +736,118 @@ public abstract class AbstractJackson2HttpMessageConverter extends AbstractGener
 		return super.getContentLength(object, contentType);
 	}
 
+
+	/**
+	 * The kinds of output for which an {@code ObjectWriter} is prepared.
+	 */
+	private enum WriteMode {
+
+		DEFAULT, EVENT_STREAM, ELEMENTS, NEWLINE_DELIMITED
+	}
+
+
+	/**
+	 * Key for the JavaType, ObjectReader and ObjectWriter cache.
+	 */
+	private static final class CacheKey {
+
+		static final Object JAVA_TYPE = new Object();
+
+		static final Object READER = new Object();
+
+		private final Object kind;
+
+		private final Type type;
+
+		private final Class<?> clazz;
+
+		private final Class<?> view;
+
+		public CacheKey(Object kind, Type type, Class<?> clazz, Class<?> view) {
+			this.kind = kind;
+			this.type = type;
+			this.clazz = clazz;
+			this.view = view;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey otherKey = (CacheKey) other;
+			return (this.kind == otherKey.kind && ObjectUtils.nullSafeEquals(this.type, otherKey.type) &&
+					this.clazz == otherKey.clazz && this.view == otherKey.view);
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.kind.hashCode() * 31 + ObjectUtils.nullSafeHashCode(this.type)) * 31 +
+					ObjectUtils.nullSafeHashCode(this.clazz);
+		}
+	}
+
+
+	/**
+	 * Cached JavaType, ObjectReader and ObjectWriter instances for a specific
+	 * ObjectMapper. Readers and writers copy the configuration of the mapper
+	 * when created, so the cache is only valid as long as the mapper still holds
+	 * the same configuration instances: {@code configure(...)} and
+	 * {@code registerModule(...)} replace them rather than modifying them.
+	 */
+	private static class ReaderWriterCache {
+
+		final ObjectMapper objectMapper;
+
+		final SerializationConfig serializationConfig;
+
+		final DeserializationConfig deserializationConfig;
+
+		final SerializerFactory serializerFactory;
+
+		final SerializerProvider serializerProvider;
+
+		final DeserializationContext deserializationContext;
+
+		final ConcurrentLruCache<CacheKey, Object> cache;
+
+		public ReaderWriterCache(ObjectMapper objectMapper, int cacheLimit) {
+			this.objectMapper = objectMapper;
+			this.serializationConfig = objectMapper.getSerializationConfig();
+			this.deserializationConfig = objectMapper.getDeserializationConfig();
+			this.serializerFactory = objectMapper.getSerializerFactory();
+			this.serializerProvider = objectMapper.getSerializerProvider();
+			this.deserializationContext = objectMapper.getDeserializationContext();
+			this.cache = new ConcurrentLruCache<CacheKey, Object>(cacheLimit);
+		}
+
+		public boolean isValidFor(ObjectMapper objectMapper) {
+			return (this.objectMapper == objectMapper &&
+					this.serializationConfig == objectMapper.getSerializationConfig() &&
+					this.deserializationConfig == objectMapper.getDeserializationConfig() &&
+					this.serializerFactory == objectMapper.getSerializerFactory() &&
+					this.serializerProvider == objectMapper.getSerializerProvider() &&
+					this.deserializationContext == objectMapper.getDeserializationContext());
+		}
+	}
+
+
+	/**
+	 * Inner class to avoid a hard dependency on Java 8.
+	 */
+	@UsesJava8
+	private static class StreamDelegate {
+
+		public static Iterator<?> iterator(Object stream) {
+			return ((BaseStream<?, ?>) stream).iterator();
+		}
+
+		public static void close(Object stream) {
+			((BaseStream<?, ?>) stream).close();
+		}
+	}
+
 }
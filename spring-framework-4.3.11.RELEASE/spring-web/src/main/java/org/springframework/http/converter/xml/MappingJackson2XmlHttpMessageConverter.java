@@ -74,4 +74,15 @@ public class MappingJackson2XmlHttpMessageConverter extends AbstractJackson2Http
 		super.setObjectMapper(objectMapper);
 	}
 
+	/**
+	 * This implementation returns {@code false}: XML allows for a single root
+	 * element only, so {@code Iterator} and {@code Stream} values are written
+	 * as a whole through their regular Jackson serializers instead.
+	 * @since 4.3.12
+	 */
+	@Override
+	protected boolean isStreamingType(Class<?> clazz) {
+		return false;
+	}
+
 }
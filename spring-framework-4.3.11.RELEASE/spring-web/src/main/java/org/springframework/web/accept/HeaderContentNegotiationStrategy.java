@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.web.accept;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -23,18 +24,26 @@ import java.util.List;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.context.request.NativeWebRequest;
 
 /**
  * A {@code ContentNegotiationStrategy} that checks the 'Accept' request header.
  *
+ * <p>As of 4.3.12, the parsed and sorted media types are cached per 'Accept'
+ * header value, so that recurring header values are not parsed again.
+ *
  * @author Rossen Stoyanchev
  * @author Juergen Hoeller
  * @since 3.2
  */
 public class HeaderContentNegotiationStrategy implements ContentNegotiationStrategy {
 
+	private final ConcurrentLruCache<String, List<MediaType>> mediaTypesCache =
+			new ConcurrentLruCache<String, List<MediaType>>(128);
+
+
 	/**
 	 * {@inheritDoc}
 	 * @throws HttpMediaTypeNotAcceptableException if the 'Accept' header cannot be parsed
@@ -48,10 +57,20 @@ public class HeaderContentNegotiationStrategy implements ContentNegotiationStrat
 			return Collections.<MediaType>emptyList();
 		}
 
+		if (headerValueArray.length == 1) {
+			List<MediaType> cached = this.mediaTypesCache.get(headerValueArray[0]);
+			if (cached != null) {
+				return new ArrayList<MediaType>(cached);
+			}
+		}
+
 		List<String> headerValues = Arrays.asList(headerValueArray);
 		try {
 			List<MediaType> mediaTypes = MediaType.parseMediaTypes(headerValues);
 			MediaType.sortBySpecificityAndQuality(mediaTypes);
+			if (headerValueArray.length == 1) {
+				this.mediaTypesCache.putIfAbsent(headerValueArray[0], new ArrayList<MediaType>(mediaTypes));
+			}
 			return mediaTypes;
 		}
 		catch (InvalidMediaTypeException ex) {
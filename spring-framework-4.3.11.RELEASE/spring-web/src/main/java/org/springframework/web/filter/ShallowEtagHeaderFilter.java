@@ -16,9 +16,18 @@
 
 package org.springframework.web.filter;
 
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletOutputStream;
@@ -30,6 +39,8 @@ import org.springframework.http.HttpMethod;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.DigestUtils;
+import org.springframework.util.FastByteArrayOutputStream;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.util.ContentCachingResponseWrapper;
 import org.springframework.web.util.WebUtils;
 
@@ -42,6 +53,16 @@ import org.springframework.web.util.WebUtils;
  * <p>Since the ETag is based on the response content, the response
  * (e.g. a {@link org.springframework.web.servlet.View}) is still rendered.
  * As such, this filter only saves bandwidth, not server performance.
+ * A handler which can cheaply determine a version of the content may avoid
+ * rendering altogether through
+ * {@link org.springframework.web.context.request.WebRequest#checkNotModified(String)}
+ * or by setting an {@code ETag} header itself: as of 4.3.12, an {@code ETag}
+ * header set by the handler is used as is, without digesting the content.
+ *
+ * <p>By default, the response content is buffered in memory and digested once
+ * complete. With a {@link #setFileSizeThreshold file size threshold}, the
+ * digest is computed incrementally while content is written, and content
+ * beyond the threshold is buffered in a temporary file instead.
  *
  * @author Arjen Poutsma
  * @author Rossen Stoyanchev
@@ -61,6 +82,9 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 	private static final String STREAMING_ATTRIBUTE = ShallowEtagHeaderFilter.class.getName() + ".STREAMING";
 
+	private static final char[] HEX_CHARS =
+			{'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+
 
 	/** Checking for Servlet 3.0+ HttpServletResponse.getHeader(String) */
 	private static final boolean servlet3Present =
@@ -68,6 +92,8 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 	private boolean writeWeakETag = false;
 
+	private int fileSizeThreshold = -1;
+
 
 	/**
 	 * Set whether the ETag value written to the response should be weak, as per RFC 7232.
@@ -88,6 +114,30 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		return this.writeWeakETag;
 	}
 
+	/**
+	 * Set the size in bytes above which response content is buffered in a
+	 * temporary file rather than in memory. Setting a threshold also lets the
+	 * MD5 digest for the ETag be computed incrementally while content is written,
+	 * instead of through {@link #generateETagHeaderValue(InputStream, boolean)}
+	 * once the content is complete.
+	 * <p>Default is -1, buffering all content in memory. Should be configured
+	 * using an {@code <init-param>} for parameter name "fileSizeThreshold" in
+	 * the filter definition in {@code web.xml}.
+	 * @since 4.3.12
+	 */
+	public void setFileSizeThreshold(int fileSizeThreshold) {
+		this.fileSizeThreshold = fileSizeThreshold;
+	}
+
+	/**
+	 * Return the size in bytes above which response content is buffered in a
+	 * temporary file, or -1 if all content is buffered in memory.
+	 * @since 4.3.12
+	 */
+	public int getFileSizeThreshold() {
+		return this.fileSizeThreshold;
+	}
+
 
 	/**
 	 * The default value is {@code false} so that the filter may delay the generation
@@ -104,13 +154,23 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 		HttpServletResponse responseToUse = response;
 		if (!isAsyncDispatch(request) && !(response instanceof ContentCachingResponseWrapper)) {
-			responseToUse = new HttpStreamingAwareContentCachingResponseWrapper(response, request);
+			responseToUse = (this.fileSizeThreshold >= 0 ?
+					new DigestingResponseWrapper(response, request, this.fileSizeThreshold) :
+					new HttpStreamingAwareContentCachingResponseWrapper(response, request));
 		}
 
-		filterChain.doFilter(request, responseToUse);
+		try {
+			filterChain.doFilter(request, responseToUse);
 
-		if (!isAsyncStarted(request) && !isContentCachingDisabled(request)) {
-			updateResponse(request, responseToUse);
+			if (!isAsyncStarted(request) && !isContentCachingDisabled(request)) {
+				updateResponse(request, responseToUse);
+			}
+		}
+		finally {
+			if (responseToUse instanceof DigestingResponseWrapper && !isAsyncStarted(request)) {
+				// Remove any remaining temporary file
+				((DigestingResponseWrapper) responseToUse).releaseContent();
+			}
 		}
 	}
 
@@ -124,9 +184,12 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		if (rawResponse.isCommitted()) {
 			responseWrapper.copyBodyToResponse();
 		}
-		else if (isEligibleForEtag(request, responseWrapper, statusCode, responseWrapper.getContentInputStream())) {
-			String responseETag = generateETagHeaderValue(responseWrapper.getContentInputStream(), this.writeWeakETag);
-			rawResponse.setHeader(HEADER_ETAG, responseETag);
+		else if (isEligibleForEtag(request, responseWrapper, statusCode)) {
+			String responseETag = (servlet3Present ? rawResponse.getHeader(HEADER_ETAG) : null);
+			if (responseETag == null) {
+				responseETag = generateETagHeaderValue(responseWrapper);
+				rawResponse.setHeader(HEADER_ETAG, responseETag);
+			}
 			String requestETag = request.getHeader(HEADER_IF_NONE_MATCH);
 			if (requestETag != null
 					&& (responseETag.equals(requestETag)
@@ -153,6 +216,36 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		}
 	}
 
+	private boolean isEligibleForEtag(HttpServletRequest request, ContentCachingResponseWrapper responseWrapper,
+			int statusCode) throws IOException {
+
+		InputStream inputStream = responseWrapper.getContentInputStream();
+		try {
+			return isEligibleForEtag(request, responseWrapper, statusCode, inputStream);
+		}
+		finally {
+			inputStream.close();
+		}
+	}
+
+	private String generateETagHeaderValue(ContentCachingResponseWrapper responseWrapper) throws IOException {
+		if (responseWrapper instanceof DigestingResponseWrapper) {
+			byte[] digest = ((DigestingResponseWrapper) responseWrapper).getContentDigest();
+			// length of W/ + 0 + " + 32bits md5 hash + "
+			StringBuilder builder = new StringBuilder(37);
+			if (this.writeWeakETag) {
+				builder.append("W/");
+			}
+			builder.append("\"0");
+			for (byte b : digest) {
+				builder.append(HEX_CHARS[(b >> 4) & 0xf]).append(HEX_CHARS[b & 0xf]);
+			}
+			builder.append('"');
+			return builder.toString();
+		}
+		return generateETagHeaderValue(responseWrapper.getContentInputStream(), this.writeWeakETag);
+	}
+
 	/**
 	 * Indicates whether the given request and response are eligible for ETag generation.
 	 * <p>The default implementation returns {@code true} if all conditions match:
@@ -242,9 +335,272 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 			return (useRawResponse() ? getResponse().getWriter() : super.getWriter());
 		}
 
-		private boolean useRawResponse() {
+		protected boolean useRawResponse() {
 			return isContentCachingDisabled(this.request);
 		}
 	}
 
+
+	/**
+	 * Response wrapper which computes the MD5 digest of the content while it
+	 * is written, buffering the content in a {@link DigestingContentBuffer}.
+	 */
+	private static class DigestingResponseWrapper extends HttpStreamingAwareContentCachingResponseWrapper {
+
+		private final DigestingContentBuffer content;
+
+		private final ServletOutputStream outputStream = new ResponseServletOutputStream();
+
+		private PrintWriter writer;
+
+		private Long contentLength;
+
+		public DigestingResponseWrapper(HttpServletResponse response, HttpServletRequest request, int fileSizeThreshold) {
+			super(response, request);
+			this.content = new DigestingContentBuffer(fileSizeThreshold);
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			return (useRawResponse() ? getResponse().getOutputStream() : this.outputStream);
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (useRawResponse()) {
+				return getResponse().getWriter();
+			}
+			if (this.writer == null) {
+				String characterEncoding = getCharacterEncoding();
+				this.writer = new ResponsePrintWriter(characterEncoding != null ?
+						characterEncoding : WebUtils.DEFAULT_CHARACTER_ENCODING);
+			}
+			return this.writer;
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			this.contentLength = (long) len;
+		}
+
+		// Overrides Servlet 3.1 setContentLengthLong(long) at runtime
+		public void setContentLengthLong(long len) {
+			this.contentLength = len;
+		}
+
+		@Override
+		public void setBufferSize(int size) {
+		}
+
+		@Override
+		public void resetBuffer() {
+			this.content.reset();
+		}
+
+		@Override
+		public void reset() {
+			getResponse().reset();
+			this.content.reset();
+		}
+
+		@Override
+		public byte[] getContentAsByteArray() {
+			try {
+				return StreamUtils.copyToByteArray(getContentInputStream());
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to read buffered content", ex);
+			}
+		}
+
+		@Override
+		public InputStream getContentInputStream() {
+			try {
+				return this.content.getInputStream();
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to read buffered content", ex);
+			}
+		}
+
+		@Override
+		public int getContentSize() {
+			return (int) Math.min(this.content.size(), Integer.MAX_VALUE);
+		}
+
+		public byte[] getContentDigest() {
+			return this.content.getDigest();
+		}
+
+		@Override
+		protected void copyBodyToResponse(boolean complete) throws IOException {
+			if (this.content.size() > 0) {
+				HttpServletResponse rawResponse = (HttpServletResponse) getResponse();
+				if ((complete || this.contentLength != null) && !rawResponse.isCommitted()) {
+					long length = (complete ? this.content.size() : this.contentLength);
+					if (length <= Integer.MAX_VALUE) {
+						rawResponse.setContentLength((int) length);
+					}
+					else {
+						rawResponse.setHeader("Content-Length", Long.toString(length));
+					}
+					this.contentLength = null;
+				}
+				this.content.writeTo(rawResponse.getOutputStream());
+				this.content.reset();
+				if (complete) {
+					rawResponse.flushBuffer();
+				}
+			}
+		}
+
+		public void releaseContent() {
+			this.content.reset();
+		}
+
+
+		private class ResponseServletOutputStream extends ServletOutputStream {
+
+			@Override
+			public void write(int b) throws IOException {
+				content.write(b);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				content.write(b, off, len);
+			}
+		}
+
+
+		private class ResponsePrintWriter extends PrintWriter {
+
+			public ResponsePrintWriter(String characterEncoding) throws UnsupportedEncodingException {
+				super(new OutputStreamWriter(content, characterEncoding));
+			}
+
+			@Override
+			public void write(char buf[], int off, int len) {
+				super.write(buf, off, len);
+				super.flush();
+			}
+
+			@Override
+			public void write(String s, int off, int len) {
+				super.write(s, off, len);
+				super.flush();
+			}
+
+			@Override
+			public void write(int c) {
+				super.write(c);
+				super.flush();
+			}
+		}
+	}
+
+
+	/**
+	 * Buffer for response content, updating an MD5 digest with every write
+	 * and moving the content to a temporary file once it exceeds a threshold.
+	 */
+	private static class DigestingContentBuffer extends OutputStream {
+
+		private final MessageDigest digest;
+
+		private final int fileSizeThreshold;
+
+		private final FastByteArrayOutputStream memoryContent = new FastByteArrayOutputStream(1024);
+
+		private File file;
+
+		private OutputStream fileContent;
+
+		private long size;
+
+		public DigestingContentBuffer(int fileSizeThreshold) {
+			try {
+				this.digest = MessageDigest.getInstance("MD5");
+			}
+			catch (NoSuchAlgorithmException ex) {
+				throw new IllegalStateException("Could not find MessageDigest with algorithm \"MD5\"", ex);
+			}
+			this.fileSizeThreshold = fileSizeThreshold;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			this.digest.update((byte) b);
+			getTarget(1).write(b);
+			this.size++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			this.digest.update(b, off, len);
+			getTarget(len).write(b, off, len);
+			this.size += len;
+		}
+
+		private OutputStream getTarget(int len) throws IOException {
+			if (this.fileContent == null && this.size + len > this.fileSizeThreshold) {
+				this.file = File.createTempFile("etag-content", null);
+				this.fileContent = new BufferedOutputStream(new FileOutputStream(this.file), StreamUtils.BUFFER_SIZE);
+				this.memoryContent.writeTo(this.fileContent);
+				this.memoryContent.reset();
+			}
+			return (this.fileContent != null ? this.fileContent : this.memoryContent);
+		}
+
+		public long size() {
+			return this.size;
+		}
+
+		public byte[] getDigest() {
+			return this.digest.digest();
+		}
+
+		public InputStream getInputStream() throws IOException {
+			if (this.fileContent != null) {
+				this.fileContent.flush();
+				return new FileInputStream(this.file);
+			}
+			return this.memoryContent.getInputStream();
+		}
+
+		public void writeTo(OutputStream out) throws IOException {
+			if (this.fileContent != null) {
+				InputStream in = getInputStream();
+				try {
+					StreamUtils.copy(in, out);
+				}
+				finally {
+					in.close();
+				}
+			}
+			else {
+				this.memoryContent.writeTo(out);
+			}
+		}
+
+		public void reset() {
+			this.digest.reset();
+			this.memoryContent.reset();
+			this.size = 0;
+			if (this.fileContent != null) {
+				try {
+					this.fileContent.close();
+				}
+				catch (IOException ex) {
+					// ignore
+				}
+				this.fileContent = null;
+				if (!this.file.delete()) {
+					this.file.deleteOnExit();
+				}
+				this.file = null;
+			}
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -57,7 +57,14 @@ public class HandlerMethodReturnValueHandlerComposite implements AsyncHandlerMet
 		return getReturnValueHandler(returnType) != null;
 	}
 
-	private HandlerMethodReturnValueHandler getReturnValueHandler(MethodParameter returnType) {
+	/**
+	 * Find the first registered {@link HandlerMethodReturnValueHandler} that
+	 * supports the given return type, not taking asynchronous return values
+	 * into account (see {@link #isAsyncReturnValue}).
+	 * @return the supporting handler, or {@code null} if none
+	 * @since 4.3.12
+	 */
+	public HandlerMethodReturnValueHandler getReturnValueHandler(MethodParameter returnType) {
 		for (HandlerMethodReturnValueHandler handler : this.returnValueHandlers) {
 			if (handler.supportsReturnType(returnType)) {
 				return handler;
@@ -21,10 +21,10 @@ import java.lang.reflect.Method;
 import java.util.Arrays;
 
 import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.GeneratedMethodInvoker;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.util.ClassUtils;
-import org.springframework.util.ReflectionUtils;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.support.SessionStatus;
 import org.springframework.web.bind.support.WebDataBinderFactory;
@@ -51,6 +51,8 @@ public class InvocableHandlerMethod extends HandlerMethod {
 
 	private HandlerMethodArgumentResolverComposite argumentResolvers = new HandlerMethodArgumentResolverComposite();
 
+	private HandlerMethodArgumentResolver[] parameterArgumentResolvers;
+
 	private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
 
@@ -98,6 +100,25 @@ public class InvocableHandlerMethod extends HandlerMethod {
 		this.argumentResolvers = argumentResolvers;
 	}
 
+	/**
+	 * Set the {@link HandlerMethodArgumentResolver}s to use for the individual
+	 * method parameters, in parameter order, as determined upfront for the
+	 * underlying handler method. This avoids looking up the resolver for each
+	 * parameter on every invocation; a {@code null} element indicates that the
+	 * corresponding parameter is to be resolved through the resolvers set via
+	 * {@link #setHandlerMethodArgumentResolvers}.
+	 * @since 4.3.12
+	 * @see HandlerMethodArgumentResolverComposite#getArgumentResolver
+	 */
+	public void setParameterArgumentResolvers(HandlerMethodArgumentResolver... parameterArgumentResolvers) {
+		if (parameterArgumentResolvers != null &&
+				parameterArgumentResolvers.length != getMethodParameters().length) {
+			throw new IllegalArgumentException("Expected " + getMethodParameters().length +
+					" argument resolvers but got " + parameterArgumentResolvers.length);
+		}
+		this.parameterArgumentResolvers = parameterArgumentResolvers;
+	}
+
 	/**
 	 * Set the ParameterNameDiscoverer for resolving parameter names when needed
 	 * (e.g. default request attribute name).
@@ -153,10 +174,14 @@ public class InvocableHandlerMethod extends HandlerMethod {
 			if (args[i] != null) {
 				continue;
 			}
-			if (this.argumentResolvers.supportsParameter(parameter)) {
+			HandlerMethodArgumentResolver resolver = (this.parameterArgumentResolvers != null ?
+					this.parameterArgumentResolvers[i] : null);
+			if (resolver == null && this.argumentResolvers.supportsParameter(parameter)) {
+				resolver = this.argumentResolvers;
+			}
+			if (resolver != null) {
 				try {
-					args[i] = this.argumentResolvers.resolveArgument(
-							parameter, mavContainer, request, this.dataBinderFactory);
+					args[i] = resolver.resolveArgument(parameter, mavContainer, request, this.dataBinderFactory);
 					continue;
 				}
 				catch (Exception ex) {
@@ -200,9 +225,8 @@ public class InvocableHandlerMethod extends HandlerMethod {
 	 * Invoke the handler method with the given argument values.
 	 */
 	protected Object doInvoke(Object... args) throws Exception {
-		ReflectionUtils.makeAccessible(getBridgedMethod());
 		try {
-			return getBridgedMethod().invoke(getBean(), args);
+			return GeneratedMethodInvoker.invokeMethod(getBridgedMethod(), getBean(), args);
 		}
 		catch (IllegalArgumentException ex) {
 			assertTargetBean(getBridgedMethod(), getBean(), args);
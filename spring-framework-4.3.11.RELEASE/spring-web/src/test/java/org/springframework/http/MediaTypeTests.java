@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -67,6 +67,20 @@ public class MediaTypeTests {
 		assertEquals("Invalid quality factor", 0.2D, mediaType.getQualityValue(), 0D);
 	}
 
+	@Test
+	public void parseMediaTypeCached() {
+		MediaType mediaType = MediaType.parseMediaType("application/json;q=0.8");
+		assertSame(mediaType, MediaType.parseMediaType("application/json;q=0.8"));
+		assertEquals(0.8D, mediaType.getQualityValue(), 0D);
+	}
+
+	@Test
+	public void parseMediaTypeMultipartNotCached() {
+		String s = "multipart/form-data; boundary=abc";
+		assertNotSame(MediaType.parseMediaType(s), MediaType.parseMediaType(s));
+		assertEquals(MediaType.parseMediaType(s), MediaType.parseMediaType(s));
+	}
+
 	@Test(expected = InvalidMediaTypeException.class)
 	public void parseMediaTypeNoSubtype() {
 		MediaType.parseMediaType("audio");
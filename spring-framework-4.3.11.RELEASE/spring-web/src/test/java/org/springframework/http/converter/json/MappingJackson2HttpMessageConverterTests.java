@@ -20,14 +20,24 @@ import java.io.IOException;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.ser.FilterProvider;
 import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
@@ -363,6 +373,158 @@ public class MappingJackson2HttpMessageConverterTests {
 		assertTrue(result.contains("\"number\":123"));
 	}
 
+	@Test
+	public void readerWriterCache() throws Exception {
+		ParameterizedTypeReference<List<MyBean>> beansList = new ParameterizedTypeReference<List<MyBean>>() {};
+		String body = "[{\"string\":\"Foo\"}]";
+		List<MyBean> beans = new ArrayList<MyBean>();
+		beans.add(new MyBean());
+
+		for (int i = 0; i < 3; i++) {
+			MockHttpInputMessage inputMessage = new MockHttpInputMessage(body.getBytes("UTF-8"));
+			List<?> result = (List<?>) this.converter.read(beansList.getType(), null, inputMessage);
+			assertThat(result.get(0), instanceOf(MyBean.class));
+			this.converter.write(beans, beansList.getType(), MediaType.APPLICATION_JSON, new MockHttpOutputMessage());
+		}
+		// JavaType, ObjectReader, ObjectWriter
+		assertEquals(3, this.converter.getCacheSize());
+		assertEquals(3, this.converter.getCacheMissCount());
+		assertEquals(5, this.converter.getCacheHitCount());
+
+		this.converter.setPrettyPrint(true);
+		assertEquals(0, this.converter.getCacheSize());
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		this.converter.write(beans, beansList.getType(), MediaType.APPLICATION_JSON, outputMessage);
+		assertThat(outputMessage.getBodyAsString(Charset.forName("UTF-8")), containsString("\n"));
+	}
+
+	@Test
+	public void readerWriterCacheWithObjectMapperReconfigured() throws Exception {
+		MyBean bean = new MyBean();
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		this.converter.write(bean, MediaType.APPLICATION_JSON, outputMessage);
+		assertThat(outputMessage.getBodyAsString(Charset.forName("UTF-8")), not(containsString("\n")));
+
+		this.converter.getObjectMapper().configure(SerializationFeature.INDENT_OUTPUT, true);
+		outputMessage = new MockHttpOutputMessage();
+		this.converter.write(bean, MediaType.APPLICATION_JSON, outputMessage);
+		assertThat(outputMessage.getBodyAsString(Charset.forName("UTF-8")), containsString("\n"));
+
+		List<Object> values = new ArrayList<Object>();
+		values.add("value");
+		this.converter.write(values, MediaType.APPLICATION_JSON, new MockHttpOutputMessage());
+		SimpleModule module = new SimpleModule();
+		module.addSerializer(AtomicBoolean.class, new JsonSerializer<AtomicBoolean>() {
+			@Override
+			public void serialize(AtomicBoolean value, JsonGenerator generator, SerializerProvider provider)
+					throws IOException {
+				generator.writeString("custom");
+			}
+		});
+		this.converter.getObjectMapper().registerModule(module);
+		values.add(new AtomicBoolean(true));
+		outputMessage = new MockHttpOutputMessage();
+		this.converter.write(values, MediaType.APPLICATION_JSON, outputMessage);
+		assertThat(outputMessage.getBodyAsString(Charset.forName("UTF-8")), containsString("\"custom\""));
+	}
+
+	@Test
+	public void readerWriterCacheDisabled() throws Exception {
+		this.converter.setCacheLimit(0);
+		String body = "{\"string\":\"Foo\"}";
+
+		for (int i = 0; i < 2; i++) {
+			MockHttpInputMessage inputMessage = new MockHttpInputMessage(body.getBytes("UTF-8"));
+			assertEquals("Foo", ((MyBean) this.converter.read(MyBean.class, inputMessage)).getString());
+		}
+		assertEquals(0, this.converter.getCacheSize());
+		assertEquals(0, this.converter.getCacheHitCount());
+	}
+
+	@Test
+	public void canWriteStreamingTypes() {
+		assertTrue(converter.canWrite(Iterator.class, MediaType.APPLICATION_JSON));
+		assertTrue(converter.canWrite(Stream.class, MediaType.APPLICATION_JSON));
+		assertFalse(converter.canWrite(Iterator.class, MediaType.TEXT_HTML));
+	}
+
+	@Test
+	public void writeIterator() throws Exception {
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		Iterator<String> iterator = Arrays.asList("Foo", "Bar", "Baz").iterator();
+		this.converter.setStreamingFlushInterval(2);
+
+		this.converter.write(iterator, MediaType.APPLICATION_JSON, outputMessage);
+
+		assertEquals("[\"Foo\",\"Bar\",\"Baz\"]", outputMessage.getBodyAsString(Charset.forName("UTF-8")));
+	}
+
+	@Test
+	public void writeEmptyIterator() throws Exception {
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+		this.converter.write(new ArrayList<String>().iterator(), MediaType.APPLICATION_JSON, outputMessage);
+
+		assertEquals("[]", outputMessage.getBodyAsString(Charset.forName("UTF-8")));
+	}
+
+	@Test
+	public void writeStream() throws Exception {
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		AtomicBoolean closed = new AtomicBoolean();
+		MyBean foo = new MyBean();
+		foo.setString("Foo");
+		MyBean bar = new MyBean();
+		bar.setString("Bar");
+		Stream<MyBean> stream = Stream.of(foo, bar).onClose(() -> closed.set(true));
+
+		this.converter.write(stream, MediaType.APPLICATION_JSON, outputMessage);
+
+		String result = outputMessage.getBodyAsString(Charset.forName("UTF-8"));
+		assertTrue(result.startsWith("[{"));
+		assertTrue(result.endsWith("}]"));
+		assertTrue(result.contains("\"string\":\"Foo\""));
+		assertTrue(result.contains("\"string\":\"Bar\""));
+		assertTrue(closed.get());
+	}
+
+	@Test
+	public void writeNewlineDelimited() throws Exception {
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		List<Map<String, Object>> elements = new ArrayList<Map<String, Object>>();
+		elements.add(Collections.<String, Object>singletonMap("name", "Foo"));
+		elements.add(Collections.<String, Object>singletonMap("name", "Bar"));
+		this.converter.setPrettyPrint(true);
+
+		this.converter.write(elements.stream(), new MediaType("application", "stream+json"), outputMessage);
+
+		assertEquals("{\"name\":\"Foo\"}\n{\"name\":\"Bar\"}\n",
+				outputMessage.getBodyAsString(Charset.forName("UTF-8")));
+	}
+
+	@Test
+	public void writeCollectionWithStreamJsonContentType() throws Exception {
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		List<Map<String, Object>> elements = new ArrayList<Map<String, Object>>();
+		elements.add(Collections.<String, Object>singletonMap("name", "Foo"));
+		elements.add(Collections.<String, Object>singletonMap("name", "Bar"));
+
+		this.converter.write(elements, new MediaType("application", "stream+json"), outputMessage);
+
+		assertEquals("[{\"name\":\"Foo\"},{\"name\":\"Bar\"}]",
+				outputMessage.getBodyAsString(Charset.forName("UTF-8")));
+	}
+
+	@Test
+	public void writeNewlineDelimitedIterator() throws Exception {
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		Iterator<String> iterator = Arrays.asList("Foo", "Bar").iterator();
+
+		this.converter.write(iterator, new MediaType("application", "x-ndjson"), outputMessage);
+
+		assertEquals("\"Foo\"\n\"Bar\"\n", outputMessage.getBodyAsString(Charset.forName("UTF-8")));
+	}
+
 
 	interface MyInterface {
 
@@ -18,6 +18,8 @@ package org.springframework.http.converter.xml;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
@@ -63,6 +65,12 @@ public class MappingJackson2XmlHttpMessageConverterTests {
 		assertTrue(converter.canWrite(MyBean.class, new MediaType("application", "soap+xml")));
 	}
 
+	@Test
+	public void noStreamingTypes() {
+		assertFalse(converter.isStreamingType(Iterator.class));
+		assertFalse(converter.isStreamingType(Stream.class));
+	}
+
 	@Test
 	public void read() throws IOException {
 		String body = "<MyBean><string>Foo</string><number>42</number><fraction>42.0</fraction><array><array>Foo</array><array>Bar</array></array><bool>true</bool><bytes>AQI=</bytes></MyBean>";
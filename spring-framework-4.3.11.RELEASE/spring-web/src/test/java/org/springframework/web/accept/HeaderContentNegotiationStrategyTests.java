@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -68,6 +68,24 @@ public class HeaderContentNegotiationStrategyTests {
 		assertEquals("text/plain;q=0.5", mediaTypes.get(3).toString());
 	}
 
+	@Test
+	public void resolveMediaTypesCached() throws Exception {
+		this.servletRequest.addHeader("Accept", "text/plain; q=0.5, text/html");
+		List<MediaType> mediaTypes = this.strategy.resolveMediaTypes(this.webRequest);
+		mediaTypes.clear();
+
+		mediaTypes = this.strategy.resolveMediaTypes(this.webRequest);
+		assertEquals(2, mediaTypes.size());
+		assertEquals("text/html", mediaTypes.get(0).toString());
+		assertEquals("text/plain;q=0.5", mediaTypes.get(1).toString());
+
+		MockHttpServletRequest otherRequest = new MockHttpServletRequest();
+		otherRequest.addHeader("Accept", "application/json");
+		mediaTypes = this.strategy.resolveMediaTypes(new ServletWebRequest(otherRequest));
+		assertEquals(1, mediaTypes.size());
+		assertEquals(MediaType.APPLICATION_JSON, mediaTypes.get(0));
+	}
+
 	@Test(expected = HttpMediaTypeNotAcceptableException.class)
 	public void resolveMediaTypesParseError() throws Exception {
 		this.servletRequest.addHeader("Accept", "textplain; q=0.5");
@@ -86,6 +86,27 @@ public class InvocableHandlerMethodTests {
 		assertEquals("null-null", returnValue);
 	}
 
+	@Test
+	public void resolveArgWithParameterArgumentResolvers() throws Exception {
+		StubArgumentResolver intResolver = new StubArgumentResolver(Integer.class, 99);
+		StubArgumentResolver stringResolver = new StubArgumentResolver(String.class, "value");
+
+		HandlerMethodArgumentResolverComposite composite = new HandlerMethodArgumentResolverComposite();
+		composite.addResolver(stringResolver);
+		handlerMethod.setHandlerMethodArgumentResolvers(composite);
+		handlerMethod.setParameterArgumentResolvers(intResolver, null);
+
+		Object returnValue = handlerMethod.invokeForRequest(webRequest, null);
+		assertEquals(1, intResolver.getResolvedParameters().size());
+		assertEquals(1, stringResolver.getResolvedParameters().size());
+		assertEquals("99-value", returnValue);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void parameterArgumentResolversWithWrongLength() throws Exception {
+		handlerMethod.setParameterArgumentResolvers(new StubArgumentResolver(Integer.class, 99));
+	}
+
 	@Test
 	public void cannotResolveArg() throws Exception {
 		try {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -99,7 +99,11 @@ public class PathMatchConfigurer {
 	/**
 	 * Set the PathMatcher implementation to use for matching URL paths
 	 * against registered URL patterns. Default is AntPathMatcher.
+	 * <p>With a large number of mappings, consider a
+	 * {@link org.springframework.util.PrecompiledPathMatcher} which caches
+	 * parsed patterns for the same matching semantics.
 	 * @see org.springframework.util.AntPathMatcher
+	 * @see org.springframework.util.PrecompiledPathMatcher
 	 */
 	public PathMatchConfigurer setPathMatcher(PathMatcher pathMatcher) {
 		this.pathMatcher = pathMatcher;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.web.servlet.resource.CachingResourceResolver;
 import org.springframework.web.servlet.resource.CachingResourceTransformer;
+import org.springframework.web.servlet.resource.CompressingResourceTransformer;
 import org.springframework.web.servlet.resource.CssLinkResourceTransformer;
 import org.springframework.web.servlet.resource.PathResourceResolver;
 import org.springframework.web.servlet.resource.ResourceResolver;
@@ -94,12 +95,19 @@ public class ResourceChainRegistration {
 
 	/**
 	 * Add a resource transformer to the chain.
+	 * <p>A {@link CompressingResourceTransformer} is put first in the chain,
+	 * in order to encode the output of all other transformers.
 	 * @param transformer the transformer to add
 	 * @return the current instance for chained method invocation
 	 */
 	public ResourceChainRegistration addTransformer(ResourceTransformer transformer) {
 		Assert.notNull(transformer, "The provided ResourceTransformer should not be null");
-		this.transformers.add(transformer);
+		if (transformer instanceof CompressingResourceTransformer) {
+			this.transformers.add(0, transformer);
+		}
+		else {
+			this.transformers.add(transformer);
+		}
 		if (transformer instanceof CssLinkResourceTransformer) {
 			this.hasCssLinkTransformer = true;
 		}
@@ -121,9 +129,12 @@ public class ResourceChainRegistration {
 	protected List<ResourceTransformer> getResourceTransformers() {
 		if (this.hasVersionResolver && !this.hasCssLinkTransformer) {
 			List<ResourceTransformer> result = new ArrayList<ResourceTransformer>(this.transformers);
-			boolean hasTransformers = !this.transformers.isEmpty();
-			boolean hasCaching = hasTransformers && this.transformers.get(0) instanceof CachingResourceTransformer;
-			result.add(hasCaching ? 1 : 0, new CssLinkResourceTransformer());
+			int index = 0;
+			while (index < result.size() && (result.get(index) instanceof CompressingResourceTransformer ||
+					result.get(index) instanceof CachingResourceTransformer)) {
+				index++;
+			}
+			result.add(index, new CssLinkResourceTransformer());
 			return result;
 		}
 		return this.transformers;
@@ -89,6 +89,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 	private HandlerMethodMappingNamingStrategy<T> namingStrategy;
 
+	private boolean usePatternIndex = true;
+
 	private final MappingRegistry mappingRegistry = new MappingRegistry();
 
 
@@ -122,6 +124,30 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		return this.namingStrategy;
 	}
 
+	/**
+	 * Whether to index registered mappings by the path segments of their URL
+	 * patterns, so that a lookup path without a direct URL match is only
+	 * checked against the mappings whose patterns could possibly match it
+	 * rather than against all mappings.
+	 * <p>The index is used with an {@link org.springframework.util.AntPathMatcher}
+	 * only; mappings are still fully matched and sorted as before, so this
+	 * does not affect which handler method is selected.
+	 * <p>Default is "true". Must be set before mappings are registered.
+	 * @since 4.3.12
+	 * @see #getMappingPathPatterns
+	 */
+	public void setUsePatternIndex(boolean usePatternIndex) {
+		this.usePatternIndex = usePatternIndex;
+	}
+
+	/**
+	 * Whether registered mappings are indexed by their URL patterns.
+	 * @since 4.3.12
+	 */
+	public boolean usePatternIndex() {
+		return this.usePatternIndex;
+	}
+
 	/**
 	 * Return a (read-only) map with all mappings and HandlerMethod's.
 	 */
@@ -343,8 +369,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			addMatchingMappings(directPathMatches, matches, request);
 		}
 		if (matches.isEmpty()) {
-			// No choice but to go through all mappings...
-			addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+			// Go through all mappings whose patterns may match the path...
+			addMatchingMappings(this.mappingRegistry.getMappingsByPattern(lookupPath), matches, request);
 		}
 
 		if (!matches.isEmpty()) {
@@ -480,6 +506,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final MultiValueMap<String, T> urlLookup = new LinkedMultiValueMap<String, T>();
 
+		private MappingPatternIndex<T> patternIndex;
+
 		private final Map<String, List<HandlerMethod>> nameLookup =
 				new ConcurrentHashMap<String, List<HandlerMethod>>();
 
@@ -504,6 +532,20 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.urlLookup.get(urlPath);
 		}
 
+		/**
+		 * Return the mappings which may match the given URL path, as narrowed
+		 * down by the pattern index if available, or all mappings otherwise.
+		 * Not thread-safe.
+		 * @since 4.3.12
+		 * @see #acquireReadLock()
+		 */
+		public Collection<T> getMappingsByPattern(String urlPath) {
+			if (this.patternIndex != null) {
+				return this.patternIndex.getCandidates(urlPath);
+			}
+			return this.mappingLookup.keySet();
+		}
+
 		/**
 		 * Return handler methods by mapping name. Thread-safe for concurrent use.
 		 */
@@ -520,14 +562,14 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		}
 
 		/**
-		 * Acquire the read lock when using getMappings and getMappingsByUrl.
+		 * Acquire the read lock when using getMappings, getMappingsByUrl and getMappingsByPattern.
 		 */
 		public void acquireReadLock() {
 			this.readWriteLock.readLock().lock();
 		}
 
 		/**
-		 * Release the read lock after using getMappings and getMappingsByUrl.
+		 * Release the read lock after using getMappings, getMappingsByUrl and getMappingsByPattern.
 		 */
 		public void releaseReadLock() {
 			this.readWriteLock.readLock().unlock();
@@ -542,8 +584,16 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				if (logger.isInfoEnabled()) {
 					logger.info("Mapped \"" + mapping + "\" onto " + handlerMethod);
 				}
+				if (this.mappingLookup.isEmpty()) {
+					this.patternIndex = (usePatternIndex() ?
+							MappingPatternIndex.<T>forPathMatcher(getPathMatcher()) : null);
+				}
 				this.mappingLookup.put(mapping, handlerMethod);
 
+				if (this.patternIndex != null) {
+					this.patternIndex.add(mapping, getMappingPathPatterns(mapping));
+				}
+
 				List<String> directUrls = getDirectUrls(mapping);
 				for (String url : directUrls) {
 					this.urlLookup.add(url, mapping);
@@ -626,6 +676,10 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 				this.mappingLookup.remove(definition.getMapping());
 
+				if (this.patternIndex != null) {
+					this.patternIndex.remove(definition.getMapping(), getMappingPathPatterns(definition.getMapping()));
+				}
+
 				for (String url : definition.getDirectUrls()) {
 					List<T> list = this.urlLookup.get(url);
 					if (list != null) {
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.handler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.util.StringUtils;
+
+/**
+ * Index of mappings by the path segments of their URL patterns, narrowing down
+ * the mappings to check for a lookup path to the ones that could possibly match.
+ *
+ * <p>Patterns are split into segments the same way {@link AntPathMatcher} splits
+ * them: literal segments are indexed by value, while segments with wildcards or
+ * URI template variables match any single path segment and a "**" segment matches
+ * any remainder. Matching against the index errs on the side of inclusion, e.g.
+ * for suffix pattern matches, so the candidates returned are a superset of the
+ * mappings that actually match; the full mapping conditions still need to be
+ * checked for every candidate. Mappings without patterns, or with patterns the
+ * index cannot reason about, are always returned as candidates.
+ *
+ * <p>Candidates are returned in registration order. Not thread-safe.
+ *
+ * @since 4.3.12
+ * @param <T> the mapping type
+ * @see AbstractHandlerMethodMapping#setUsePatternIndex
+ */
+final class MappingPatternIndex<T> {
+
+	private static final String PATH_SEPARATOR = "/";
+
+
+	private final boolean caseSensitive;
+
+	private final boolean trimTokens;
+
+	private final Node<T> root = new Node<T>();
+
+	private int registrationCount;
+
+
+	private MappingPatternIndex(boolean caseSensitive, boolean trimTokens) {
+		this.caseSensitive = caseSensitive;
+		this.trimTokens = trimTokens;
+	}
+
+
+	/**
+	 * Add the given mapping with the given URL patterns to the index.
+	 * @param mapping the mapping
+	 * @param patterns the URL patterns of the mapping (possibly empty)
+	 */
+	public void add(T mapping, Collection<String> patterns) {
+		Entry<T> entry = new Entry<T>(mapping, this.registrationCount++);
+		if (patterns.isEmpty()) {
+			this.root.addCatchAll(entry);
+			return;
+		}
+		for (String pattern : patterns) {
+			if (pattern.endsWith(PATH_SEPARATOR)) {
+				// A suffix appended to such a pattern turns into an extra segment
+				this.root.addCatchAll(entry);
+				continue;
+			}
+			Node<T> node = this.root;
+			boolean catchAll = false;
+			for (String segment : tokenize(pattern)) {
+				if ("**".equals(segment)) {
+					node.addCatchAll(entry);
+					catchAll = true;
+					break;
+				}
+				node = (isLiteral(segment) ? node.getOrCreateLiteralChild(segment) : node.getOrCreateWildcardChild());
+			}
+			if (!catchAll) {
+				node.addTerminal(entry);
+			}
+		}
+	}
+
+	/**
+	 * Remove the given mapping with the given URL patterns from the index.
+	 * @param mapping the mapping
+	 * @param patterns the URL patterns of the mapping, as passed to {@link #add}
+	 */
+	public void remove(T mapping, Collection<String> patterns) {
+		if (patterns.isEmpty()) {
+			this.root.removeCatchAll(mapping);
+			return;
+		}
+		for (String pattern : patterns) {
+			if (pattern.endsWith(PATH_SEPARATOR)) {
+				this.root.removeCatchAll(mapping);
+			}
+			else {
+				remove(this.root, tokenize(pattern), 0, mapping);
+			}
+		}
+	}
+
+	private void remove(Node<T> node, String[] segments, int index, T mapping) {
+		if (index == segments.length) {
+			node.removeTerminal(mapping);
+			return;
+		}
+		String segment = segments[index];
+		if ("**".equals(segment)) {
+			node.removeCatchAll(mapping);
+			return;
+		}
+		Node<T> child = (isLiteral(segment) ? node.getLiteralChild(segment) : node.wildcardChild);
+		if (child != null) {
+			remove(child, segments, index + 1, mapping);
+			if (child.isEmpty()) {
+				node.removeChild(child, segment);
+			}
+		}
+	}
+
+	/**
+	 * Return the mappings which may match the given lookup path.
+	 * @param lookupPath the lookup path
+	 * @return the candidate mappings, in registration order
+	 */
+	public List<T> getCandidates(String lookupPath) {
+		List<Entry<T>> entries = new ArrayList<Entry<T>>();
+		collect(this.root, tokenize(lookupPath), 0, entries);
+		if (entries.isEmpty()) {
+			return Collections.emptyList();
+		}
+		if (entries.size() == 1) {
+			return Collections.singletonList(entries.get(0).mapping);
+		}
+		Collections.sort(entries, Entry.REGISTRATION_ORDER);
+		List<T> candidates = new ArrayList<T>(entries.size());
+		Set<T> seen = new HashSet<T>(entries.size());
+		for (Entry<T> entry : entries) {
+			if (seen.add(entry.mapping)) {
+				candidates.add(entry.mapping);
+			}
+		}
+		return candidates;
+	}
+
+	private void collect(Node<T> node, String[] segments, int index, List<Entry<T>> result) {
+		node.addCatchAllTo(result);
+		if (index == segments.length) {
+			node.addTerminalTo(result);
+			if (node.wildcardChild != null) {
+				// e.g. "/hotels/*" matches "/hotels/"
+				node.wildcardChild.addTerminalTo(result);
+			}
+			return;
+		}
+		String segment = segments[index];
+		if (node.literalChildren != null) {
+			Node<T> child = node.literalChildren.get(segment);
+			if (child != null) {
+				collect(child, segments, index + 1, result);
+			}
+			if (index == segments.length - 1) {
+				// Suffix pattern match: "/hotels/list" also matches "/hotels/list.json"
+				int dotIndex = segment.indexOf('.', 1);
+				while (dotIndex != -1) {
+					child = node.literalChildren.get(segment.substring(0, dotIndex));
+					if (child != null) {
+						child.addTerminalTo(result);
+					}
+					dotIndex = segment.indexOf('.', dotIndex + 1);
+				}
+			}
+		}
+		if (node.wildcardChild != null) {
+			collect(node.wildcardChild, segments, index + 1, result);
+		}
+	}
+
+	private String[] tokenize(String path) {
+		String[] tokens = StringUtils.tokenizeToStringArray(path, PATH_SEPARATOR, this.trimTokens, true);
+		if (!this.caseSensitive) {
+			for (int i = 0; i < tokens.length; i++) {
+				tokens[i] = tokens[i].toLowerCase(Locale.ENGLISH);
+			}
+		}
+		return tokens;
+	}
+
+	private static boolean isLiteral(String segment) {
+		for (int i = 0; i < segment.length(); i++) {
+			char c = segment.charAt(i);
+			if (c == '*' || c == '?' || c == '{') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	/**
+	 * Create an index for mappings matched with the given {@code PathMatcher}.
+	 * <p>Only {@link AntPathMatcher} with the default "/" path separator is
+	 * supported; its case sensitivity and token trimming settings are detected
+	 * by probing, since they are not exposed otherwise.
+	 * @param pathMatcher the PathMatcher used to match mapping patterns
+	 * @return the index, or {@code null} if the PathMatcher is not supported
+	 */
+	public static <T> MappingPatternIndex<T> forPathMatcher(PathMatcher pathMatcher) {
+		if (!(pathMatcher instanceof AntPathMatcher) || !"/a/b".equals(pathMatcher.combine("/a", "b"))) {
+			return null;
+		}
+		boolean caseSensitive = !pathMatcher.match("/a", "/A");
+		boolean trimTokens = pathMatcher.match("/a", "/ a");
+		return new MappingPatternIndex<T>(caseSensitive, trimTokens);
+	}
+
+
+	/**
+	 * A mapping along with its registration order.
+	 */
+	private static class Entry<T> {
+
+		static final Comparator<Entry<?>> REGISTRATION_ORDER = new Comparator<Entry<?>>() {
+			@Override
+			public int compare(Entry<?> entry1, Entry<?> entry2) {
+				return (entry1.order < entry2.order ? -1 : (entry1.order == entry2.order ? 0 : 1));
+			}
+		};
+
+		final T mapping;
+
+		final int order;
+
+		Entry(T mapping, int order) {
+			this.mapping = mapping;
+			this.order = order;
+		}
+	}
+
+
+	/**
+	 * A node in the index, corresponding to a path segment position.
+	 */
+	private static class Node<T> {
+
+		Map<String, Node<T>> literalChildren;
+
+		Node<T> wildcardChild;
+
+		/** Mappings with a pattern ending at this node */
+		List<Entry<T>> terminalEntries;
+
+		/** Mappings with a pattern matching any remainder from this node on */
+		List<Entry<T>> catchAllEntries;
+
+		Node<T> getLiteralChild(String segment) {
+			return (this.literalChildren != null ? this.literalChildren.get(segment) : null);
+		}
+
+		Node<T> getOrCreateLiteralChild(String segment) {
+			if (this.literalChildren == null) {
+				this.literalChildren = new HashMap<String, Node<T>>(4);
+			}
+			Node<T> child = this.literalChildren.get(segment);
+			if (child == null) {
+				child = new Node<T>();
+				this.literalChildren.put(segment, child);
+			}
+			return child;
+		}
+
+		Node<T> getOrCreateWildcardChild() {
+			if (this.wildcardChild == null) {
+				this.wildcardChild = new Node<T>();
+			}
+			return this.wildcardChild;
+		}
+
+		void removeChild(Node<T> child, String segment) {
+			if (child == this.wildcardChild) {
+				this.wildcardChild = null;
+			}
+			else if (this.literalChildren != null) {
+				this.literalChildren.remove(segment);
+				if (this.literalChildren.isEmpty()) {
+					this.literalChildren = null;
+				}
+			}
+		}
+
+		void addTerminal(Entry<T> entry) {
+			if (this.terminalEntries == null) {
+				this.terminalEntries = new ArrayList<Entry<T>>(1);
+			}
+			this.terminalEntries.add(entry);
+		}
+
+		void addCatchAll(Entry<T> entry) {
+			if (this.catchAllEntries == null) {
+				this.catchAllEntries = new ArrayList<Entry<T>>(1);
+			}
+			this.catchAllEntries.add(entry);
+		}
+
+		void removeTerminal(T mapping) {
+			this.terminalEntries = removeEntries(this.terminalEntries, mapping);
+		}
+
+		void removeCatchAll(T mapping) {
+			this.catchAllEntries = removeEntries(this.catchAllEntries, mapping);
+		}
+
+		void addTerminalTo(List<Entry<T>> result) {
+			if (this.terminalEntries != null) {
+				result.addAll(this.terminalEntries);
+			}
+		}
+
+		void addCatchAllTo(List<Entry<T>> result) {
+			if (this.catchAllEntries != null) {
+				result.addAll(this.catchAllEntries);
+			}
+		}
+
+		boolean isEmpty() {
+			return (this.literalChildren == null && this.wildcardChild == null &&
+					this.terminalEntries == null && this.catchAllEntries == null);
+		}
+
+		private static <T> List<Entry<T>> removeEntries(List<Entry<T>> entries, T mapping) {
+			if (entries == null) {
+				return null;
+			}
+			for (Iterator<Entry<T>> it = entries.iterator(); it.hasNext();) {
+				if (it.next().mapping.equals(mapping)) {
+					it.remove();
+				}
+			}
+			return (entries.isEmpty() ? null : entries);
+		}
+	}
+
+}
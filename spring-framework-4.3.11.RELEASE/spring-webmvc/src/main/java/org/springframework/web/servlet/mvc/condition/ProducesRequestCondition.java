@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -47,6 +47,8 @@ import org.springframework.web.servlet.mvc.condition.HeadersRequestCondition.Hea
  */
 public final class ProducesRequestCondition extends AbstractRequestCondition<ProducesRequestCondition> {
 
+	private static final String MEDIA_TYPES_ATTRIBUTE = ProducesRequestCondition.class.getName() + ".MEDIA_TYPES";
+
 	private final static ProducesRequestCondition PRE_FLIGHT_MATCH = new ProducesRequestCondition();
 
 	private static final ProducesRequestCondition EMPTY_CONDITION = new ProducesRequestCondition();
@@ -258,10 +260,48 @@ public final class ProducesRequestCondition extends AbstractRequestCondition<Pro
 	}
 
 	private List<MediaType> getAcceptedMediaTypes(HttpServletRequest request) throws HttpMediaTypeNotAcceptableException {
+		// Resolved once per handler lookup, rather than once per candidate mapping and comparison
+		Object attribute = request.getAttribute(MEDIA_TYPES_ATTRIBUTE);
+		if (!(attribute instanceof AcceptedMediaTypes)) {
+			return resolveAcceptedMediaTypes(request);
+		}
+		AcceptedMediaTypes accepted = (AcceptedMediaTypes) attribute;
+		if (accepted.contentNegotiationManager != this.contentNegotiationManager) {
+			accepted.mediaTypes = resolveAcceptedMediaTypes(request);
+			accepted.contentNegotiationManager = this.contentNegotiationManager;
+		}
+		return accepted.mediaTypes;
+	}
+
+	private List<MediaType> resolveAcceptedMediaTypes(HttpServletRequest request) throws HttpMediaTypeNotAcceptableException {
 		List<MediaType> mediaTypes = this.contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request));
 		return mediaTypes.isEmpty() ? Collections.singletonList(MediaType.ALL) : mediaTypes;
 	}
 
+	/**
+	 * Let "produces" conditions resolve the media types of the given request
+	 * only once per {@link ContentNegotiationManager} until
+	 * {@link #clearMediaTypesAttribute} is called, e.g. for the duration of a
+	 * handler lookup. Without this, the media types are resolved on each match
+	 * and comparison.
+	 * @param request the current request
+	 * @since 4.3.12
+	 */
+	public static void initMediaTypesAttribute(HttpServletRequest request) {
+		request.setAttribute(MEDIA_TYPES_ATTRIBUTE, new AcceptedMediaTypes());
+	}
+
+	/**
+	 * Remove the media types resolved from the request by "produces" conditions
+	 * since {@link #initMediaTypesAttribute}, so that a subsequent lookup for
+	 * the same request (e.g. after a forward) resolves them again.
+	 * @param request the current request
+	 * @since 4.3.12
+	 */
+	public static void clearMediaTypesAttribute(HttpServletRequest request) {
+		request.removeAttribute(MEDIA_TYPES_ATTRIBUTE);
+	}
+
 	private int indexOfEqualMediaType(MediaType mediaType) {
 		for (int i = 0; i < getExpressionsToCompare().size(); i++) {
 			MediaType currentMediaType = getExpressionsToCompare().get(i).getMediaType();
@@ -335,4 +375,16 @@ public final class ProducesRequestCondition extends AbstractRequestCondition<Pro
 		}
 	}
 
+
+	/**
+	 * The media types accepted by a request, as resolved by a given
+	 * {@link ContentNegotiationManager}.
+	 */
+	private static class AcceptedMediaTypes {
+
+		private ContentNegotiationManager contentNegotiationManager;
+
+		private List<MediaType> mediaTypes;
+	}
+
 }
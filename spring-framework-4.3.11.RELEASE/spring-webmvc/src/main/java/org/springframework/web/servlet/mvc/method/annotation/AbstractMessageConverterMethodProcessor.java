@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
@@ -40,13 +41,16 @@ import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.HttpMessageNotWritableException;
 import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.StringUtils;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.accept.PathExtensionContentNegotiationStrategy;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
 import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.util.UrlPathHelper;
@@ -77,9 +81,19 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 
 	private static final UrlPathHelper RAW_URL_PATH_HELPER = new UrlPathHelper();
 
+	private static Class<?> javaUtilStreamClass = null;
+
 	static {
 		RAW_URL_PATH_HELPER.setRemoveSemicolonContent(false);
 		RAW_URL_PATH_HELPER.setUrlDecode(false);
+
+		try {
+			javaUtilStreamClass = ClassUtils.forName("java.util.stream.BaseStream",
+					AbstractMessageConverterMethodProcessor.class.getClassLoader());
+		}
+		catch (ClassNotFoundException ex) {
+			// Java 8 not available - Stream return values simply not supported then.
+		}
 	}
 
 
@@ -89,6 +103,10 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 
 	private final Set<String> safeExtensions = new HashSet<String>();
 
+	/** Media type selected for a combination of acceptable and producible media types */
+	private final ConcurrentLruCache<List<List<MediaType>>, MediaType> selectedMediaTypeCache =
+			new ConcurrentLruCache<List<List<MediaType>>, MediaType>(256);
+
 
 	/**
 	 * Constructor with list of converters only.
@@ -180,6 +198,11 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 		}
 
 		HttpServletRequest request = inputMessage.getServletRequest();
+		if (isStreamingValue(outputValue)) {
+			// Written element by element: do not buffer the entire body for an ETag
+			ShallowEtagHeaderFilter.disableContentCaching(request);
+		}
+
 		List<MediaType> requestedMediaTypes = getAcceptableMediaTypes(request);
 		List<MediaType> producibleMediaTypes = getProducibleMediaTypes(request, valueType, declaredType);
 
@@ -187,38 +210,48 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 			throw new IllegalArgumentException("No converter found for return value of type: " + valueType);
 		}
 
-		Set<MediaType> compatibleMediaTypes = new LinkedHashSet<MediaType>();
-		for (MediaType requestedType : requestedMediaTypes) {
-			for (MediaType producibleType : producibleMediaTypes) {
-				if (requestedType.isCompatibleWith(producibleType)) {
-					compatibleMediaTypes.add(getMostSpecificMediaType(requestedType, producibleType));
+		List<List<MediaType>> negotiationKey = Arrays.asList(requestedMediaTypes, producibleMediaTypes);
+		MediaType selectedMediaType = this.selectedMediaTypeCache.get(negotiationKey);
+		if (selectedMediaType == null) {
+			Set<MediaType> compatibleMediaTypes = new LinkedHashSet<MediaType>();
+			for (MediaType requestedType : requestedMediaTypes) {
+				for (MediaType producibleType : producibleMediaTypes) {
+					if (requestedType.isCompatibleWith(producibleType)) {
+						compatibleMediaTypes.add(getMostSpecificMediaType(requestedType, producibleType));
+					}
 				}
 			}
-		}
-		if (compatibleMediaTypes.isEmpty()) {
-			if (outputValue != null) {
-				throw new HttpMediaTypeNotAcceptableException(producibleMediaTypes);
+			if (compatibleMediaTypes.isEmpty()) {
+				if (outputValue != null) {
+					throw new HttpMediaTypeNotAcceptableException(producibleMediaTypes);
+				}
+				return;
 			}
-			return;
-		}
 
-		List<MediaType> mediaTypes = new ArrayList<MediaType>(compatibleMediaTypes);
-		MediaType.sortBySpecificityAndQuality(mediaTypes);
+			List<MediaType> mediaTypes = new ArrayList<MediaType>(compatibleMediaTypes);
+			MediaType.sortBySpecificityAndQuality(mediaTypes);
 
-		MediaType selectedMediaType = null;
-		for (MediaType mediaType : mediaTypes) {
-			if (mediaType.isConcrete()) {
-				selectedMediaType = mediaType;
-				break;
+			for (MediaType mediaType : mediaTypes) {
+				if (mediaType.isConcrete()) {
+					selectedMediaType = mediaType;
+					break;
+				}
+				else if (mediaType.equals(MediaType.ALL) || mediaType.equals(MEDIA_TYPE_APPLICATION)) {
+					selectedMediaType = MediaType.APPLICATION_OCTET_STREAM;
+					break;
+				}
 			}
-			else if (mediaType.equals(MediaType.ALL) || mediaType.equals(MEDIA_TYPE_APPLICATION)) {
-				selectedMediaType = MediaType.APPLICATION_OCTET_STREAM;
-				break;
+			if (selectedMediaType != null) {
+				selectedMediaType = selectedMediaType.removeQualityValue();
+				// Store a copy of the key: the media type lists may be modified by their owners
+				negotiationKey = Arrays.asList(
+						Collections.unmodifiableList(new ArrayList<MediaType>(requestedMediaTypes)),
+						Collections.unmodifiableList(new ArrayList<MediaType>(producibleMediaTypes)));
+				this.selectedMediaTypeCache.putIfAbsent(negotiationKey, selectedMediaType);
 			}
 		}
 
 		if (selectedMediaType != null) {
-			selectedMediaType = selectedMediaType.removeQualityValue();
 			for (HttpMessageConverter<?> messageConverter : this.messageConverters) {
 				if (messageConverter instanceof GenericHttpMessageConverter) {
 					if (((GenericHttpMessageConverter) messageConverter).canWrite(
@@ -260,6 +293,14 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 		}
 	}
 
+	/**
+	 * Whether the given value is an {@link Iterator} or a {@code java.util.stream.Stream},
+	 * which message converters may write element by element.
+	 */
+	private static boolean isStreamingValue(Object value) {
+		return (value instanceof Iterator || (javaUtilStreamClass != null && javaUtilStreamClass.isInstance(value)));
+	}
+
 	/**
 	 * Return the type of the value to be written to the response. Typically this is
 	 * a simple check via getClass on the value but if the value is null, then the
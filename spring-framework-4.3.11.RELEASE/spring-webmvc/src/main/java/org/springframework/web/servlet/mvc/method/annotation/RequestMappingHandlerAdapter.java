@@ -18,6 +18,7 @@ package org.springframework.web.servlet.mvc.method.annotation;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +37,7 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.core.MethodParameter;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.core.annotation.AnnotationUtils;
@@ -51,6 +53,7 @@ import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.ReflectionUtils.MethodFilter;
 import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -170,6 +173,9 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 	private final Map<ControllerAdviceBean, Set<Method>> modelAttributeAdviceCache =
 			new LinkedHashMap<ControllerAdviceBean, Set<Method>>();
 
+	private final Map<HandlerMethod, InvocationPlan> invocationPlanCache =
+			new ConcurrentHashMap<HandlerMethod, InvocationPlan>(256);
+
 
 	public RequestMappingHandlerAdapter() {
 		StringHttpMessageConverter stringHttpMessageConverter = new StringHttpMessageConverter();
@@ -511,6 +517,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 	public void afterPropertiesSet() {
 		// Do this first, it may add ResponseBody advice beans
 		initControllerAdviceCache();
+		this.invocationPlanCache.clear();
 
 		if (this.argumentResolvers == null) {
 			List<HandlerMethodArgumentResolver> resolvers = getDefaultArgumentResolvers();
@@ -791,12 +798,17 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 		ServletWebRequest webRequest = new ServletWebRequest(request, response);
 		try {
-			WebDataBinderFactory binderFactory = getDataBinderFactory(handlerMethod);
-			ModelFactory modelFactory = getModelFactory(handlerMethod, binderFactory);
+			InvocationPlan plan = getInvocationPlan(handlerMethod);
+			WebDataBinderFactory binderFactory = (plan.binderFactory != null ?
+					plan.binderFactory : new LazyDataBinderFactory(handlerMethod, plan));
+			ModelFactory modelFactory = (plan.modelFactory != null ?
+					plan.modelFactory : getModelFactory(handlerMethod, plan, binderFactory));
 
 			ServletInvocableHandlerMethod invocableMethod = createInvocableHandlerMethod(handlerMethod);
 			invocableMethod.setHandlerMethodArgumentResolvers(this.argumentResolvers);
+			invocableMethod.setParameterArgumentResolvers(plan.parameterArgumentResolvers);
 			invocableMethod.setHandlerMethodReturnValueHandlers(this.returnValueHandlers);
+			invocableMethod.setReturnValueHandlerCache(plan.returnValueHandlerCache);
 			invocableMethod.setDataBinderFactory(binderFactory);
 			invocableMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
 
@@ -846,25 +858,91 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		return new ServletInvocableHandlerMethod(handlerMethod);
 	}
 
-	private ModelFactory getModelFactory(HandlerMethod handlerMethod, WebDataBinderFactory binderFactory) {
-		SessionAttributesHandler sessionAttrHandler = getSessionAttributesHandler(handlerMethod);
+	/**
+	 * Return the {@link InvocationPlan} for the given handler method,
+	 * computing it on first access.
+	 */
+	private InvocationPlan getInvocationPlan(HandlerMethod handlerMethod) throws Exception {
+		// The registered HandlerMethod, rather than its per-request copy with a resolved bean
+		HandlerMethod cacheKey = handlerMethod.getResolvedFromHandlerMethod();
+		if (cacheKey == null) {
+			cacheKey = handlerMethod;
+		}
+		InvocationPlan plan = this.invocationPlanCache.get(cacheKey);
+		if (plan == null || plan.argumentResolvers != this.argumentResolvers ||
+				plan.returnValueHandlers != this.returnValueHandlers) {
+			plan = createInvocationPlan(handlerMethod);
+			this.invocationPlanCache.put(cacheKey, plan);
+		}
+		return plan;
+	}
+
+	private InvocationPlan createInvocationPlan(HandlerMethod handlerMethod) throws Exception {
 		Class<?> handlerType = handlerMethod.getBeanType();
-		Set<Method> methods = this.modelAttributeCache.get(handlerType);
-		if (methods == null) {
-			methods = MethodIntrospector.selectMethods(handlerType, MODEL_ATTRIBUTE_METHODS);
-			this.modelAttributeCache.put(handlerType, methods);
+
+		Set<Method> binderMethods = this.initBinderCache.get(handlerType);
+		if (binderMethods == null) {
+			binderMethods = MethodIntrospector.selectMethods(handlerType, INIT_BINDER_METHODS);
+			this.initBinderCache.put(handlerType, binderMethods);
+		}
+		Set<Method> attrMethods = this.modelAttributeCache.get(handlerType);
+		if (attrMethods == null) {
+			attrMethods = MethodIntrospector.selectMethods(handlerType, MODEL_ATTRIBUTE_METHODS);
+			this.modelAttributeCache.put(handlerType, attrMethods);
+		}
+
+		MethodParameter[] parameters = handlerMethod.getMethodParameters();
+		HandlerMethodArgumentResolver[] parameterResolvers = new HandlerMethodArgumentResolver[parameters.length];
+		for (int i = 0; i < parameters.length; i++) {
+			parameters[i].initParameterNameDiscovery(this.parameterNameDiscoverer);
+			parameterResolvers[i] = this.argumentResolvers.getArgumentResolver(parameters[i]);
+		}
+
+		List<Entry<ControllerAdviceBean, Set<Method>>> binderAdvice =
+				getApplicableAdvice(this.initBinderAdviceCache, handlerType);
+		List<Entry<ControllerAdviceBean, Set<Method>>> attrAdvice =
+				getApplicableAdvice(this.modelAttributeAdviceCache, handlerType);
+
+		// Without @InitBinder and @ModelAttribute methods, both factories are stateless
+		WebDataBinderFactory binderFactory = null;
+		ModelFactory modelFactory = null;
+		if (binderAdvice.isEmpty() && binderMethods.isEmpty()) {
+			binderFactory = createDataBinderFactory(Collections.<InvocableHandlerMethod>emptyList());
+			if (attrAdvice.isEmpty() && attrMethods.isEmpty()) {
+				modelFactory = new ModelFactory(null, binderFactory, getSessionAttributesHandler(handlerMethod));
+			}
+		}
+
+		return new InvocationPlan(this.argumentResolvers, this.returnValueHandlers, parameterResolvers,
+				binderAdvice, binderMethods, attrAdvice, attrMethods, binderFactory, modelFactory);
+	}
+
+	private static List<Entry<ControllerAdviceBean, Set<Method>>> getApplicableAdvice(
+			Map<ControllerAdviceBean, Set<Method>> adviceCache, Class<?> handlerType) {
+
+		List<Entry<ControllerAdviceBean, Set<Method>>> result =
+				new ArrayList<Entry<ControllerAdviceBean, Set<Method>>>(adviceCache.size());
+		for (Entry<ControllerAdviceBean, Set<Method>> entry : adviceCache.entrySet()) {
+			if (entry.getKey().isApplicableToBeanType(handlerType)) {
+				result.add(entry);
+			}
 		}
+		return result;
+	}
+
+	private ModelFactory getModelFactory(HandlerMethod handlerMethod, InvocationPlan plan,
+			WebDataBinderFactory binderFactory) {
+
+		SessionAttributesHandler sessionAttrHandler = getSessionAttributesHandler(handlerMethod);
 		List<InvocableHandlerMethod> attrMethods = new ArrayList<InvocableHandlerMethod>();
 		// Global methods first
-		for (Entry<ControllerAdviceBean, Set<Method>> entry : this.modelAttributeAdviceCache.entrySet()) {
-			if (entry.getKey().isApplicableToBeanType(handlerType)) {
-				Object bean = entry.getKey().resolveBean();
-				for (Method method : entry.getValue()) {
-					attrMethods.add(createModelAttributeMethod(binderFactory, bean, method));
-				}
+		for (Entry<ControllerAdviceBean, Set<Method>> entry : plan.modelAttributeAdvice) {
+			Object bean = entry.getKey().resolveBean();
+			for (Method method : entry.getValue()) {
+				attrMethods.add(createModelAttributeMethod(binderFactory, bean, method));
 			}
 		}
-		for (Method method : methods) {
+		for (Method method : plan.modelAttributeMethods) {
 			Object bean = handlerMethod.getBean();
 			attrMethods.add(createModelAttributeMethod(binderFactory, bean, method));
 		}
@@ -879,24 +957,18 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		return attrMethod;
 	}
 
-	private WebDataBinderFactory getDataBinderFactory(HandlerMethod handlerMethod) throws Exception {
-		Class<?> handlerType = handlerMethod.getBeanType();
-		Set<Method> methods = this.initBinderCache.get(handlerType);
-		if (methods == null) {
-			methods = MethodIntrospector.selectMethods(handlerType, INIT_BINDER_METHODS);
-			this.initBinderCache.put(handlerType, methods);
-		}
+	private WebDataBinderFactory getDataBinderFactory(HandlerMethod handlerMethod, InvocationPlan plan)
+			throws Exception {
+
 		List<InvocableHandlerMethod> initBinderMethods = new ArrayList<InvocableHandlerMethod>();
 		// Global methods first
-		for (Entry<ControllerAdviceBean, Set<Method>> entry : this.initBinderAdviceCache.entrySet()) {
-			if (entry.getKey().isApplicableToBeanType(handlerType)) {
-				Object bean = entry.getKey().resolveBean();
-				for (Method method : entry.getValue()) {
-					initBinderMethods.add(createInitBinderMethod(bean, method));
-				}
+		for (Entry<ControllerAdviceBean, Set<Method>> entry : plan.initBinderAdvice) {
+			Object bean = entry.getKey().resolveBean();
+			for (Method method : entry.getValue()) {
+				initBinderMethods.add(createInitBinderMethod(bean, method));
 			}
 		}
-		for (Method method : methods) {
+		for (Method method : plan.initBinderMethods) {
 			Object bean = handlerMethod.getBean();
 			initBinderMethods.add(createInitBinderMethod(bean, method));
 		}
@@ -915,6 +987,8 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 	 * Template method to create a new InitBinderDataBinderFactory instance.
 	 * <p>The default implementation creates a ServletRequestDataBinderFactory.
 	 * This can be overridden for custom ServletRequestDataBinder subclasses.
+	 * <p>For a handler method without any {@code @InitBinder} methods, the
+	 * returned instance is shared across requests as of 4.3.12.
 	 * @param binderMethods {@code @InitBinder} methods
 	 * @return the InitBinderDataBinderFactory instance to use
 	 * @throws Exception in case of invalid state or arguments
@@ -967,4 +1041,87 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		}
 	};
 
+
+	/**
+	 * Per-handler-method state derived once from the handler method signature
+	 * and the adapter configuration: the argument resolver for each method
+	 * parameter, the applicable {@code @InitBinder} and {@code @ModelAttribute}
+	 * methods (global ones from {@code @ControllerAdvice} beans first), the
+	 * return value handler selected per return value type, and the binder and
+	 * model factories if they can be shared across requests.
+	 */
+	private static class InvocationPlan {
+
+		final HandlerMethodArgumentResolverComposite argumentResolvers;
+
+		final HandlerMethodReturnValueHandlerComposite returnValueHandlers;
+
+		final HandlerMethodArgumentResolver[] parameterArgumentResolvers;
+
+		final List<Entry<ControllerAdviceBean, Set<Method>>> initBinderAdvice;
+
+		final Set<Method> initBinderMethods;
+
+		final List<Entry<ControllerAdviceBean, Set<Method>>> modelAttributeAdvice;
+
+		final Set<Method> modelAttributeMethods;
+
+		/** Shared binder factory, or {@code null} if {@code @InitBinder} methods apply */
+		final WebDataBinderFactory binderFactory;
+
+		/** Shared model factory, or {@code null} if to be created per request */
+		final ModelFactory modelFactory;
+
+		final Map<Class<?>, HandlerMethodReturnValueHandler> returnValueHandlerCache =
+				new ConcurrentHashMap<Class<?>, HandlerMethodReturnValueHandler>(4);
+
+		InvocationPlan(HandlerMethodArgumentResolverComposite argumentResolvers,
+				HandlerMethodReturnValueHandlerComposite returnValueHandlers,
+				HandlerMethodArgumentResolver[] parameterArgumentResolvers,
+				List<Entry<ControllerAdviceBean, Set<Method>>> initBinderAdvice, Set<Method> initBinderMethods,
+				List<Entry<ControllerAdviceBean, Set<Method>>> modelAttributeAdvice, Set<Method> modelAttributeMethods,
+				WebDataBinderFactory binderFactory, ModelFactory modelFactory) {
+
+			this.argumentResolvers = argumentResolvers;
+			this.returnValueHandlers = returnValueHandlers;
+			this.parameterArgumentResolvers = parameterArgumentResolvers;
+			this.initBinderAdvice = initBinderAdvice;
+			this.initBinderMethods = initBinderMethods;
+			this.modelAttributeAdvice = modelAttributeAdvice;
+			this.modelAttributeMethods = modelAttributeMethods;
+			this.binderFactory = binderFactory;
+			this.modelFactory = modelFactory;
+		}
+	}
+
+
+	/**
+	 * WebDataBinderFactory for a handler method with {@code @InitBinder} methods,
+	 * preparing those methods for the current request only once a binder is
+	 * actually requested, so that requests not binding anything skip it.
+	 */
+	private class LazyDataBinderFactory implements WebDataBinderFactory {
+
+		private final HandlerMethod handlerMethod;
+
+		private final InvocationPlan plan;
+
+		private WebDataBinderFactory binderFactory;
+
+		public LazyDataBinderFactory(HandlerMethod handlerMethod, InvocationPlan plan) {
+			this.handlerMethod = handlerMethod;
+			this.plan = plan;
+		}
+
+		@Override
+		public WebDataBinder createBinder(NativeWebRequest webRequest, Object target, String objectName)
+				throws Exception {
+
+			if (this.binderFactory == null) {
+				this.binderFactory = getDataBinderFactory(this.handlerMethod, this.plan);
+			}
+			return this.binderFactory.createBinder(webRequest, target, objectName);
+		}
+	}
+
 }
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.Map;
 import java.util.concurrent.Callable;
 
 import org.springframework.core.MethodParameter;
@@ -59,6 +60,8 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 
 	private HandlerMethodReturnValueHandlerComposite returnValueHandlers;
 
+	private Map<Class<?>, HandlerMethodReturnValueHandler> returnValueHandlerCache;
+
 
 	/**
 	 * Creates an instance from the given handler and method.
@@ -83,6 +86,20 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 		this.returnValueHandlers = returnValueHandlers;
 	}
 
+	/**
+	 * Set a cache for the {@link HandlerMethodReturnValueHandler} selected per
+	 * return value type, to be shared across invocations of the underlying
+	 * handler method and hence to be thread-safe. This avoids selecting the
+	 * handler on every invocation, except for asynchronous return values.
+	 * <p>The cache is bound to the handlers set via
+	 * {@link #setHandlerMethodReturnValueHandlers}.
+	 * @since 4.3.12
+	 * @see HandlerMethodReturnValueHandlerComposite#getReturnValueHandler
+	 */
+	public void setReturnValueHandlerCache(Map<Class<?>, HandlerMethodReturnValueHandler> returnValueHandlerCache) {
+		this.returnValueHandlerCache = returnValueHandlerCache;
+	}
+
 
 	/**
 	 * Invoke the method and handle the return value through one of the
@@ -110,8 +127,14 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 
 		mavContainer.setRequestHandled(false);
 		try {
-			this.returnValueHandlers.handleReturnValue(
-					returnValue, getReturnValueType(returnValue), mavContainer, webRequest);
+			MethodParameter returnType = getReturnValueType(returnValue);
+			HandlerMethodReturnValueHandler handler = getCachedReturnValueHandler(returnValue, returnType);
+			if (handler != null) {
+				handler.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+			}
+			else {
+				this.returnValueHandlers.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+			}
 		}
 		catch (Exception ex) {
 			if (logger.isTraceEnabled()) {
@@ -121,6 +144,27 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 		}
 	}
 
+	/**
+	 * Return the handler selected for the type of the given return value before,
+	 * selecting it now if necessary, or {@code null} if no cache is set or if
+	 * the return value is to be handled asynchronously.
+	 */
+	private HandlerMethodReturnValueHandler getCachedReturnValueHandler(Object returnValue, MethodParameter returnType) {
+		Map<Class<?>, HandlerMethodReturnValueHandler> cache = this.returnValueHandlerCache;
+		if (cache == null || this.returnValueHandlers.isAsyncReturnValue(returnValue, returnType)) {
+			return null;
+		}
+		Class<?> type = returnType.getParameterType();
+		HandlerMethodReturnValueHandler handler = cache.get(type);
+		if (handler == null) {
+			handler = this.returnValueHandlers.getReturnValueHandler(returnType);
+			if (handler != null) {
+				cache.put(type, handler);
+			}
+		}
+		return handler;
+	}
+
 	/**
 	 * Set the response status according to the {@link ResponseStatus} annotation.
 	 */
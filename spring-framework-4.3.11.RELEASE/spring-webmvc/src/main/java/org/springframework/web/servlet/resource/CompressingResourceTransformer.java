@@ -0,0 +1,486 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * A {@link ResourceTransformer} that encodes resources with the first of its
+ * {@link #setEncoders encoders} accepted by the client, as indicated by the
+ * "Accept-Encoding" request header, e.g. with gzip.
+ *
+ * <p>Every resource is encoded only once: encoded content is kept in a bounded
+ * cache, keyed by the URL and last-modified timestamp of file-based resources.
+ * In-memory output of other transformers, such as a
+ * {@link CssLinkResourceTransformer} or an {@link AppCacheManifestTransformer},
+ * is keyed by the URL and last-modified timestamp of the original resource
+ * along with the length of the output; the cached entry keeps the output it
+ * was encoded from and is used for equal output only.
+ * Content may also be written to a {@link #setCacheDirectory cache directory},
+ * with file names derived from a hash of the content, which keeps encoded
+ * content out of memory and lets it be served like any other static file.
+ * The number of files in the directory is bounded by the same
+ * {@link #setCacheLimit cache limit}, deleting the least recently written
+ * files first. Content which does not become smaller when encoded is served
+ * as is.
+ *
+ * <p>Since this transformer needs to see the output of all other transformers
+ * and its result depends on the request, it must be the first transformer in
+ * the chain, ahead of a {@link CachingResourceTransformer}.
+ * {@link org.springframework.web.servlet.config.annotation.ResourceChainRegistration}
+ * takes care of that. Resources which are already encoded, e.g. pre-compressed
+ * files resolved by a {@link GzipResourceResolver}, are left unchanged.
+ * A {@link ResourceHttpRequestHandler} with this transformer in its chain adds
+ * "Accept-Encoding" to the "Vary" header of its responses, so that shared
+ * caches do not serve encoded content to clients which did not ask for it.
+ *
+ * @since 4.3.12
+ */
+public class CompressingResourceTransformer implements ResourceTransformer {
+
+	/** Default maximum number of encoded resources to cache: 256 */
+	public static final int DEFAULT_CACHE_LIMIT = 256;
+
+	/** Default maximum length of a resource to encode: 1 MB */
+	public static final long DEFAULT_MAX_CONTENT_LENGTH = 1024 * 1024;
+
+	private static final Log logger = LogFactory.getLog(CompressingResourceTransformer.class);
+
+	/** Marker for content which is not worth encoding */
+	private static final CachedEncoding NOT_ENCODED = new CachedEncoding(null, null);
+
+
+	private final List<ContentEncoder> encoders = new ArrayList<ContentEncoder>(2);
+
+	private ConcurrentLruCache<String, CachedEncoding> cache =
+			new ConcurrentLruCache<String, CachedEncoding>(DEFAULT_CACHE_LIMIT);
+
+	private long maxContentLength = DEFAULT_MAX_CONTENT_LENGTH;
+
+	private File cacheDirectory;
+
+	private final Object cacheDirectoryMonitor = new Object();
+
+
+	/**
+	 * Create a new transformer with a {@link GzipContentEncoder}.
+	 */
+	public CompressingResourceTransformer() {
+		this.encoders.add(new GzipContentEncoder());
+	}
+
+
+	/**
+	 * Configure the encoders to use, in order of preference.
+	 * <p>By default a {@link GzipContentEncoder} is configured.
+	 */
+	public void setEncoders(List<ContentEncoder> encoders) {
+		Assert.notEmpty(encoders, "At least one ContentEncoder is required");
+		this.encoders.clear();
+		this.encoders.addAll(encoders);
+	}
+
+	/**
+	 * Return the configured encoders.
+	 */
+	public List<ContentEncoder> getEncoders() {
+		return this.encoders;
+	}
+
+	/**
+	 * Specify the maximum number of encoded resources to cache, in memory
+	 * as well as in the {@link #setCacheDirectory cache directory}, if any.
+	 * <p>Default is 256. Caching cannot be turned off since every request
+	 * would then encode the resource again.
+	 */
+	public void setCacheLimit(int cacheLimit) {
+		Assert.isTrue(cacheLimit > 0, "Cache limit must be greater than 0");
+		this.cache = new ConcurrentLruCache<String, CachedEncoding>(cacheLimit);
+	}
+
+	/**
+	 * Return the maximum number of encoded resources to cache.
+	 */
+	public int getCacheLimit() {
+		return this.cache.sizeLimit();
+	}
+
+	/**
+	 * Specify the maximum length in bytes of a resource to encode.
+	 * Larger resources are served as is.
+	 * <p>Default is 1 MB.
+	 */
+	public void setMaxContentLength(long maxContentLength) {
+		this.maxContentLength = maxContentLength;
+	}
+
+	/**
+	 * Return the maximum length in bytes of a resource to encode.
+	 */
+	public long getMaxContentLength() {
+		return this.maxContentLength;
+	}
+
+	/**
+	 * Specify a directory to write encoded content to, instead of keeping it
+	 * in memory. Files are named after a hash of the original content and the
+	 * content coding, and are reused if already present, e.g. after a restart.
+	 * Once the directory holds more encoded files than the
+	 * {@link #setCacheLimit cache limit}, the least recently written ones are
+	 * deleted; other files in the directory are left alone.
+	 * <p>By default encoded content is kept in memory.
+	 */
+	public void setCacheDirectory(File cacheDirectory) {
+		Assert.isTrue(cacheDirectory == null || cacheDirectory.isDirectory(),
+				"Cache directory must be an existing directory");
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	/**
+	 * Return the directory encoded content is written to, if any.
+	 */
+	public File getCacheDirectory() {
+		return this.cacheDirectory;
+	}
+
+	/**
+	 * Return the current number of encoded resources in the cache.
+	 */
+	public int getCacheSize() {
+		return this.cache.size();
+	}
+
+
+	@Override
+	public Resource transform(HttpServletRequest request, Resource resource, ResourceTransformerChain transformerChain)
+			throws IOException {
+
+		Resource originalResource = resource;
+		resource = transformerChain.transform(request, resource);
+		if (resource instanceof EncodedResource) {
+			return resource;
+		}
+		ContentEncoder encoder = getContentEncoder(request);
+		if (encoder == null || resource.contentLength() > this.maxContentLength) {
+			return resource;
+		}
+
+		byte[] source = null;
+		String key;
+		if (resource instanceof ByteArrayResource) {
+			source = ((ByteArrayResource) resource).getByteArray();
+			String originalKey = getResourceKey(originalResource);
+			key = (originalKey != null ? originalKey + '#' + source.length : DigestUtils.md5DigestAsHex(source));
+		}
+		else {
+			key = getResourceKey(resource);
+			if (key == null) {
+				// Not backed by a URL, e.g. an InputStreamResource
+				return resource;
+			}
+		}
+		key = encoder.getContentEncoding() + ':' + key;
+
+		CachedEncoding encoding = this.cache.get(key);
+		if (encoding != null && !encoding.isValidFor(source)) {
+			// Deleted from the cache directory, or different output for the same original resource
+			encoding = null;
+		}
+		if (encoding == null) {
+			byte[] content = (source != null ? source : FileCopyUtils.copyToByteArray(resource.getInputStream()));
+			encoding = encode(content, DigestUtils.md5DigestAsHex(content), encoder);
+			if (source != null) {
+				encoding = new CachedEncoding(encoding.content, encoding.file, source);
+			}
+			this.cache.put(key, encoding);
+		}
+		else if (logger.isTraceEnabled()) {
+			logger.trace("Found encoded content for " + resource);
+		}
+
+		if (encoding.content != null) {
+			return new EncodedContentResource(resource, encoding.content, encoder.getContentEncoding());
+		}
+		else if (encoding.file != null) {
+			return new EncodedFileResource(resource, encoding.file, encoder.getContentEncoding());
+		}
+		return resource;
+	}
+
+	/**
+	 * Return the URL and last-modified timestamp of the given resource,
+	 * or {@code null} if it is not backed by a URL.
+	 */
+	private static String getResourceKey(Resource resource) {
+		try {
+			return resource.getURL().toExternalForm() + '@' + resource.lastModified();
+		}
+		catch (IOException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Determine the encoder to apply for the given request, based on its
+	 * "Accept-Encoding" header.
+	 * @return the first configured encoder accepted by the client,
+	 * or {@code null} if none
+	 */
+	protected ContentEncoder getContentEncoder(HttpServletRequest request) {
+		String acceptEncoding = request.getHeader("Accept-Encoding");
+		if (!StringUtils.hasText(acceptEncoding)) {
+			return null;
+		}
+		String[] codings = StringUtils.tokenizeToStringArray(acceptEncoding, ",");
+		for (ContentEncoder encoder : this.encoders) {
+			if (isAccepted(codings, encoder.getContentEncoding())) {
+				return encoder;
+			}
+		}
+		return null;
+	}
+
+	private static boolean isAccepted(String[] codings, String contentEncoding) {
+		// An explicitly named coding takes precedence over "*" (RFC 7231, section 5.3.4)
+		boolean wildcardAccepted = false;
+		for (String coding : codings) {
+			int index = coding.indexOf(';');
+			String name = (index != -1 ? coding.substring(0, index).trim() : coding);
+			boolean accepted = (index == -1 || getQualityValue(coding.substring(index + 1)) > 0);
+			if (name.equalsIgnoreCase(contentEncoding)) {
+				return accepted;
+			}
+			if (name.equals("*")) {
+				wildcardAccepted = accepted;
+			}
+		}
+		return wildcardAccepted;
+	}
+
+	private static double getQualityValue(String parameters) {
+		for (String parameter : StringUtils.tokenizeToStringArray(parameters, ";")) {
+			if (parameter.startsWith("q=")) {
+				try {
+					return Double.parseDouble(parameter.substring(2));
+				}
+				catch (NumberFormatException ex) {
+					return 0;
+				}
+			}
+		}
+		return 1;
+	}
+
+	private CachedEncoding encode(byte[] content, String contentHash, ContentEncoder encoder) throws IOException {
+		byte[] encoded = encoder.encode(content);
+		if (encoded.length >= content.length) {
+			return NOT_ENCODED;
+		}
+		File directory = this.cacheDirectory;
+		if (directory == null) {
+			return new CachedEncoding(encoded, null);
+		}
+		File file = new File(directory, contentHash + "." + encoder.getContentEncoding());
+		if (file.exists()) {
+			// Mark as recently written, for eviction purposes
+			file.setLastModified(System.currentTimeMillis());
+		}
+		else {
+			// Write to a temporary file first, never exposing partially written content
+			File tempFile = File.createTempFile(contentHash, null, directory);
+			FileCopyUtils.copy(encoded, tempFile);
+			if (!tempFile.renameTo(file)) {
+				tempFile.delete();
+				if (!file.exists()) {
+					throw new IOException("Failed to write encoded content to " + file);
+				}
+			}
+		}
+		evictCachedFiles(directory, file);
+		return new CachedEncoding(null, file);
+	}
+
+	/**
+	 * Delete the least recently written encoded files in the given directory
+	 * until their number is back within the cache limit.
+	 * @param directory the cache directory
+	 * @param current the file just written, which is never deleted
+	 */
+	private void evictCachedFiles(File directory, File current) {
+		synchronized (this.cacheDirectoryMonitor) {
+			File[] files = directory.listFiles();
+			if (files == null || files.length <= getCacheLimit()) {
+				return;
+			}
+			List<File> cachedFiles = new ArrayList<File>(files.length);
+			for (File file : files) {
+				if (isCachedFile(file.getName())) {
+					cachedFiles.add(file);
+				}
+			}
+			int excess = cachedFiles.size() - getCacheLimit();
+			if (excess <= 0) {
+				return;
+			}
+			File[] sorted = cachedFiles.toArray(new File[cachedFiles.size()]);
+			Arrays.sort(sorted, new Comparator<File>() {
+				@Override
+				public int compare(File file1, File file2) {
+					long lastModified1 = file1.lastModified();
+					long lastModified2 = file2.lastModified();
+					return (lastModified1 < lastModified2 ? -1 : (lastModified1 > lastModified2 ? 1 : 0));
+				}
+			});
+			for (int i = 0; i < sorted.length && excess > 0; i++) {
+				File file = sorted[i];
+				if (!file.equals(current) && file.delete()) {
+					excess--;
+					if (logger.isTraceEnabled()) {
+						logger.trace("Evicted encoded content " + file);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Whether the given file name is that of encoded content written by this
+	 * transformer, i.e. a hex MD5 hash followed by a configured content coding.
+	 */
+	private boolean isCachedFile(String filename) {
+		if (filename.length() < 34 || filename.charAt(32) != '.') {
+			return false;
+		}
+		for (int i = 0; i < 32; i++) {
+			if (Character.digit(filename.charAt(i), 16) == -1) {
+				return false;
+			}
+		}
+		String contentEncoding = filename.substring(33);
+		for (ContentEncoder encoder : this.encoders) {
+			if (encoder.getContentEncoding().equals(contentEncoding)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * Encoded content, held in memory or in a file.
+	 */
+	private static class CachedEncoding {
+
+		final byte[] content;
+
+		final File file;
+
+		/** The in-memory content this encoding was created from, if any */
+		final byte[] source;
+
+		CachedEncoding(byte[] content, File file) {
+			this(content, file, null);
+		}
+
+		CachedEncoding(byte[] content, File file, byte[] source) {
+			this.content = content;
+			this.file = file;
+			this.source = source;
+		}
+
+		boolean isValidFor(byte[] source) {
+			if (this.file != null && !this.file.exists()) {
+				return false;
+			}
+			// The same array, e.g. from a CachingResourceTransformer, or equal content
+			return (this.source == null || this.source == source || Arrays.equals(this.source, source));
+		}
+	}
+
+
+	/**
+	 * In-memory encoded content of a resource.
+	 */
+	private static class EncodedContentResource extends TransformedResource implements EncodedResource {
+
+		private final String contentEncoding;
+
+		public EncodedContentResource(Resource original, byte[] content, String contentEncoding) {
+			super(original, content);
+			this.contentEncoding = contentEncoding;
+		}
+
+		@Override
+		public String getContentEncoding() {
+			return this.contentEncoding;
+		}
+	}
+
+
+	/**
+	 * Encoded content of a resource, written to a file in the cache directory.
+	 */
+	private static class EncodedFileResource extends FileSystemResource implements EncodedResource {
+
+		private final String filename;
+
+		private final long lastModified;
+
+		private final String contentEncoding;
+
+		public EncodedFileResource(Resource original, File file, String contentEncoding) throws IOException {
+			super(file);
+			this.filename = original.getFilename();
+			this.lastModified = original.lastModified();
+			this.contentEncoding = contentEncoding;
+		}
+
+		@Override
+		public String getFilename() {
+			return this.filename;
+		}
+
+		@Override
+		public long lastModified() throws IOException {
+			return this.lastModified;
+		}
+
+		@Override
+		public String getContentEncoding() {
+			return this.contentEncoding;
+		}
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.resource;
+
+import java.io.IOException;
+
+/**
+ * Strategy to encode the content of a resource with a given content coding,
+ * for use with a {@link CompressingResourceTransformer}.
+ *
+ * @since 4.3.12
+ * @see GzipContentEncoder
+ */
+public interface ContentEncoder {
+
+	/**
+	 * Return the content coding applied by this encoder, e.g. "gzip",
+	 * as matched against the "Accept-Encoding" request header and exposed
+	 * through the "Content-Encoding" response header.
+	 */
+	String getContentEncoding();
+
+	/**
+	 * Encode the given content.
+	 * @param content the content to encode
+	 * @return the encoded content
+	 * @throws IOException in case of encoding errors
+	 */
+	byte[] encode(byte[] content) throws IOException;
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,9 @@
 
 package org.springframework.web.servlet.resource;
 
+import java.io.File;
 import java.io.IOException;
+import java.net.URL;
 import java.net.URLDecoder;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -24,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 import javax.servlet.ServletException;
 import javax.servlet.ServletResponse;
+import javax.servlet.ServletResponseWrapper;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -31,6 +34,8 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.ResourceRegion;
 import org.springframework.http.HttpHeaders;
@@ -44,7 +49,10 @@ import org.springframework.http.server.ServletServerHttpResponse;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentLruCache;
+import org.springframework.util.FileCopyUtils;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.PathMatcher;
 import org.springframework.util.ResourceUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.HttpRequestHandler;
@@ -81,6 +89,12 @@ import org.springframework.web.servlet.support.WebContentGenerator;
  * avoiding unnecessary overhead for resources that are already cached by the
  * client.
  *
+ * <p>For resources backed by files, the handler may optionally hand the transfer
+ * of full and single-range responses to the Servlet container through Tomcat's
+ * {@linkplain #setUseSendfile sendfile} support, and keep the content of small,
+ * frequently requested files in an in-memory {@linkplain #setContentCacheLimit
+ * content cache}. Both options are disabled by default.
+ *
  * @author Keith Donald
  * @author Jeremy Grelle
  * @author Juergen Hoeller
@@ -92,10 +106,22 @@ import org.springframework.web.servlet.support.WebContentGenerator;
 public class ResourceHttpRequestHandler extends WebContentGenerator
 		implements HttpRequestHandler, InitializingBean, CorsConfigurationSource {
 
+	/** Default maximum size of a file held in the content cache: 32 KB */
+	public static final int DEFAULT_CONTENT_CACHE_MAX_FILE_SIZE = 32 * 1024;
+
 	// Servlet 3.1 setContentLengthLong(long) available?
 	private static final boolean contentLengthLongAvailable =
 			ClassUtils.hasMethod(ServletResponse.class, "setContentLengthLong", long.class);
 
+	/** Request attribute set by Tomcat if the connector supports sendfile */
+	private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+
+	private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+
+	private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+
+	private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
 	private static final Log logger = LogFactory.getLog(ResourceHttpRequestHandler.class);
 
 
@@ -115,6 +141,14 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 
 	private CorsConfiguration corsConfiguration;
 
+	private PathMatcher pathMatcher;
+
+	private boolean useSendfile = false;
+
+	private ConcurrentLruCache<String, CachedContent> contentCache;
+
+	private int contentCacheMaxFileSize = DEFAULT_CONTENT_CACHE_MAX_FILE_SIZE;
+
 
 	public ResourceHttpRequestHandler() {
 		super(HttpMethod.GET.name(), HttpMethod.HEAD.name());
@@ -245,6 +279,90 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		return this.corsConfiguration;
 	}
 
+	/**
+	 * Configure a {@link PathMatcher} to apply to the configured
+	 * {@link VersionResourceResolver}s, e.g. a
+	 * {@link org.springframework.util.PrecompiledPathMatcher}.
+	 * <p>By default each resolver uses its own {@code AntPathMatcher}.
+	 * @since 4.3.12
+	 * @see VersionResourceResolver#setPathMatcher
+	 */
+	public void setPathMatcher(PathMatcher pathMatcher) {
+		this.pathMatcher = pathMatcher;
+	}
+
+	/**
+	 * Return the configured {@code PathMatcher}, if any.
+	 * @since 4.3.12
+	 */
+	public PathMatcher getPathMatcher() {
+		return this.pathMatcher;
+	}
+
+	/**
+	 * Whether to let the Servlet container transfer the content of file-based
+	 * resources through its sendfile support, if available. Full responses as
+	 * well as single-range responses are transferred that way, leaving the
+	 * copying of bytes to the operating system.
+	 * <p>This relies on the request attributes exposed by Tomcat's NIO and APR
+	 * connectors and is only applied to unwrapped responses, since the container
+	 * writes the file after this handler returns. Resources served from the
+	 * {@linkplain #setContentCacheLimit content cache} take precedence.
+	 * <p>By default this is set to {@code false}.
+	 * @since 4.3.12
+	 */
+	public void setUseSendfile(boolean useSendfile) {
+		this.useSendfile = useSendfile;
+	}
+
+	/**
+	 * Whether sendfile support is used for file-based resources.
+	 * @since 4.3.12
+	 */
+	public boolean isUseSendfile() {
+		return this.useSendfile;
+	}
+
+	/**
+	 * Specify the maximum number of resources to keep in an in-memory cache,
+	 * serving the content of small files without reading them again for every
+	 * request. Cached content is keyed by the URL of the resource and reloaded
+	 * whenever the last-modified timestamp of the resource changes.
+	 * <p>The default is 0, not caching any content.
+	 * @since 4.3.12
+	 * @see #setContentCacheMaxFileSize
+	 */
+	public void setContentCacheLimit(int contentCacheLimit) {
+		this.contentCache = (contentCacheLimit > 0 ?
+				new ConcurrentLruCache<String, CachedContent>(contentCacheLimit) : null);
+	}
+
+	/**
+	 * Return the maximum number of resources kept in the content cache.
+	 * @since 4.3.12
+	 */
+	public int getContentCacheLimit() {
+		return (this.contentCache != null ? this.contentCache.sizeLimit() : 0);
+	}
+
+	/**
+	 * Specify the maximum size in bytes of a file to keep in the
+	 * {@linkplain #setContentCacheLimit content cache}.
+	 * <p>The default is 32 KB.
+	 * @since 4.3.12
+	 */
+	public void setContentCacheMaxFileSize(int contentCacheMaxFileSize) {
+		this.contentCacheMaxFileSize = contentCacheMaxFileSize;
+	}
+
+	/**
+	 * Return the maximum size in bytes of a file kept in the content cache.
+	 * @since 4.3.12
+	 */
+	public int getContentCacheMaxFileSize() {
+		return this.contentCacheMaxFileSize;
+	}
+
 
 	@Override
 	public void afterPropertiesSet() throws Exception {
@@ -257,6 +375,8 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 			this.resourceResolvers.add(new PathResourceResolver());
 		}
 		initAllowedLocations();
+		initPathMatcher();
+		initVaryByAcceptEncoding();
 
 		if (this.resourceHttpMessageConverter == null) {
 			this.resourceHttpMessageConverter = new ResourceHttpMessageConverter();
@@ -268,6 +388,38 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		this.contentNegotiationStrategy = initContentNegotiationStrategy();
 	}
 
+	/**
+	 * Look for a {@link CompressingResourceTransformer} among the configured
+	 * resource transformers and, if found, add "Accept-Encoding" to the
+	 * {@link #setVaryByRequestHeaders "Vary" request headers}, since the
+	 * content served for the same URL then depends on that request header.
+	 * @since 4.3.12
+	 */
+	protected void initVaryByAcceptEncoding() {
+		for (ResourceTransformer transformer : this.resourceTransformers) {
+			if (transformer instanceof CompressingResourceTransformer) {
+				String[] varyByRequestHeaders = getVaryByRequestHeaders();
+				if (varyByRequestHeaders == null) {
+					setVaryByRequestHeaders(HttpHeaders.ACCEPT_ENCODING);
+				}
+				else if (!containsIgnoreCase(varyByRequestHeaders, HttpHeaders.ACCEPT_ENCODING)) {
+					setVaryByRequestHeaders(StringUtils.addStringToArray(
+							varyByRequestHeaders, HttpHeaders.ACCEPT_ENCODING));
+				}
+				return;
+			}
+		}
+	}
+
+	private static boolean containsIgnoreCase(String[] values, String value) {
+		for (String candidate : values) {
+			if (candidate.equalsIgnoreCase(value)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Look for a {@code PathResourceResolver} among the configured resource
 	 * resolvers and set its {@code allowedLocations} property (if empty) to
@@ -288,6 +440,21 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		}
 	}
 
+	/**
+	 * Apply the configured {@link #setPathMatcher PathMatcher} (if any)
+	 * to the {@code VersionResourceResolver}s among the configured resolvers.
+	 */
+	protected void initPathMatcher() {
+		if (this.pathMatcher == null) {
+			return;
+		}
+		for (ResourceResolver resolver : getResourceResolvers()) {
+			if (resolver instanceof VersionResourceResolver) {
+				((VersionResourceResolver) resolver).setPathMatcher(this.pathMatcher);
+			}
+		}
+	}
+
 	/**
 	 * Initialize the content negotiation strategy depending on the {@code ContentNegotiationManager}
 	 * setup and the availability of a {@code ServletContext}.
@@ -342,7 +509,8 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		checkRequest(request);
 
 		// Header phase
-		if (new ServletWebRequest(request, response).checkNotModified(resource.lastModified())) {
+		long lastModified = resource.lastModified();
+		if (new ServletWebRequest(request, response).checkNotModified(lastModified)) {
 			logger.trace("Resource not modified - returning 304");
 			return;
 		}
@@ -373,7 +541,9 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		ServletServerHttpResponse outputMessage = new ServletServerHttpResponse(response);
 		if (request.getHeader(HttpHeaders.RANGE) == null) {
 			setHeaders(response, resource, mediaType);
-			this.resourceHttpMessageConverter.write(resource, mediaType, outputMessage);
+			if (!writeContent(request, response, resource, mediaType, lastModified)) {
+				this.resourceHttpMessageConverter.write(resource, mediaType, outputMessage);
+			}
 		}
 		else {
 			response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
@@ -383,7 +553,9 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 				response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
 				if (httpRanges.size() == 1) {
 					ResourceRegion resourceRegion = httpRanges.get(0).toResourceRegion(resource);
-					this.resourceRegionHttpMessageConverter.write(resourceRegion, mediaType, outputMessage);
+					if (!writeRegionContent(request, response, resourceRegion, mediaType)) {
+						this.resourceRegionHttpMessageConverter.write(resourceRegion, mediaType, outputMessage);
+					}
 				}
 				else {
 					this.resourceRegionHttpMessageConverter.write(
@@ -397,6 +569,131 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		}
 	}
 
+	/**
+	 * Write the content of the given resource from the content cache, or let
+	 * the container transfer it through sendfile, if enabled and applicable.
+	 * @return {@code true} if the content has been handled, {@code false} if
+	 * it is to be written through the {@link ResourceHttpMessageConverter}
+	 */
+	private boolean writeContent(HttpServletRequest request, HttpServletResponse response,
+			Resource resource, MediaType mediaType, long lastModified) throws IOException {
+
+		if (mediaType == null) {
+			// Leave the choice of a default content type to the converter
+			return false;
+		}
+		URL url = getContentUrl(resource);
+		if (url == null) {
+			return false;
+		}
+		if (this.contentCache != null) {
+			byte[] content = getCachedContent(resource, url, lastModified);
+			if (content != null) {
+				response.getOutputStream().write(content);
+				return true;
+			}
+		}
+		File file = getSendfileFile(request, response, url);
+		if (file == null) {
+			return false;
+		}
+		setSendfileAttributes(request, file, 0, resource.contentLength());
+		return true;
+	}
+
+	/**
+	 * Let the container transfer the given region through sendfile, if enabled
+	 * and applicable, setting the same headers as the
+	 * {@link ResourceRegionHttpMessageConverter}.
+	 * @return {@code true} if the content has been handled, {@code false} if
+	 * it is to be written through the {@link ResourceRegionHttpMessageConverter}
+	 */
+	private boolean writeRegionContent(HttpServletRequest request, HttpServletResponse response,
+			ResourceRegion region, MediaType mediaType) throws IOException {
+
+		if (mediaType == null || !this.useSendfile) {
+			return false;
+		}
+		URL url = getContentUrl(region.getResource());
+		File file = (url != null ? getSendfileFile(request, response, url) : null);
+		if (file == null) {
+			return false;
+		}
+		long resourceLength = region.getResource().contentLength();
+		long start = region.getPosition();
+		long end = Math.min(start + region.getCount() - 1, resourceLength - 1);
+		response.setContentType(mediaType.toString());
+		response.setHeader("Content-Range", "bytes " + start + '-' + end + '/' + resourceLength);
+		setContentLength(response, end - start + 1);
+		setSendfileAttributes(request, file, start, end + 1);
+		return true;
+	}
+
+	/**
+	 * Return the URL to identify the content of the given resource by,
+	 * or {@code null} if it is not to be cached or transferred directly.
+	 */
+	private URL getContentUrl(Resource resource) {
+		if ((!this.useSendfile && this.contentCache == null) ||
+				resource instanceof ByteArrayResource || resource instanceof InputStreamResource) {
+			// In-memory content, e.g. a TransformedResource
+			return null;
+		}
+		try {
+			return resource.getURL();
+		}
+		catch (IOException ex) {
+			return null;
+		}
+	}
+
+	private byte[] getCachedContent(Resource resource, URL url, long lastModified) throws IOException {
+		String key = url.toExternalForm();
+		CachedContent cached = this.contentCache.get(key);
+		long length = resource.contentLength();
+		// Timestamps may be coarse: a file rewritten within the same second must differ in length
+		if (cached != null && cached.lastModified == lastModified && cached.content.length == length) {
+			return cached.content;
+		}
+		if (length > this.contentCacheMaxFileSize) {
+			return null;
+		}
+		byte[] content = FileCopyUtils.copyToByteArray(resource.getInputStream());
+		if (content.length != length) {
+			// Modified while reading: not worth caching
+			return null;
+		}
+		this.contentCache.put(key, new CachedContent(content, lastModified));
+		return content;
+	}
+
+	/**
+	 * Return the file to transfer through sendfile, or {@code null} if sendfile
+	 * is not enabled or not supported for the current request and resource URL.
+	 */
+	private File getSendfileFile(HttpServletRequest request, HttpServletResponse response, URL url) {
+		// The container writes the file after we return, bypassing any response wrapper
+		if (!this.useSendfile || !Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE)) ||
+				response instanceof ServletResponseWrapper || !ResourceUtils.isFileURL(url)) {
+			return null;
+		}
+		try {
+			return ResourceUtils.getFile(url);
+		}
+		catch (IOException ex) {
+			return null;
+		}
+	}
+
+	private void setSendfileAttributes(HttpServletRequest request, File file, long start, long end) {
+		if (logger.isTraceEnabled()) {
+			logger.trace("Transferring bytes " + start + "-" + end + " of [" + file + "] through sendfile");
+		}
+		request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.getAbsolutePath());
+		request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+		request.setAttribute(SENDFILE_END_ATTRIBUTE, end);
+	}
+
 	protected Resource getResource(HttpServletRequest request) throws IOException {
 		String path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
 		if (path == null) {
@@ -548,7 +845,20 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 	 * @throws IOException in case of errors while setting the headers
 	 */
 	protected void setHeaders(HttpServletResponse response, Resource resource, MediaType mediaType) throws IOException {
-		long length = resource.contentLength();
+		setContentLength(response, resource.contentLength());
+		if (mediaType != null) {
+			response.setContentType(mediaType.toString());
+		}
+		if (resource instanceof EncodedResource) {
+			response.setHeader(HttpHeaders.CONTENT_ENCODING, ((EncodedResource) resource).getContentEncoding());
+		}
+		if (resource instanceof VersionedResource) {
+			response.setHeader(HttpHeaders.ETAG, "\"" + ((VersionedResource) resource).getVersion() + "\"");
+		}
+		response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+	}
+
+	private static void setContentLength(HttpServletResponse response, long length) {
 		if (length > Integer.MAX_VALUE) {
 			if (contentLengthLongAvailable) {
 				response.setContentLengthLong(length);
@@ -560,17 +870,6 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		else {
 			response.setContentLength((int) length);
 		}
-
-		if (mediaType != null) {
-			response.setContentType(mediaType.toString());
-		}
-		if (resource instanceof EncodedResource) {
-			response.setHeader(HttpHeaders.CONTENT_ENCODING, ((EncodedResource) resource).getContentEncoding());
-		}
-		if (resource instanceof VersionedResource) {
-			response.setHeader(HttpHeaders.ETAG, "\"" + ((VersionedResource) resource).getVersion() + "\"");
-		}
-		response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
 	}
 
 
@@ -579,4 +878,21 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		return "ResourceHttpRequestHandler [locations=" + getLocations() + ", resolvers=" + getResourceResolvers() + "]";
 	}
 
+
+	/**
+	 * Content of a small file, along with the last-modified timestamp it was read for.
+ * The length of the content is checked against the current file length as well.
+	 */
+	private static class CachedContent {
+
+		final byte[] content;
+
+		final long lastModified;
+
+		CachedContent(byte[] content, long lastModified) {
+			this.content = content;
+			this.lastModified = lastModified;
+		}
+	}
+
 }
@@ -33,6 +33,8 @@ import javax.servlet.http.HttpServletRequest;
 import org.springframework.core.io.AbstractResource;
 import org.springframework.core.io.Resource;
 import org.springframework.util.AntPathMatcher;
+import org.springframework.util.Assert;
+import org.springframework.util.PathMatcher;
 import org.springframework.util.StringUtils;
 
 /**
@@ -62,7 +64,7 @@ import org.springframework.util.StringUtils;
  */
 public class VersionResourceResolver extends AbstractResourceResolver {
 
-	private AntPathMatcher pathMatcher = new AntPathMatcher();
+	private PathMatcher pathMatcher = new AntPathMatcher();
 
 	/** Map from path pattern -> VersionStrategy */
 	private final Map<String, VersionStrategy> versionStrategyMap = new LinkedHashMap<String, VersionStrategy>();
@@ -86,6 +88,27 @@ public class VersionResourceResolver extends AbstractResourceResolver {
 		return this.versionStrategyMap;
 	}
 
+	/**
+	 * Set the {@link PathMatcher} to use for matching resource paths against
+	 * the configured version strategy patterns.
+	 * <p>Default is an {@link AntPathMatcher}. Consider a
+	 * {@link org.springframework.util.PrecompiledPathMatcher} for many
+	 * strategy patterns.
+	 * @since 4.3.12
+	 */
+	public void setPathMatcher(PathMatcher pathMatcher) {
+		Assert.notNull(pathMatcher, "PathMatcher must not be null");
+		this.pathMatcher = pathMatcher;
+	}
+
+	/**
+	 * Return the {@link PathMatcher} used for matching version strategy patterns.
+	 * @since 4.3.12
+	 */
+	public PathMatcher getPathMatcher() {
+		return this.pathMatcher;
+	}
+
 	/**
 	 * Insert a content-based version in resource URLs that match the given path
 	 * patterns. The version is computed from the content of the file, e.g.
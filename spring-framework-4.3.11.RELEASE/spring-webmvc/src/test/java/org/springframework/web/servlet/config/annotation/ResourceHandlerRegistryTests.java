@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -34,6 +34,7 @@ import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
 import org.springframework.web.servlet.resource.AppCacheManifestTransformer;
 import org.springframework.web.servlet.resource.CachingResourceResolver;
 import org.springframework.web.servlet.resource.CachingResourceTransformer;
+import org.springframework.web.servlet.resource.CompressingResourceTransformer;
 import org.springframework.web.servlet.resource.CssLinkResourceTransformer;
 import org.springframework.web.servlet.resource.PathResourceResolver;
 import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
@@ -176,6 +177,23 @@ public class ResourceHandlerRegistryTests {
 		assertThat(transformers.get(2), Matchers.instanceOf(AppCacheManifestTransformer.class));
 	}
 
+	@Test
+	public void resourceChainWithCompressingTransformer() throws Exception {
+		CompressingResourceTransformer compressingTransformer = new CompressingResourceTransformer();
+		this.registration.resourceChain(true)
+				.addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"))
+				.addTransformer(new AppCacheManifestTransformer())
+				.addTransformer(compressingTransformer);
+
+		ResourceHttpRequestHandler handler = getHandler("/resources/**");
+		List<ResourceTransformer> transformers = handler.getResourceTransformers();
+		assertThat(transformers, Matchers.hasSize(4));
+		assertThat(transformers.get(0), Matchers.sameInstance(compressingTransformer));
+		assertThat(transformers.get(1), Matchers.instanceOf(CachingResourceTransformer.class));
+		assertThat(transformers.get(2), Matchers.instanceOf(CssLinkResourceTransformer.class));
+		assertThat(transformers.get(3), Matchers.instanceOf(AppCacheManifestTransformer.class));
+	}
+
 	@Test
 	public void resourceChainWithOverrides() throws Exception {
 		CachingResourceResolver cachingResolver = Mockito.mock(CachingResourceResolver.class);
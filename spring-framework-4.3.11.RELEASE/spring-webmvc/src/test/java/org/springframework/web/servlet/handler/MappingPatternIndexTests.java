@@ -0,0 +1,147 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.handler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link MappingPatternIndex}.
+ */
+public class MappingPatternIndexTests {
+
+	private final MappingPatternIndex<String> index = MappingPatternIndex.forPathMatcher(new AntPathMatcher());
+
+
+	@Test
+	public void literalAndVariableSegments() {
+		add("/hotels", "/hotels/{hotel}", "/hotels/{hotel}/bookings", "/hotels/{hotel}/bookings/{booking}",
+				"/flights/{flight}", "/hotels/search");
+
+		assertEquals(Arrays.asList("/hotels/{hotel}", "/hotels/search"), this.index.getCandidates("/hotels/search"));
+		assertEquals(Collections.singletonList("/hotels/{hotel}/bookings/{booking}"),
+				this.index.getCandidates("/hotels/1/bookings/2"));
+		assertEquals(Collections.emptyList(), this.index.getCandidates("/cars/1"));
+	}
+
+	@Test
+	public void wildcardSegments() {
+		add("/hotels/*", "/hotels/h?tel/rooms", "/hotels/*.html", "/files/**", "/**/*.css", "/images/**/thumbnail");
+
+		assertEquals(Arrays.asList("/hotels/*", "/hotels/*.html", "/**/*.css"),
+				this.index.getCandidates("/hotels/index.html"));
+		assertEquals(Arrays.asList("/hotels/h?tel/rooms", "/**/*.css"), this.index.getCandidates("/hotels/hotel/rooms"));
+		assertEquals(Arrays.asList("/files/**", "/**/*.css"), this.index.getCandidates("/files/a/b/c"));
+		assertEquals(Arrays.asList("/files/**", "/**/*.css"), this.index.getCandidates("/files"));
+		assertEquals(Arrays.asList("/**/*.css", "/images/**/thumbnail"),
+				this.index.getCandidates("/images/small/thumbnail"));
+	}
+
+	@Test
+	public void suffixAndTrailingSlash() {
+		add("/hotels/list", "/hotels/list.v2", "/hotels/", "/hotels/*");
+
+		assertEquals(Arrays.asList("/hotels/list", "/hotels/list.v2", "/hotels/", "/hotels/*"),
+				this.index.getCandidates("/hotels/list.v2.json"));
+		assertEquals(Arrays.asList("/hotels/list", "/hotels/", "/hotels/*"), this.index.getCandidates("/hotels/list/"));
+		assertEquals(Arrays.asList("/hotels/", "/hotels/*"), this.index.getCandidates("/hotels/"));
+	}
+
+	@Test
+	public void mappingsWithoutPatterns() {
+		this.index.add("none", Collections.<String>emptyList());
+		add("/hotels");
+
+		assertEquals(Arrays.asList("none", "/hotels"), this.index.getCandidates("/hotels"));
+		assertEquals(Collections.singletonList("none"), this.index.getCandidates("/flights"));
+	}
+
+	@Test
+	public void mappingWithMultiplePatterns() {
+		this.index.add("multi", Arrays.asList("/hotels/{hotel}", "/hotels/{hotel}.*", "/hotels/**"));
+		add("/hotels/search");
+
+		assertEquals(Arrays.asList("multi", "/hotels/search"), this.index.getCandidates("/hotels/search"));
+	}
+
+	@Test
+	public void remove() {
+		add("/hotels/{hotel}", "/hotels/search", "/files/**");
+		this.index.remove("/hotels/{hotel}", Collections.singletonList("/hotels/{hotel}"));
+		this.index.remove("/files/**", Collections.singletonList("/files/**"));
+
+		assertEquals(Collections.singletonList("/hotels/search"), this.index.getCandidates("/hotels/search"));
+		assertEquals(Collections.emptyList(), this.index.getCandidates("/hotels/1"));
+		assertEquals(Collections.emptyList(), this.index.getCandidates("/files/a"));
+	}
+
+	@Test
+	public void caseInsensitiveMatching() {
+		AntPathMatcher pathMatcher = new AntPathMatcher();
+		pathMatcher.setCaseSensitive(false);
+		MappingPatternIndex<String> index = MappingPatternIndex.forPathMatcher(pathMatcher);
+		index.add("/Hotels/{hotel}", Collections.singletonList("/Hotels/{hotel}"));
+
+		assertEquals(Collections.singletonList("/Hotels/{hotel}"), index.getCandidates("/hOTELS/1"));
+	}
+
+	@Test
+	public void unsupportedPathMatcher() {
+		assertNull(MappingPatternIndex.forPathMatcher(new AntPathMatcher(".")));
+		assertNull(MappingPatternIndex.forPathMatcher(mock(PathMatcher.class)));
+	}
+
+	@Test
+	public void candidatesIncludeAllMatches() {
+		List<String> patterns = Arrays.asList("/", "/a", "/a/b", "/a/{x}", "/a/{x}/c", "/a/*/c", "/a/**", "/**",
+				"/a/b.*", "/a/**/c", "/{x}/{y}/{z}", "/a/b/c/", "/?/b", "/a/b*", "/a/{x}.{y}");
+		List<String> paths = Arrays.asList("/", "/a", "/a/", "/a/b", "/a/b/", "/a/b.json", "/a/b/c", "/a/x/c",
+				"/a/b/c/d", "/b", "/b/b", "/a/b.c.d", "/x/y/z", "//a//b");
+		PathMatcher pathMatcher = new AntPathMatcher();
+		for (String pattern : patterns) {
+			this.index.add(pattern, Collections.singletonList(pattern));
+		}
+		for (String path : paths) {
+			List<String> candidates = this.index.getCandidates(path);
+			for (String pattern : patterns) {
+				for (String variant : Arrays.asList(pattern, pattern + ".*", pattern + ".json", pattern + "/")) {
+					if (pathMatcher.match(variant, path)) {
+						assertTrue("Expected " + pattern + " for " + path, candidates.contains(pattern));
+					}
+				}
+			}
+		}
+	}
+
+
+	private void add(String... patterns) {
+		for (String pattern : patterns) {
+			this.index.add(pattern, Collections.singletonList(pattern));
+		}
+	}
+
+}
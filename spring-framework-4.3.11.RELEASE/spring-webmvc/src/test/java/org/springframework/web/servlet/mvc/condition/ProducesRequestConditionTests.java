@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,10 +18,16 @@ package org.springframework.web.servlet.mvc.condition;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
+import org.springframework.http.MediaType;
 import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.accept.ContentNegotiationStrategy;
+import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.servlet.mvc.condition.ProducesRequestCondition.ProduceMediaTypeExpression;
 
 import static org.junit.Assert.*;
@@ -44,6 +50,57 @@ public class ProducesRequestConditionTests {
 		assertNotNull(condition.getMatchingCondition(request));
 	}
 
+	@Test
+	public void acceptedMediaTypesResolvedOncePerLookup() {
+		final AtomicInteger count = new AtomicInteger();
+		ContentNegotiationManager manager = new ContentNegotiationManager(new ContentNegotiationStrategy() {
+			@Override
+			public List<MediaType> resolveMediaTypes(NativeWebRequest request) {
+				count.incrementAndGet();
+				return Collections.singletonList(MediaType.TEXT_PLAIN);
+			}
+		});
+		ProducesRequestCondition condition1 = new ProducesRequestCondition(new String[] {"text/plain"}, null, manager);
+		ProducesRequestCondition condition2 = new ProducesRequestCondition(new String[] {"text/*"}, null, manager);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+
+		assertNotNull(condition1.getMatchingCondition(request));
+		assertNotNull(condition2.getMatchingCondition(request));
+		assertEquals(2, count.get());
+
+		ProducesRequestCondition.initMediaTypesAttribute(request);
+		assertNotNull(condition1.getMatchingCondition(request));
+		assertNotNull(condition2.getMatchingCondition(request));
+		assertTrue(condition1.compareTo(condition2, request) < 0);
+		assertEquals(3, count.get());
+
+		ProducesRequestCondition.clearMediaTypesAttribute(request);
+		assertNotNull(condition1.getMatchingCondition(request));
+		assertEquals(4, count.get());
+	}
+
+	@Test
+	public void acceptedMediaTypesResolvedPerContentNegotiationManager() {
+		ContentNegotiationManager textManager = new ContentNegotiationManager(new ContentNegotiationStrategy() {
+			@Override
+			public List<MediaType> resolveMediaTypes(NativeWebRequest request) {
+				return Collections.singletonList(MediaType.TEXT_PLAIN);
+			}
+		});
+		ContentNegotiationManager jsonManager = new ContentNegotiationManager(new ContentNegotiationStrategy() {
+			@Override
+			public List<MediaType> resolveMediaTypes(NativeWebRequest request) {
+				return Collections.singletonList(MediaType.APPLICATION_JSON);
+			}
+		});
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		ProducesRequestCondition.initMediaTypesAttribute(request);
+
+		assertNotNull(new ProducesRequestCondition(new String[] {"text/plain"}, null, textManager).getMatchingCondition(request));
+		assertNotNull(new ProducesRequestCondition(new String[] {"application/json"}, null, jsonManager).getMatchingCondition(request));
+		assertNull(new ProducesRequestCondition(new String[] {"text/plain"}, null, jsonManager).getMatchingCondition(request));
+	}
+
 	@Test
 	public void matchNegated() {
 		ProducesRequestCondition condition = new ProducesRequestCondition("!text/plain");
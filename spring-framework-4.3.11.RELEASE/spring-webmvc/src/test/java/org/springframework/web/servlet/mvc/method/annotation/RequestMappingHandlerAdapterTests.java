@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -202,6 +203,38 @@ public class RequestMappingHandlerAdapterTests {
 		assertEquals("gAttr2", mav.getModel().get("attr2"));
 	}
 
+	@Test
+	public void modelAttributeAdviceWithRepeatedInvocation() throws Exception {
+		this.webAppContext.registerSingleton("maa", ModelAttributeAdvice.class);
+		this.webAppContext.refresh();
+		this.handlerAdapter.afterPropertiesSet();
+
+		for (int i = 0; i < 2; i++) {
+			HandlerMethod handlerMethod = handlerMethod(new SimpleController(), "handle");
+			ModelAndView mav = this.handlerAdapter.handle(this.request, new MockHttpServletResponse(), handlerMethod);
+
+			assertEquals("lAttr1", mav.getModel().get("attr1"));
+			assertEquals("gAttr2", mav.getModel().get("attr2"));
+		}
+	}
+
+	@Test
+	public void returnValueHandlerPerReturnValueType() throws Exception {
+		HandlerMethod handlerMethod = handlerMethod(new ObjectReturningController(), "handle", HttpServletRequest.class);
+		this.handlerAdapter.afterPropertiesSet();
+
+		for (int i = 0; i < 2; i++) {
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+			ModelAndView mav = this.handlerAdapter.handle(request, new MockHttpServletResponse(), handlerMethod);
+			assertEquals("stringView", mav.getViewName());
+
+			request.setParameter("mav", "true");
+			mav = this.handlerAdapter.handle(request, new MockHttpServletResponse(), handlerMethod);
+			assertEquals("mavView", mav.getViewName());
+			assertEquals("mavValue", mav.getModel().get("mavAttr"));
+		}
+	}
+
 	@Test
 	public void modelAttributeAdviceInParentContext() throws Exception {
 		StaticWebApplicationContext parent = new StaticWebApplicationContext();
@@ -330,6 +363,18 @@ public class RequestMappingHandlerAdapterTests {
 	}
 
 
+	@SuppressWarnings("unused")
+	private static class ObjectReturningController {
+
+		public Object handle(HttpServletRequest request) {
+			if (request.getParameter("mav") != null) {
+				return new ModelAndView("mavView", "mavAttr", "mavValue");
+			}
+			return "stringView";
+		}
+	}
+
+
 	@SessionAttributes("attr1")
 	private static class SessionAttributeController {
 
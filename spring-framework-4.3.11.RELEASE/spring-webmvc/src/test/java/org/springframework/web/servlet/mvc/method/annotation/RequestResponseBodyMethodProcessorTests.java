@@ -24,6 +24,7 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
@@ -63,6 +64,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.method.support.ModelAndViewContainer;
 import org.springframework.web.servlet.ModelAndView;
@@ -326,6 +328,44 @@ public class RequestResponseBodyMethodProcessorTests {
 		assertEquals("Foo", servletResponse.getContentAsString());
 	}
 
+	@Test
+	public void handleReturnValueIterator() throws Exception {
+		this.servletRequest.addHeader("Accept", "application/json");
+
+		List<HttpMessageConverter<?>> converters = new ArrayList<>();
+		converters.add(new MappingJackson2HttpMessageConverter());
+
+		Method method = ResponseBodyController.class.getMethod("handleWithIterator");
+		MethodParameter returnType = new MethodParameter(method, -1);
+
+		RequestResponseBodyMethodProcessor processor = new RequestResponseBodyMethodProcessor(converters);
+		processor.handleReturnValue(Arrays.asList("Foo", "Bar").iterator(), returnType, container, request);
+
+		assertEquals("application/json;charset=UTF-8", servletResponse.getHeader("Content-Type"));
+		assertEquals("[\"Foo\",\"Bar\"]", servletResponse.getContentAsString());
+		assertNotNull("Content caching for ETag not disabled",
+				servletRequest.getAttribute(ShallowEtagHeaderFilter.class.getName() + ".STREAMING"));
+	}
+
+	@Test
+	public void handleReturnValueWithRepeatedNegotiation() throws Exception {
+		List<HttpMessageConverter<?>> converters = new ArrayList<>();
+		converters.add(new MappingJackson2HttpMessageConverter());
+		converters.add(new StringHttpMessageConverter());
+		RequestResponseBodyMethodProcessor processor = new RequestResponseBodyMethodProcessor(converters);
+
+		for (String accept : Arrays.asList("text/plain", "application/json", "text/plain")) {
+			MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+			servletRequest.addHeader("Accept", accept);
+			MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+			NativeWebRequest request = new ServletWebRequest(servletRequest, servletResponse);
+
+			processor.handleReturnValue("Foo", this.returnTypeString, new ModelAndViewContainer(), request);
+
+			assertTrue(servletResponse.getContentType().startsWith(accept));
+		}
+	}
+
 	@Test
 	public void handleReturnValueStringAcceptCharset() throws Exception {
 		this.servletRequest.addHeader("Accept", "text/plain;charset=UTF-8");
@@ -831,6 +871,11 @@ public class RequestResponseBodyMethodProcessorTests {
 		public CharSequence handleWithCharSequence() {
 			return null;
 		}
+
+		@RequestMapping
+		public Iterator<String> handleWithIterator() {
+			return null;
+		}
 	}
 
 
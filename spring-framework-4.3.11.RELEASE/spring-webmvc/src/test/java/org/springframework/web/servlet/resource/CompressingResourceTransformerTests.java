@@ -0,0 +1,259 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.StringUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CompressingResourceTransformer}.
+ */
+public class CompressingResourceTransformerTests {
+
+	private static final String CONTENT = StringUtils.collectionToDelimitedString(
+			Collections.nCopies(100, "h1 { color:red; }"), "\n");
+
+	private CompressingResourceTransformer transformer;
+
+	private ResourceTransformerChain chain;
+
+	private MockHttpServletRequest request;
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+	@Before
+	public void setUp() {
+		this.transformer = new CompressingResourceTransformer();
+		ResourceResolverChain resolverChain = new DefaultResourceResolverChain(Collections.<ResourceResolver>emptyList());
+		this.chain = new DefaultResourceTransformerChain(resolverChain,
+				Collections.<ResourceTransformer>singletonList(this.transformer));
+		this.request = new MockHttpServletRequest("GET", "/static/foo.css");
+		this.request.addHeader("Accept-Encoding", "gzip, deflate");
+	}
+
+
+	@Test
+	public void encodeInMemoryResource() throws Exception {
+		Resource resource = createCssResource();
+		Resource encoded = this.chain.transform(this.request, resource);
+
+		assertTrue(encoded instanceof EncodedResource);
+		assertEquals("gzip", ((EncodedResource) encoded).getContentEncoding());
+		assertEquals("foo.css", encoded.getFilename());
+		assertEquals(resource.lastModified(), encoded.lastModified());
+		assertTrue(encoded.contentLength() < resource.contentLength());
+		assertEquals(CONTENT, decode(encoded));
+	}
+
+	@Test
+	public void encodedContentCached() throws Exception {
+		Resource first = this.chain.transform(this.request, createCssResource());
+		Resource second = this.chain.transform(this.request, createCssResource());
+
+		assertSame(((TransformedResource) first).getByteArray(), ((TransformedResource) second).getByteArray());
+		assertEquals(1, this.transformer.getCacheSize());
+	}
+
+	@Test
+	public void encodingNotAccepted() throws Exception {
+		Resource resource = createCssResource();
+		this.request = new MockHttpServletRequest("GET", "/static/foo.css");
+		assertSame(resource, this.chain.transform(this.request, resource));
+
+		this.request.addHeader("Accept-Encoding", "gzip;q=0, identity");
+		assertSame(resource, this.chain.transform(this.request, resource));
+		assertEquals(0, this.transformer.getCacheSize());
+	}
+
+	@Test
+	public void explicitCodingTakesPrecedenceOverWildcard() throws Exception {
+		Resource resource = createCssResource();
+		this.request = new MockHttpServletRequest("GET", "/static/foo.css");
+		this.request.addHeader("Accept-Encoding", "*;q=0, gzip");
+		assertTrue(this.chain.transform(this.request, resource) instanceof EncodedResource);
+
+		this.request = new MockHttpServletRequest("GET", "/static/foo.css");
+		this.request.addHeader("Accept-Encoding", "gzip;q=0, *");
+		assertSame(resource, this.chain.transform(this.request, resource));
+
+		this.request = new MockHttpServletRequest("GET", "/static/foo.css");
+		this.request.addHeader("Accept-Encoding", "*");
+		assertTrue(this.chain.transform(this.request, resource) instanceof EncodedResource);
+	}
+
+	@Test
+	public void encodeTransformedResourceKeyedByOriginalResource() throws Exception {
+		final String[] output = {CONTENT};
+		ResourceTransformer cssTransformer = new ResourceTransformer() {
+			@Override
+			public Resource transform(HttpServletRequest request, Resource resource, ResourceTransformerChain chain)
+					throws IOException {
+				return new TransformedResource(resource, output[0].getBytes("UTF-8"));
+			}
+		};
+		ResourceResolverChain resolverChain = new DefaultResourceResolverChain(Collections.<ResourceResolver>emptyList());
+		this.chain = new DefaultResourceTransformerChain(resolverChain, Arrays.asList(this.transformer, cssTransformer));
+		Resource resource = new ClassPathResource("test/foo.css", getClass());
+
+		Resource first = this.chain.transform(this.request, resource);
+		Resource second = this.chain.transform(this.request, resource);
+		assertSame(((TransformedResource) first).getByteArray(), ((TransformedResource) second).getByteArray());
+		assertEquals(1, this.transformer.getCacheSize());
+
+		// Different output of the same length for the same original resource
+		output[0] = CONTENT.replace("red", "tan");
+		assertEquals(output[0], decode(this.chain.transform(this.request, resource)));
+		assertEquals(1, this.transformer.getCacheSize());
+	}
+
+	@Test
+	public void contentNotSmaller() throws Exception {
+		Resource resource = new ClassPathResource("test/foo.css", getClass());
+		assertSame(resource, this.chain.transform(this.request, resource));
+		assertSame(resource, this.chain.transform(this.request, resource));
+		assertEquals(1, this.transformer.getCacheSize());
+	}
+
+	@Test
+	public void contentTooLarge() throws Exception {
+		this.transformer.setMaxContentLength(CONTENT.length() - 1);
+		Resource resource = createCssResource();
+		assertSame(resource, this.chain.transform(this.request, resource));
+	}
+
+	@Test
+	public void alreadyEncoded() throws Exception {
+		Resource resource = this.chain.transform(this.request, createCssResource());
+		assertSame(resource, this.chain.transform(this.request, resource));
+	}
+
+	@Test
+	public void encodeWithPreferredEncoder() throws Exception {
+		ContentEncoder encoder = new ContentEncoder() {
+			@Override
+			public String getContentEncoding() {
+				return "test";
+			}
+			@Override
+			public byte[] encode(byte[] content) {
+				return new byte[] {1, 2, 3};
+			}
+		};
+		this.transformer.setEncoders(Arrays.asList(encoder, new GzipContentEncoder()));
+		this.request = new MockHttpServletRequest("GET", "/static/foo.css");
+		this.request.addHeader("Accept-Encoding", "gzip, test");
+
+		Resource encoded = this.chain.transform(this.request, createCssResource());
+		assertEquals("test", ((EncodedResource) encoded).getContentEncoding());
+		assertArrayEquals(new byte[] {1, 2, 3}, FileCopyUtils.copyToByteArray(encoded.getInputStream()));
+	}
+
+	@Test
+	public void encodeFileResourceToCacheDirectory() throws Exception {
+		File file = this.temporaryFolder.newFile("foo.css");
+		FileCopyUtils.copy(CONTENT.getBytes("UTF-8"), file);
+		File cacheDirectory = this.temporaryFolder.newFolder();
+		this.transformer.setCacheDirectory(cacheDirectory);
+
+		Resource resource = new FileSystemResource(file);
+		Resource encoded = this.chain.transform(this.request, resource);
+
+		assertTrue(encoded instanceof EncodedResource);
+		assertEquals("foo.css", encoded.getFilename());
+		assertEquals(file.lastModified(), encoded.lastModified());
+		assertEquals(cacheDirectory, encoded.getFile().getParentFile());
+		assertEquals(1, cacheDirectory.list().length);
+		assertEquals(CONTENT, decode(encoded));
+
+		// Cleared in-memory cache: existing file reused
+		this.transformer.setCacheLimit(CompressingResourceTransformer.DEFAULT_CACHE_LIMIT);
+		assertEquals(encoded.getFile(), this.chain.transform(this.request, resource).getFile());
+		assertEquals(1, cacheDirectory.list().length);
+	}
+
+	@Test
+	public void cacheDirectoryBoundedByCacheLimit() throws Exception {
+		File cacheDirectory = this.temporaryFolder.newFolder();
+		File otherFile = new File(cacheDirectory, "other.txt");
+		FileCopyUtils.copy(CONTENT.getBytes("UTF-8"), otherFile);
+		this.transformer.setCacheDirectory(cacheDirectory);
+		this.transformer.setCacheLimit(2);
+
+		Resource[] resources = new Resource[3];
+		File[] encodedFiles = new File[3];
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < 3; i++) {
+			File file = this.temporaryFolder.newFile("foo" + i + ".css");
+			FileCopyUtils.copy((CONTENT + i).getBytes("UTF-8"), file);
+			resources[i] = new FileSystemResource(file);
+			encodedFiles[i] = this.chain.transform(this.request, resources[i]).getFile();
+			encodedFiles[i].setLastModified(now - (3 - i) * 10000);
+		}
+
+		assertFalse(encodedFiles[0].exists());
+		assertTrue(encodedFiles[1].exists());
+		assertTrue(encodedFiles[2].exists());
+		assertTrue(otherFile.exists());
+
+		// Evicted file written again
+		Resource encoded = this.chain.transform(this.request, resources[0]);
+		assertEquals(encodedFiles[0], encoded.getFile());
+		assertTrue(encodedFiles[0].exists());
+		assertEquals(CONTENT + 0, decode(encoded));
+		assertEquals(3, cacheDirectory.list().length);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void cacheLimitMustBePositive() {
+		this.transformer.setCacheLimit(0);
+	}
+
+
+	private static Resource createCssResource() throws IOException {
+		return new TransformedResource(new ClassPathResource("test/foo.css", CompressingResourceTransformerTests.class),
+				CONTENT.getBytes("UTF-8"));
+	}
+
+	private static String decode(Resource resource) throws IOException {
+		byte[] content = FileCopyUtils.copyToByteArray(resource.getInputStream());
+		return FileCopyUtils.copyToString(new InputStreamReader(
+				new GZIPInputStream(new ByteArrayInputStream(content)), "UTF-8"));
+	}
+
+}
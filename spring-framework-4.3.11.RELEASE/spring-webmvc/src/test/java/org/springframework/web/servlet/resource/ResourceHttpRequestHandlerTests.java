@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.web.servlet.resource;
 
+import java.io.File;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -28,9 +29,12 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.hamcrest.Matchers;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpMethod;
@@ -39,6 +43,7 @@ import org.springframework.http.MediaType;
 import org.springframework.mock.web.test.MockHttpServletRequest;
 import org.springframework.mock.web.test.MockHttpServletResponse;
 import org.springframework.mock.web.test.MockServletContext;
+import org.springframework.util.FileCopyUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.accept.ContentNegotiationManager;
@@ -65,6 +70,9 @@ public class ResourceHttpRequestHandlerTests {
 
 	private MockHttpServletResponse response;
 
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 
 	@Before
 	public void setUp() throws Exception {
@@ -101,6 +109,23 @@ public class ResourceHttpRequestHandlerTests {
 		assertEquals("h1 { color:red; }", this.response.getContentAsString());
 	}
 
+	@Test
+	public void getResourceWithCompressingResourceTransformer() throws Exception {
+		this.handler.setResourceTransformers(
+				Collections.<ResourceTransformer>singletonList(new CompressingResourceTransformer()));
+		this.handler.setVaryByRequestHeaders("Origin");
+		this.handler.afterPropertiesSet();
+
+		// Not worth encoding, served as is: still varies by "Accept-Encoding"
+		this.request.addHeader("Accept-Encoding", "gzip");
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.css");
+		this.handler.handleRequest(this.request, this.response);
+
+		assertEquals(Arrays.asList("Origin", "Accept-Encoding"), this.response.getHeaders("Vary"));
+		assertNull(this.response.getHeader("Content-Encoding"));
+		assertEquals("h1 { color:red; }", this.response.getContentAsString());
+	}
+
 	@Test
 	public void getResourceHttpHeader() throws Exception {
 		this.request.setMethod("HEAD");
@@ -617,6 +642,88 @@ public class ResourceHttpRequestHandlerTests {
 		assertEquals("max-age=3600", this.response.getHeader("Cache-Control"));
 	}
 
+	@Test
+	public void getResourceWithSendfile() throws Exception {
+		this.handler.setUseSendfile(true);
+		this.request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.css");
+		this.handler.handleRequest(this.request, this.response);
+
+		assertEquals(200, this.response.getStatus());
+		assertEquals("text/css", this.response.getContentType());
+		assertEquals(17, this.response.getContentLength());
+		assertEquals(new ClassPathResource("test/foo.css", getClass()).getFile().getAbsolutePath(),
+				this.request.getAttribute("org.apache.tomcat.sendfile.filename"));
+		assertEquals(0L, this.request.getAttribute("org.apache.tomcat.sendfile.start"));
+		assertEquals(17L, this.request.getAttribute("org.apache.tomcat.sendfile.end"));
+		assertEquals(0, this.response.getContentAsByteArray().length);
+	}
+
+	@Test
+	public void getResourceWithSendfileNotSupported() throws Exception {
+		this.handler.setUseSendfile(true);
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.css");
+		this.handler.handleRequest(this.request, this.response);
+
+		assertNull(this.request.getAttribute("org.apache.tomcat.sendfile.filename"));
+		assertEquals("h1 { color:red; }", this.response.getContentAsString());
+	}
+
+	@Test
+	public void partialContentByteRangeWithSendfile() throws Exception {
+		this.handler.setUseSendfile(true);
+		this.request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		this.request.addHeader("Range", "bytes=4-10000");
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.txt");
+		this.handler.handleRequest(this.request, this.response);
+
+		assertEquals(206, this.response.getStatus());
+		assertEquals("text/plain", this.response.getContentType());
+		assertEquals(6, this.response.getContentLength());
+		assertEquals("bytes 4-9/10", this.response.getHeader("Content-Range"));
+		assertEquals(4L, this.request.getAttribute("org.apache.tomcat.sendfile.start"));
+		assertEquals(10L, this.request.getAttribute("org.apache.tomcat.sendfile.end"));
+		assertEquals(0, this.response.getContentAsByteArray().length);
+	}
+
+	@Test
+	public void getResourceFromContentCache() throws Exception {
+		File folder = this.temporaryFolder.newFolder();
+		File file = new File(folder, "foo.css");
+		FileCopyUtils.copy("h1 { color:red; }".getBytes("UTF-8"), file);
+		long lastModified = file.lastModified();
+
+		this.handler.setLocations(Collections.<Resource>singletonList(new FileSystemResource(folder.getPath() + "/")));
+		this.handler.setResourceResolvers(null);
+		this.handler.setContentCacheLimit(8);
+		this.handler.afterPropertiesSet();
+		this.request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "foo.css");
+		this.handler.handleRequest(this.request, this.response);
+		assertEquals("h1 { color:red; }", this.response.getContentAsString());
+
+		// Same timestamp: served from the cache
+		FileCopyUtils.copy("h2 { color:red; }".getBytes("UTF-8"), file);
+		file.setLastModified(lastModified);
+		this.response = new MockHttpServletResponse();
+		this.handler.handleRequest(this.request, this.response);
+		assertEquals(17, this.response.getContentLength());
+		assertEquals("h1 { color:red; }", this.response.getContentAsString());
+
+		// Modified: content reloaded
+		file.setLastModified(lastModified + 10000);
+		this.response = new MockHttpServletResponse();
+		this.handler.handleRequest(this.request, this.response);
+		assertEquals("h2 { color:red; }", this.response.getContentAsString());
+
+		// Same timestamp but different length: content reloaded
+		FileCopyUtils.copy("h2 { color:blue; }".getBytes("UTF-8"), file);
+		file.setLastModified(lastModified + 10000);
+		this.response = new MockHttpServletResponse();
+		this.handler.handleRequest(this.request, this.response);
+		assertEquals(18, this.response.getContentLength());
+		assertEquals("h2 { color:blue; }", this.response.getContentAsString());
+	}
+
 
 	private long dateHeaderAsLong(String responseHeaderName) throws Exception {
 		return dateFormat.parse(this.response.getHeader(responseHeaderName)).getTime();
@@ -28,6 +28,7 @@ import org.junit.Test;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.util.PrecompiledPathMatcher;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
@@ -169,6 +170,22 @@ public class VersionResourceResolverTests {
 		assertEquals(jsStrategy, this.resolver.getStrategyForPath("bar/foo.js"));
 	}
 
+	@Test
+	public void getStrategyForPathWithPrecompiledPathMatcher() throws Exception {
+		Map<String, VersionStrategy> strategies = new HashMap<>();
+		VersionStrategy jsStrategy = mock(VersionStrategy.class);
+		VersionStrategy catchAllStrategy = mock(VersionStrategy.class);
+		strategies.put("/**", catchAllStrategy);
+		strategies.put("/**/*.js", jsStrategy);
+		this.resolver.setStrategyMap(strategies);
+		this.resolver.setPathMatcher(new PrecompiledPathMatcher());
+
+		assertEquals(catchAllStrategy, this.resolver.getStrategyForPath("foo.css"));
+		assertEquals(catchAllStrategy, this.resolver.getStrategyForPath("foo-js.css"));
+		assertEquals(jsStrategy, this.resolver.getStrategyForPath("foo.js"));
+		assertEquals(jsStrategy, this.resolver.getStrategyForPath("bar/foo.js"));
+	}
+
 	// SPR-13883
 	@Test
 	public void shouldConfigureFixedPrefixAutomatically() throws Exception {